@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.struct.image.ImageFloat32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for updating the tracks in {@link PointTrackerKltPyramid}.  The tracker alternates between two images
+ * which are offset by one pixel so that few tracks are dropped.  Tracks are spawned during setup only.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhPointTrackerKlt {
+
+	@Param({"500","2000"})
+	public int numFeatures;
+
+	int width = 640;
+	int height = 480;
+
+	ImageFloat32 frames[] = new ImageFloat32[2];
+	int frame;
+
+	PointTracker<ImageFloat32> klt;
+	PointTracker<ImageFloat32> klt_MT;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		Random rand = new Random(234);
+
+		ImageFloat32 large = new ImageFloat32(width+1,height+1);
+		ImageMiscOps.fillUniform(large, rand, 0, 200);
+		large = BlurImageOps.gaussian(large,null,-1,2,null);
+
+		frames[0] = large.subimage(0,0,width,height,null).clone();
+		frames[1] = large.subimage(1,1,width+1,height+1,null).clone();
+		frame = 0;
+
+		klt = create(false);
+		klt_MT = create(true);
+	}
+
+	private PointTracker<ImageFloat32> create( boolean concurrent ) {
+		PkltConfig config = new PkltConfig();
+		config.concurrent = concurrent;
+		config.templateRadius = 3;
+		PointTracker<ImageFloat32> tracker = FactoryPointTracker.klt(config,
+				new ConfigGeneralDetector(numFeatures, 3, 0, 0, true), ImageFloat32.class, ImageFloat32.class);
+
+		tracker.process(frames[0]);
+		tracker.spawnTracks();
+		return tracker;
+	}
+
+	@Benchmark
+	public int process() {
+		klt.process(frames[frame = 1-frame]);
+		return klt.getActiveTracks(null).size();
+	}
+
+	@Benchmark
+	public int process_MT() {
+		klt_MT.process(frames[frame = 1-frame]);
+		return klt_MT.getActiveTracks(null).size();
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ConfigAssociateGreedy;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for associating two sets of feature descriptors.  The destination set is a noisy version of
+ * the source set.  After each trial the recall of the approximate nearest-neighbor algorithms is printed,
+ * which is the fraction of the matches found by {@link AssociateGreedy} that they also find.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhAssociate {
+
+	// number of elements in the floating point descriptor, same as SURF
+	static final int DOF = 64;
+	// number of bits in the binary descriptor, same as BRIEF
+	static final int NUM_BITS = 512;
+
+	@Param({"500","2000"})
+	public int numFeatures;
+
+	FastQueue<TupleDesc_F64> srcF64 = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class, false);
+	FastQueue<TupleDesc_F64> dstF64 = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class, false);
+	FastQueue<TupleDesc_F32> srcF32 = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class, false);
+	FastQueue<TupleDesc_F32> dstF32 = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class, false);
+	FastQueue<TupleDesc_B> srcB = new FastQueue<TupleDesc_B>(TupleDesc_B.class, false);
+	FastQueue<TupleDesc_B> dstB = new FastQueue<TupleDesc_B>(TupleDesc_B.class, false);
+
+	AssociateDescription<TupleDesc_F64> greedy;
+	AssociateDescription<TupleDesc_F64> greedyBackwards;
+	AssociateDescription<TupleDesc_F64> greedyRatio;
+	AssociateDescription<TupleDesc_F64> greedy_MT;
+	AssociateDescription<TupleDesc_F64> greedyBackwards_MT;
+	AssociateDescription<TupleDesc_F64> kdtree;
+	AssociateDescription<TupleDesc_F64> kdRandomForest;
+	AssociateDescription<TupleDesc_F64> kdForest;
+	AssociateDescription<TupleDesc_F32> greedyF32;
+	AssociateDescription<TupleDesc_F32> kdForestF32;
+	AssociateDescription<TupleDesc_B> greedyHamming;
+	AssociateDescription<TupleDesc_B> multiIndexHashing;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		srcF64.reset(); dstF64.reset(); srcF32.reset(); dstF32.reset(); srcB.reset(); dstB.reset();
+		for( int i = 0; i < numFeatures; i++ ) {
+			TupleDesc_F64 a = new TupleDesc_F64(DOF);
+			TupleDesc_F64 b = new TupleDesc_F64(DOF);
+			for( int j = 0; j < DOF; j++ ) {
+				a.value[j] = rand.nextDouble();
+				b.value[j] = a.value[j] + rand.nextGaussian()*0.02;
+			}
+			srcF64.add(a);
+			dstF64.add(b);
+
+			TupleDesc_F32 af = new TupleDesc_F32(DOF);
+			TupleDesc_F32 bf = new TupleDesc_F32(DOF);
+			for( int j = 0; j < DOF; j++ ) {
+				af.value[j] = (float)a.value[j];
+				bf.value[j] = (float)b.value[j];
+			}
+			srcF32.add(af);
+			dstF32.add(bf);
+
+			TupleDesc_B c = new TupleDesc_B(NUM_BITS);
+			TupleDesc_B d = new TupleDesc_B(NUM_BITS);
+			for( int j = 0; j < c.data.length; j++ ) {
+				c.data[j] = rand.nextInt();
+				// flip a few bits
+				d.data[j] = c.data[j] ^ (1 << rand.nextInt(32));
+			}
+			srcB.add(c);
+			dstB.add(d);
+		}
+
+		ScoreAssociation<TupleDesc_F64> scoreF64 = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true);
+		ScoreAssociation<TupleDesc_B> scoreB = FactoryAssociation.scoreHamming(TupleDesc_B.class);
+
+		greedy = FactoryAssociation.greedy(scoreF64, Double.MAX_VALUE, false);
+		greedyBackwards = FactoryAssociation.greedy(scoreF64, Double.MAX_VALUE, true);
+		greedyRatio = FactoryAssociation.greedy(scoreF64, new ConfigAssociateGreedy(true, 0.64, Double.MAX_VALUE));
+		greedy_MT = FactoryAssociation.greedy_MT(scoreF64, Double.MAX_VALUE, false);
+		greedyBackwards_MT = FactoryAssociation.greedy_MT(scoreF64, Double.MAX_VALUE, true);
+		kdtree = FactoryAssociation.kdtree(DOF, 500);
+		kdRandomForest = FactoryAssociation.kdRandomForest(DOF, 500, 10, 5, 234);
+		kdForest = FactoryAssociation.kdForest(DOF, 500, 10, 5, 234);
+		greedyF32 = FactoryAssociation.greedy(
+				FactoryAssociation.scoreEuclidean(TupleDesc_F32.class, true), Double.MAX_VALUE, false);
+		kdForestF32 = FactoryAssociation.kdForest_F32(DOF, 500, 10, 5, 234);
+		greedyHamming = FactoryAssociation.greedy(scoreB, Double.MAX_VALUE, false);
+		multiIndexHashing = FactoryAssociation.multiIndexHashing(NUM_BITS, 16, 16, 1, 234);
+	}
+
+	@Benchmark
+	public void greedy() {
+		associate(greedy, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void greedyBackwards() {
+		associate(greedyBackwards, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void greedyRatio() {
+		associate(greedyRatio, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void greedy_MT() {
+		associate(greedy_MT, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void greedyBackwards_MT() {
+		associate(greedyBackwards_MT, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void kdtree() {
+		associate(kdtree, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void kdRandomForest() {
+		associate(kdRandomForest, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void kdForest() {
+		associate(kdForest, srcF64, dstF64);
+	}
+
+	@Benchmark
+	public void kdForest_F32() {
+		associate(kdForestF32, srcF32, dstF32);
+	}
+
+	@Benchmark
+	public void greedyHamming() {
+		associate(greedyHamming, srcB, dstB);
+	}
+
+	@Benchmark
+	public void multiIndexHashing() {
+		associate(multiIndexHashing, srcB, dstB);
+	}
+
+	@TearDown
+	public void printRecall() {
+		System.out.printf("%nRecall compared to greedy: kdtree %.3f kdRandomForest %.3f kdForest %.3f kdForest_F32 %.3f%n",
+				recall(kdtree, greedy, srcF64, dstF64),
+				recall(kdRandomForest, greedy, srcF64, dstF64),
+				recall(kdForest, greedy, srcF64, dstF64),
+				recall(kdForestF32, greedyF32, srcF32, dstF32));
+		System.out.printf("Recall compared to greedy Hamming: multiIndexHashing %.3f%n",
+				recall(multiIndexHashing, greedyHamming, srcB, dstB));
+	}
+
+	/**
+	 * Fraction of the matches found by greedy association which are also found by the approximate algorithm.
+	 * Nearest-neighbor association finds the best source feature for each destination feature, so greedy
+	 * is run with the two sets swapped.
+	 */
+	public static <D> double recall( AssociateDescription<D> approximate , AssociateDescription<D> greedy ,
+									 FastQueue<D> src , FastQueue<D> dst ) {
+		associate(greedy, dst, src);
+		int expected[] = new int[dst.size];
+		Arrays.fill(expected, -1);
+		FastQueue<AssociatedIndex> matches = greedy.getMatches();
+		for( int i = 0; i < matches.size; i++ ) {
+			AssociatedIndex a = matches.get(i);
+			expected[a.src] = a.dst;
+		}
+
+		associate(approximate, src, dst);
+		matches = approximate.getMatches();
+		int found = 0;
+		for( int i = 0; i < matches.size; i++ ) {
+			AssociatedIndex a = matches.get(i);
+			if( expected[a.dst] == a.src )
+				found++;
+		}
+
+		return found/(double)greedy.getMatches().size;
+	}
+
+	private static <D> void associate( AssociateDescription<D> alg , FastQueue<D> src , FastQueue<D> dst ) {
+		alg.setSource(src);
+		alg.setDestination(dst);
+		alg.associate();
+	}
+}
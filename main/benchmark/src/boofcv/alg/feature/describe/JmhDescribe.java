@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.feature.describe.ConfigBrief;
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.describe.DescribeRegionPointBatch;
+import boofcv.alg.feature.UtilFeature;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for describing a set of points with different region descriptors.  Each invocation sets the image
+ * and then describes all the points.  SIFT only supports {@link ImageFloat32} and always processes a floating
+ * point copy of the input image.  The batch variants describe the same points with a single call to
+ * {@link DescribeRegionPointBatch}, which sorts the points and processes them in parallel.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhDescribe {
+
+	static final int width = 640;
+	static final int height = 480;
+	// distance points are from the image border
+	static final int border = 40;
+
+	@Param({"100","1000"})
+	public int numPoints;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageFloat32 inputF32;
+	Point2D_I32 points[];
+
+	// input and output for batch processing
+	List<Point2D_F64> locations = new ArrayList<Point2D_F64>();
+	GrowQueue_F64 scales = new GrowQueue_F64();
+	GrowQueue_B success = new GrowQueue_B();
+	FastQueue descriptions[];
+
+	DescribeRegionPointBatch surfFast;
+	DescribeRegionPointBatch surfStable;
+	DescribeRegionPointBatch brief;
+	DescribeRegionPointBatch pixelNCC;
+	DescribeRegionPointBatch sift;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+		inputF32 = new ImageFloat32(width, height);
+		GeneralizedImageOps.convert(input, inputF32);
+
+		points = new Point2D_I32[numPoints];
+		for( int i = 0; i < numPoints; i++ ) {
+			int x = border + rand.nextInt(width - 2*border);
+			int y = border + rand.nextInt(height - 2*border);
+			points[i] = new Point2D_I32(x, y);
+		}
+
+		locations.clear();
+		scales.reset();
+		for( int i = 0; i < numPoints; i++ ) {
+			locations.add(new Point2D_F64(points[i].x, points[i].y));
+			scales.add(2);
+		}
+
+		surfFast = FactoryDescribeRegionPoint.surfFast(null, type);
+		surfStable = FactoryDescribeRegionPoint.surfStable(null, type);
+		brief = (DescribeRegionPointBatch)FactoryDescribeRegionPoint.brief(new ConfigBrief(true), type);
+		pixelNCC = FactoryDescribeRegionPoint.pixelNCC(11, 11, type);
+		sift = FactoryDescribeRegionPoint.sift(null, null);
+
+		DescribeRegionPointBatch all[] = new DescribeRegionPointBatch[]{surfFast,surfStable,brief,pixelNCC,sift};
+		descriptions = new FastQueue[all.length];
+		for( int i = 0; i < all.length; i++ ) {
+			descriptions[i] = UtilFeature.createQueue(all[i], numPoints);
+		}
+	}
+
+	@Benchmark
+	public void surfFast() {
+		describe(surfFast, input);
+	}
+
+	@Benchmark
+	public void surfStable() {
+		describe(surfStable, input);
+	}
+
+	@Benchmark
+	public void brief() {
+		describe(brief, input);
+	}
+
+	@Benchmark
+	public void pixelNCC() {
+		describe(pixelNCC, input);
+	}
+
+	@Benchmark
+	public void sift() {
+		describe(sift, inputF32);
+	}
+
+	@Benchmark
+	public void surfFastBatch() {
+		describeBatch(surfFast, input, descriptions[0]);
+	}
+
+	@Benchmark
+	public void surfStableBatch() {
+		describeBatch(surfStable, input, descriptions[1]);
+	}
+
+	@Benchmark
+	public void briefBatch() {
+		describeBatch(brief, input, descriptions[2]);
+	}
+
+	@Benchmark
+	public void pixelNCCBatch() {
+		describeBatch(pixelNCC, input, descriptions[3]);
+	}
+
+	@Benchmark
+	public void siftBatch() {
+		describeBatch(sift, inputF32, descriptions[4]);
+	}
+
+	private void describeBatch( DescribeRegionPointBatch alg , ImageSingleBand image , FastQueue descriptions ) {
+		alg.setImage(image);
+		alg.process(locations, null, scales, descriptions, success);
+	}
+
+	private void describe( DescribeRegionPoint alg , ImageSingleBand image ) {
+		alg.setImage(image);
+		TupleDesc desc = alg.createDescription();
+		for( int i = 0; i < points.length; i++ ) {
+			Point2D_I32 p = points[i];
+			alg.process(p.x, p.y, 0, 2, desc);
+		}
+	}
+}
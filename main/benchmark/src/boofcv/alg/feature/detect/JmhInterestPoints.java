@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect;
+
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
+import boofcv.abst.feature.detect.interest.InterestPointDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerIntensity;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.feature.detect.interest.FactoryInterestPoint;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for corner intensity and interest point detectors.  SIFT only supports {@link ImageFloat32} and
+ * always processes a floating point copy of the input image.  SIFT detection with descriptors is included
+ * since the concurrent implementation also describes features in parallel.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhInterestPoints {
+
+	@Param({"320","640","1280"})
+	public int width;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageFloat32 inputF32;
+	ImageSingleBand derivX, derivY;
+	ImageFloat32 intensity;
+
+	FastCornerIntensity fast9;
+	FastCornerIntensity fast12;
+	GeneralFeatureDetector harris;
+	GeneralFeatureDetector shiTomasi;
+	InterestPointDetector fastHessian;
+	InterestPointDetector fastHessian_MT;
+	InterestPointDetector sift;
+	InterestPointDetector sift_MT;
+	DetectDescribePoint siftDetectDescribe;
+	DetectDescribePoint siftDetectDescribe_MT;
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+		Class derivType = GImageDerivativeOps.getDerivativeType(type);
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 255);
+		inputF32 = new ImageFloat32(width, height);
+		GeneralizedImageOps.convert(input, inputF32);
+
+		derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		GImageDerivativeOps.sobel(input, derivX, derivY, BorderType.EXTENDED);
+		intensity = new ImageFloat32(width, height);
+
+		fast9 = FactoryIntensityPointAlg.fast(60, 9, type);
+		fast12 = FactoryIntensityPointAlg.fast(60, 12, type);
+		harris = FactoryDetectPoint.createHarris(new ConfigGeneralDetector(1000, 2, 1), false, derivType);
+		shiTomasi = FactoryDetectPoint.createShiTomasi(new ConfigGeneralDetector(1000, 2, 1), false, derivType);
+		fastHessian = FactoryInterestPoint.fastHessian(new ConfigFastHessian(1, 2, 200, 1, 9, 4, 4));
+		ConfigFastHessian configConcurrent = new ConfigFastHessian(1, 2, 200, 1, 9, 4, 4);
+		configConcurrent.concurrent = true;
+		fastHessian_MT = FactoryInterestPoint.fastHessian(configConcurrent);
+		sift = FactoryInterestPoint.siftDetector(null, null);
+		ConfigSiftDetector configSift = new ConfigSiftDetector();
+		configSift.concurrent = true;
+		sift_MT = FactoryInterestPoint.siftDetector(null, configSift);
+		siftDetectDescribe = FactoryDetectDescribe.sift(null, null, null, null);
+		siftDetectDescribe_MT = FactoryDetectDescribe.sift(null, configSift, null, null);
+	}
+
+	@Benchmark
+	public void fast9() {
+		fast9.process(input, intensity);
+	}
+
+	@Benchmark
+	public void fast12() {
+		fast12.process(input, intensity);
+	}
+
+	@Benchmark
+	public void harris() {
+		harris.process(input, derivX, derivY, null, null, null);
+	}
+
+	@Benchmark
+	public void shiTomasi() {
+		shiTomasi.process(input, derivX, derivY, null, null, null);
+	}
+
+	@Benchmark
+	public void fastHessian() {
+		fastHessian.detect(input);
+	}
+
+	@Benchmark
+	public void fastHessian_MT() {
+		fastHessian_MT.detect(input);
+	}
+
+	@Benchmark
+	public void sift() {
+		sift.detect(inputF32);
+	}
+
+	@Benchmark
+	public void sift_MT() {
+		sift_MT.detect(inputF32);
+	}
+
+	@Benchmark
+	public void siftDetectDescribe() {
+		siftDetectDescribe.detect(inputF32);
+	}
+
+	@Benchmark
+	public void siftDetectDescribe_MT() {
+		siftDetectDescribe_MT.detect(inputF32);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.feature.disparity.impl.*;
+import boofcv.alg.feature.disparity.sgm.SgmCostCensus;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.census.CensusType;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for dense stereo disparity algorithms.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhDisparity {
+
+	static final int min = 0;
+	static final int radiusX = 2;
+	static final int radiusY = 2;
+
+	@Param({"320","640"})
+	public int width;
+
+	@Param({"20","60"})
+	public int maxDisparity;
+
+	ImageUInt8 left, right;
+	ImageFloat32 left_F32, right_F32;
+
+	ImageUInt8 outU8;
+	ImageFloat32 out_F32;
+
+	ImplDisparityScoreSadRect_U8<ImageUInt8> sad_U8;
+	ImplDisparityScoreSadRectFive_U8<ImageUInt8> sadFive_U8;
+	ImplDisparityScoreSadRectColumn_U8<ImageUInt8> sadColumn_U8;
+	ImplDisparityScoreSadRectFiveColumn_U8<ImageUInt8> sadFiveColumn_U8;
+	ImplDisparityScoreSadRect_F32<ImageUInt8> sad_F32;
+	ImplDisparityScoreSadRect_U8<ImageFloat32> sadSubpixel;
+	StereoDisparity<ImageUInt8,ImageUInt8> census5x5;
+	StereoDisparity<ImageUInt8,ImageUInt8> census7x9;
+	SgmStereoDisparity<ImageUInt8> sgmCensus;
+	SgmStereoDisparity<ImageUInt8> sgmStreaming;
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Random rand = new Random(234234);
+
+		left = new ImageUInt8(width, height);
+		right = new ImageUInt8(width, height);
+		left_F32 = new ImageFloat32(width, height);
+		right_F32 = new ImageFloat32(width, height);
+		outU8 = new ImageUInt8(width, height);
+		out_F32 = new ImageFloat32(width, height);
+
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		GImageMiscOps.fillUniform(right, rand, 0, 30);
+		GeneralizedImageOps.convert(left, left_F32);
+		GeneralizedImageOps.convert(right, right_F32);
+
+		sad_U8 = new ImplDisparityScoreSadRect_U8<ImageUInt8>(min, maxDisparity, radiusX, radiusY,
+				new ImplSelectRectStandard_S32_U8(250, 2, 0.1));
+		sadFive_U8 = new ImplDisparityScoreSadRectFive_U8<ImageUInt8>(min, maxDisparity, radiusX, radiusY,
+				new ImplSelectRectStandard_S32_U8(250, 2, 0.1));
+		sadColumn_U8 = new ImplDisparityScoreSadRectColumn_U8<ImageUInt8>(min, maxDisparity, radiusX, radiusY,
+				new ImplSelectRectStandard_S32_U8(250, 2, 0.1));
+		sadFiveColumn_U8 = new ImplDisparityScoreSadRectFiveColumn_U8<ImageUInt8>(min, maxDisparity, radiusX, radiusY,
+				new ImplSelectRectStandard_S32_U8(250, 2, 0.1));
+		sad_F32 = new ImplDisparityScoreSadRect_F32<ImageUInt8>(min, maxDisparity, radiusX, radiusY,
+				new ImplSelectRectStandard_F32_U8(250, 2, 0.1));
+		sadSubpixel = new ImplDisparityScoreSadRect_U8<ImageFloat32>(min, maxDisparity, radiusX, radiusY,
+				new SelectRectSubpixel.S32_F32(250, 2, 0.1));
+		census5x5 = FactoryStereoDisparity.regionCensusWta(CensusType.BLOCK_5_5, min, maxDisparity,
+				radiusX, radiusY, 10, 2, 0.1);
+		census7x9 = FactoryStereoDisparity.regionCensusWta(CensusType.BLOCK_7_9, min, maxDisparity,
+				radiusX, radiusY, 25, 2, 0.1);
+		sgmCensus = new SgmStereoDisparity<ImageUInt8>(new SgmCostCensus(2), min, maxDisparity, 3, 16, 8, false, 1, 0.05);
+		sgmStreaming = new SgmStereoDisparity<ImageUInt8>(new SgmCostCensus(2), min, maxDisparity, 3, 16, 8, true, 1, 0.05);
+	}
+
+	@Benchmark
+	public void sad_U8() {
+		sad_U8.process(left, right, outU8);
+	}
+
+	@Benchmark
+	public void sadFive_U8() {
+		sadFive_U8.process(left, right, outU8);
+	}
+
+	@Benchmark
+	public void sadColumn_U8() {
+		sadColumn_U8.process(left, right, outU8);
+	}
+
+	@Benchmark
+	public void sadFiveColumn_U8() {
+		sadFiveColumn_U8.process(left, right, outU8);
+	}
+
+	@Benchmark
+	public void sad_F32() {
+		sad_F32.process(left_F32, right_F32, outU8);
+	}
+
+	@Benchmark
+	public void sadSubpixel() {
+		sadSubpixel.process(left, right, out_F32);
+	}
+
+	@Benchmark
+	public void census5x5() {
+		census5x5.process(left, right);
+	}
+
+	@Benchmark
+	public void census7x9() {
+		census7x9.process(left, right);
+	}
+
+	@Benchmark
+	public void sgmCensus() {
+		sgmCensus.process(left, right, outU8);
+	}
+
+	@Benchmark
+	public void sgmStreaming() {
+		sgmStreaming.process(left, right, outU8);
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.blur.GBlurImageOps_MT;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for convolution and blur operations across different image sizes, types, and kernel sizes.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhConvolve {
+
+	@Param({"320","640","1280"})
+	public int width;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"1","3","5"})
+	public int radius;
+
+	Kernel1D kernel;
+	ImageSingleBand input;
+	// output of non-normalized convolution
+	ImageSingleBand outputDeriv;
+	// output of normalized convolution and blur
+	ImageSingleBand output;
+	ImageSingleBand storage;
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(type, 1);
+		kernel = FactoryKernelGaussian.gaussian(kernelType, -1, radius);
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		output = GeneralizedImageOps.createSingleBand(type, width, height);
+		storage = GeneralizedImageOps.createSingleBand(type, width, height);
+		if( type == ImageUInt8.class )
+			outputDeriv = new ImageSInt16(width, height);
+		else
+			outputDeriv = GeneralizedImageOps.createSingleBand(type, width, height);
+
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+	}
+
+	@Benchmark
+	public void horizontal() {
+		GConvolveImageOps.horizontal(kernel, input, outputDeriv);
+	}
+
+	@Benchmark
+	public void vertical() {
+		GConvolveImageOps.vertical(kernel, input, outputDeriv);
+	}
+
+	@Benchmark
+	public void horizontalNormalized() {
+		GConvolveImageOps.horizontalNormalized(kernel, input, output);
+	}
+
+	@Benchmark
+	public void verticalNormalized() {
+		GConvolveImageOps.verticalNormalized(kernel, input, output);
+	}
+
+	@Benchmark
+	public void blurGaussian() {
+		GBlurImageOps.gaussian(input, output, -1, radius, storage);
+	}
+
+	@Benchmark
+	public void blurGaussian_MT() {
+		GBlurImageOps_MT.gaussian(input, output, -1, radius, storage);
+	}
+
+	@Benchmark
+	public void blurMean() {
+		GBlurImageOps.mean(input, output, radius, storage);
+	}
+
+	@Benchmark
+	public void blurMean_MT() {
+		GBlurImageOps_MT.mean(input, output, radius, storage);
+	}
+
+	@Benchmark
+	public void blurMedian() {
+		GBlurImageOps.median(input, output, radius);
+	}
+
+	@Benchmark
+	public void blurMedian_MT() {
+		GBlurImageOps_MT.median(input, output, radius);
+	}
+}
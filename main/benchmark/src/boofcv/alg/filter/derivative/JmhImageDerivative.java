@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.derivative;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for image gradient and Hessian operators.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhImageDerivative {
+
+	@Param({"320","640","1280"})
+	public int width;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageSingleBand derivX, derivY;
+	ImageSingleBand derivXX, derivYY, derivXY;
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+		Class derivType = GImageDerivativeOps.getDerivativeType(type);
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		derivXX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		derivYY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		derivXY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+	}
+
+	@Benchmark
+	public void sobel() {
+		GImageDerivativeOps.sobel(input, derivX, derivY, BorderType.EXTENDED);
+	}
+
+	@Benchmark
+	public void sobel_skip() {
+		GImageDerivativeOps.sobel(input, derivX, derivY, BorderType.SKIP);
+	}
+
+	@Benchmark
+	public void prewitt() {
+		GImageDerivativeOps.prewitt(input, derivX, derivY, BorderType.EXTENDED);
+	}
+
+	@Benchmark
+	public void three() {
+		GImageDerivativeOps.three(input, derivX, derivY, BorderType.EXTENDED);
+	}
+
+	@Benchmark
+	public void two() {
+		GImageDerivativeOps.two(input, derivX, derivY, BorderType.EXTENDED);
+	}
+
+	@Benchmark
+	public void hessianSobel() {
+		GImageDerivativeOps.hessianSobel(input, derivXX, derivYY, derivXY, BorderType.EXTENDED);
+	}
+
+	@Benchmark
+	public void laplace() {
+		GImageDerivativeOps.laplace(input, derivXX);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.ii;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for computing integral images and convolving kernels across them.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhIntegralImage {
+
+	@Param({"320","640","1280"})
+	public int width;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageSingleBand integral;
+	ImageSingleBand output;
+
+	IntegralKernel kernelXX = DerivativeIntegralImage.kernelDerivXX(9, null);
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+		Class integralType = GIntegralImageOps.getIntegralType(type);
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		integral = GeneralizedImageOps.createSingleBand(integralType, width, height);
+		output = GeneralizedImageOps.createSingleBand(integralType, width, height);
+
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+		GIntegralImageOps.transform(input, integral);
+	}
+
+	@Benchmark
+	public void transform() {
+		GIntegralImageOps.transform(input, integral);
+	}
+
+	@Benchmark
+	public void convolveDerivXX() {
+		GIntegralImageOps.convolve(integral, kernelXX, output);
+	}
+}
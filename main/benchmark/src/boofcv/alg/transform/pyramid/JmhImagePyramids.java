@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows runtime performance difference of each type of image pyramid given similar configurations.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class JmhImagePyramids {
+
+	@Param({"320","640","1280"})
+	public int width;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	int scalesD[] = new int[]{1,2,4,8};
+	double scalesF[] = new double[]{1,2,4,8};
+
+	ImageSingleBand input;
+
+	PyramidDiscrete discrete;
+	PyramidDiscrete discrete_MT;
+	PyramidFloat scaleSpace;
+	PyramidFloat scaleSpace_MT;
+
+	@Setup
+	public void setup() {
+		int height = width*3/4;
+		Class type = ImageDataType.typeToSingleClass(ImageDataType.valueOf(imageType));
+
+		input = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+
+		discrete = FactoryPyramid.discreteGaussian(scalesD, -1, 2, true, type);
+		discrete_MT = FactoryPyramid.discreteGaussian_MT(scalesD, -1, 2, true, type);
+
+		double sigmas[] = new double[]{1,1,1,1};
+		scaleSpace = FactoryPyramid.floatGaussian(scalesF, sigmas, type);
+		scaleSpace_MT = FactoryPyramid.floatGaussian_MT(scalesF, sigmas, type);
+	}
+
+	@Benchmark
+	public void discrete() {
+		discrete.process(input);
+	}
+
+	@Benchmark
+	public void discrete_MT() {
+		discrete_MT.process(input);
+	}
+
+	@Benchmark
+	public void floatGaussian() {
+		scaleSpace.process(input);
+	}
+
+	@Benchmark
+	public void floatGaussian_MT() {
+		scaleSpace_MT.process(input);
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.impl.ImplDisparityScoreSadRect_U8;
+import boofcv.alg.feature.disparity.impl.ImplSelectRectStandard_S32_U8;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key operations whose performance is tracked against the baseline in {@link PerformanceBaseline}.  Image size
+ * and configurations are fixed so that results can be compared between releases.  The name of each
+ * benchmark method is the name of the operation in the baseline file.
+ *
+ * @see RunBaselineComparison
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2)
+@State(Scope.Benchmark)
+public class JmhBaselineOperations {
+
+	static final int width = 640;
+	static final int height = 480;
+	static final int numDescribe = 500;
+
+	ImageUInt8 input_U8 = new ImageUInt8(width,height);
+	ImageFloat32 input_F32 = new ImageFloat32(width,height);
+	ImageUInt8 right_U8 = new ImageUInt8(width,height);
+
+	ImageSInt16 derivX_S16 = new ImageSInt16(width,height);
+	ImageSInt16 derivY_S16 = new ImageSInt16(width,height);
+	ImageFloat32 derivX_F32 = new ImageFloat32(width,height);
+	ImageFloat32 derivY_F32 = new ImageFloat32(width,height);
+
+	ImageSInt32 integral_S32 = new ImageSInt32(width,height);
+	ImageFloat32 integral_F32 = new ImageFloat32(width,height);
+
+	ImageUInt8 disparity = new ImageUInt8(width,height);
+
+	FastHessianFeatureDetector<ImageFloat32> fastHessian;
+	DescribePointSurf<ImageFloat32> surf;
+	SurfFeature surfDesc;
+	double locations[] = new double[numDescribe*2];
+
+	DisparityScoreSadRect<ImageUInt8,ImageUInt8> sadRect;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		ImageMiscOps.fillUniform(input_U8, rand, 0, 255);
+		ImageMiscOps.fillUniform(right_U8, rand, 0, 255);
+		ImageMiscOps.fillUniform(input_F32, rand, 0, 255);
+		IntegralImageOps.transform(input_F32, integral_F32);
+
+		fastHessian = FactoryInterestPointAlgs.fastHessian(null);
+		surf = FactoryDescribePointAlgs.surfSpeed(null, ImageFloat32.class);
+		surfDesc = surf.createDescription();
+		for( int i = 0; i < numDescribe; i++ ) {
+			locations[i*2] = 40 + rand.nextDouble()*(width-80);
+			locations[i*2+1] = 40 + rand.nextDouble()*(height-80);
+		}
+
+		sadRect = new ImplDisparityScoreSadRect_U8<ImageUInt8>(0, 60, 2, 2,
+				new ImplSelectRectStandard_S32_U8(-1, 2, 0.1));
+	}
+
+	@Benchmark
+	public void gradientSobel_U8() {
+		GradientSobel.process(input_U8, derivX_S16, derivY_S16, null);
+	}
+
+	@Benchmark
+	public void gradientSobel_F32() {
+		GradientSobel.process(input_F32, derivX_F32, derivY_F32, null);
+	}
+
+	@Benchmark
+	public void integralImage_U8() {
+		IntegralImageOps.transform(input_U8, integral_S32);
+	}
+
+	@Benchmark
+	public void integralImage_F32() {
+		IntegralImageOps.transform(input_F32, integral_F32);
+	}
+
+	@Benchmark
+	public void fastHessianDetect() {
+		fastHessian.detect(integral_F32);
+	}
+
+	@Benchmark
+	public void surfDescribe() {
+		surf.setImage(integral_F32);
+		for( int i = 0; i < numDescribe; i++ ) {
+			surf.describe(locations[i*2], locations[i*2+1], 0, 2, surfDesc);
+		}
+	}
+
+	@Benchmark
+	public void disparitySadRect() {
+		sadRect.process(input_U8, right_U8, disparity);
+	}
+}
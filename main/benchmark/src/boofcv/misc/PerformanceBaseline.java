@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Baseline of how long key operations take.  Used to detect performance regressions between releases.  The
+ * baseline is stored in a text file which is under version control.  Lines starting with '#' are comments.
+ * Each operation is on its own line and has the following format:
+ * </p>
+ * <pre>
+ * name time [threshold]
+ * </pre>
+ * <p>
+ * where 'name' is the name of the operation, 'time' is the average time per operation in milliseconds, and
+ * 'threshold' is the maximum allowed increase in time as a percentage.  If the threshold is omitted then
+ * the default threshold is used.  The default threshold is specified on a line with the following format:
+ * </p>
+ * <pre>
+ * default_threshold value
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class PerformanceBaseline {
+
+	public static final String DEFAULT_THRESHOLD = "default_threshold";
+
+	// threshold in percent used when an operation does not specify one
+	double defaultThreshold = 10;
+
+	// list of operations in the baseline
+	List<Operation> operations = new ArrayList<Operation>();
+
+	/**
+	 * Reads a baseline from a file
+	 */
+	public static PerformanceBaseline load( String fileName ) throws IOException {
+		Reader reader = new FileReader(fileName);
+		try {
+			return load(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Reads a baseline from the reader
+	 */
+	public static PerformanceBaseline load( Reader reader ) throws IOException {
+		PerformanceBaseline ret = new PerformanceBaseline();
+
+		BufferedReader input = new BufferedReader(reader);
+		String line;
+		int lineNumber = 0;
+		while( (line = input.readLine()) != null ) {
+			lineNumber++;
+			line = line.trim();
+			if( line.length() == 0 || line.charAt(0) == '#' )
+				continue;
+
+			String words[] = line.split("\\s+");
+			try {
+				if( words[0].equals(DEFAULT_THRESHOLD) ) {
+					if( words.length != 2 )
+						throw new IllegalArgumentException("Expected a single value on line "+lineNumber);
+					ret.defaultThreshold = Double.parseDouble(words[1]);
+				} else if( words.length == 2 ) {
+					ret.add(words[0], Double.parseDouble(words[1]), Double.NaN);
+				} else if( words.length == 3 ) {
+					ret.add(words[0], Double.parseDouble(words[1]), Double.parseDouble(words[2]));
+				} else {
+					throw new IllegalArgumentException("Unexpected number of words on line "+lineNumber);
+				}
+			} catch( NumberFormatException e ) {
+				throw new IllegalArgumentException("Bad number on line "+lineNumber+": "+line);
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Writes the baseline to a file
+	 */
+	public void save( String fileName ) throws IOException {
+		Writer writer = new FileWriter(fileName);
+		try {
+			save(writer);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes the baseline in the format read by {@link #load(Reader)}
+	 */
+	public void save( Writer writer ) throws IOException {
+		PrintWriter out = new PrintWriter(writer);
+		out.println("# BoofCV performance baseline.  See PerformanceBaseline for a description of the format.");
+		out.println("# Regenerate on the reference machine with RunBaselineComparison --update");
+		out.println("# name time(ms/op) [threshold(%)]");
+		out.println(DEFAULT_THRESHOLD+" "+defaultThreshold);
+		for( Operation o : operations ) {
+			if( Double.isNaN(o.threshold) )
+				out.println(o.name+" "+o.time);
+			else
+				out.println(o.name+" "+o.time+" "+o.threshold);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Adds a new operation or replaces the time of an existing one.  The threshold of an existing operation
+	 * is only replaced if one is specified.
+	 *
+	 * @param name Name of the operation
+	 * @param time Average time per operation in milliseconds
+	 * @param threshold Allowed increase in time in percent.  NaN to use the default.
+	 */
+	public void add( String name , double time , double threshold ) {
+		Operation o = lookup(name);
+		if( o == null ) {
+			o = new Operation();
+			o.name = name;
+			o.threshold = threshold;
+			operations.add(o);
+		} else if( !Double.isNaN(threshold) ) {
+			o.threshold = threshold;
+		}
+		o.time = time;
+	}
+
+	/**
+	 * Returns the operation with the specified name or null if it is not in the baseline
+	 */
+	public Operation lookup( String name ) {
+		for( Operation o : operations ) {
+			if( o.name.equals(name) )
+				return o;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the threshold which is applied to the operation
+	 */
+	public double getThreshold( Operation o ) {
+		return Double.isNaN(o.threshold) ? defaultThreshold : o.threshold;
+	}
+
+	public double getDefaultThreshold() {
+		return defaultThreshold;
+	}
+
+	public void setDefaultThreshold(double defaultThreshold) {
+		this.defaultThreshold = defaultThreshold;
+	}
+
+	public List<Operation> getOperations() {
+		return operations;
+	}
+
+	/**
+	 * Baseline performance of a single operation
+	 */
+	public static class Operation {
+		// name of the operation
+		public String name;
+		// average time per operation in milliseconds
+		public double time;
+		// allowed increase in time in percent.  NaN if the default is used
+		public double threshold;
+	}
+}
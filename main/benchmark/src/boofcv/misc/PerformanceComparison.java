@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Compares measured performance against a {@link PerformanceBaseline} and creates a report sorted by the
+ * worst regressions.  The comparison fails if any operation regressed past its threshold or if an operation
+ * in the baseline was not measured, e.g. because its benchmark was renamed or removed.
+ *
+ * @author Peter Abeles
+ */
+public class PerformanceComparison {
+
+	// results of the most recent comparison.  Sorted from worst to best
+	List<Result> results = new ArrayList<Result>();
+
+	// operations which were measured but are not in the baseline
+	List<String> unknown = new ArrayList<String>();
+
+	/**
+	 * Compares the measured times against the baseline.
+	 *
+	 * @param baseline Baseline performance
+	 * @param measured Average time in milliseconds of each operation which was measured
+	 */
+	public void compare( PerformanceBaseline baseline , Map<String,Double> measured ) {
+		results.clear();
+		unknown.clear();
+
+		for( PerformanceBaseline.Operation o : baseline.getOperations() ) {
+			Result r = new Result();
+			r.name = o.name;
+			r.baseline = o.time;
+			r.threshold = baseline.getThreshold(o);
+
+			Double time = measured.get(o.name);
+			if( time == null ) {
+				r.measured = Double.NaN;
+				r.change = Double.NaN;
+			} else {
+				r.measured = time;
+				r.change = 100.0*(time - o.time)/o.time;
+			}
+			results.add(r);
+		}
+
+		for( String name : measured.keySet() ) {
+			if( baseline.lookup(name) == null )
+				unknown.add(name);
+		}
+		Collections.sort(unknown);
+
+		// operations which were not measured are placed at the end
+		Collections.sort(results,new Comparator<Result>() {
+			@Override
+			public int compare(Result a, Result b) {
+				if( Double.isNaN(a.change) )
+					return Double.isNaN(b.change) ? 0 : 1;
+				else if( Double.isNaN(b.change) )
+					return -1;
+				return Double.compare(b.change,a.change);
+			}
+		});
+	}
+
+	/**
+	 * Returns a list of all the operations which regressed past their threshold
+	 */
+	public List<Result> getRegressions() {
+		List<Result> ret = new ArrayList<Result>();
+		for( Result r : results ) {
+			if( r.isRegression() )
+				ret.add(r);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns a list of all the operations which are in the baseline but were not measured
+	 */
+	public List<Result> getMissing() {
+		List<Result> ret = new ArrayList<Result>();
+		for( Result r : results ) {
+			if( r.isMissing() )
+				ret.add(r);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns true if an operation regressed or was not measured
+	 */
+	public boolean isFailed() {
+		for( Result r : results ) {
+			if( r.isMissing() || r.isRegression() )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Prints a table with all the results, starting with the worst regression
+	 */
+	public void printReport( PrintStream out ) {
+		out.println("Performance compared to baseline.  Positive change is slower.");
+		out.println();
+		out.printf("%-30s %12s %12s %9s %9s  %s\n","operation","baseline ms","measured ms","change %","limit %","status");
+		for( Result r : results ) {
+			String status;
+			if( r.isMissing() )
+				status = "NOT MEASURED";
+			else if( r.isRegression() )
+				status = "REGRESSION";
+			else
+				status = "ok";
+			out.printf("%-30s %12.4f %12.4f %9.1f %9.1f  %s\n",
+					r.name, r.baseline, r.measured, r.change, r.threshold, status);
+		}
+
+		if( unknown.size() > 0 ) {
+			out.println();
+			out.println("Not in baseline:");
+			for( String name : unknown ) {
+				out.println("  "+name);
+			}
+		}
+
+		List<Result> regressions = getRegressions();
+		out.println();
+		if( regressions.isEmpty() ) {
+			out.println("No regressions");
+		} else {
+			out.println("Regressions: "+regressions.size());
+			for( Result r : regressions ) {
+				out.printf("  %-30s %+.1f%%\n",r.name,r.change);
+			}
+		}
+
+		List<Result> missing = getMissing();
+		if( !missing.isEmpty() ) {
+			out.println();
+			out.println("Not measured: "+missing.size());
+			for( Result r : missing ) {
+				out.println("  "+r.name);
+			}
+		}
+	}
+
+	public List<Result> getResults() {
+		return results;
+	}
+
+	public List<String> getUnknown() {
+		return unknown;
+	}
+
+	/**
+	 * Comparison of a single operation
+	 */
+	public static class Result {
+		public String name;
+		// time in the baseline
+		public double baseline;
+		// measured time.  NaN if not measured
+		public double measured;
+		// change in time as a percentage of the baseline.  NaN if not measured
+		public double change;
+		// maximum allowed change
+		public double threshold;
+
+		public boolean isRegression() {
+			return !Double.isNaN(change) && change > threshold;
+		}
+
+		public boolean isMissing() {
+			return Double.isNaN(measured);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Runs the benchmarks in {@link JmhBaselineOperations} and compares the results against a
+ * {@link PerformanceBaseline}.  A report is printed with the worst regressions first.  The process exits
+ * with a status of 1 if any operation regressed past its threshold, an operation in the baseline was not
+ * measured, or the baseline is empty, which causes the build to fail.
+ * </p>
+ *
+ * <p>
+ * Usage: RunBaselineComparison baseline_file [--update]<br>
+ * --update = Instead of comparing, save the measured times in the baseline file.  Thresholds are kept.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RunBaselineComparison {
+
+	public static void main( String args[] ) throws IOException, RunnerException {
+		if( args.length < 1 || args.length > 2 || (args.length == 2 && !args[1].equals("--update")) ) {
+			System.err.println("Usage: RunBaselineComparison baseline_file [--update]");
+			System.exit(2);
+		}
+
+		String fileName = args[0];
+		boolean update = args.length == 2;
+
+		PerformanceBaseline baseline = PerformanceBaseline.load(fileName);
+		if( !update && baseline.getOperations().isEmpty() ) {
+			System.err.println("Baseline "+fileName+" has no operations.  Create it on the reference machine with --update");
+			System.exit(1);
+		}
+
+		Map<String,Double> measured = measure();
+
+		if( update ) {
+			for( String name : measured.keySet() ) {
+				baseline.add(name, measured.get(name), Double.NaN);
+			}
+			baseline.save(fileName);
+			System.out.println("Updated baseline "+fileName);
+		} else {
+			PerformanceComparison comparison = new PerformanceComparison();
+			comparison.compare(baseline, measured);
+			comparison.printReport(System.out);
+
+			if( comparison.isFailed() )
+				System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs the benchmarks and returns the average time of each operation in milliseconds.  JSON results are
+	 * also saved so that they can be archived.
+	 */
+	public static Map<String,Double> measure() throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(JmhBaselineOperations.class.getName()+".*")
+				.resultFormat(ResultFormatType.JSON)
+				.result("baseline_measured.json")
+				.build();
+
+		Collection<RunResult> results = new Runner(opt).run();
+
+		Map<String,Double> ret = new HashMap<String,Double>();
+		for( RunResult r : results ) {
+			String benchmark = r.getParams().getBenchmark();
+			String name = benchmark.substring(benchmark.lastIndexOf('.')+1);
+			ret.put(name, r.getPrimaryResult().getScore());
+		}
+		return ret;
+	}
+}
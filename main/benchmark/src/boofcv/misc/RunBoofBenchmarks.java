@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>
+ * Runs the JMH benchmarks and saves the results in a JSON file so that different releases can be compared
+ * against each other.
+ * </p>
+ *
+ * <p>
+ * Usage: RunBoofBenchmarks [regex] [output file]<br>
+ * regex = Only benchmarks which match are run.  Default is all of them.<br>
+ * output file = Where the JSON results are saved.  Default is {@link #DEFAULT_OUTPUT}.<br>
+ * To override JMH options, such as the number of forks or iterations, run the jar's classes with
+ * org.openjdk.jmh.Main instead.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RunBoofBenchmarks {
+
+	public static final String DEFAULT_OUTPUT = "boofcv_benchmarks.json";
+
+	public static void main( String args[] ) throws RunnerException {
+		String regex = args.length > 0 ? args[0] : "boofcv\\..*Jmh.*";
+		String output = args.length > 1 ? args[1] : DEFAULT_OUTPUT;
+
+		Options opt = new OptionsBuilder()
+				.include(regex)
+				.resultFormat(ResultFormatType.JSON)
+				.result(output)
+				.build();
+
+		new Runner(opt).run();
+
+		System.out.println("Results saved to "+output);
+	}
+}
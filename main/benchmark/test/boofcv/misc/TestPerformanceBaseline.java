@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPerformanceBaseline {
+
+	@Test
+	public void load() throws IOException {
+		String text = "# comment\n" +
+				"\n" +
+				"default_threshold 12.5\n" +
+				"opA 1.5\n" +
+				"  opB   20 30\n";
+
+		PerformanceBaseline alg = PerformanceBaseline.load(new StringReader(text));
+
+		assertEquals(12.5, alg.getDefaultThreshold(), 1e-8);
+		assertEquals(2, alg.getOperations().size());
+
+		PerformanceBaseline.Operation a = alg.lookup("opA");
+		PerformanceBaseline.Operation b = alg.lookup("opB");
+
+		assertEquals(1.5, a.time, 1e-8);
+		assertTrue(Double.isNaN(a.threshold));
+		assertEquals(12.5, alg.getThreshold(a), 1e-8);
+		assertEquals(20, b.time, 1e-8);
+		assertEquals(30, alg.getThreshold(b), 1e-8);
+		assertNull(alg.lookup("opC"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void load_badNumber() throws IOException {
+		PerformanceBaseline.load(new StringReader("opA 1.5x\n"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void load_tooManyWords() throws IOException {
+		PerformanceBaseline.load(new StringReader("opA 1.5 3 4\n"));
+	}
+
+	@Test
+	public void saveThenLoad() throws IOException {
+		PerformanceBaseline alg = new PerformanceBaseline();
+		alg.setDefaultThreshold(7);
+		alg.add("opA", 1.25, Double.NaN);
+		alg.add("opB", 3, 40);
+
+		StringWriter writer = new StringWriter();
+		alg.save(writer);
+
+		PerformanceBaseline found = PerformanceBaseline.load(new StringReader(writer.toString()));
+
+		assertEquals(7, found.getDefaultThreshold(), 1e-8);
+		assertEquals(2, found.getOperations().size());
+		assertEquals(1.25, found.lookup("opA").time, 1e-8);
+		assertTrue(Double.isNaN(found.lookup("opA").threshold));
+		assertEquals(3, found.lookup("opB").time, 1e-8);
+		assertEquals(40, found.lookup("opB").threshold, 1e-8);
+	}
+
+	/**
+	 * Adding an existing operation should update its time but keep the threshold if none is specified
+	 */
+	@Test
+	public void add_existing() {
+		PerformanceBaseline alg = new PerformanceBaseline();
+		alg.add("opA", 1, 40);
+		alg.add("opA", 2, Double.NaN);
+
+		assertEquals(1, alg.getOperations().size());
+		assertEquals(2, alg.lookup("opA").time, 1e-8);
+		assertEquals(40, alg.lookup("opA").threshold, 1e-8);
+
+		alg.add("opA", 3, 10);
+		assertEquals(3, alg.lookup("opA").time, 1e-8);
+		assertEquals(10, alg.lookup("opA").threshold, 1e-8);
+	}
+}
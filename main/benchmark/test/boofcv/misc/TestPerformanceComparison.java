@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPerformanceComparison {
+
+	@Test
+	public void compare() {
+		PerformanceBaseline baseline = new PerformanceBaseline();
+		baseline.setDefaultThreshold(10);
+		baseline.add("faster", 10, Double.NaN);
+		baseline.add("small", 10, Double.NaN);
+		baseline.add("large", 10, Double.NaN);
+		baseline.add("tolerant", 10, 50);
+		baseline.add("missing", 10, Double.NaN);
+
+		Map<String,Double> measured = new HashMap<String,Double>();
+		measured.put("faster", 5.0);
+		measured.put("small", 10.5);
+		measured.put("large", 20.0);
+		measured.put("tolerant", 14.0);
+		measured.put("extra", 1.0);
+
+		PerformanceComparison alg = new PerformanceComparison();
+		alg.compare(baseline, measured);
+
+		// sorted from worst to best with missing at the end
+		List<PerformanceComparison.Result> results = alg.getResults();
+		assertEquals(5, results.size());
+		assertEquals("large", results.get(0).name);
+		assertEquals("tolerant", results.get(1).name);
+		assertEquals("small", results.get(2).name);
+		assertEquals("faster", results.get(3).name);
+		assertEquals("missing", results.get(4).name);
+
+		assertEquals(100, results.get(0).change, 1e-8);
+		assertEquals(-50, results.get(3).change, 1e-8);
+		assertTrue(Double.isNaN(results.get(4).measured));
+
+		// only the large change is past its threshold
+		List<PerformanceComparison.Result> regressions = alg.getRegressions();
+		assertEquals(1, regressions.size());
+		assertEquals("large", regressions.get(0).name);
+
+		// the operation which wasn't measured is a failure too
+		List<PerformanceComparison.Result> missing = alg.getMissing();
+		assertEquals(1, missing.size());
+		assertEquals("missing", missing.get(0).name);
+		assertTrue(alg.isFailed());
+
+		assertEquals(1, alg.getUnknown().size());
+		assertEquals("extra", alg.getUnknown().get(0));
+	}
+
+	/**
+	 * A benchmark which was renamed or removed should fail the comparison even if nothing regressed
+	 */
+	@Test
+	public void isFailed_missing() {
+		PerformanceBaseline baseline = new PerformanceBaseline();
+		baseline.add("opA", 10, Double.NaN);
+		baseline.add("opB", 10, Double.NaN);
+
+		Map<String,Double> measured = new HashMap<String,Double>();
+		measured.put("opA", 10.0);
+		measured.put("opB_renamed", 10.0);
+
+		PerformanceComparison alg = new PerformanceComparison();
+		alg.compare(baseline, measured);
+
+		assertEquals(0, alg.getRegressions().size());
+		assertTrue(alg.isFailed());
+
+		// everything measured and nothing regressed
+		measured.put("opB", 10.0);
+		alg.compare(baseline, measured);
+		assertFalse(alg.isFailed());
+	}
+
+	@Test
+	public void printReport() {
+		PerformanceBaseline baseline = new PerformanceBaseline();
+		baseline.add("opA", 10, Double.NaN);
+		baseline.add("opB", 10, Double.NaN);
+
+		Map<String,Double> measured = new HashMap<String,Double>();
+		measured.put("opA", 20.0);
+
+		PerformanceComparison alg = new PerformanceComparison();
+		alg.compare(baseline, measured);
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		alg.printReport(new PrintStream(stream));
+		String report = stream.toString();
+
+		assertTrue(report.contains("REGRESSION"));
+		assertTrue(report.contains("NOT MEASURED"));
+		assertTrue(report.contains("Regressions: 1"));
+		assertTrue(report.contains("Not measured: 1"));
+	}
+}
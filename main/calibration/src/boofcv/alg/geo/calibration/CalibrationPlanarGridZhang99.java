@@ -75,6 +75,9 @@ public class CalibrationPlanarGridZhang99 {
 	// provides information on calibration status
 	private Listener listener;
 
+	// if true the residuals are computed using multiple threads
+	private boolean concurrent = false;
+
 	/**
 	 * Configures calibration process.
 	 *
@@ -195,8 +198,11 @@ public class CalibrationPlanarGridZhang99 {
 		double model[] = new double[ initial.size() ];
 		initial.convertToParam(model);
 
-		Zhang99OptimizationFunction func = new Zhang99OptimizationFunction(
-				initial.createNew(), grid,observations);
+		Zhang99OptimizationFunction func;
+		if( concurrent )
+			func = new Zhang99OptimizationFunction_MT(initial.createNew(), grid,observations);
+		else
+			func = new Zhang99OptimizationFunction(initial.createNew(), grid,observations);
 
 // Both the numerical and analytical Jacobian appear to provide the same results, but the
 // unit test tolerance is so crude that I trust the numerical Jacobian more
@@ -281,6 +287,18 @@ public class CalibrationPlanarGridZhang99 {
 		this.optimizer = optimizer;
 	}
 
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then residuals will be computed using multiple threads.  The results are identical.  Only
+	 * worth it when there are many images or calibration points.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
 	public Zhang99Parameters getOptimized() {
 		return optimized;
 	}
@@ -94,8 +94,27 @@ public class Zhang99OptimizationFunction implements FunctionNtoM {
 	}
 
 	public void process( Zhang99Parameters param , double []residuals ) {
-		int index = 0;
-		for( int indexView = 0; indexView < param.views.length; indexView++ ) {
+		process(param,residuals,0,M/2);
+	}
+
+	/**
+	 * Computes the residuals for a range of observations.  Observations are ordered by view and then by
+	 * calibration point.
+	 *
+	 * @param param Calibration parameters
+	 * @param residuals Residuals for all the observations.  Only elements for observations in the range are modified
+	 * @param obsStart Index of the first observation, inclusive
+	 * @param obsEnd Index of the last observation, exclusive
+	 */
+	public void process( Zhang99Parameters param , double []residuals , int obsStart , int obsEnd ) {
+		if( obsStart >= obsEnd )
+			return;
+
+		int index = obsStart*2;
+		int indexView = obsStart/grid.size();
+		int i = obsStart%grid.size();
+
+		for( int obsIndex = obsStart; obsIndex < obsEnd; indexView++ , i = 0 ) {
 
 			Zhang99Parameters.View v = param.views[indexView];
 
@@ -104,7 +123,7 @@ public class Zhang99OptimizationFunction implements FunctionNtoM {
 
 			List<Point2D_F64> obs = observations.get(indexView);
 
-			for( int i = 0; i < grid.size(); i++ ) {
+			for( ; i < grid.size() && obsIndex < obsEnd; i++ , obsIndex++ ) {
 				// Put the point in the camera's reference frame
 				SePointOps_F64.transform(se,grid.get(i), cameraPt);
 
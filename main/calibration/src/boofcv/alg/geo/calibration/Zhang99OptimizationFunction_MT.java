@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.calibration;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import georegression.struct.point.Point2D_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link Zhang99OptimizationFunction}.  Observations are split into blocks and
+ * each thread writes the residuals for its block directly into the output array.  Produces identical results.
+ * Small problems are processed by the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class Zhang99OptimizationFunction_MT extends Zhang99OptimizationFunction {
+
+	// minimum number of observations processed by a thread
+	int minBlock = 1000;
+
+	// each thread has its own copy since the function has internal state
+	WorkerPool<Zhang99OptimizationFunction> workers;
+
+	/**
+	 * Configurations the optimization function.
+	 *
+	 * @param param Storage for calibration parameters. Effectively specifies the number of target views
+	 * and radial terms
+	 * @param grid Location of points on the calibration grid.  z=0
+	 * @param observations calibration point observation pixel coordinates
+	 */
+	public Zhang99OptimizationFunction_MT(final Zhang99Parameters param,
+										  final List<Point2D_F64> grid,
+										  final List<List<Point2D_F64>> observations) {
+		super(param, grid, observations);
+
+		workers = new WorkerPool<Zhang99OptimizationFunction>(new WorkerFactory<Zhang99OptimizationFunction>() {
+			@Override
+			public Zhang99OptimizationFunction create() {
+				return new Zhang99OptimizationFunction(param,grid,observations);
+			}
+		});
+	}
+
+	@Override
+	public void process(final Zhang99Parameters param, final double[] residuals) {
+		int numObs = getNumOfOutputsM()/2;
+
+		if( numObs < minBlock*2 ) {
+			super.process(param, residuals);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, numObs, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int obsStart, int obsEnd) {
+				Zhang99OptimizationFunction worker = workers.acquire();
+				try {
+					worker.process(param, residuals, obsStart, obsEnd);
+				} finally {
+					workers.release(worker);
+				}
+			}
+		});
+	}
+
+	public int getMinBlock() {
+		return minBlock;
+	}
+
+	/**
+	 * Specifies the minimum number of observations processed by each thread.  If there are fewer than
+	 * twice this number of observations the calling thread processes all of them.
+	 */
+	public void setMinBlock(int minBlock) {
+		this.minBlock = minBlock;
+	}
+}
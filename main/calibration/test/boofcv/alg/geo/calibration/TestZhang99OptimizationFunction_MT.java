@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.calibration;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.calib.FactoryPlanarCalibrationTarget;
+import georegression.struct.point.Point2D_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.geo.calibration.TestZhang99OptimizationFunction.estimate;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestZhang99OptimizationFunction_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Blocks which start and end in the middle of views should produce the same residuals as a single thread
+	 */
+	@Test
+	public void compareToSingleThread() {
+		PlanarCalibrationTarget config = FactoryPlanarCalibrationTarget.gridSquare(2, 3, 30, 30);
+		Zhang99Parameters param = GenericCalibrationGrid.createStandardParam(false, 2, 3, rand);
+
+		List<Point2D_F64> gridPts = config.points;
+		List<List<Point2D_F64>> observations = new ArrayList<List<Point2D_F64>>();
+		for( int i = 0; i < param.views.length; i++ ) {
+			List<Point2D_F64> obs = estimate(param,param.views[i],gridPts);
+			// add noise so that the residuals are not zero
+			for( Point2D_F64 p : obs ) {
+				p.x += rand.nextGaussian();
+				p.y += rand.nextGaussian();
+			}
+			observations.add(obs);
+		}
+
+		double dataParam[] = new double[ param.size() ];
+		param.convertToParam(dataParam);
+
+		Zhang99OptimizationFunction single = new Zhang99OptimizationFunction(param.copy(),gridPts,observations);
+		Zhang99OptimizationFunction_MT multi = new Zhang99OptimizationFunction_MT(param.copy(),gridPts,observations);
+
+		for( int minBlock : new int[]{1,5,7,1000} ) {
+			multi.setMinBlock(minBlock);
+
+			double expected[] = new double[ single.getNumOfOutputsM() ];
+			double found[] = new double[ multi.getNumOfOutputsM() ];
+			single.process(dataParam,expected);
+			multi.process(dataParam,found);
+
+			for( int i = 0; i < expected.length; i++ )
+				assertEquals(expected[i],found[i],0);
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.interpolate.impl.BilinearRectangle_F32;
+import boofcv.alg.interpolate.impl.BilinearRectangle_S16;
+import boofcv.alg.interpolate.impl.BilinearRectangle_U8;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.Random;
+
+/**
+ * Compares {@link KltWindowSampler} against sampling KLT feature windows with the bilinear
+ * {@link boofcv.alg.interpolate.InterpolateRectangle}, as is done in
+ * {@link boofcv.alg.interpolate.BenchmarkInterpolateRegion}, followed by a second pass which computes the sums.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkKltWindowSampler {
+	static int imgWidth = 640;
+	static int imgHeight = 480;
+	static long TEST_TIME = 1000;
+
+	static int radius = 3;
+	static int numWindows = 2000;
+
+	static ImageFloat32 imgF32 = new ImageFloat32(imgWidth,imgHeight);
+	static ImageFloat32 derivX_F32 = new ImageFloat32(imgWidth,imgHeight);
+	static ImageFloat32 derivY_F32 = new ImageFloat32(imgWidth,imgHeight);
+	static ImageUInt8 imgU8 = new ImageUInt8(imgWidth,imgHeight);
+	static ImageSInt16 derivX_S16 = new ImageSInt16(imgWidth,imgHeight);
+	static ImageSInt16 derivY_S16 = new ImageSInt16(imgWidth,imgHeight);
+
+	// top-left corner of each window
+	static float tl_x[] = new float[numWindows];
+	static float tl_y[] = new float[numWindows];
+
+	static KltFeature feature = new KltFeature(radius);
+	static ImageFloat32 current = new ImageFloat32(radius*2+1,radius*2+1);
+
+	public static class Interpolate_F32 extends PerformerBase {
+		BilinearRectangle_F32 interp = new BilinearRectangle_F32();
+
+		@Override
+		public void process() {
+			for( int i = 0; i < numWindows; i++ ) {
+				interp.setImage(imgF32);
+				interp.region(tl_x[i], tl_y[i], feature.desc);
+				interp.setImage(derivX_F32);
+				interp.region(tl_x[i], tl_y[i], feature.derivX);
+				interp.setImage(derivY_F32);
+				interp.region(tl_x[i], tl_y[i], feature.derivY);
+				computeG();
+			}
+		}
+	}
+
+	public static class Sampler_F32 extends PerformerBase {
+		ImplKltWindowSampler_F32 alg = new ImplKltWindowSampler_F32();
+
+		@Override
+		public void process() {
+			alg.setImage(imgF32, derivX_F32, derivY_F32);
+			for( int i = 0; i < numWindows; i++ ) {
+				alg.sampleDescription(tl_x[i], tl_y[i], feature);
+			}
+		}
+	}
+
+	public static class InterpolateResidual_F32 extends PerformerBase {
+		BilinearRectangle_F32 interp = new BilinearRectangle_F32();
+
+		@Override
+		public void process() {
+			interp.setImage(imgF32);
+			for( int i = 0; i < numWindows; i++ ) {
+				interp.region(tl_x[i], tl_y[i], current);
+				computeE();
+			}
+		}
+	}
+
+	public static class SamplerResidual_F32 extends PerformerBase {
+		ImplKltWindowSampler_F32 alg = new ImplKltWindowSampler_F32();
+
+		@Override
+		public void process() {
+			alg.setImage(imgF32, null, null);
+			for( int i = 0; i < numWindows; i++ ) {
+				alg.sampleResidual(tl_x[i], tl_y[i], feature, current);
+			}
+		}
+	}
+
+	public static class Interpolate_U8 extends PerformerBase {
+		BilinearRectangle_U8 interp = new BilinearRectangle_U8();
+		BilinearRectangle_S16 interpDeriv = new BilinearRectangle_S16();
+
+		@Override
+		public void process() {
+			interp.setImage(imgU8);
+			for( int i = 0; i < numWindows; i++ ) {
+				interp.region(tl_x[i], tl_y[i], feature.desc);
+				interpDeriv.setImage(derivX_S16);
+				interpDeriv.region(tl_x[i], tl_y[i], feature.derivX);
+				interpDeriv.setImage(derivY_S16);
+				interpDeriv.region(tl_x[i], tl_y[i], feature.derivY);
+				computeG();
+			}
+		}
+	}
+
+	public static class Sampler_U8 extends PerformerBase {
+		ImplKltWindowSampler_U8 alg = new ImplKltWindowSampler_U8();
+
+		@Override
+		public void process() {
+			alg.setImage(imgU8, derivX_S16, derivY_S16);
+			for( int i = 0; i < numWindows; i++ ) {
+				alg.sampleDescription(tl_x[i], tl_y[i], feature);
+			}
+		}
+	}
+
+	private static void computeG() {
+		float Gxx = 0, Gyy = 0, Gxy = 0;
+		for( int j = 0; j < feature.desc.data.length; j++ ) {
+			float dX = feature.derivX.data[j];
+			float dY = feature.derivY.data[j];
+
+			Gxx += dX * dX;
+			Gyy += dY * dY;
+			Gxy += dX * dY;
+		}
+		feature.Gxx = Gxx;
+		feature.Gyy = Gyy;
+		feature.Gxy = Gxy;
+	}
+
+	private static void computeE() {
+		float Ex = 0, Ey = 0;
+		for( int j = 0; j < current.data.length; j++ ) {
+			float d = feature.desc.data[j] - current.data[j];
+
+			Ex += d * feature.derivX.data[j];
+			Ey += d * feature.derivY.data[j];
+		}
+		feature.Gxx = Ex;
+		feature.Gyy = Ey;
+	}
+
+	public static void main(String args[]) {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(imgF32, rand, 0, 200);
+		ImageMiscOps.fillUniform(derivX_F32, rand, -100, 100);
+		ImageMiscOps.fillUniform(derivY_F32, rand, -100, 100);
+		ImageMiscOps.fillUniform(imgU8, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivX_S16, rand, -100, 100);
+		ImageMiscOps.fillUniform(derivY_S16, rand, -100, 100);
+
+		int width = radius*2+1;
+		for( int i = 0; i < numWindows; i++ ) {
+			tl_x[i] = rand.nextFloat()*(imgWidth-width-2);
+			tl_y[i] = rand.nextFloat()*(imgHeight-width-2);
+		}
+
+		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
+		System.out.println("           "+numWindows+" windows with radius "+radius);
+		System.out.println();
+
+		ProfileOperation.printOpsPerSec(new Interpolate_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Sampler_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new InterpolateResidual_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new SamplerResidual_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Interpolate_U8(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Sampler_U8(), TEST_TIME);
+	}
+}
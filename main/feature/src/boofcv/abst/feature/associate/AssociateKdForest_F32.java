@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.FindUnassociated;
+import boofcv.alg.feature.associate.nn.KdForestBbf_F32;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Approximate association using {@link KdForestBbf_F32}, a randomized K-D forest which operates directly on
+ * primitive arrays.  Produces the same type of output as {@link AssociateNearestNeighbor} but does not declare
+ * memory once its internal storage has grown to the problem size.  Source features are processed as a lump
+ * when the forest is constructed and destination features are looked up one at a time.  Multiple matches for
+ * source features are possible while there will only be a unique match for each destination feature.
+ * The fit score is the Euclidean distance squared.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateKdForest_F32<D extends TupleDesc_F32>
+		implements AssociateDescription<D>
+{
+	// approximate nearest-neighbor search
+	private KdForestBbf_F32 alg;
+
+	// list of features in destination set that are to be searched for in the source list
+	private FastQueue<D> listDst;
+
+	// List of final associated points
+	private FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(100,AssociatedIndex.class,true);
+
+	// creates a list of unassociated features from the list of matches
+	private FindUnassociated unassociated = new FindUnassociated();
+
+	// maximum distance away two points can be
+	private float maxDistanceSq = -1;
+
+	public AssociateKdForest_F32( KdForestBbf_F32 alg ) {
+		this.alg = alg;
+	}
+
+	@Override
+	public void setSource(FastQueue<D> listSrc) {
+		alg.setPoints(listSrc);
+	}
+
+	@Override
+	public void setDestination(FastQueue<D> listDst) {
+		this.listDst = listDst;
+	}
+
+	@Override
+	public void associate() {
+		matches.reset();
+		for( int i = 0; i < listDst.size; i++ ) {
+			if( !alg.findNearest(listDst.data[i].value, maxDistanceSq) )
+				continue;
+			matches.grow().setAssociation(alg.getBestIndex(),i,alg.getBestDistance());
+		}
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matches;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		return unassociated.checkSource(matches,alg.getNumPoints());
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matches,listDst.size());
+	}
+
+	@Override
+	public void setThreshold(double score) {
+		// fit score is Euclidean distance squared
+		this.maxDistanceSq = (float)(score < 0 ? score : score*score);
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return MatchScoreType.NORM_ERROR;
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return false;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return true;
+	}
+
+	public KdForestBbf_F32 getAlg() {
+		return alg;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.FindUnassociated;
+import boofcv.alg.feature.associate.nn.MultiIndexHashing_B;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Sub-linear association of binary descriptors using {@link MultiIndexHashing_B}.  Source features are stored
+ * in the hash tables and each destination feature is matched to the source feature with the smallest Hamming
+ * distance among those found in its buckets.  Multiple matches for source features are possible while there will
+ * only be a unique match for each destination feature.
+ * </p>
+ *
+ * <p>
+ * Calling {@link #setSource} replaces the contents of the database.  Alternatively, a persistent database can be
+ * modified directly through {@link #getDatabase()} using insert and remove, in which case setSource() should not
+ * be called and the source index in each match is the descriptor's ID in the database.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateMultiIndexHashing_B implements AssociateDescription<TupleDesc_B> {
+
+	// database of source descriptors
+	private MultiIndexHashing_B database;
+
+	// list of features in destination set that are to be searched for in the source list
+	private FastQueue<TupleDesc_B> listDst;
+
+	// List of final associated points
+	private FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(100,AssociatedIndex.class,true);
+
+	// creates a list of unassociated features from the list of matches
+	private FindUnassociated unassociated = new FindUnassociated();
+	private GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
+
+	// maximum Hamming distance two descriptors can be apart
+	private int maxDistance = -1;
+
+	public AssociateMultiIndexHashing_B( MultiIndexHashing_B database ) {
+		this.database = database;
+	}
+
+	@Override
+	public void setSource(FastQueue<TupleDesc_B> listSrc) {
+		database.clear();
+		for( int i = 0; i < listSrc.size; i++ ) {
+			database.insert(listSrc.data[i]);
+		}
+	}
+
+	@Override
+	public void setDestination(FastQueue<TupleDesc_B> listDst) {
+		this.listDst = listDst;
+	}
+
+	@Override
+	public void associate() {
+		matches.reset();
+		for( int i = 0; i < listDst.size; i++ ) {
+			if( !database.findNearest(listDst.data[i], maxDistance) )
+				continue;
+			matches.grow().setAssociation(database.getBestId(),i,database.getBestDistance());
+		}
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matches;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		// IDs which have been removed from the database are not source features
+		GrowQueue_I32 found = unassociated.checkSource(matches,database.getNumIds());
+		unassociatedSrc.reset();
+		for( int i = 0; i < found.size; i++ ) {
+			int id = found.data[i];
+			if( database.isActive(id) )
+				unassociatedSrc.add(id);
+		}
+		return unassociatedSrc;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matches,listDst.size());
+	}
+
+	@Override
+	public void setThreshold(double score) {
+		this.maxDistance = score < 0 ? -1 : (int)score;
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return MatchScoreType.NORM_ERROR;
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return false;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return true;
+	}
+
+	public MultiIndexHashing_B getDatabase() {
+		return database;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link boofcv.alg.feature.associate.AssociateGreedy}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigAssociateGreedy implements Configuration {
+
+	/**
+	 * If true then a match is only accepted if the two features are each other's best match, i.e. backwards
+	 * validation.
+	 */
+	public boolean forwardsBackwards = true;
+
+	/**
+	 * A match is only accepted if its score is no more than this ratio times the second best score.  From 0 to 1.
+	 * Set to 1 to disable.  Try 0.8 for the Euclidean distance or 0.64 for the Euclidean distance squared.
+	 */
+	public double scoreRatioThreshold = 1.0;
+
+	/**
+	 * Maximum allowed fit score for a match.  Set to Double.MAX_VALUE to disable.
+	 */
+	public double maxErrorThreshold = Double.MAX_VALUE;
+
+	/**
+	 * If true then a concurrent implementation is used.  Produces the same matches as the single threaded version.
+	 */
+	public boolean concurrent = false;
+
+	public ConfigAssociateGreedy(boolean forwardsBackwards, double scoreRatioThreshold, double maxErrorThreshold) {
+		this.forwardsBackwards = forwardsBackwards;
+		this.scoreRatioThreshold = scoreRatioThreshold;
+		this.maxErrorThreshold = maxErrorThreshold;
+	}
+
+	public ConfigAssociateGreedy() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( scoreRatioThreshold < 0 || scoreRatioThreshold > 1 )
+			throw new IllegalArgumentException("scoreRatioThreshold must be from 0 to 1");
+	}
+}
@@ -45,6 +45,14 @@ public class ConfigSiftScaleSpace implements Configuration {
 	 * Should the input image be doubled? Try false.
 	 */
 	public boolean doubleInputImage = false;
+	/**
+	 * Maximum number of bytes used by the scale-space's images.  If > 0 then DOG images and derivatives are only
+	 * computed and saved when needed.  Can't be used with concurrent implementations.  If <= 0 then all images
+	 * are saved.
+	 *
+	 * @see boofcv.alg.feature.detect.interest.SiftImageScaleSpace#computeMinimumBytes(int, int)
+	 */
+	public long memoryBudget = -1;
 
 	public ConfigSiftScaleSpace(float blurSigma, int numScales, int numOctaves, boolean doubleInputImage) {
 		this.blurSigma = blurSigma;
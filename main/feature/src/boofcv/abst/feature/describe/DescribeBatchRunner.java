@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.feature.TupleDesc;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes descriptions for a batch of points on behalf of a {@link DescribeRegionPointBatch}.  Points are
+ * sorted by their location in the image, in bands of rows, so that nearby points are processed together.
+ * If concurrent, the sorted points are split into blocks which are processed in parallel.  Each thread uses
+ * its own {@link Worker}.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeBatchRunner<Desc extends TupleDesc> {
+
+	// minimum number of points processed by a thread
+	private static final int MIN_BLOCK = 16;
+	// number of rows in each band that points are sorted into
+	private static final int BAND_SHIFT = 3;
+
+	// workers which compute the descriptions
+	private WorkerPool<Worker<Desc>> workers;
+	// if true the points are processed in parallel
+	private boolean concurrent;
+
+	// Sorted points.  The upper 32 bits is the sort key and the lower 32-bits the point's index
+	private long sorted[] = new long[0];
+
+	// references to the input and output for the current batch
+	private List<Point2D_F64> locations;
+	private GrowQueue_F64 orientations;
+	private GrowQueue_F64 scales;
+	private FastQueue<Desc> descriptions;
+	private GrowQueue_B success;
+
+	private IntRangeTask task = new IntRangeTask() {
+		@Override
+		public void process(int start, int end) {
+			processRange(start, end);
+		}
+	};
+
+	/**
+	 * Configures the runner
+	 *
+	 * @param factory Creates workers.  If not concurrent then only one worker is created.
+	 * @param concurrent If true points are processed in parallel.
+	 */
+	public DescribeBatchRunner( WorkerFactory<Worker<Desc>> factory , boolean concurrent ) {
+		this.workers = new WorkerPool<Worker<Desc>>(factory);
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * See {@link DescribeRegionPointBatch#process(List, GrowQueue_F64, GrowQueue_F64, FastQueue, GrowQueue_B)}
+	 */
+	public void process( List<Point2D_F64> locations , GrowQueue_F64 orientations , GrowQueue_F64 scales ,
+						 FastQueue<Desc> descriptions , GrowQueue_B success ) {
+		int N = locations.size();
+		if( orientations != null && orientations.size < N )
+			throw new IllegalArgumentException("Not enough orientations");
+		if( scales != null && scales.size < N )
+			throw new IllegalArgumentException("Not enough scales");
+
+		descriptions.reset();
+		for( int i = 0; i < N; i++ ) {
+			descriptions.grow();
+		}
+		success.resize(N);
+
+		this.locations = locations;
+		this.orientations = orientations;
+		this.scales = scales;
+		this.descriptions = descriptions;
+		this.success = success;
+
+		sortByLocation(locations);
+
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0, N, MIN_BLOCK, task);
+		} else {
+			processRange(0, N);
+		}
+
+		this.locations = null;
+		this.orientations = null;
+		this.scales = null;
+		this.descriptions = null;
+		this.success = null;
+	}
+
+	/**
+	 * Sorts the points by band of rows and then by column
+	 */
+	private void sortByLocation( List<Point2D_F64> locations ) {
+		int N = locations.size();
+		if( sorted.length < N )
+			sorted = new long[N];
+
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = locations.get(i);
+			long band = Math.max(0, Math.min(0x7FFF, (int)p.y >> BAND_SHIFT));
+			long column = Math.max(0, Math.min(0xFFFF, (int)p.x));
+			sorted[i] = ((band << 16 | column) << 32) | i;
+		}
+		Arrays.sort(sorted, 0, N);
+	}
+
+	private void processRange( int start , int end ) {
+		Worker<Desc> worker = workers.acquire();
+		worker.prepare();
+		for( int i = start; i < end; i++ ) {
+			int index = (int)(sorted[i] & 0xFFFFFFFFL);
+			Point2D_F64 p = locations.get(index);
+			double orientation = orientations == null ? 0 : orientations.data[index];
+			double scale = scales == null ? 1 : scales.data[index];
+
+			success.data[index] = worker.process(p.x, p.y, orientation, scale, descriptions.data[index]);
+		}
+		workers.release(worker);
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Computes the description of individual points.  A worker is only used by one thread at a time.
+	 */
+	public interface Worker<Desc> {
+		/**
+		 * Called before a block of points is processed.  Used to update the worker to the current image.
+		 */
+		public void prepare();
+
+		/**
+		 * Same as {@link DescribeRegionPoint#process(double, double, double, double, TupleDesc)}
+		 */
+		public boolean process( double x , double y , double orientation , double scale , Desc description );
+	}
+}
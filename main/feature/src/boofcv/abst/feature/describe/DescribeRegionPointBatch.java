@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageBase;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
+
+/**
+ * Extension of {@link DescribeRegionPoint} which computes the description of many points with a single call.
+ * Implementations can reorder the points internally to improve memory locality and process them in parallel,
+ * but the output is always the same as calling {@link #process(double, double, double, double, TupleDesc)}
+ * for each point in order.
+ *
+ * @author Peter Abeles
+ */
+public interface DescribeRegionPointBatch<T extends ImageBase, Desc extends TupleDesc>
+		extends DescribeRegionPoint<T,Desc>
+{
+	/**
+	 * Computes the description of every point.
+	 *
+	 * @param locations Location of each point.
+	 * @param orientations Orientation of each point.  If null then an orientation of zero is used.
+	 * @param scales Scale of each point.  If null then a scale of one is used.
+	 * @param descriptions (output) Description of each point in the same order as the input.  Reset and then
+	 *                     grown to the number of points.  Must declare instances, see
+	 *                     {@link boofcv.alg.feature.UtilFeature#createQueue(DescribeRegionPoint, int)}.
+	 * @param success (output) If a description could be computed for each point.  Resized to the number of points.
+	 */
+	public void process( List<Point2D_F64> locations , GrowQueue_F64 orientations , GrowQueue_F64 scales ,
+						 FastQueue<Desc> descriptions , GrowQueue_B success );
+}
@@ -21,21 +21,50 @@ package boofcv.abst.feature.describe;
 import boofcv.alg.feature.describe.DescribePointBrief;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 /**
+ * Wrapper around {@link DescribePointBrief} for {@link DescribeRegionPointBatch}.  After the image has been set
+ * {@link DescribePointBrief} only reads its internal state, so a batch of points is processed in parallel using
+ * a single instance.
+ *
  * @author Peter Abeles
  */
-public class WrapDescribeBrief<T extends ImageSingleBand> implements DescribeRegionPoint<T,TupleDesc_B> {
+public class WrapDescribeBrief<T extends ImageSingleBand> implements DescribeRegionPointBatch<T,TupleDesc_B> {
 
 	int length;
 	DescribePointBrief<T> alg;
 	ImageType<T> imageType;
 
+	// computes descriptions for a batch of points
+	DescribeBatchRunner<TupleDesc_B> batch;
+
 	public WrapDescribeBrief( DescribePointBrief<T> alg , Class<T> imageType) {
 		this.alg = alg;
 		this.length = alg.getDefinition().getLength();
 		this.imageType = ImageType.single(imageType);
+
+		batch = new DescribeBatchRunner<TupleDesc_B>(new WorkerFactory<DescribeBatchRunner.Worker<TupleDesc_B>>() {
+			@Override
+			public DescribeBatchRunner.Worker<TupleDesc_B> create() {
+				return new DescribeBatchRunner.Worker<TupleDesc_B>() {
+					@Override
+					public void prepare() {}
+
+					@Override
+					public boolean process(double x, double y, double orientation, double scale, TupleDesc_B description) {
+						return WrapDescribeBrief.this.process(x, y, orientation, scale, description);
+					}
+				};
+			}
+		},true);
 	}
 
 	@Override
@@ -54,6 +83,12 @@ public class WrapDescribeBrief<T extends ImageSingleBand> implements DescribeReg
 		return true;
 	}
 
+	@Override
+	public void process(List<Point2D_F64> locations, GrowQueue_F64 orientations, GrowQueue_F64 scales,
+						FastQueue<TupleDesc_B> descriptions, GrowQueue_B success) {
+		batch.process(locations, orientations, scales, descriptions, success);
+	}
+
 	@Override
 	public boolean requiresScale() {
 		return false;
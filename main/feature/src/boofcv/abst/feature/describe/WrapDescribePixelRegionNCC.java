@@ -21,23 +21,49 @@ package boofcv.abst.feature.describe;
 import boofcv.alg.feature.describe.DescribePointPixelRegionNCC;
 import boofcv.struct.feature.NccFeature;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 /**
  * Wrapper around {@link boofcv.alg.feature.describe.DescribePointPixelRegionNCC} for
- * {@link boofcv.abst.feature.describe.DescribeRegionPoint}.
+ * {@link DescribeRegionPointBatch}.  After the image has been set {@link DescribePointPixelRegionNCC} only
+ * reads its internal state, so a batch of points is processed in parallel using a single instance.
  *
  * @author Peter Abeles
  */
 public class WrapDescribePixelRegionNCC<T extends ImageSingleBand>
-		implements DescribeRegionPoint<T,NccFeature>
+		implements DescribeRegionPointBatch<T,NccFeature>
 {
 	DescribePointPixelRegionNCC<T> alg;
 	ImageType<T> imageType;
 
+	// computes descriptions for a batch of points
+	DescribeBatchRunner<NccFeature> batch;
+
 	public WrapDescribePixelRegionNCC(DescribePointPixelRegionNCC<T> alg , Class<T> imageType) {
 		this.alg = alg;
 		this.imageType = ImageType.single(imageType);
+
+		batch = new DescribeBatchRunner<NccFeature>(new WorkerFactory<DescribeBatchRunner.Worker<NccFeature>>() {
+			@Override
+			public DescribeBatchRunner.Worker<NccFeature> create() {
+				return new DescribeBatchRunner.Worker<NccFeature>() {
+					@Override
+					public void prepare() {}
+
+					@Override
+					public boolean process(double x, double y, double orientation, double scale, NccFeature description) {
+						return WrapDescribePixelRegionNCC.this.process(x, y, orientation, scale, description);
+					}
+				};
+			}
+		},true);
 	}
 
 	@Override
@@ -64,6 +90,12 @@ public class WrapDescribePixelRegionNCC<T extends ImageSingleBand>
 		return true;
 	}
 
+	@Override
+	public void process(List<Point2D_F64> locations, GrowQueue_F64 orientations, GrowQueue_F64 scales,
+						FastQueue<NccFeature> descriptions, GrowQueue_B success) {
+		batch.process(locations, orientations, scales, descriptions, success);
+	}
+
 	@Override
 	public boolean requiresScale() {
 		return false;
@@ -20,28 +20,59 @@ package boofcv.abst.feature.describe;
 
 import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.struct.feature.SurfFeature;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 /**
  * Wrapper around {@link DescribePointSift} for {@link DescribeRegionPoint}.  Orientation is optionally
- * also estimated, however only one orientation hypothesis is considered.
+ * also estimated, however only one orientation hypothesis is considered.  When processing a batch of points
+ * in parallel each thread uses its own copy of {@link DescribePointSift} and they share the scale-space.
  *
  * @author Peter Abeles
  */
 public class WrapDescribeSift
-		implements DescribeRegionPoint<ImageFloat32,SurfFeature>
+		implements DescribeRegionPointBatch<ImageFloat32,SurfFeature>
 {
 	DescribePointSift alg;
 	SiftImageScaleSpace ss;
 	ImageType<ImageFloat32> imageType;
 
+	// computes descriptions for a batch of points
+	DescribeBatchRunner<SurfFeature> batch;
+
 	public WrapDescribeSift(DescribePointSift alg,
 							SiftImageScaleSpace ss) {
+		this(alg,null,ss);
+	}
+
+	/**
+	 * Configures the wrapper
+	 *
+	 * @param alg Computes the SIFT descriptor
+	 * @param workers Creates a copy of the SIFT descriptor for each thread when processing a batch.  If null
+	 *                then batches are processed in a single thread.
+	 * @param ss Scale-space the descriptor is computed from
+	 */
+	public WrapDescribeSift(DescribePointSift alg, final WorkerFactory<DescribePointSift> workers,
+							SiftImageScaleSpace ss) {
 		this.alg = alg;
 		this.ss = ss;
 		imageType = ImageType.single(ImageFloat32.class);
+
+		batch = new DescribeBatchRunner<SurfFeature>(new WorkerFactory<DescribeBatchRunner.Worker<SurfFeature>>() {
+			@Override
+			public DescribeBatchRunner.Worker<SurfFeature> create() {
+				return new Worker(workers == null ? WrapDescribeSift.this.alg : workers.create());
+			}
+		},workers != null);
 	}
 
 	@Override
@@ -64,6 +95,12 @@ public class WrapDescribeSift
 		return true;
 	}
 
+	@Override
+	public void process(List<Point2D_F64> locations, GrowQueue_F64 orientations, GrowQueue_F64 scales,
+						FastQueue<SurfFeature> descriptions, GrowQueue_B success) {
+		batch.process(locations, orientations, scales, descriptions, success);
+	}
+
 	@Override
 	public boolean requiresScale() {
 		return true;
@@ -83,4 +120,26 @@ public class WrapDescribeSift
 	public Class<SurfFeature> getDescriptionType() {
 		return SurfFeature.class;
 	}
+
+	/**
+	 * Describes points using its own copy of {@link DescribePointSift}
+	 */
+	private class Worker implements DescribeBatchRunner.Worker<SurfFeature> {
+		DescribePointSift alg;
+
+		private Worker(DescribePointSift alg) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void prepare() {
+			alg.setScaleSpace(ss);
+		}
+
+		@Override
+		public boolean process(double x, double y, double orientation, double scale, SurfFeature description) {
+			alg.process(x, y, scale, orientation, description);
+			return true;
+		}
+	}
 }
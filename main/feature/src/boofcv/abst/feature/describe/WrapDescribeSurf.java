@@ -20,16 +20,26 @@ package boofcv.abst.feature.describe;
 
 import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.struct.feature.SurfFeature;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 
 /**
+ * Wrapper around {@link DescribePointSurf} for {@link DescribeRegionPointBatch}.  When processing a batch
+ * of points in parallel each thread uses its own copy of {@link DescribePointSurf}, since it is not thread safe.
+ *
  * @author Peter Abeles
  */
 public class WrapDescribeSurf<T extends ImageSingleBand, II extends ImageSingleBand>
-		implements DescribeRegionPoint<T,SurfFeature> {
+		implements DescribeRegionPointBatch<T,SurfFeature> {
 
 	// computes SURF feature descriptor
 	DescribePointSurf<II> surf;
@@ -38,10 +48,34 @@ public class WrapDescribeSurf<T extends ImageSingleBand, II extends ImageSingleB
 
 	ImageType<T> imageType;
 
+	// computes descriptions for a batch of points
+	DescribeBatchRunner<SurfFeature> batch;
+
 	public WrapDescribeSurf(DescribePointSurf<II> surf , Class<T> imageType)
+	{
+		this(surf,null,imageType);
+	}
+
+	/**
+	 * Configures the wrapper
+	 *
+	 * @param surf Computes the SURF descriptor
+	 * @param workers Creates a copy of the SURF descriptor for each thread when processing a batch.  If null
+	 *                then batches are processed in a single thread.
+	 * @param imageType Type of input image
+	 */
+	public WrapDescribeSurf(DescribePointSurf<II> surf , final WorkerFactory<DescribePointSurf<II>> workers ,
+							Class<T> imageType )
 	{
 		this.surf = surf;
 		this.imageType = ImageType.single(imageType);
+
+		batch = new DescribeBatchRunner<SurfFeature>(new WorkerFactory<DescribeBatchRunner.Worker<SurfFeature>>() {
+			@Override
+			public DescribeBatchRunner.Worker<SurfFeature> create() {
+				return new Worker(workers == null ? WrapDescribeSurf.this.surf : workers.create());
+			}
+		},workers != null);
 	}
 
 	@Override
@@ -68,6 +102,12 @@ public class WrapDescribeSurf<T extends ImageSingleBand, II extends ImageSingleB
 		return true;
 	}
 
+	@Override
+	public void process(List<Point2D_F64> locations, GrowQueue_F64 orientations, GrowQueue_F64 scales,
+						FastQueue<SurfFeature> descriptions, GrowQueue_B success) {
+		batch.process(locations, orientations, scales, descriptions, success);
+	}
+
 	@Override
 	public boolean requiresScale() {
 		return true;
@@ -87,4 +127,26 @@ public class WrapDescribeSurf<T extends ImageSingleBand, II extends ImageSingleB
 	public Class<SurfFeature> getDescriptionType() {
 		return SurfFeature.class;
 	}
+
+	/**
+	 * Describes points using its own copy of {@link DescribePointSurf}
+	 */
+	private class Worker implements DescribeBatchRunner.Worker<SurfFeature> {
+		DescribePointSurf<II> alg;
+
+		private Worker(DescribePointSurf<II> alg) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void prepare() {
+			alg.setImage(ii);
+		}
+
+		@Override
+		public boolean process(double x, double y, double orientation, double scale, SurfFeature description) {
+			alg.describe(x, y, orientation, scale, description);
+			return true;
+		}
+	}
 }
@@ -55,6 +55,12 @@ public class ConfigFastHessian implements Configuration {
 	 * Typically 4.
 	 */
 	public int numberOfOctaves = 4;
+	/**
+	 * If true then a concurrent implementation is used.  Produces the same features as the single threaded version.
+	 *
+	 * @see boofcv.alg.feature.detect.interest.FastHessianFeatureDetector_MT
+	 */
+	public boolean concurrent = false;
 
 	public ConfigFastHessian(float detectThreshold,
 							 int extractRadius,
@@ -47,6 +47,12 @@ public class ConfigSiftDetector implements Configuration {
 	 * Threshold for edge filtering.  Disable with a value <= 0.  Try 5
 	 */
 	public double edgeThreshold = 5;
+	/**
+	 * If true then a concurrent implementation is used.  Produces the same features as the single threaded version.
+	 *
+	 * @see boofcv.alg.feature.detect.interest.SiftDetector_MT
+	 */
+	public boolean concurrent = false;
 
 	public ConfigSiftDetector(int extractRadius, float detectThreshold,
 							  int maxFeaturesPerScale, double edgeThreshold) {
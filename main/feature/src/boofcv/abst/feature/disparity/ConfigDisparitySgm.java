@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.sgm.SgmCostFunction;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link boofcv.alg.feature.disparity.sgm.SgmStereoDisparity Semi Global Matching}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigDisparitySgm implements Configuration {
+	/**
+	 * Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 */
+	public int minDisparity = 0;
+	/**
+	 * Maximum disparity that it will calculate. Must be > 0.  maxDisparity-minDisparity must be less than 255.
+	 */
+	public int maxDisparity = 64;
+	/**
+	 * Function used to compute the matching cost between two pixels
+	 */
+	public Cost cost = Cost.CENSUS;
+	/**
+	 * Radius of the region used to compute the matching cost.  Census supports 1 and 2.  SAD supports 0 or more.
+	 */
+	public int costRadius = 2;
+	/**
+	 * Penalty for a change in disparity of one between neighboring pixels.  If < 0 then a default value
+	 * is selected based on the cost function.
+	 */
+	public int penaltySmall = -1;
+	/**
+	 * Penalty for a change in disparity of more than one between neighboring pixels. Must be >= penaltySmall
+	 * and <= {@link SgmCostFunction#MAX_COST}.  If < 0 then a default value is selected based on the cost function.
+	 */
+	public int penaltyLarge = -1;
+	/**
+	 * Number of paths that costs are aggregated along.  Can be 4 or 8.
+	 */
+	public int paths = 8;
+	/**
+	 * If true then disparity is computed one row at a time and only paths going down the image are used. 3 paths
+	 * if {@link #paths} is 4 and 5 paths if it is 8.  Memory usage is then proportional to width*disparities
+	 * instead of width*height*disparities.
+	 */
+	public boolean rowStreaming = false;
+	/**
+	 * Tolerance for how different the left to right and right to left disparities can be. Disable with a value < 0.
+	 */
+	public int validateRtoL = 1;
+	/**
+	 * Reject a pixel if the second best disparity's cost isn't this fraction larger than the best one's.
+	 * Disparities adjacent to the best are not considered.  Disable with a value <= 0.
+	 */
+	public double uniqueness = 0.05;
+
+	public ConfigDisparitySgm(int minDisparity, int maxDisparity, Cost cost) {
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+		this.cost = cost;
+	}
+
+	public ConfigDisparitySgm() {
+	}
+
+	/**
+	 * Returns the small penalty which will actually be used
+	 */
+	public int selectPenaltySmall() {
+		if( penaltySmall >= 0 )
+			return penaltySmall;
+		if( cost == Cost.CENSUS )
+			return Math.max(1,costRadius*costRadius*3/4);
+		int w = costRadius*2+1;
+		return Math.min(SgmCostFunction.MAX_COST/4,8*w*w);
+	}
+
+	/**
+	 * Returns the large penalty which will actually be used
+	 */
+	public int selectPenaltyLarge() {
+		if( penaltyLarge >= 0 )
+			return penaltyLarge;
+		if( cost == Cost.CENSUS ) {
+			int w = costRadius*2+1;
+			return Math.max(selectPenaltySmall()+1,(w*w-1)*2/3);
+		}
+		int w = costRadius*2+1;
+		return Math.min(SgmCostFunction.MAX_COST,32*w*w);
+	}
+
+	@Override
+	public void checkValidity() {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+		if( maxDisparity-minDisparity >= 255 )
+			throw new IllegalArgumentException("The disparity range must be less than 255");
+		if( paths != 4 && paths != 8 )
+			throw new IllegalArgumentException("Number of paths must be 4 or 8");
+		if( cost == Cost.CENSUS && (costRadius < 1 || costRadius > 2) )
+			throw new IllegalArgumentException("Census cost radius must be 1 or 2");
+		if( costRadius < 0 )
+			throw new IllegalArgumentException("Cost radius can't be negative");
+		int p1 = selectPenaltySmall();
+		int p2 = selectPenaltyLarge();
+		if( p2 < p1 )
+			throw new IllegalArgumentException("penaltyLarge must be >= penaltySmall");
+		if( p2 > SgmCostFunction.MAX_COST )
+			throw new IllegalArgumentException("penaltyLarge must be <= "+SgmCostFunction.MAX_COST);
+	}
+
+	/**
+	 * Functions for computing the cost of matching two pixels
+	 */
+	public static enum Cost {
+		/**
+		 * Hamming distance between census transformed pixels
+		 *
+		 * @see boofcv.alg.transform.census.CensusTransform
+		 */
+		CENSUS,
+		/**
+		 * Sum of absolute differences inside a square region
+		 */
+		SAD
+	}
+}
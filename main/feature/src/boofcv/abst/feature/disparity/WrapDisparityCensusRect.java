@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.alg.transform.census.CensusType;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Applies the {@link CensusTransform} to both input images and then computes the disparity using a region
+ * based algorithm which scores the census transformed images with the Hamming distance.
+ *
+ * @param <C> Type of census transformed image
+ * @param <D> Type of disparity image
+ *
+ * @author Peter Abeles
+ */
+public class WrapDisparityCensusRect<C extends ImageSingleBand, D extends ImageSingleBand>
+		implements StereoDisparity<ImageUInt8,D>
+{
+	DisparityScoreRowFormat<C,D> alg;
+	CensusType type;
+
+	// census transformed input images
+	C censusLeft;
+	C censusRight;
+
+	D disparity;
+
+	public WrapDisparityCensusRect( CensusType type , DisparityScoreRowFormat<C,D> alg ) {
+		this.type = type;
+		this.alg = alg;
+
+		censusLeft = GeneralizedImageOps.createSingleBand(alg.getInputType(),1,1);
+		censusRight = GeneralizedImageOps.createSingleBand(alg.getInputType(),1,1);
+	}
+
+	@Override
+	public void process(ImageUInt8 imageLeft, ImageUInt8 imageRight) {
+		if( disparity == null || disparity.width != imageLeft.width || disparity.height != imageLeft.height )  {
+			// make sure the image borders are marked as invalid
+			disparity = GeneralizedImageOps.createSingleBand(alg.getDisparityType(),imageLeft.width,imageLeft.height);
+			GImageMiscOps.fill(disparity, getMaxDisparity() + 1);
+		}
+
+		censusLeft.reshape(imageLeft.width,imageLeft.height);
+		censusRight.reshape(imageRight.width,imageRight.height);
+
+		CensusTransform.transform(imageLeft, type, censusLeft);
+		CensusTransform.transform(imageRight, type, censusRight);
+
+		alg.process(censusLeft,censusRight,disparity);
+	}
+
+	@Override
+	public D getDisparity() {
+		return disparity;
+	}
+
+	@Override
+	public int getBorderX() {
+		return alg.getBorderX();
+	}
+
+	@Override
+	public int getBorderY() {
+		return alg.getBorderY();
+	}
+
+	@Override
+	public int getMinDisparity() {
+		return alg.getMinDisparity();
+	}
+
+	@Override
+	public int getMaxDisparity() {
+		return alg.getMaxDisparity();
+	}
+
+	@Override
+	public Class<ImageUInt8> getInputType() {
+		return ImageUInt8.class;
+	}
+
+	@Override
+	public Class<D> getDisparityType() {
+		return alg.getDisparityType();
+	}
+
+	public CensusType getCensusType() {
+		return type;
+	}
+
+	public DisparityScoreRowFormat<C,D> getAlg() {
+		return alg;
+	}
+}
@@ -20,6 +20,7 @@ package boofcv.abst.flow;
 
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.flow.DenseOpticalFlowKlt;
+import boofcv.alg.transform.pyramid.PyramidFrame;
 import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.flow.ImageFlow;
@@ -85,6 +86,22 @@ public class FlowKlt_to_DenseOpticalFlow<I extends ImageSingleBand, D extends Im
 		flowKlt.process(pyramidSrc,srcDerivX,srcDerivY,pyramidDst,flow);
 	}
 
+	/**
+	 * Computes the flow using image pyramids which are shared with other algorithms.  The gradient
+	 * is only needed for the source frame.
+	 *
+	 * @param source Pyramid of the source image
+	 * @param destination Pyramid of the destination image
+	 * @param flow Output flow from source to destination
+	 */
+	public void process( PyramidFrame<I,D> source , PyramidFrame<I,D> destination , ImageFlow flow ) {
+		if( source.getPyramid().getNumLayers() != pyramidSrc.getNumLayers() ||
+				destination.getPyramid().getNumLayers() != pyramidSrc.getNumLayers())
+			throw new IllegalArgumentException("Pyramids do not have the expected number of layers!");
+
+		flowKlt.process(source.getPyramid(),source.getDerivX(),source.getDerivY(),destination.getPyramid(),flow);
+	}
+
 	@Override
 	public ImageType<I> getInputType() {
 		return imageType;
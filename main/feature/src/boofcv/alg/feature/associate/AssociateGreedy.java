@@ -39,24 +39,47 @@ import org.ddogleg.struct.GrowQueue_I32;
  * associated with feature in src.
  * </p>
  *
+ * <p>
+ * Optionally, a ratio test [1] can be applied.  A match is only accepted if its score is no more than the ratio
+ * times the second best score for the same src feature.  Ambiguous matches, which are likely to be incorrect, are
+ * discarded.  Only valid for scores where zero is best, see {@link boofcv.struct.feature.MatchScoreType#NORM_ERROR}.
+ * If the score is the Euclidean distance squared then the ratio should be squared too.
+ * </p>
+ *
+ * <p>
+ * The score matrix is processed in tiles so that the descriptors being compared stay in the cache.  Only the
+ * best and second best score in each row and column is saved, so memory is O(N+M).
+ * </p>
+ *
+ * <p>
+ * [1] David G. Lowe, "Distinctive Image Features from Scale-Invariant Keypoints" IJCV 2004
+ * </p>
+ *
  * @param <D> Feature description type.
  *
  * @author Peter Abeles
  */
 public class AssociateGreedy<D> {
 
+	// number of rows and columns in a tile of the score matrix
+	protected static final int TILE = 32;
+
 	// computes association score
-	private ScoreAssociation<D> score;
+	protected ScoreAssociation<D> score;
 	// worst allowed fit score to associate
-	private double maxFitError = Double.MAX_VALUE;
+	protected double maxFitError = Double.MAX_VALUE;
 	// stores the quality of fit score
-	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	protected GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	// second best score in each row
+	protected GrowQueue_F64 fitSecond = new GrowQueue_F64(100);
 	// stores indexes of associated
-	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
-	// various
-	private GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
+	protected GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	// best and second best score in each column
+	protected ColumnScores columns = new ColumnScores();
 	// if true backwardsValidation is done
-	private boolean backwardsValidation;
+	protected boolean backwardsValidation;
+	// best score must be no more than this ratio times the second best score.  1 = disabled
+	protected double ratioTest = 1.0;
 
 	/**
 	 * Configure association
@@ -79,47 +102,97 @@ public class AssociateGreedy<D> {
 	public void associate( FastQueue<D> src ,
 						   FastQueue<D> dst )
 	{
-		fitQuality.reset();
-		pairs.reset();
-		workBuffer.reset();
-
-//		System.out.println("Associate: "+src.size+"*"+dst.size+" = "+(src.size*dst.size)+" or "+(src.size*dst.size*8/1024/1024)+"MB");
-		fitQuality.setMaxSize(src.size);
-		workBuffer.setMaxSize(src.size*dst.size);
-		for( int i = 0; i < src.size; i++ ) {
-			D a = src.data[i];
-			double bestScore = maxFitError;
-			int bestIndex = -1;
-
-			for( int j = 0; j < dst.size; j++ ) {
-				D b = dst.data[j];
-
-				double fit = score.score(a,b);
-				workBuffer.push(fit);
-
-				if( fit <= bestScore ) {
-					bestIndex = j;
-					bestScore = fit;
+		initialize(src.size, dst.size);
+		scoreRows(src, dst, 0, src.size, columns);
+		selectMatches(src.size);
+	}
+
+	/**
+	 * Declares memory and resets the best scores
+	 */
+	protected void initialize( int numSrc , int numDst ) {
+		pairs.resize(numSrc);
+		fitQuality.resize(numSrc);
+		fitSecond.resize(numSrc);
+		for( int i = 0; i < numSrc; i++ ) {
+			pairs.data[i] = -1;
+			fitQuality.data[i] = Double.MAX_VALUE;
+			fitSecond.data[i] = Double.MAX_VALUE;
+		}
+		columns.reset(numDst);
+	}
+
+	/**
+	 * Scores rows src[row0:row1-1] against all of dst one tile at a time.  Rows are only written to inside
+	 * of the specified range while column scores are written to 'columns'.
+	 */
+	protected void scoreRows( FastQueue<D> src , FastQueue<D> dst , int row0 , int row1 , ColumnScores columns ) {
+		for( int tileRow = row0; tileRow < row1; tileRow += TILE ) {
+			int endRow = Math.min(row1, tileRow + TILE);
+
+			for( int tileCol = 0; tileCol < dst.size; tileCol += TILE ) {
+				int endCol = Math.min(dst.size, tileCol + TILE);
+
+				for( int i = tileRow; i < endRow; i++ ) {
+					D a = src.data[i];
+					double best = fitQuality.data[i];
+					double second = fitSecond.data[i];
+					int bestIndex = pairs.data[i];
+
+					for( int j = tileCol; j < endCol; j++ ) {
+						double fit = score.score(a,dst.data[j]);
+
+						if( fit <= best ) {
+							if( bestIndex >= 0 )
+								second = best;
+							bestIndex = j;
+							best = fit;
+						} else if( fit < second ) {
+							second = fit;
+						}
+						columns.add(j, i, fit);
+					}
+					pairs.data[i] = bestIndex;
+					fitQuality.data[i] = best;
+					fitSecond.data[i] = second;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the maximum fit error and backwards validation to the best score in each row
+	 */
+	protected void selectMatches( int numSrc ) {
+		for( int i = 0; i < numSrc; i++ ) {
+			if( pairs.data[i] < 0 || !(fitQuality.data[i] <= maxFitError) ) {
+				pairs.data[i] = -1;
+				fitQuality.data[i] = maxFitError;
+			}
+		}
+
+		if( ratioTest < 1.0 ) {
+			for( int i = 0; i < numSrc; i++ ) {
+				if( pairs.data[i] == -1 )
+					continue;
+
+				if( !(fitQuality.data[i] <= ratioTest*fitSecond.data[i]) ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
 				}
 			}
-			pairs.push(bestIndex);
-			fitQuality.push(bestScore);
 		}
 
 		if( backwardsValidation ) {
-			for( int i = 0; i < src.size; i++ ) {
+			for( int i = 0; i < numSrc; i++ ) {
 				int match = pairs.data[i];
 				if( match == -1 )
 					continue;
 
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
-
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
-					if( workBuffer.data[match] <= scoreToBeat && j != i) {
-						pairs.data[i] = -1;
-						fitQuality.data[i] = Double.MAX_VALUE;
-						break;
-					}
+				// it's only valid if no other row has a score which is as good
+				if( columns.bestRow.data[match] != i || columns.second.data[match] <= fitQuality.data[i] ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
 				}
 			}
 		}
@@ -146,10 +219,45 @@ public class AssociateGreedy<D> {
 		return fitQuality.data;
 	}
 
+	/**
+	 * Second best fit score for each src, independent of the maximum fit error.  If there is only one
+	 * dst then it will be Double.MAX_VALUE.
+	 *
+	 * @return Array of second best fit scores by src index.
+	 */
+	public double[] getFitSecond() {
+		return fitSecond.data;
+	}
+
+	/**
+	 * Best and second best scores for each dst, independent of the maximum fit error.
+	 */
+	public ColumnScores getColumnScores() {
+		return columns;
+	}
+
 	public void setMaxFitError(double maxFitError) {
 		this.maxFitError = maxFitError;
 	}
 
+	/**
+	 * Specifies the ratio test's threshold.  A match is accepted if the best score is no more than this ratio
+	 * times the second best score.  Lowe suggests 0.8 for the Euclidean distance.
+	 *
+	 * @param ratioTest From 0 to 1, inclusive.  Set to 1 to disable the ratio test.
+	 */
+	public void setRatioTest(double ratioTest) {
+		if( ratioTest < 0 || ratioTest > 1 )
+			throw new IllegalArgumentException("Ratio must be from 0 to 1");
+		if( ratioTest < 1 && !score.getScoreType().isZeroBest() )
+			throw new IllegalArgumentException("The ratio test requires a score where zero is best");
+		this.ratioTest = ratioTest;
+	}
+
+	public double getRatioTest() {
+		return ratioTest;
+	}
+
 	public ScoreAssociation<D> getScore() {
 		return score;
 	}
@@ -157,4 +265,56 @@ public class AssociateGreedy<D> {
 	public boolean isBackwardsValidation() {
 		return backwardsValidation;
 	}
+
+	/**
+	 * The best and second best score in each column of the score matrix, i.e. for each dst feature.
+	 */
+	public static class ColumnScores {
+		// best score
+		public GrowQueue_F64 best = new GrowQueue_F64();
+		// index of the row with the best score. -1 if none
+		public GrowQueue_I32 bestRow = new GrowQueue_I32();
+		// second best score
+		public GrowQueue_F64 second = new GrowQueue_F64();
+
+		public void reset( int numColumns ) {
+			best.resize(numColumns);
+			bestRow.resize(numColumns);
+			second.resize(numColumns);
+			for( int i = 0; i < numColumns; i++ ) {
+				best.data[i] = Double.POSITIVE_INFINITY;
+				bestRow.data[i] = -1;
+				second.data[i] = Double.POSITIVE_INFINITY;
+			}
+		}
+
+		public void add( int column , int row , double fit ) {
+			if( fit < best.data[column] ) {
+				second.data[column] = best.data[column];
+				best.data[column] = fit;
+				bestRow.data[column] = row;
+			} else if( fit < second.data[column] ) {
+				second.data[column] = fit;
+			}
+		}
+
+		/**
+		 * Adds the scores from a disjoint set of rows.  Ties are resolved in favor of the lower row index,
+		 * the same as if all the rows had been added in order.
+		 */
+		public void merge( ColumnScores other ) {
+			for( int i = 0; i < best.size; i++ ) {
+				double otherBest = other.best.data[i];
+				int otherRow = other.bestRow.data[i];
+				if( otherBest < best.data[i] ||
+						(otherBest == best.data[i] && otherRow >= 0 && otherRow < bestRow.data[i]) ) {
+					second.data[i] = Math.min(best.data[i], other.second.data[i]);
+					best.data[i] = otherBest;
+					bestRow.data[i] = otherRow;
+				} else {
+					second.data[i] = Math.min(second.data[i], otherBest);
+				}
+			}
+		}
+	}
 }
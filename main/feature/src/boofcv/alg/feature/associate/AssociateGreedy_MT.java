@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link AssociateGreedy}.  Blocks of src rows are scored in parallel, each
+ * one tile at a time.  Every block keeps its own best and second best column scores, which are merged once
+ * the block is done.  Produces identical results to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * NOTE: The {@link ScoreAssociation} is called from multiple threads and must not modify its internal state.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedy_MT<D> extends AssociateGreedy<D> {
+
+	// column scores for each block
+	private WorkerPool<ColumnScores> pool = new WorkerPool<ColumnScores>(new WorkerFactory<ColumnScores>() {
+		@Override
+		public ColumnScores create() {
+			return new ColumnScores();
+		}
+	});
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.  Must be thread safe.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedy_MT(ScoreAssociation<D> score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+	}
+
+	@Override
+	public void associate( final FastQueue<D> src , final FastQueue<D> dst ) {
+		initialize(src.size, dst.size);
+
+		BoofConcurrency.loopBlocks(0, src.size, TILE, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				ColumnScores local = pool.acquire();
+				local.reset(dst.size);
+				scoreRows(src, dst, start, end, local);
+				synchronized ( columns ) {
+					columns.merge(local);
+				}
+				pool.release(local);
+			}
+		});
+
+		selectMatches(src.size);
+	}
+}
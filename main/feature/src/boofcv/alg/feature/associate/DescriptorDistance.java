@@ -209,12 +209,17 @@ public class DescriptorDistance {
 	 * @return The hamming distance
 	 */
 	public static int hamming( int val ) {
-		int distance = 0;
+		// compiled down to a single popcount instruction on CPUs which support it
+		return Integer.bitCount(val);
+	}
 
-		while( val != 0 ) {
-			val &= val - 1;
-			distance++;
-		}
-		return distance;
+	/**
+	 * Computes the hamming distance of a 64-bit encoding.  A bit = 0 is a match and 1 is not match
+	 *
+	 * @param val Hamming encoding
+	 * @return The hamming distance
+	 */
+	public static int hamming( long val ) {
+		return Long.bitCount(val);
 	}
 }
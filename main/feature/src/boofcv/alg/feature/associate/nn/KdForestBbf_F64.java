@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate.nn;
+
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest-neighbor search using a forest of randomized K-D trees and a best-bin-first search [1].
+ * Intended for feature descriptors with a high degree of freedom, e.g. SURF and SIFT.  Points are copied into
+ * a single flat array, nodes are stored in parallel primitive arrays, and the search queue is a primitive
+ * binary heap.  Storage is recycled, once it has grown to the problem size no memory is declared when
+ * the points are changed or when searching.
+ * </p>
+ *
+ * <p>
+ * Each tree is built by recursively splitting the points at the mean of a dimension, which is selected at
+ * random from the dimensions with the largest variance.  The search descends each tree once and then
+ * explores the closest unexplored branches across all trees until the maximum number of points has been
+ * checked.  Points which appear in more than one tree are only checked once.  The random number generator is
+ * reseeded each time the points are set, making the output a function of the input only.
+ * </p>
+ *
+ * <p>
+ * [1] Chanop Silpa-Anan and Richard Hartley, "Optimised KD-trees for fast image descriptor matching" CVPR 2008
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdForestBbf_F64 {
+
+	// number of points sampled when computing the mean and variance of a node
+	private static final int SAMPLES = 100;
+
+	// number of elements in each point
+	private int dof;
+	// maximum number of points the distance is computed for
+	private int maxChecks;
+	// number of trees in the forest
+	private int numTrees;
+	// the split dimension is selected from this many dimensions with the largest variance
+	private int numConsiderSplit;
+	// maximum number of points in a leaf
+	private int maxLeafSize;
+
+	private long randomSeed;
+	private Random rand;
+
+	// copy of all the points.  Point i starts at index i*dof
+	private double points[] = new double[0];
+	private int numPoints;
+
+	// for each tree a permutation of point indexes.  Leaves reference a range inside this array
+	private int indexes[] = new int[0];
+
+	// Nodes for every tree.  For leaves nodeDim is -1 and nodeA/nodeB is the range in 'indexes'.  Otherwise
+	// nodeDim is the split dimension and nodeA/nodeB are the lower/upper children
+	private int nodeDim[] = new int[0];
+	private double nodeSplit[] = new double[0];
+	private int nodeA[] = new int[0];
+	private int nodeB[] = new int[0];
+	private int numNodes;
+	private int roots[];
+
+	// work space for building the trees
+	private int stack[] = new int[0];
+	private double mean[];
+	private double variance[];
+	private int candidates[];
+
+	// priority queue of branches which have not been explored, sorted by distance from the split
+	private double heapDistance[] = new double[0];
+	private int heapNode[] = new int[0];
+	private int heapSize;
+
+	// used to mark points which have already been checked in the current search
+	private int marks[] = new int[0];
+	private int mark;
+	// number of points checked in the current search
+	private int checks;
+
+	// the best match found in the most recent search
+	private int bestIndex;
+	private double bestDistance;
+
+	/**
+	 * Configures the search.
+	 *
+	 * @param dof Number of elements in each point.
+	 * @param maxChecks Maximum number of points it will compute the distance to.  Controls speed and accuracy.
+	 * @param numTrees Number of trees in the forest.  Try 4 to 10.
+	 * @param numConsiderSplit Number of dimensions with the largest variance considered when splitting.  Try 5.
+	 * @param maxLeafSize Maximum number of points in a leaf.  Try 1 to 8.
+	 * @param randomSeed Seed used by the random number generator.
+	 */
+	public KdForestBbf_F64( int dof , int maxChecks , int numTrees , int numConsiderSplit ,
+							int maxLeafSize , long randomSeed ) {
+		if( dof <= 0 )
+			throw new IllegalArgumentException("dof must be more than zero");
+		if( maxChecks <= 0 || numTrees <= 0 || numConsiderSplit <= 0 || maxLeafSize <= 0 )
+			throw new IllegalArgumentException("maxChecks, numTrees, numConsiderSplit, and maxLeafSize must be more than zero");
+
+		this.dof = dof;
+		this.maxChecks = maxChecks;
+		this.numTrees = numTrees;
+		this.numConsiderSplit = Math.min(dof,numConsiderSplit);
+		this.maxLeafSize = maxLeafSize;
+		this.randomSeed = randomSeed;
+
+		rand = new Random(randomSeed);
+		roots = new int[numTrees];
+		mean = new double[dof];
+		variance = new double[dof];
+		candidates = new int[this.numConsiderSplit];
+	}
+
+	/**
+	 * Copies the points and constructs the forest.
+	 *
+	 * @param list Points which are searched.  Not modified.
+	 */
+	public void setPoints( FastQueue<? extends TupleDesc_F64> list ) {
+		numPoints = list.size;
+		int maxNodes = numTrees*Math.max(1,2*numPoints-1);
+
+		if( points.length < numPoints*dof ) {
+			points = new double[numPoints*dof];
+			marks = new int[numPoints];
+		}
+		if( indexes.length < numTrees*numPoints ) {
+			indexes = new int[numTrees*numPoints];
+		}
+		if( stack.length < 3*(numPoints+1) ) {
+			stack = new int[3*(numPoints+1)];
+		}
+		if( nodeDim.length < maxNodes ) {
+			nodeDim = new int[maxNodes];
+			nodeSplit = new double[maxNodes];
+			nodeA = new int[maxNodes];
+			nodeB = new int[maxNodes];
+			heapDistance = new double[maxNodes];
+			heapNode = new int[maxNodes];
+		}
+
+		for( int i = 0; i < numPoints; i++ ) {
+			double[] value = list.data[i].value;
+			if( value.length != dof )
+				throw new IllegalArgumentException("Unexpected descriptor length");
+			System.arraycopy(value,0,points,i*dof,dof);
+			marks[i] = 0;
+		}
+		mark = 0;
+
+		rand.setSeed(randomSeed);
+		numNodes = 0;
+		for( int tree = 0; tree < numTrees; tree++ ) {
+			int offset = tree*numPoints;
+			for( int i = 0; i < numPoints; i++ ) {
+				indexes[offset+i] = i;
+			}
+			roots[tree] = buildTree(offset,offset+numPoints);
+		}
+	}
+
+	/**
+	 * Builds a tree for the points referenced by indexes[start:end-1]
+	 *
+	 * @return index of the root node
+	 */
+	private int buildTree( int start , int end ) {
+		int root = numNodes++;
+		int stackSize = 0;
+		stack[stackSize++] = root; stack[stackSize++] = start; stack[stackSize++] = end;
+
+		while( stackSize > 0 ) {
+			int hi = stack[--stackSize];
+			int lo = stack[--stackSize];
+			int node = stack[--stackSize];
+
+			if( hi-lo <= maxLeafSize ) {
+				setLeaf(node,lo,hi);
+				continue;
+			}
+
+			int dim = selectSplitDimension(lo,hi);
+			double split = mean[dim];
+			int middle = partition(lo,hi,dim,split);
+
+			if( middle == lo || middle == hi ) {
+				// all the points have the same value along the split, give up on this branch
+				setLeaf(node,lo,hi);
+				continue;
+			}
+
+			int lower = numNodes++;
+			int upper = numNodes++;
+			nodeDim[node] = dim;
+			nodeSplit[node] = split;
+			nodeA[node] = lower;
+			nodeB[node] = upper;
+
+			stack[stackSize++] = lower; stack[stackSize++] = lo; stack[stackSize++] = middle;
+			stack[stackSize++] = upper; stack[stackSize++] = middle; stack[stackSize++] = hi;
+		}
+
+		return root;
+	}
+
+	private void setLeaf( int node , int lo , int hi ) {
+		nodeDim[node] = -1;
+		nodeA[node] = lo;
+		nodeB[node] = hi;
+	}
+
+	/**
+	 * Computes the mean and variance of a sample of the points and randomly selects one of the dimensions
+	 * with the largest variance.  The mean is left in {@link #mean}.
+	 */
+	private int selectSplitDimension( int lo , int hi ) {
+		int step = Math.max(1,(hi-lo)/SAMPLES);
+
+		for( int k = 0; k < dof; k++ ) {
+			mean[k] = 0;
+			variance[k] = 0;
+		}
+
+		int N = 0;
+		for( int i = lo; i < hi; i += step , N++ ) {
+			int offset = indexes[i]*dof;
+			for( int k = 0; k < dof; k++ ) {
+				mean[k] += points[offset+k];
+			}
+		}
+		for( int k = 0; k < dof; k++ ) {
+			mean[k] /= N;
+		}
+		for( int i = lo; i < hi; i += step ) {
+			int offset = indexes[i]*dof;
+			for( int k = 0; k < dof; k++ ) {
+				double d = points[offset+k] - mean[k];
+				variance[k] += d*d;
+			}
+		}
+
+		// insertion sort to find the dimensions with the largest variance
+		int numCandidates = 0;
+		for( int k = 0; k < dof; k++ ) {
+			double v = variance[k];
+			if( numCandidates == candidates.length && v <= variance[candidates[numCandidates-1]] )
+				continue;
+			int j = numCandidates < candidates.length ? numCandidates++ : numCandidates-1;
+			while( j > 0 && variance[candidates[j-1]] < v ) {
+				candidates[j] = candidates[j-1];
+				j--;
+			}
+			candidates[j] = k;
+		}
+
+		return candidates[rand.nextInt(numCandidates)];
+	}
+
+	/**
+	 * Reorders indexes[lo:hi-1] so that points which are less than the split come first.
+	 *
+	 * @return index of the first point which is greater than or equal to the split
+	 */
+	private int partition( int lo , int hi , int dim , double split ) {
+		int i = lo, j = hi-1;
+		while( i <= j ) {
+			if( points[indexes[i]*dof+dim] < split ) {
+				i++;
+			} else {
+				int tmp = indexes[i];
+				indexes[i] = indexes[j];
+				indexes[j--] = tmp;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Searches for the point which is closest to the provided point.
+	 *
+	 * @param point The point being searched for.  Must have the same number of elements as the points in the forest.
+	 * @param maxDistanceSq Maximum allowed Euclidean distance squared, inclusive.  If negative there is no limit.
+	 * @return true if a match was found.  See {@link #getBestIndex()} and {@link #getBestDistance()}.
+	 */
+	public boolean findNearest( double[] point , double maxDistanceSq ) {
+		bestIndex = -1;
+		bestDistance = maxDistanceSq < 0 ? Double.MAX_VALUE : maxDistanceSq;
+
+		if( numPoints == 0 )
+			return false;
+
+		if( mark == Integer.MAX_VALUE ) {
+			for( int i = 0; i < numPoints; i++ )
+				marks[i] = 0;
+			mark = 0;
+		}
+		mark++;
+		checks = 0;
+		heapSize = 0;
+
+		for( int tree = 0; tree < numTrees; tree++ ) {
+			descend(point, roots[tree]);
+		}
+
+		while( heapSize > 0 && checks < maxChecks ) {
+			if( heapDistance[0] > bestDistance )
+				break;
+			descend(point,popHeap());
+		}
+
+		return bestIndex >= 0;
+	}
+
+	/**
+	 * Follows the closest branch down to a leaf, adding the other branches to the queue, and checks the
+	 * points in the leaf
+	 */
+	private void descend( double[] point , int node ) {
+		while( nodeDim[node] >= 0 ) {
+			double diff = point[nodeDim[node]] - nodeSplit[node];
+			int near, far;
+			if( diff < 0 ) {
+				near = nodeA[node]; far = nodeB[node];
+			} else {
+				near = nodeB[node]; far = nodeA[node];
+			}
+			double d = diff*diff;
+			if( d <= bestDistance )
+				pushHeap(far,d);
+			node = near;
+		}
+
+		for( int i = nodeA[node]; i < nodeB[node]; i++ ) {
+			int index = indexes[i];
+			if( marks[index] == mark )
+				continue;
+			marks[index] = mark;
+			checks++;
+
+			double d = distance(point,index*dof,bestDistance);
+			if( d < bestDistance || (d == bestDistance && bestIndex < 0) ) {
+				bestDistance = d;
+				bestIndex = index;
+			}
+		}
+	}
+
+	/**
+	 * Euclidean distance squared.  Computation stops early once it exceeds the limit.
+	 */
+	private double distance( double[] a , int offsetB , double limit ) {
+		double total = 0;
+		int i = 0;
+		int end = dof - dof % 4;
+		while( i < end ) {
+			double d0 = a[i  ] - points[offsetB  ];
+			double d1 = a[i+1] - points[offsetB+1];
+			double d2 = a[i+2] - points[offsetB+2];
+			double d3 = a[i+3] - points[offsetB+3];
+			total += d0*d0 + d1*d1 + d2*d2 + d3*d3;
+			if( total > limit )
+				return total;
+			i += 4;
+			offsetB += 4;
+		}
+		for( ; i < dof; i++ , offsetB++ ) {
+			double d = a[i] - points[offsetB];
+			total += d*d;
+		}
+		return total;
+	}
+
+	private void pushHeap( int node , double distance ) {
+		int i = heapSize++;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( heapDistance[parent] <= distance )
+				break;
+			heapDistance[i] = heapDistance[parent];
+			heapNode[i] = heapNode[parent];
+			i = parent;
+		}
+		heapDistance[i] = distance;
+		heapNode[i] = node;
+	}
+
+	private int popHeap() {
+		int ret = heapNode[0];
+		heapSize--;
+		if( heapSize == 0 )
+			return ret;
+
+		double distance = heapDistance[heapSize];
+		int node = heapNode[heapSize];
+		int i = 0;
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= heapSize )
+				break;
+			if( child+1 < heapSize && heapDistance[child+1] < heapDistance[child] )
+				child++;
+			if( distance <= heapDistance[child] )
+				break;
+			heapDistance[i] = heapDistance[child];
+			heapNode[i] = heapNode[child];
+			i = child;
+		}
+		heapDistance[i] = distance;
+		heapNode[i] = node;
+		return ret;
+	}
+
+	/**
+	 * Index of the closest point found in the most recent search
+	 */
+	public int getBestIndex() {
+		return bestIndex;
+	}
+
+	/**
+	 * Euclidean distance squared of the closest point found in the most recent search
+	 */
+	public double getBestDistance() {
+		return bestDistance;
+	}
+
+	public int getNumPoints() {
+		return numPoints;
+	}
+
+	public int getDof() {
+		return dof;
+	}
+
+	public int getMaxChecks() {
+		return maxChecks;
+	}
+
+	public void setMaxChecks(int maxChecks) {
+		this.maxChecks = maxChecks;
+	}
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate.nn;
+
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>
+ * Database of binary descriptors which can be searched for the nearest neighbor in sub-linear time using
+ * multi-index hashing [1].  Each descriptor is inserted into several hash tables.  The key for each table
+ * is a different subset of the descriptor's bits.  When searching, only descriptors in the same buckets as
+ * the query, or in buckets whose keys are within the probe radius of the query's keys, are compared.
+ * Descriptors can be inserted and removed at any time, allowing a persistent database to be queried
+ * every frame.
+ * </p>
+ *
+ * <p>
+ * Bits are assigned to tables from a random permutation.  If numTables*keyBits is no more than the
+ * number of bits then the subsets are disjoint and, by the pigeon hole principle, any descriptor within a
+ * Hamming distance of numTables*(probeRadius+1)-1 of the query is guaranteed to be compared.  Past
+ * that distance the search is approximate and a match might not be found.
+ * </p>
+ *
+ * <p>
+ * Buckets are doubly linked lists stored in primitive arrays and indexed by descriptor ID, so insert and
+ * remove are O(numTables) and memory is only declared when the capacity grows.
+ * </p>
+ *
+ * <p>
+ * [1] Mohammad Norouzi, Ali Punjani, and David J. Fleet, "Fast Search in Hamming Space with Multi-Index Hashing"
+ * CVPR 2012
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MultiIndexHashing_B {
+
+	// number of bits in each descriptor
+	private int numBits;
+	// number of integers used to store each descriptor
+	private int numWords;
+	// number of hash tables
+	private int numTables;
+	// number of bits in each key
+	private int keyBits;
+	// keys within this Hamming distance of the query's keys are checked
+	private int probeRadius;
+
+	// For each table, which bit in the descriptor each bit in the key comes from
+	private int tableBits[];
+
+	// copy of each descriptor.  Descriptor with ID 'i' starts at i*numWords
+	private int descriptors[] = new int[0];
+	// true if the ID is in use
+	private boolean active[] = new boolean[0];
+	// number of IDs which have been assigned, active or not
+	private int numIds;
+	// number of IDs which are active
+	private int numActive;
+	// stack of IDs which have been removed and can be reused
+	private int freeIds[] = new int[0];
+	private int numFree;
+
+	// First ID in each bucket.  Table 't' with key 'k' is at index (t << keyBits) | k
+	private int heads[];
+	// Links between IDs in the same bucket.  ID 'i' in table 't' is at index i*numTables + t
+	private int next[] = new int[0];
+	private int previous[] = new int[0];
+
+	// used to mark descriptors which have already been compared in the current search
+	private int marks[] = new int[0];
+	private int mark;
+
+	// the best match found in the most recent search
+	private int bestId;
+	private int bestDistance;
+
+	/**
+	 * Configures the database.
+	 *
+	 * @param numBits Number of bits in each descriptor
+	 * @param numTables Number of hash tables.
+	 * @param keyBits Number of bits in each table's key.  From 1 to 24.  Memory used by the tables is numTables*2^keyBits.
+	 * @param probeRadius Buckets with keys this Hamming distance from the query's key are searched.  0, 1, or 2.
+	 * @param randomSeed Seed used to assign bits to tables
+	 */
+	public MultiIndexHashing_B( int numBits , int numTables , int keyBits , int probeRadius , long randomSeed ) {
+		if( numBits <= 0 || numTables <= 0 )
+			throw new IllegalArgumentException("numBits and numTables must be more than zero");
+		if( keyBits < 1 || keyBits > 24 || keyBits > numBits )
+			throw new IllegalArgumentException("keyBits must be from 1 to 24 and no more than numBits");
+		if( probeRadius < 0 || probeRadius > 2 )
+			throw new IllegalArgumentException("probeRadius must be 0, 1, or 2");
+
+		this.numBits = numBits;
+		this.numWords = numBits/32 + (numBits % 32 != 0 ? 1 : 0);
+		this.numTables = numTables;
+		this.keyBits = keyBits;
+		this.probeRadius = probeRadius;
+
+		heads = new int[numTables << keyBits];
+		Arrays.fill(heads,-1);
+
+		// assign bits from a random permutation, only reusing bits after they have all been assigned once
+		Random rand = new Random(randomSeed);
+		int permutation[] = new int[numBits];
+		for( int i = 0; i < numBits; i++ )
+			permutation[i] = i;
+		tableBits = new int[numTables*keyBits];
+		int used = numBits;
+		for( int i = 0; i < tableBits.length; i++ ) {
+			if( used == numBits ) {
+				for( int j = numBits-1; j > 0; j-- ) {
+					int k = rand.nextInt(j+1);
+					int tmp = permutation[j]; permutation[j] = permutation[k]; permutation[k] = tmp;
+				}
+				used = 0;
+			}
+			tableBits[i] = permutation[used++];
+		}
+	}
+
+	/**
+	 * Removes all descriptors from the database.
+	 */
+	public void clear() {
+		if( numActive > 0 )
+			Arrays.fill(heads,-1);
+		for( int i = 0; i < numIds; i++ )
+			active[i] = false;
+		numIds = 0;
+		numActive = 0;
+		numFree = 0;
+	}
+
+	/**
+	 * Adds a copy of the descriptor to the database.
+	 *
+	 * @param desc The descriptor.  Not modified.
+	 * @return ID assigned to the descriptor.  IDs of removed descriptors are reused.
+	 */
+	public int insert( TupleDesc_B desc ) {
+		if( desc.numBits != numBits )
+			throw new IllegalArgumentException("Unexpected number of bits in descriptor");
+
+		int id;
+		if( numFree > 0 ) {
+			id = freeIds[--numFree];
+		} else {
+			if( numIds == active.length )
+				growCapacity(Math.max(16,numIds*2));
+			id = numIds++;
+		}
+
+		System.arraycopy(desc.data,0,descriptors,id*numWords,numWords);
+		active[id] = true;
+		numActive++;
+
+		for( int table = 0; table < numTables; table++ ) {
+			int bucket = (table << keyBits) | computeKey(descriptors,id*numWords,table);
+			int index = id*numTables + table;
+			int first = heads[bucket];
+			previous[index] = -1;
+			next[index] = first;
+			if( first >= 0 )
+				previous[first*numTables + table] = id;
+			heads[bucket] = id;
+		}
+
+		return id;
+	}
+
+	/**
+	 * Removes the descriptor from the database.
+	 *
+	 * @param id ID of the descriptor, as returned by {@link #insert}
+	 */
+	public void remove( int id ) {
+		if( !isActive(id) )
+			throw new IllegalArgumentException("No descriptor with ID "+id);
+
+		for( int table = 0; table < numTables; table++ ) {
+			int index = id*numTables + table;
+			int before = previous[index];
+			int after = next[index];
+			if( before >= 0 ) {
+				next[before*numTables + table] = after;
+			} else {
+				heads[(table << keyBits) | computeKey(descriptors,id*numWords,table)] = after;
+			}
+			if( after >= 0 )
+				previous[after*numTables + table] = before;
+		}
+
+		active[id] = false;
+		numActive--;
+		if( freeIds.length == numFree )
+			freeIds = Arrays.copyOf(freeIds,Math.max(16,numFree*2));
+		freeIds[numFree++] = id;
+	}
+
+	private void growCapacity( int capacity ) {
+		descriptors = Arrays.copyOf(descriptors,capacity*numWords);
+		active = Arrays.copyOf(active,capacity);
+		next = Arrays.copyOf(next,capacity*numTables);
+		previous = Arrays.copyOf(previous,capacity*numTables);
+		marks = Arrays.copyOf(marks,capacity);
+	}
+
+	/**
+	 * Extracts the key for the specified table from the descriptor
+	 */
+	private int computeKey( int data[] , int offset , int table ) {
+		int key = 0;
+		int start = table*keyBits;
+		for( int i = 0; i < keyBits; i++ ) {
+			int bit = tableBits[start+i];
+			key |= ((data[offset + (bit >> 5)] >>> (bit & 31)) & 0x01) << i;
+		}
+		return key;
+	}
+
+	/**
+	 * Searches for the descriptor in the database which is closest to the query
+	 *
+	 * @param query The descriptor being searched for
+	 * @param maxDistance Maximum allowed Hamming distance, inclusive.  If negative there is no limit.
+	 * @return true if a match was found.  See {@link #getBestId()} and {@link #getBestDistance()}.
+	 */
+	public boolean findNearest( TupleDesc_B query , int maxDistance ) {
+		bestId = -1;
+		bestDistance = maxDistance < 0 ? Integer.MAX_VALUE : maxDistance;
+
+		if( numActive == 0 )
+			return false;
+
+		if( mark == Integer.MAX_VALUE ) {
+			Arrays.fill(marks,0);
+			mark = 0;
+		}
+		mark++;
+
+		for( int table = 0; table < numTables; table++ ) {
+			int key = computeKey(query.data,0,table);
+			int offset = table << keyBits;
+
+			searchBucket(query.data,offset | key,table);
+			if( probeRadius >= 1 ) {
+				for( int i = 0; i < keyBits; i++ ) {
+					int keyA = key ^ (1 << i);
+					searchBucket(query.data,offset | keyA,table);
+					if( probeRadius == 2 ) {
+						for( int j = i+1; j < keyBits; j++ ) {
+							searchBucket(query.data,offset | (keyA ^ (1 << j)),table);
+						}
+					}
+				}
+			}
+		}
+
+		return bestId >= 0;
+	}
+
+	private void searchBucket( int query[] , int bucket , int table ) {
+		int id = heads[bucket];
+		while( id >= 0 ) {
+			if( marks[id] != mark ) {
+				marks[id] = mark;
+
+				int distance = 0;
+				int offset = id*numWords;
+				for( int i = 0; i < numWords; i++ ) {
+					distance += DescriptorDistance.hamming(query[i] ^ descriptors[offset+i]);
+				}
+				if( distance < bestDistance || (distance == bestDistance && bestId < 0) ) {
+					bestDistance = distance;
+					bestId = id;
+				}
+			}
+			id = next[id*numTables + table];
+		}
+	}
+
+	/**
+	 * Returns true if the ID is currently assigned to a descriptor in the database
+	 */
+	public boolean isActive( int id ) {
+		return id >= 0 && id < numIds && active[id];
+	}
+
+	/**
+	 * Copies the descriptor with the specified ID into 'output'
+	 */
+	public void getDescriptor( int id , TupleDesc_B output ) {
+		if( !isActive(id) )
+			throw new IllegalArgumentException("No descriptor with ID "+id);
+		System.arraycopy(descriptors,id*numWords,output.data,0,numWords);
+	}
+
+	/**
+	 * ID of the closest descriptor found in the most recent search
+	 */
+	public int getBestId() {
+		return bestId;
+	}
+
+	/**
+	 * Hamming distance of the closest descriptor found in the most recent search
+	 */
+	public int getBestDistance() {
+		return bestDistance;
+	}
+
+	/**
+	 * Number of descriptors in the database
+	 */
+	public int size() {
+		return numActive;
+	}
+
+	/**
+	 * One more than the largest ID which has been assigned
+	 */
+	public int getNumIds() {
+		return numIds;
+	}
+
+	public int getNumBits() {
+		return numBits;
+	}
+
+	public int getNumTables() {
+		return numTables;
+	}
+
+	public int getKeyBits() {
+		return keyBits;
+	}
+
+	public int getProbeRadius() {
+		return probeRadius;
+	}
+}
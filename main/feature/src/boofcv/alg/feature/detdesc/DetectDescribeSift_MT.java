@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftDetector;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageFloat32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DetectDescribeSift}.  The orientations of detected features are estimated in
+ * parallel and then the descriptors are computed in parallel.  Each thread has its own orientation and
+ * descriptor algorithms.  For a fully concurrent pipeline the scale-space and detector should be the concurrent
+ * implementations, {@link boofcv.alg.feature.detect.interest.SiftImageScaleSpace_MT} and
+ * {@link boofcv.alg.feature.detect.interest.SiftDetector_MT}.
+ * </p>
+ *
+ * <p>
+ * Features are described in the same order as the single threaded version, producing identical results.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeSift_MT extends DetectDescribeSift {
+
+	// minimum number of features processed by a thread
+	private static final int MIN_BLOCK = 20;
+
+	// orientation and descriptor algorithms for each thread
+	private WorkerPool<Worker> workers;
+
+	// orientations of each detected feature
+	private FastQueue<FeatureOrientation> featureOrientations =
+			new FastQueue<FeatureOrientation>(100,FeatureOrientation.class,true);
+	// index of the first description of each detected feature
+	private GrowQueue_I32 firstDescription = new GrowQueue_I32(100);
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param ss Scale-space
+	 * @param detector Feature detector
+	 * @param orientationFactory Creates the orientation algorithm for each thread
+	 * @param describeFactory Creates the descriptor for each thread
+	 */
+	public DetectDescribeSift_MT(SiftImageScaleSpace ss,
+								 SiftDetector detector,
+								 final WorkerFactory<OrientationHistogramSift> orientationFactory,
+								 final WorkerFactory<DescribePointSift> describeFactory)
+	{
+		super(ss, detector, orientationFactory.create(), describeFactory.create());
+
+		workers = new WorkerPool<Worker>(new WorkerFactory<Worker>() {
+			@Override
+			public Worker create() {
+				Worker w = new Worker();
+				w.orientation = orientationFactory.create();
+				w.describe = describeFactory.create();
+				return w;
+			}
+		});
+	}
+
+	@Override
+	public void process( ImageFloat32 input ) {
+
+		features.reset();
+		featureScales.reset();
+		featureAngles.reset();
+		location.reset();
+
+		ss.constructPyramid(input);
+		ss.computeFeatureIntensity();
+		ss.computeDerivatives();
+
+		detector.process(ss);
+
+		final FastQueue<ScalePoint> found = detector.getFoundPoints();
+
+		featureOrientations.reset();
+		for( int i = 0; i < found.size; i++ ) {
+			featureOrientations.grow();
+		}
+
+		// estimate the orientations of each feature
+		BoofConcurrency.loopBlocks(0, found.size, MIN_BLOCK, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				Worker w = workers.acquire();
+				try {
+					w.orientation.setScaleSpace(ss);
+					for( int i = start; i < end; i++ ) {
+						ScalePoint sp = found.data[i];
+						w.orientation.process(sp.x,sp.y,sp.scale);
+
+						FeatureOrientation fo = featureOrientations.data[i];
+						fo.imageIndex = w.orientation.getImageIndex();
+						fo.pixelScale = w.orientation.getPixelScale();
+
+						GrowQueue_F64 angles = w.orientation.getOrientations();
+						fo.angles.reset();
+						for( int j = 0; j < angles.size; j++ ) {
+							fo.angles.add(angles.data[j]);
+						}
+					}
+				} finally {
+					workers.release(w);
+				}
+			}
+		});
+
+		// there is one description for each orientation.  Save them in the same order as the single threaded version
+		firstDescription.reset();
+		for( int i = 0; i < found.size; i++ ) {
+			ScalePoint sp = found.data[i];
+			GrowQueue_F64 angles = featureOrientations.data[i].angles;
+
+			firstDescription.add(features.size);
+			for( int j = 0; j < angles.size; j++ ) {
+				features.grow();
+				featureScales.push(sp.scale);
+				featureAngles.push(angles.data[j]);
+				location.grow().set(sp.x,sp.y);
+			}
+		}
+
+		// compute the descriptions
+		BoofConcurrency.loopBlocks(0, found.size, MIN_BLOCK, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				Worker w = workers.acquire();
+				try {
+					w.describe.setScaleSpace(ss);
+					for( int i = start; i < end; i++ ) {
+						ScalePoint sp = found.data[i];
+						FeatureOrientation fo = featureOrientations.data[i];
+						int index = firstDescription.data[i];
+
+						for( int j = 0; j < fo.angles.size; j++ ) {
+							SurfFeature desc = features.data[index+j];
+
+							w.describe.process(sp.x,sp.y,sp.scale,fo.angles.data[j],fo.imageIndex,fo.pixelScale,desc);
+
+							desc.laplacianPositive = sp.white;
+						}
+					}
+				} finally {
+					workers.release(w);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Orientation and descriptor algorithms for a single thread
+	 */
+	private static class Worker {
+		OrientationHistogramSift orientation;
+		DescribePointSift describe;
+	}
+
+	/**
+	 * Orientation estimates for a single feature
+	 */
+	public static class FeatureOrientation {
+		GrowQueue_F64 angles = new GrowQueue_F64(5);
+		int imageIndex;
+		double pixelScale;
+	}
+}
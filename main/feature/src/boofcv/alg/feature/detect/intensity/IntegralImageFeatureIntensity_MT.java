@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.ImplIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt32;
+
+
+/**
+ * Concurrent implementation of {@link IntegralImageFeatureIntensity}.  The intensity image is split into bands of
+ * rows which are processed in parallel.  Results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class IntegralImageFeatureIntensity_MT {
+
+	// minimum number of rows in a band
+	private static final int MIN_BAND = 8;
+
+	/**
+	 * Computes an approximation to the Hessian's determinant.
+	 *
+	 * @param integral Integral image transform of input image. Not modified.
+	 * @param skip How many pixels should it skip over.
+	 * @param size Hessian kernel's size.
+	 * @param intensity Output intensity image.
+	 */
+	public static void hessian( final ImageFloat32 integral, final int skip , final int size ,
+								final ImageFloat32 intensity)
+	{
+		BoofConcurrency.loopBlocks(0, intensity.height, MIN_BAND, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity,y0,y1);
+				ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity,y0,y1);
+			}
+		});
+	}
+
+	/**
+	 * Computes an approximation to the Hessian's determinant.
+	 *
+	 * @param integral Integral image transform of input image. Not modified.
+	 * @param skip How many pixels should it skip over.
+	 * @param size Hessian kernel's size.
+	 * @param intensity Output intensity image.
+	 */
+	public static void hessian( final ImageSInt32 integral, final int skip , final int size ,
+								final ImageFloat32 intensity)
+	{
+		BoofConcurrency.loopBlocks(0, intensity.height, MIN_BAND, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity,y0,y1);
+				ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity,y0,y1);
+			}
+		});
+	}
+}
@@ -70,6 +70,16 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianBorder( ImageFloat32 integral, int skip , int size ,
 									  ImageFloat32 intensity)
+	{
+		hessianBorder(integral, skip, size, intensity, 0, intensity.height);
+	}
+
+	/**
+	 * Only computes the fast hessian along the border using a brute force approach.  Only rows from y0 to y1-1
+	 * in the intensity image are processed.
+	 */
+	public static void hessianBorder( ImageFloat32 integral, int skip , int size ,
+									  ImageFloat32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -85,28 +95,22 @@ public class ImplIntegralImageFeatureIntensity {
 
 		float norm = 1.0f/(size*size);
 
-		for( int y = 0; y < h; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int yy = y*skip;
-			for( int x = 0; x < border; x++ ) {
-				int xx = x*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-			for( int x = w-border; x < w; x++ ) {
-				int xx = x*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-		}
-
-		for( int x = border; x < w-border; x++ ) {
-			int xx = x*skip;
-
-			for( int y = 0; y < border; y++ ) {
-				int yy = y*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-			for( int y = h-border; y < h; y++ ) {
-				int yy = y*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+			if( y < border || y >= h-border ) {
+				for( int x = 0; x < w; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
+			} else {
+				for( int x = 0; x < border; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
+				for( int x = Math.max(border,w-border); x < w; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
 			}
 		}
 	}
@@ -130,6 +134,15 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianInner( ImageFloat32 integral, int skip , int size ,
 									 ImageFloat32 intensity)
+	{
+		hessianInner(integral, skip, size, intensity, 0, intensity.height);
+	}
+
+	/**
+	 * Optimizes intensity for the inner image.  Only rows from y0 to y1-1 in the intensity image are processed.
+	 */
+	public static void hessianInner( ImageFloat32 integral, int skip , int size ,
+									 ImageFloat32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -153,10 +166,10 @@ public class ImplIntegralImageFeatureIntensity {
 		final int borderOrig = radiusFeature+ 1 + (skip-(radiusFeature+1)%skip);
 		final int border = borderOrig/skip;
 		final int lostPixel = borderOrig - radiusFeature-1;
-		final int endY = h - border;
+		final int endY = Math.min(h - border, y1);
 		final int endX = w - border;
 
-		for( int y = border; y < endY; y++ ) {
+		for( int y = Math.max(border,y0); y < endY; y++ ) {
 
 			// pixel location in original input image
 			int yy = y*skip;
@@ -243,6 +256,16 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianBorder( ImageSInt32 integral, int skip , int size ,
 									  ImageFloat32 intensity)
+	{
+		hessianBorder(integral, skip, size, intensity, 0, intensity.height);
+	}
+
+	/**
+	 * Only computes the fast hessian along the border using a brute force approach.  Only rows from y0 to y1-1
+	 * in the intensity image are processed.
+	 */
+	public static void hessianBorder( ImageSInt32 integral, int skip , int size ,
+									  ImageFloat32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -258,28 +281,22 @@ public class ImplIntegralImageFeatureIntensity {
 
 		float norm = 1.0f/(size*size);
 
-		for( int y = 0; y < h; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int yy = y*skip;
-			for( int x = 0; x < border; x++ ) {
-				int xx = x*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-			for( int x = w-border; x < w; x++ ) {
-				int xx = x*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-		}
-
-		for( int x = border; x < w-border; x++ ) {
-			int xx = x*skip;
-
-			for( int y = 0; y < border; y++ ) {
-				int yy = y*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
-			}
-			for( int y = h-border; y < h; y++ ) {
-				int yy = y*skip;
-				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+			if( y < border || y >= h-border ) {
+				for( int x = 0; x < w; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
+			} else {
+				for( int x = 0; x < border; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
+				for( int x = Math.max(border,w-border); x < w; x++ ) {
+					int xx = x*skip;
+					computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
+				}
 			}
 		}
 	}
@@ -303,6 +320,15 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianInner( ImageSInt32 integral, int skip , int size ,
 									 ImageFloat32 intensity)
+	{
+		hessianInner(integral, skip, size, intensity, 0, intensity.height);
+	}
+
+	/**
+	 * Optimizes intensity for the inner image.  Only rows from y0 to y1-1 in the intensity image are processed.
+	 */
+	public static void hessianInner( ImageSInt32 integral, int skip , int size ,
+									 ImageFloat32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -326,10 +352,10 @@ public class ImplIntegralImageFeatureIntensity {
 		final int borderOrig = radiusFeature+ 1 + (skip-(radiusFeature+1)%skip);
 		final int border = borderOrig/skip;
 		final int lostPixel = borderOrig - radiusFeature-1;
-		final int endY = h - border;
+		final int endY = Math.min(h - border, y1);
 		final int endX = w - border;
 
-		for( int y = border; y < endY; y++ ) {
+		for( int y = Math.max(border,y0); y < endY; y++ ) {
 
 			// pixel location in original input image
 			int yy = y*skip;
@@ -89,7 +89,7 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 	// sorts feature by their intensity
 	private SelectNBestFeatures sortBest;
 	// the maximum number of returned feature per scale
-	private int maxFeaturesPerScale;
+	protected int maxFeaturesPerScale;
 
 	// local sub-space
 	private ImageFloat32 intensity[];
@@ -97,19 +97,19 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 	private QueueCorner foundFeatures = new QueueCorner(100);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
 
 	// size of detected feature at the smallest scale
-	private int initialSize;
+	protected int initialSize;
 	// the number of octaves it examines
-	private int numberOfOctaves;
+	protected int numberOfOctaves;
 
 	// local variables that are predeclared
-	private int sizes[];
+	protected int sizes[];
 
 	// how often the image is sampled in the first octave
 	// a value of 1 would mean every pixel is sampled
-	private int initialSampleRate;
+	protected int initialSampleRate;
 
 	/**
 	 * <p>
@@ -229,22 +229,45 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 		int index1 = (spaceIndex + 1) % 3;
 		int index2 = (spaceIndex + 2) % 3;
 
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		ImageFloat32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+		findLocalScaleSpaceMax(intensity[index0], intensity[index1], intensity[index2], size, level, skip,
+				extractor, sortBest, foundFeatures, foundPoints);
+	}
+
+	/**
+	 * Looks for features which are local maximums in the image and scale-space.  All the work space is passed
+	 * in, allowing different scales to be processed at the same time.
+	 *
+	 * @param intensity0 Intensity in the scale below
+	 * @param intensity1 Intensity in the scale being examined
+	 * @param intensity2 Intensity in the scale above
+	 * @param size Size of features in different scale-spaces.
+	 * @param level Which level in the scale-space
+	 * @param skip How many pixels are skipped over.
+	 * @param extractor Finds local maximums in the 2D image
+	 * @param sortBest If not null the best features are selected.
+	 * @param foundFeatures Storage for local maximums
+	 * @param foundPoints Found features are added to this list
+	 */
+	protected void findLocalScaleSpaceMax( ImageFloat32 intensity0 , ImageFloat32 intensity1 ,
+										   ImageFloat32 intensity2 , int []size, int level, int skip,
+										   NonMaxSuppression extractor , SelectNBestFeatures sortBest ,
+										   QueueCorner foundFeatures , FastQueue<ScalePoint> foundPoints ) {
+		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity0, 0);
+		ImageFloat32 inten1 = intensity1;
+		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity2, 0);
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
 		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.process(intensity1,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = intensity1.width-ignoreRadius;
+		int ignoreHeight = intensity1.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
@@ -252,7 +275,7 @@ public class FastHessianFeatureDetector<II extends ImageSingleBand> {
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
 		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
+			sortBest.process(intensity1,foundFeatures,true);
 			features = sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
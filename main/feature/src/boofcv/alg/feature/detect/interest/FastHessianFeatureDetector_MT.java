@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link FastHessianFeatureDetector}.  The feature intensity for every scale in every
+ * octave is first computed, with each intensity image split into bands of rows which are processed in parallel.
+ * Then each scale in every octave is searched for local maximums in parallel.  Each thread has its own
+ * non-maximum suppression algorithm.  Features are added to the output list in the same order as the single
+ * threaded version, producing identical results.
+ * </p>
+ *
+ * <p>
+ * Because the intensity for all octaves is saved at the same time, more memory is required than the single
+ * threaded version.  For 4 scales per octave about 5.3 intensity images the size of the input image
+ * are needed instead of 3.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageSingleBand> extends FastHessianFeatureDetector<II> {
+
+	// non-maximum suppression and work space for each thread
+	private WorkerPool<Extractor> extractors;
+
+	// feature intensity and scale information for each octave
+	private FastQueue<Octave> octaves = new FastQueue<Octave>(Octave.class,true) {
+		@Override
+		protected Octave createInstance() {
+			return new Octave();
+		}
+	};
+
+	/**
+	 * Configures the detector.  See {@link FastHessianFeatureDetector} for a description of the parameters.
+	 *
+	 * @param extractorFactory Creates a new instance of the non-maximum suppression algorithm for each thread
+	 */
+	public FastHessianFeatureDetector_MT( final WorkerFactory<NonMaxSuppression> extractorFactory,
+										  final int maxFeaturesPerScale,
+										  int initialSampleRate, int initialSize,
+										  int numberScalesPerOctave,
+										  int numberOfOctaves) {
+		super(extractorFactory.create(), maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves);
+
+		extractors = new WorkerPool<Extractor>(new WorkerFactory<Extractor>() {
+			@Override
+			public Extractor create() {
+				Extractor e = new Extractor();
+				e.extractor = extractorFactory.create();
+				if( maxFeaturesPerScale > 0 )
+					e.sortBest = new SelectNBestFeatures(maxFeaturesPerScale);
+				return e;
+			}
+		});
+	}
+
+	@Override
+	public void detect( final II integral ) {
+		foundPoints.reset();
+		octaves.reset();
+
+		final int numScales = sizes.length;
+
+		// determine which octaves are processed, just like the single threaded version
+		int skip = initialSampleRate;
+		int sizeStep = 6;
+		int octaveSize = initialSize;
+		for( int octave = 0; octave < numberOfOctaves; octave++ ) {
+			int maxSize = octaveSize + (numScales-1)*sizeStep;
+			if( maxSize > integral.width || maxSize > integral.height )
+				break;
+
+			octaves.grow().configure(numScales, octaveSize, sizeStep, skip,
+					integral.width/skip, integral.height/skip);
+
+			skip += skip;
+			octaveSize += sizeStep;
+			sizeStep += sizeStep;
+		}
+
+		// compute the feature intensity for each scale.  Rows are processed in parallel
+		for( int i = 0; i < octaves.size; i++ ) {
+			Octave o = octaves.get(i);
+			for( int j = 0; j < numScales; j++ ) {
+				GIntegralImageFeatureIntensity_MT.hessian(integral, o.skip, o.sizes[j], o.intensity[j]);
+			}
+		}
+
+		// search for local maximums in each scale in parallel.  Tasks are ordered by level first to spread
+		// the more expensive lower octaves across threads
+		final int numLevels = Math.max(0,numScales-2);
+		final int numOctaves = octaves.size;
+		BoofConcurrency.loopBlocks(0, numOctaves*numLevels, 1, new IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				Extractor e = extractors.acquire();
+				try {
+					for( int index = idx0; index < idx1; index++ ) {
+						Octave o = octaves.get(index % numOctaves);
+						int level = 1 + index / numOctaves;
+
+						FastQueue<ScalePoint> found = o.found[level-1];
+						found.reset();
+						findLocalScaleSpaceMax(o.intensity[level-1], o.intensity[level], o.intensity[level+1],
+								o.sizes, level, o.skip, e.extractor, e.sortBest, e.foundFeatures, found);
+					}
+				} finally {
+					extractors.release(e);
+				}
+			}
+		});
+
+		// combine the results in the same order as the single threaded version
+		for( int i = 0; i < octaves.size; i++ ) {
+			Octave o = octaves.get(i);
+			for( int level = 0; level < numLevels; level++ ) {
+				FastQueue<ScalePoint> found = o.found[level];
+				for( int j = 0; j < found.size; j++ ) {
+					foundPoints.grow().set(found.get(j));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Non-maximum suppression algorithm and work space for a single thread
+	 */
+	private static class Extractor {
+		NonMaxSuppression extractor;
+		SelectNBestFeatures sortBest;
+		QueueCorner foundFeatures = new QueueCorner(100);
+	}
+
+	/**
+	 * Intensity images and found features for a single octave
+	 */
+	private static class Octave {
+		int skip;
+		int sizes[];
+		ImageFloat32 intensity[];
+		FastQueue<ScalePoint> found[];
+
+		@SuppressWarnings("unchecked")
+		public void configure( int numScales , int octaveSize , int sizeStep , int skip , int width , int height ) {
+			this.skip = skip;
+			if( sizes == null || sizes.length != numScales ) {
+				sizes = new int[numScales];
+				intensity = new ImageFloat32[numScales];
+				found = new FastQueue[Math.max(0,numScales-2)];
+				for( int i = 0; i < numScales; i++ )
+					intensity[i] = new ImageFloat32(width,height);
+				for( int i = 0; i < found.length; i++ )
+					found[i] = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+			}
+			for( int i = 0; i < numScales; i++ ) {
+				sizes[i] = octaveSize + i*sizeStep;
+				intensity[i].reshape(width,height);
+			}
+		}
+	}
+}
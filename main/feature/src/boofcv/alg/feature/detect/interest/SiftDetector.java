@@ -76,7 +76,9 @@ public class SiftDetector {
 	private QueueCorner foundNegative = new QueueCorner(10);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	// list that features in the current layer are added to
+	private FastQueue<ScalePoint> output;
 
 	// correcting for how images are subsampled
 	private double octavePixelOffset;
@@ -151,34 +153,46 @@ public class SiftDetector {
 		// set up data structures
 		foundPoints.reset();
 		this.ss = ss;
-		octavePixelOffset = 0;
 
 		// extract features in each octave
 		for( int octave = 0; octave < ss.actualOctaves; octave++ ) {
 			// start processing at the second DOG since it needs the scales above and below
-			int indexDOG = octave*(ss.numScales-1)+1;
-			int indexScale = octave*ss.numScales+1;
-
-			currentPixelScale = ss.pixelScale[octave];
+			for( int scale = 1; scale < ss.numScales-2; scale++ ) {
+				detectLayer(octave, scale, foundPoints);
+			}
+		}
+	}
 
-			ss.storage.reshape( ss.scale[indexScale].width , ss.scale[indexScale].height );
+	/**
+	 * Detects features inside a single layer in the scale-space and adds them to the output list.
+	 *
+	 * @param octave The octave being processed
+	 * @param scale The scale inside the octave.  Must have a DOG image above and below.
+	 * @param output (Output) Found features are added to this list
+	 */
+	protected void detectLayer( int octave , int scale , FastQueue<ScalePoint> output ) {
+		int indexDOG = octave*(ss.numScales-1)+scale;
+		int indexScale = octave*ss.numScales+scale;
 
-			for( int scale = 1; scale < ss.numScales-2; scale++ , indexScale++,indexDOG++ ) {
+		currentPixelScale = ss.pixelScale[octave];
 
-				// use the scale-space image as input for derivatives
-				derivXX.setImage(ss.scale[indexScale]);
-				derivXY.setImage(ss.scale[indexScale]);
-				derivYY.setImage(ss.scale[indexScale]);
+		// when the images are sub-sampled between octaves the sampling starts at pixel 1 in (x,y)
+		octavePixelOffset = 0;
+		for( int i = 0; i < octave; i++ ) {
+			octavePixelOffset += ss.pixelScale[i];
+		}
 
-				// the current scale factor being considered
-				currentSigma = ss.computeScaleSigma(octave,scale);
+		// use the scale-space image as input for derivatives
+		derivXX.setImage(ss.scale[indexScale]);
+		derivXY.setImage(ss.scale[indexScale]);
+		derivYY.setImage(ss.scale[indexScale]);
 
-				detectFeatures(indexDOG);
-			}
+		// the current scale factor being considered
+		currentSigma = ss.computeScaleSigma(octave,scale);
 
-			// when the images are sub-sampled between octaves the sampling starts at pixel 1 in (x,y)
-			octavePixelOffset += currentPixelScale;
-		}
+		this.output = output;
+		detectFeatures(indexDOG);
+		this.output = null;
 	}
 
 	/**
@@ -190,9 +204,9 @@ public class SiftDetector {
 		foundPositive.reset();
 
 		// Local scale-space neighborhood
-		ImageFloat32 scale0 = ss.dog[indexDOG-1];
-		ImageFloat32 scale1 = ss.dog[indexDOG];
-		ImageFloat32 scale2 = ss.dog[indexDOG+1];
+		ImageFloat32 scale0 = ss.getDifferenceOfGaussian(indexDOG-1);
+		ImageFloat32 scale1 = ss.getDifferenceOfGaussian(indexDOG);
+		ImageFloat32 scale2 = ss.getDifferenceOfGaussian(indexDOG+1);
 
 		extractor.process(scale1,null,null,foundNegative,foundPositive);
 
@@ -251,7 +265,7 @@ public class SiftDetector {
 		float s0 =  scale0.unsafe_get(x , y )*signAdj;
 		float s2 =  scale2.unsafe_get(x , y )*signAdj;
 
-		ScalePoint p = foundPoints.grow();
+		ScalePoint p = output.grow();
 
 		// when the image is down sampled it is sampled at pixel + 1
 		p.x = currentPixelScale*(x + polyPeak(x0, value, x2)) + octavePixelOffset;
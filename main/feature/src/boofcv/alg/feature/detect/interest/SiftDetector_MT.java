@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.feature.ScalePoint;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link SiftDetector}.  Each layer in the scale-space is searched for features in
+ * parallel and each thread has its own non-maximum suppression algorithm.  Features are added to the output list
+ * in the same order as the single threaded version, producing identical results.  If the scale-space is in
+ * memory bounded mode then the layers are searched in sequence, since it only saves the most recent DOG images.
+ *
+ * @author Peter Abeles
+ */
+public class SiftDetector_MT extends SiftDetector {
+
+	// detector used by each thread
+	private WorkerPool<SiftDetector> detectors;
+
+	// features found in each layer
+	@SuppressWarnings("unchecked")
+	private FastQueue<FastQueue<ScalePoint>> layers = new FastQueue(FastQueue.class,true) {
+		@Override
+		protected FastQueue<ScalePoint> createInstance() {
+			return new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+		}
+	};
+
+	/**
+	 * Configures the detector.  See {@link SiftDetector} for a description of the parameters.
+	 *
+	 * @param extractorFactory Creates a new instance of the non-maximum suppression algorithm for each thread
+	 */
+	public SiftDetector_MT(final WorkerFactory<NonMaxSuppression> extractorFactory,
+						   final int maxFeaturesPerScale,
+						   final double edgeThreshold) {
+		super(extractorFactory.create(), maxFeaturesPerScale, edgeThreshold);
+
+		detectors = new WorkerPool<SiftDetector>(new WorkerFactory<SiftDetector>() {
+			@Override
+			public SiftDetector create() {
+				return new SiftDetector(extractorFactory.create(), maxFeaturesPerScale, edgeThreshold);
+			}
+		});
+	}
+
+	@Override
+	public void process( final SiftImageScaleSpace ss ) {
+		if( ss.isMemoryBounded() ) {
+			super.process(ss);
+			return;
+		}
+
+		foundPoints.reset();
+		this.ss = ss;
+
+		final int numOctaves = ss.actualOctaves;
+		final int numLevels = Math.max(0,ss.numScales-3);
+
+		layers.reset();
+		for( int i = 0; i < numOctaves*numLevels; i++ ) {
+			layers.grow();
+		}
+
+		// search each layer in parallel.  Tasks are ordered by level first to spread the more expensive lower
+		// octaves across threads
+		BoofConcurrency.loopBlocks(0, numOctaves*numLevels, 1, new IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				SiftDetector detector = detectors.acquire();
+				try {
+					detector.ss = ss;
+					for( int index = idx0; index < idx1; index++ ) {
+						int octave = index % numOctaves;
+						int level = index / numOctaves;
+
+						FastQueue<ScalePoint> found = layers.get(octave*numLevels + level);
+						found.reset();
+						detector.detectLayer(octave, level + 1, found);
+					}
+				} finally {
+					detector.ss = null;
+					detectors.release(detector);
+				}
+			}
+		});
+
+		// combine the results in the same order as the single threaded version
+		for( int i = 0; i < layers.size; i++ ) {
+			FastQueue<ScalePoint> found = layers.get(i);
+			for( int j = 0; j < found.size; j++ ) {
+				foundPoints.grow().set(found.get(j));
+			}
+		}
+	}
+}
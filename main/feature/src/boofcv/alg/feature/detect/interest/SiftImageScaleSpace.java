@@ -42,6 +42,16 @@ import boofcv.struct.image.ImageFloat32;
  * octave.  The first octave is seeded with the input image or the input image scaled.
  * </p>
  *
+ * <p>
+ * MEMORY BOUNDED MODE: By default every image in the scale-space, its Difference of Gaussian (DOG), and its
+ * derivatives are saved.  For large images this can require a lot of memory.  If a memory budget is specified then
+ * DOG images are computed when requested and only the three most recent are saved, which is all the detector needs
+ * when it searches the scales in order.  Derivatives are only computed for layers which are requested by the
+ * orientation and descriptor algorithms.  If saving a new derivative would exceed the budget then the least
+ * recently used derivatives are discarded.  In this mode the scale-space can't be accessed by multiple threads at
+ * the same time.  The number of bytes used is reported by {@link #getBytesUsed()} and {@link #getPeakBytes()}.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class SiftImageScaleSpace {
@@ -72,7 +82,7 @@ public class SiftImageScaleSpace {
 	protected double layerSigma[];
 
 	// should the input image be doubled
-	private boolean doubleInputImage;
+	protected boolean doubleInputImage;
 
 	// The blur sigma applied to the first scale BEFORE any additional blur has been applied
 	// Note that the octave's are recursively computed, so this is the blur magnitude from before
@@ -84,6 +94,21 @@ public class SiftImageScaleSpace {
 	// storage for applying blur
 	protected ImageFloat32 storage;
 
+	// if true then DOG images and derivatives are computed when needed.  See class description
+	protected boolean memoryBounded;
+	// maximum number of bytes the images can use in memory bounded mode
+	protected long memoryBudget;
+	// the most recent DOG images in memory bounded mode and their index
+	protected ImageFloat32 dogRecent[];
+	protected int dogRecentIndex[];
+	// true if the derivative has been computed for the current image in memory bounded mode
+	protected boolean derivValid[];
+	// when each derivative was last used.  Used to discard the least recently used derivatives
+	protected long derivLastUsed[];
+	private long derivCounter;
+	// largest number of bytes used since the pyramid was last constructed
+	private long peakBytes;
+
 	/**
 	 * Configures the scale-space.
 	 *
@@ -93,6 +118,23 @@ public class SiftImageScaleSpace {
 	 * @param doubleInputImage Should the input image be doubled? Try false.
 	 */
 	public SiftImageScaleSpace(float blurSigma, int numScales, int numOctaves, boolean doubleInputImage)
+	{
+		this(blurSigma, numScales, numOctaves, doubleInputImage, -1);
+	}
+
+	/**
+	 * Configures the scale-space.
+	 *
+	 * @param blurSigma Amount of blur applied to each scale inside an octaves.  Try 1.6
+	 * @param numScales Number of scales per octaves.  Try 5.  Must be >= 3
+	 * @param numOctaves Number of octaves to detect.  Try 4
+	 * @param doubleInputImage Should the input image be doubled? Try false.
+	 * @param memoryBudget Maximum number of bytes used by the images.  If > 0 then memory bounded mode is used,
+	 *                     see class description.  Long.MAX_VALUE for memory bounded mode without a limit.
+	 *                     If <= 0 then all images are saved.
+	 */
+	public SiftImageScaleSpace(float blurSigma, int numScales, int numOctaves, boolean doubleInputImage,
+							   long memoryBudget )
 	{
 		if( numScales < 3 )
 			throw new IllegalArgumentException("A minimum of 3 scales are required");
@@ -138,6 +180,18 @@ public class SiftImageScaleSpace {
 				layerSigma[index] = computeScaleSigma(o,s);
 			}
 		}
+
+		if( memoryBudget > 0 ) {
+			this.memoryBounded = true;
+			this.memoryBudget = memoryBudget;
+			dogRecent = new ImageFloat32[3];
+			dogRecentIndex = new int[3];
+			for( int i = 0; i < dogRecent.length; i++ ) {
+				dogRecent[i] = new ImageFloat32(1,1);
+			}
+			derivValid = new boolean[totalImages];
+			derivLastUsed = new long[totalImages];
+		}
 	}
 
 	/**
@@ -146,6 +200,9 @@ public class SiftImageScaleSpace {
 	 * @param input Input image
 	 */
 	public void constructPyramid(ImageFloat32 input) {
+		if( memoryBounded )
+			declareBounded(input.width, input.height);
+
 		// compute the first octave
 		if( doubleInputImage ) {
 			reshapeToInput(input.width * 2, input.height * 2);
@@ -178,10 +235,86 @@ public class SiftImageScaleSpace {
 		}
 	}
 
+	/**
+	 * Declares images in memory bounded mode so that they are exactly the required size and checks the budget.
+	 * Derivatives from the previous image are discarded if the image size changed.
+	 */
+	protected void declareBounded( int inputWidth , int inputHeight ) {
+		int width = doubleInputImage ? inputWidth*2 : inputWidth;
+		int height = doubleInputImage ? inputHeight*2 : inputHeight;
+
+		long required = computeMinimumBytes(inputWidth, inputHeight);
+		if( required > memoryBudget )
+			throw new IllegalArgumentException("Memory budget is too small.  "+required+" bytes are required");
+
+		boolean sameShape = scale[0].width == width && scale[0].height == height;
+
+		int w = width, h = height;
+		for( int o = 0; o < numOctaves; o++ ) {
+			for( int s = 0; s < numScales; s++ ) {
+				int index = o*numScales + s;
+				if( scale[index].data.length != w*h )
+					scale[index] = new ImageFloat32(w,h);
+				if( !sameShape )
+					derivX[index] = derivY[index] = null;
+				derivValid[index] = false;
+			}
+			w /= 2;
+			h /= 2;
+		}
+		for( int i = 0; i < derivX.length; i++ ) {
+			if( derivX[i] == null ) {
+				derivX[i] = new ImageFloat32(1,1);
+				derivY[i] = new ImageFloat32(1,1);
+			}
+		}
+		if( storage.data.length != width*height )
+			storage = new ImageFloat32(width,height);
+		for( int i = 0; i < dogRecent.length; i++ ) {
+			if( dogRecent[i].data.length != width*height )
+				dogRecent[i] = new ImageFloat32(width,height);
+			dogRecentIndex[i] = -1;
+		}
+
+		peakBytes = getBytesUsed();
+	}
+
+	/**
+	 * Computes the minimum number of bytes needed in memory bounded mode to process an image of the
+	 * specified size.  That's all the layers in the scale-space, three DOG images, the derivatives of one
+	 * layer, and working space for blurring.
+	 *
+	 * @param inputWidth Width of the input image
+	 * @param inputHeight Height of the input image
+	 * @return Number of bytes
+	 */
+	public long computeMinimumBytes( int inputWidth , int inputHeight ) {
+		long width = doubleInputImage ? inputWidth*2 : inputWidth;
+		long height = doubleInputImage ? inputHeight*2 : inputHeight;
+
+		long pixels = 0;
+		long w = width, h = height;
+		for( int o = 0; o < numOctaves; o++ ) {
+			pixels += numScales*w*h;
+			w /= 2;
+			h /= 2;
+		}
+		// DOG, derivatives, and blur storage
+		pixels += (3 + 2 + 1)*width*height;
+		// place holders for DOG images and derivatives which are not saved
+		pixels += dog.length + 2*scale.length;
+
+		return pixels*4;
+	}
+
 	/**
 	 * Computes the image derivative for each layer in the pyramid.
 	 */
 	public void computeDerivatives() {
+		// derivatives are computed when requested
+		if( memoryBounded )
+			return;
+
 		int maxScales = actualOctaves*numScales;
 		for( int i = 0; i < maxScales; i++ ) {
 			ImageFloat32 input = scale[i];
@@ -227,22 +360,116 @@ public class SiftImageScaleSpace {
 	 * Compute difference of Gaussian feature intensity across scale space
 	 */
 	public void computeFeatureIntensity() {
-		int indexDog = 0;
-		for( int o = 0; o < actualOctaves; o++ ) {
-			for( int i = 1; i < numScales; i++ , indexDog++ ) {
-				int indexScale = o*numScales + i;
+		// DOG images are computed when requested
+		if( memoryBounded )
+			return;
 
-				PixelMath.subtract(scale[indexScale],scale[indexScale-1],dog[indexDog]);
+		int numDog = actualOctaves*(numScales-1);
+		for( int indexDog = 0; indexDog < numDog; indexDog++ ) {
+			computeDog(indexDog, dog[indexDog]);
+		}
+	}
 
-				// NOTE: In SIFT paper it states you don't need to do this adjustment.  However, since the difference
-				// between scales is not a constant factor in this implementation you do need to do it.
+	/**
+	 * Computes the Difference of Gaussian for the specified layer
+	 */
+	protected void computeDog( int indexDog , ImageFloat32 output ) {
+		int o = indexDog/(numScales-1);
+		int i = indexDog%(numScales-1) + 1;
+		int indexScale = o*numScales + i;
 
-				// compute adjustment to make it better approximate of the Laplacian of Gaussian detector
-				double k = (i+1)/(double)i;
-				double adjustment = k-1;
-				PixelMath.divide(dog[indexDog], (float) adjustment, dog[indexDog]);
-			}
+		output.reshape(scale[indexScale].width, scale[indexScale].height);
+		PixelMath.subtract(scale[indexScale],scale[indexScale-1],output);
+
+		// NOTE: In SIFT paper it states you don't need to do this adjustment.  However, since the difference
+		// between scales is not a constant factor in this implementation you do need to do it.
+
+		// compute adjustment to make it better approximate of the Laplacian of Gaussian detector
+		double k = (i+1)/(double)i;
+		double adjustment = k-1;
+		PixelMath.divide(output, (float) adjustment, output);
+	}
+
+	/**
+	 * Computes the derivative of the specified layer in memory bounded mode, if it hasn't already been computed.
+	 * The least recently used derivatives are discarded if the memory budget would be exceeded.
+	 */
+	protected void computeDerivativeBounded( int index ) {
+		derivLastUsed[index] = derivCounter++;
+		if( derivValid[index] )
+			return;
+
+		ImageFloat32 input = scale[index];
+		int pixels = input.width*input.height;
+
+		// the derivative's current memory is reused if it's the correct size
+		long needed = derivX[index].data.length == pixels ? 0 : 2L*4*pixels;
+		while( needed > 0 && getBytesUsed() + needed > memoryBudget ) {
+			if( !discardLeastRecentDerivative(index) )
+				break;
+		}
+
+		if( derivX[index].data.length != pixels ) {
+			derivX[index] = new ImageFloat32(input.width,input.height);
+			derivY[index] = new ImageFloat32(input.width,input.height);
+		} else {
+			derivX[index].reshape(input.width,input.height);
+			derivY[index].reshape(input.width,input.height);
 		}
+		gradient.process(input,derivX[index],derivY[index]);
+		derivValid[index] = true;
+
+		peakBytes = Math.max(peakBytes, getBytesUsed());
+	}
+
+	/**
+	 * Discards the derivative which was used least recently, ignoring the specified layer.
+	 *
+	 * @return true if a derivative was discarded
+	 */
+	private boolean discardLeastRecentDerivative( int ignore ) {
+		int best = -1;
+		for( int i = 0; i < derivX.length; i++ ) {
+			if( i == ignore || derivX[i].data.length <= 1 )
+				continue;
+			if( best == -1 || derivLastUsed[i] < derivLastUsed[best] )
+				best = i;
+		}
+		if( best == -1 )
+			return false;
+
+		derivX[best] = new ImageFloat32(1,1);
+		derivY[best] = new ImageFloat32(1,1);
+		derivValid[best] = false;
+		return true;
+	}
+
+	/**
+	 * Returns the number of bytes used by all the images in the scale-space.
+	 */
+	public long getBytesUsed() {
+		long total = bytes(scale) + bytes(dog) + bytes(derivX) + bytes(derivY) + storage.data.length*4L;
+		if( dogRecent != null )
+			total += bytes(dogRecent);
+		return total;
+	}
+
+	/**
+	 * Returns the largest number of bytes used by the images since the pyramid was last constructed.  Only
+	 * computed in memory bounded mode.  Otherwise it is the same as {@link #getBytesUsed()}.
+	 */
+	public long getPeakBytes() {
+		if( memoryBounded )
+			return peakBytes;
+		return getBytesUsed();
+	}
+
+	private static long bytes( ImageFloat32 images[] ) {
+		long total = 0;
+		for( int i = 0; i < images.length; i++ ) {
+			total += images[i].data.length*4L;
+		}
+		return total;
 	}
 
 	/**
@@ -303,14 +530,15 @@ public class SiftImageScaleSpace {
 	/**
 	 * Reshapes all images to their appropriate sizes according to the input image
 	 */
-	private void reshapeToInput(int width, int height) {
+	protected void reshapeToInput(int width, int height) {
 		int indexScales = 0;
 		int indexDog = 0;
 		for( int o = 0; o < numOctaves; o++ ) {
 			for( int n = 0; n < numScales; n++ , indexScales++ ) {
 				scale[indexScales].reshape(width,height);
 			}
-			for( int n = 0; n < numScales-1; n++ , indexDog++ ) {
+			// DOG images are declared when needed in memory bounded mode
+			for( int n = 0; n < numScales-1 && !memoryBounded; n++ , indexDog++ ) {
 				dog[indexDog].reshape(width,height);
 			}
 
@@ -332,13 +560,43 @@ public class SiftImageScaleSpace {
 	}
 
 	public ImageFloat32 getDerivativeX(int index) {
+		if( memoryBounded )
+			computeDerivativeBounded(index);
 		return derivX[index];
 	}
 
 	public ImageFloat32 getDerivativeY(int index) {
+		if( memoryBounded )
+			computeDerivativeBounded(index);
 		return derivY[index];
 	}
 
+	/**
+	 * Returns the Difference of Gaussian (DOG) image.  In memory bounded mode it's computed when requested and
+	 * only the three most recently requested images are saved.
+	 *
+	 * @param indexDog Index of the DOG image. Each octave has numScales-1 images.
+	 */
+	public ImageFloat32 getDifferenceOfGaussian(int indexDog) {
+		if( !memoryBounded )
+			return dog[indexDog];
+
+		int slot = indexDog % dogRecent.length;
+		if( dogRecentIndex[slot] != indexDog ) {
+			computeDog(indexDog, dogRecent[slot]);
+			dogRecentIndex[slot] = indexDog;
+		}
+		return dogRecent[slot];
+	}
+
+	public boolean isMemoryBounded() {
+		return memoryBounded;
+	}
+
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
 	/**
 	 * Given the scale, return the index of the layer in the scale-space that is the closest
 	 * match.
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.convolve.ConvolveNormalized_MT;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SiftImageScaleSpace}.  Produces identical images to the single threaded
+ * version.
+ * </p>
+ *
+ * <p>
+ * The next octave is seeded by the second scale in the previous octave, so the first two scales in each octave
+ * are computed in sequence.  The remaining scales in an octave only depend on those two, so after the seeds
+ * have been computed the octaves are processed in parallel.  Each blur is also split into bands of rows which
+ * are processed in parallel.  Derivatives and difference of Gaussian images are computed for each layer
+ * in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SiftImageScaleSpace_MT extends SiftImageScaleSpace {
+
+	// storage for applying blur in each octave
+	private ImageFloat32 storageOctave[];
+
+	// computes the image gradient in each thread
+	private WorkerPool<ImageGradient<ImageFloat32,ImageFloat32>> gradients =
+			new WorkerPool<ImageGradient<ImageFloat32,ImageFloat32>>(
+					new WorkerFactory<ImageGradient<ImageFloat32,ImageFloat32>>() {
+						@Override
+						public ImageGradient<ImageFloat32,ImageFloat32> create() {
+							return FactoryDerivative.three_F32();
+						}
+					});
+
+	/**
+	 * Configures the scale-space.  See {@link SiftImageScaleSpace} for a description of the parameters.
+	 */
+	public SiftImageScaleSpace_MT(float blurSigma, int numScales, int numOctaves, boolean doubleInputImage) {
+		super(blurSigma, numScales, numOctaves, doubleInputImage);
+
+		storageOctave = new ImageFloat32[numOctaves];
+		for( int i = 0; i < numOctaves; i++ ) {
+			storageOctave[i] = new ImageFloat32(1,1);
+		}
+	}
+
+	@Override
+	public void constructPyramid(ImageFloat32 input) {
+		// compute the first two scales in the first octave
+		if( doubleInputImage ) {
+			reshapeToInput(input.width * 2, input.height * 2);
+			upSample(input,scale[1]);
+
+			blurImage(scale[1],scale[0],sigma,storage);
+		} else {
+			reshapeToInput(input.width, input.height);
+			blurImage(input, scale[0], sigma, storage);
+		}
+		blurScale(0,1,storage);
+
+		// compute the first two scales in the rest of the octaves
+		actualOctaves = numOctaves;
+		for( int o = 1; o < numOctaves; o++ ) {
+			// use the second scale in the previous octave to seed this one
+			int indexSeed = (o-1)*numScales+1;
+			int indexStart = o*numScales;
+
+			// stop computing octaves if the image is too small
+			if( Math.max(scale[indexStart].width,scale[indexStart].height) < 5 ) {
+				actualOctaves = o;
+				break;
+			}
+
+			downSample(scale[indexSeed],scale[indexStart+1]);
+			blurImage(scale[indexStart+1],scale[indexStart],sigma,storage);
+			blurScale(o,1,storage);
+		}
+
+		// the remaining scales in each octave only depend on the first two
+		BoofConcurrency.loopBlocks(0, actualOctaves, 1, new IntRangeTask() {
+			@Override
+			public void process(int o0, int o1) {
+				for( int o = o0; o < o1; o++ ) {
+					for( int i = 2; i < numScales; i++ ) {
+						blurScale(o,i,storageOctave[o]);
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	public void computeDerivatives() {
+		// layers are ordered by scale first to spread the more expensive lower octaves across threads
+		final int numOctaves = actualOctaves;
+		BoofConcurrency.loopBlocks(0, actualOctaves*numScales, 1, new IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				ImageGradient<ImageFloat32,ImageFloat32> gradient = gradients.acquire();
+				try {
+					for( int index = idx0; index < idx1; index++ ) {
+						int i = (index % numOctaves)*numScales + index / numOctaves;
+
+						ImageFloat32 input = scale[i];
+						ImageFloat32 dx = derivX[i];
+						ImageFloat32 dy = derivY[i];
+
+						dx.reshape(input.width,input.height);
+						dy.reshape(input.width,input.height);
+
+						gradient.process(input,dx,dy);
+					}
+				} finally {
+					gradients.release(gradient);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void computeFeatureIntensity() {
+		final int numOctaves = actualOctaves;
+		final int numDog = numScales-1;
+		BoofConcurrency.loopBlocks(0, actualOctaves*numDog, 1, new IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				for( int index = idx0; index < idx1; index++ ) {
+					int o = index % numOctaves;
+					int i = 1 + index / numOctaves;
+
+					int indexDog = o*numDog + i - 1;
+					int indexScale = o*numScales + i;
+
+					PixelMath.subtract(scale[indexScale],scale[indexScale-1],dog[indexDog]);
+
+					// see single threaded version for why this adjustment is needed
+					double k = (i+1)/(double)i;
+					double adjustment = k-1;
+					PixelMath.divide(dog[indexDog], (float) adjustment, dog[indexDog]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Computes the specified scale inside an octave by blurring the previous scale
+	 */
+	private void blurScale( int octave , int i , ImageFloat32 storage ) {
+		// sigmaA is the amount of blur already applied
+		double sigmaA = sigma*i;
+		// sigmaB is the desired amount of blur at this scale
+		double sigmaB = sigma*(i+1);
+
+		// compute the amount of blur which needs to be applied to get sigmaB
+		double amount = Math.sqrt(sigmaB*sigmaB - sigmaA*sigmaA);
+
+		int index = octave*numScales + i;
+		blurImage(scale[index-1],scale[index],amount,storage);
+	}
+
+	/**
+	 * Applies the specified amount of blur to the input image.  Rows are processed in parallel.
+	 */
+	private static void blurImage( ImageFloat32 input , ImageFloat32 output , double sigma ,
+								   ImageFloat32 storage ) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigma, -1);
+
+		storage.reshape(input.width,input.height);
+		ConvolveNormalized_MT.horizontal(kernel, input, storage);
+		ConvolveNormalized_MT.vertical(kernel,storage,output);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.image.ImageSingleBand;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DisparityScoreRowFormat}.  The output image is broken up into horizontal
+ * bands of rows and each band is processed by its own copy of the serial algorithm.  Each band is given the
+ * input rows it needs above and below it, so the serial algorithm sees exactly the same neighborhood it would
+ * have seen when processing the whole image and the output is identical.  The number of extra rows processed
+ * for each band is 2*{@link #getBorderY()}, which is why bands are kept at least a few region heights tall.
+ * </p>
+ *
+ * <p>
+ * Each worker has its own score buffers and {@link DisparitySelect}, created using the provided factory.
+ * Workers are saved between calls to avoid declaring new memory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DisparityScoreRowFormat_MT<Input extends ImageSingleBand, Disparity extends ImageSingleBand>
+	extends DisparityScoreRowFormat<Input,Disparity>
+{
+	// used to look up configuration and as the first worker
+	DisparityScoreRowFormat<Input,Disparity> prototype;
+
+	// workers which are not in use
+	WorkerPool<DisparityScoreRowFormat<Input,Disparity>> workers;
+
+	// the minimum number of rows in a band is this number times the border
+	int minBandFactor = 4;
+
+	/**
+	 * Specifies how to create the serial algorithm.  All created instances must have the same configuration.
+	 *
+	 * @param factory Creates new instances of the serial algorithm
+	 */
+	public DisparityScoreRowFormat_MT( WorkerFactory<DisparityScoreRowFormat<Input,Disparity>> factory ) {
+		this(factory,factory.create());
+	}
+
+	private DisparityScoreRowFormat_MT( WorkerFactory<DisparityScoreRowFormat<Input,Disparity>> factory ,
+										DisparityScoreRowFormat<Input,Disparity> prototype ) {
+		super(prototype.getMinDisparity(), prototype.getMaxDisparity(), prototype.radiusX, prototype.radiusY);
+		this.prototype = prototype;
+		this.workers = new WorkerPool<DisparityScoreRowFormat<Input,Disparity>>(factory);
+		this.workers.release(prototype);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void _process( final Input left , final Input right , final Disparity disparity ) {
+		final int borderY = getBorderY();
+		final int width = left.width;
+
+		// not enough rows to split up the image.  process it in a single pass
+		if( left.height < 2*borderY + 2 ) {
+			DisparityScoreRowFormat<Input,Disparity> worker = workers.acquire();
+			try {
+				worker.process(left, right, disparity);
+			} finally {
+				workers.release(worker);
+			}
+			return;
+		}
+
+		int minBand = Math.max(1,minBandFactor*borderY);
+
+		BoofConcurrency.loopBlocks(borderY, left.height - borderY, minBand, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				// include the rows needed to compute the region score along the band's border
+				int top = y0 - borderY;
+				int bottom = y1 + borderY;
+
+				Input subLeft = (Input)left.subimage(0, top, width, bottom, null);
+				Input subRight = (Input)right.subimage(0, top, width, bottom, null);
+				Disparity subDisparity = (Disparity)disparity.subimage(0, top, width, bottom, null);
+
+				DisparityScoreRowFormat<Input,Disparity> worker = workers.acquire();
+				try {
+					worker.process(subLeft, subRight, subDisparity);
+				} finally {
+					workers.release(worker);
+				}
+			}
+		});
+	}
+
+	@Override
+	public Class<Input> getInputType() {
+		return prototype.getInputType();
+	}
+
+	@Override
+	public Class<Disparity> getDisparityType() {
+		return prototype.getDisparityType();
+	}
+
+	@Override
+	public int getBorderX() {
+		return prototype.getBorderX();
+	}
+
+	@Override
+	public int getBorderY() {
+		return prototype.getBorderY();
+	}
+
+	public int getMinBandFactor() {
+		return minBandFactor;
+	}
+
+	/**
+	 * Bands will contain at least this number times {@link #getBorderY()} rows.  Smaller bands reduce the
+	 * amount of work done per thread but increase the number of rows which are processed more than once.
+	 */
+	public void setMinBandFactor(int minBandFactor) {
+		this.minBandFactor = minBandFactor;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implementation of {@link DisparityScoreSadRect} for {@link ImageUInt8} which computes scores one column at a
+ * time using {@link UtilDisparityScoreColumn}.  Produces identical results to {@link ImplDisparityScoreSadRect_U8}
+ * but its inner loops are designed to be vectorized by the JIT.
+ * </p>
+ *
+ * <p>
+ * Only the column scores are saved between rows.  The absolute difference of the row leaving the region is
+ * recomputed from the last regionHeight+1 image rows, which are saved as int arrays.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRectColumn_U8<Disparity extends ImageSingleBand>
+	extends DisparityScoreSadRect<ImageUInt8,Disparity>
+{
+	// Computes disparity from scores
+	DisparitySelect<int[],Disparity> computeDisparity;
+
+	// rolling window of image rows converted into int
+	int leftRows[][];
+	int rightRows[][];
+	// sum of absolute differences along each column in the region for every disparity
+	int columnScore[];
+	// score for each region
+	int regionScore[];
+
+	public ImplDisparityScoreSadRectColumn_U8( int minDisparity , int maxDisparity,
+											   int regionRadiusX, int regionRadiusY,
+											   DisparitySelect<int[],Disparity> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+
+		this.computeDisparity = computeDisparity;
+	}
+
+	@Override
+	public void _process( ImageUInt8 left , ImageUInt8 right , Disparity disparity ) {
+		if( columnScore == null || columnScore.length < lengthHorizontal || leftRows[0].length < left.width ) {
+			leftRows = new int[regionHeight+1][left.width];
+			rightRows = new int[regionHeight+1][left.width];
+			columnScore = new int[lengthHorizontal];
+			regionScore = new int[lengthHorizontal];
+		}
+
+		computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX);
+
+		final int width = left.width;
+		final int numRows = regionHeight+1;
+
+		// compute score for the top possible row
+		Arrays.fill(columnScore,0);
+		for( int row = 0; row < regionHeight; row++ ) {
+			UtilDisparityScoreColumn.rowToInt(left,row,leftRows[row]);
+			UtilDisparityScoreColumn.rowToInt(right,row,rightRows[row]);
+			UtilDisparityScoreColumn.addRow(leftRows[row],rightRows[row],width,minDisparity,maxDisparity,columnScore);
+		}
+		UtilDisparityScoreColumn.regionScores(columnScore,width,minDisparity,maxDisparity,regionWidth,regionScore);
+		computeDisparity.process(radiusY, regionScore);
+
+		// slide the region down the image one row at a time
+		for( int row = regionHeight; row < left.height; row++ ) {
+			int indexAdd = row % numRows;
+			int indexRemove = (row-regionHeight) % numRows;
+
+			UtilDisparityScoreColumn.rowToInt(left,row,leftRows[indexAdd]);
+			UtilDisparityScoreColumn.rowToInt(right,row,rightRows[indexAdd]);
+			UtilDisparityScoreColumn.updateRow(leftRows[indexAdd],rightRows[indexAdd],
+					leftRows[indexRemove],rightRows[indexRemove],width,minDisparity,maxDisparity,columnScore);
+			UtilDisparityScoreColumn.regionScores(columnScore,width,minDisparity,maxDisparity,regionWidth,regionScore);
+
+			computeDisparity.process(row - regionHeight + 1 + radiusY, regionScore);
+		}
+	}
+
+	@Override
+	public Class<ImageUInt8> getInputType() {
+		return ImageUInt8.class;
+	}
+
+	@Override
+	public Class<Disparity> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+}
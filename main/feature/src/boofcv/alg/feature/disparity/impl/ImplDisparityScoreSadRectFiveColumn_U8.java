@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreWindowFive;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implementation of {@link DisparityScoreWindowFive} for {@link ImageUInt8} which computes the sub-region scores
+ * one column at a time using {@link UtilDisparityScoreColumn}.  Produces identical results to
+ * {@link ImplDisparityScoreSadRectFive_U8} but its inner loops are designed to be vectorized by the JIT.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRectFiveColumn_U8<Disparity extends ImageSingleBand>
+		extends DisparityScoreWindowFive<ImageUInt8,Disparity>
+{
+	// Computes disparity from scores
+	DisparitySelect<int[],Disparity> computeDisparity;
+
+	// rolling window of image rows converted into int
+	int leftRows[][];
+	int rightRows[][];
+	// sum of absolute differences along each column in the sub-region for every disparity
+	int columnScore[];
+	// Save the last regionHeight sub-region scores in a rolling window
+	int regionScore[][];
+	// Where the final score it stored that has been computed from five regions
+	int fiveScore[];
+
+	public ImplDisparityScoreSadRectFiveColumn_U8( int minDisparity, int maxDisparity,
+												   int regionRadiusX, int regionRadiusY,
+												   DisparitySelect<int[], Disparity> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+		this.computeDisparity = computeDisparity;
+	}
+
+	@Override
+	public void _process( ImageUInt8 left , ImageUInt8 right , Disparity disparity ) {
+		if( columnScore == null || columnScore.length < lengthHorizontal || leftRows[0].length < left.width ) {
+			leftRows = new int[regionHeight+1][left.width];
+			rightRows = new int[regionHeight+1][left.width];
+			columnScore = new int[lengthHorizontal];
+			regionScore = new int[regionHeight][lengthHorizontal];
+			fiveScore = new int[lengthHorizontal];
+		}
+
+		computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX*2);
+
+		final int width = left.width;
+		final int numRows = regionHeight+1;
+
+		// score for the sub-region at the top of the image
+		Arrays.fill(columnScore,0);
+		for( int row = 0; row < regionHeight; row++ ) {
+			UtilDisparityScoreColumn.rowToInt(left,row,leftRows[row]);
+			UtilDisparityScoreColumn.rowToInt(right,row,rightRows[row]);
+			UtilDisparityScoreColumn.addRow(leftRows[row],rightRows[row],width,minDisparity,maxDisparity,columnScore);
+		}
+		UtilDisparityScoreColumn.regionScores(columnScore,width,minDisparity,maxDisparity,regionWidth,regionScore[0]);
+
+		// slide the sub-region down the image one row at a time
+		for( int row = regionHeight, active = 1; row < left.height; row++, active++ ) {
+			int indexAdd = row % numRows;
+			int indexRemove = (row-regionHeight) % numRows;
+
+			UtilDisparityScoreColumn.rowToInt(left,row,leftRows[indexAdd]);
+			UtilDisparityScoreColumn.rowToInt(right,row,rightRows[indexAdd]);
+			UtilDisparityScoreColumn.updateRow(leftRows[indexAdd],rightRows[indexAdd],
+					leftRows[indexRemove],rightRows[indexRemove],width,minDisparity,maxDisparity,columnScore);
+			UtilDisparityScoreColumn.regionScores(columnScore,width,minDisparity,maxDisparity,regionWidth,
+					regionScore[active % regionHeight]);
+
+			if( active >= regionHeight-1 ) {
+				int top[] = regionScore[ (active - 2*radiusY) % regionHeight ];
+				int middle[] = regionScore[ (active - radiusY) % regionHeight ];
+				int bottom[] = regionScore[ active % regionHeight ];
+
+				computeScoreFive(top,middle,bottom,fiveScore,width);
+				computeDisparity.process(row - 2*radiusY, fiveScore );
+			}
+		}
+	}
+
+	/**
+	 * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center
+	 * region.  Out of those four only the two with the smallest score are used.  The two smallest are
+	 * found using min and max instead of branches.
+	 */
+	protected void computeScoreFive( int top[] , int middle[] , int bottom[] , int score[] , int width ) {
+
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+
+			// take in account the different in image border between the sub-regions and the effective region
+			final int indexSrc = (d-minDisparity)*width + (d-minDisparity) + radiusX;
+			final int indexDst = (d-minDisparity)*width + (d-minDisparity);
+			final int length = width-d-4*radiusX;
+
+			for( int i = 0; i < length; i++ ) {
+				int src = indexSrc + i;
+
+				// sample four outer regions at the corners around the center region
+				int val0 = top[src-radiusX];
+				int val1 = top[src+radiusX];
+				int val2 = bottom[src-radiusX];
+				int val3 = bottom[src+radiusX];
+
+				int lowTop = Math.min(val0,val1);
+				int highTop = Math.max(val0,val1);
+				int lowBottom = Math.min(val2,val3);
+				int highBottom = Math.max(val2,val3);
+
+				// sum of the two smallest
+				int s = Math.min(lowTop,lowBottom) +
+						Math.min(Math.max(lowTop,lowBottom),Math.min(highTop,highBottom));
+
+				score[indexDst+i] = s + middle[src];
+			}
+		}
+	}
+
+	@Override
+	public Class<ImageUInt8> getInputType() {
+		return ImageUInt8.class;
+	}
+
+	@Override
+	public Class<Disparity> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+}
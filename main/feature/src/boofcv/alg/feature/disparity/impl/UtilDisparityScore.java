@@ -18,8 +18,11 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.associate.DescriptorDistance;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
 import boofcv.struct.image.ImageUInt8;
 
 /**
@@ -235,4 +238,112 @@ public class UtilDisparityScore {
 			elementScore[rCol] = Math.abs(diff);
 		}
 	}
+
+	/**
+	 * Computes disparity score for an entire row using the Hamming distance between census transformed pixels.
+	 *
+	 * @see #computeScoreRow(ImageUInt8, ImageUInt8, int, int[], int, int, int, int[])
+	 *
+	 * @param left left census image
+	 * @param right Right census image
+	 * @param row Image row being examined
+	 * @param scores Storage for disparity scores.
+	 * @param minDisparity Minimum disparity to consider
+	 * @param maxDisparity Maximum disparity to consider
+	 * @param regionWidth Size of the sample region's width
+	 * @param elementScore Storage for scores of individual pixels
+	 */
+	public static void computeScoreRowHamming(ImageSInt32 left, ImageSInt32 right, int row, int[] scores,
+											  int minDisparity , int maxDisparity , int regionWidth ,
+											  int elementScore[] ) {
+
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+			int dispFromMin = d - minDisparity;
+
+			final int colMax = left.width-d;
+			final int scoreMax = colMax-regionWidth;
+
+			int indexScore = left.width*dispFromMin + dispFromMin;
+			int indexLeft = left.startIndex + left.stride*row + d;
+			int indexRight = right.startIndex + right.stride*row;
+
+			computeScoreRowHamming(left, right, colMax, indexLeft, indexRight, elementScore);
+
+			int score = 0;
+			for( int i = 0; i < regionWidth; i++ )
+				score += elementScore[i];
+
+			scores[indexScore++] = score;
+
+			for( int col = 0; col < scoreMax; col++ , indexScore++ ) {
+				scores[indexScore] = score += elementScore[col+regionWidth] - elementScore[col];
+			}
+		}
+	}
+
+	/**
+	 * Hamming distance between each pair of census transformed pixels along the row
+	 */
+	public static void computeScoreRowHamming(ImageSInt32 left, ImageSInt32 right,
+											  int elementMax, int indexLeft, int indexRight,
+											  int elementScore[])
+	{
+		for( int rCol = 0; rCol < elementMax; rCol++ ) {
+			elementScore[rCol] = DescriptorDistance.hamming(left.data[ indexLeft++ ] ^ right.data[ indexRight++ ]);
+		}
+	}
+
+	/**
+	 * Computes disparity score for an entire row using the Hamming distance between census transformed pixels.
+	 *
+	 * @see #computeScoreRow(ImageUInt8, ImageUInt8, int, int[], int, int, int, int[])
+	 *
+	 * @param left left census image
+	 * @param right Right census image
+	 * @param row Image row being examined
+	 * @param scores Storage for disparity scores.
+	 * @param minDisparity Minimum disparity to consider
+	 * @param maxDisparity Maximum disparity to consider
+	 * @param regionWidth Size of the sample region's width
+	 * @param elementScore Storage for scores of individual pixels
+	 */
+	public static void computeScoreRowHamming(ImageSInt64 left, ImageSInt64 right, int row, int[] scores,
+											  int minDisparity , int maxDisparity , int regionWidth ,
+											  int elementScore[] ) {
+
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+			int dispFromMin = d - minDisparity;
+
+			final int colMax = left.width-d;
+			final int scoreMax = colMax-regionWidth;
+
+			int indexScore = left.width*dispFromMin + dispFromMin;
+			int indexLeft = left.startIndex + left.stride*row + d;
+			int indexRight = right.startIndex + right.stride*row;
+
+			computeScoreRowHamming(left, right, colMax, indexLeft, indexRight, elementScore);
+
+			int score = 0;
+			for( int i = 0; i < regionWidth; i++ )
+				score += elementScore[i];
+
+			scores[indexScore++] = score;
+
+			for( int col = 0; col < scoreMax; col++ , indexScore++ ) {
+				scores[indexScore] = score += elementScore[col+regionWidth] - elementScore[col];
+			}
+		}
+	}
+
+	/**
+	 * Hamming distance between each pair of census transformed pixels along the row
+	 */
+	public static void computeScoreRowHamming(ImageSInt64 left, ImageSInt64 right,
+											  int elementMax, int indexLeft, int indexRight,
+											  int elementScore[])
+	{
+		for( int rCol = 0; rCol < elementMax; rCol++ ) {
+			elementScore[rCol] = DescriptorDistance.hamming(left.data[ indexLeft++ ] ^ right.data[ indexRight++ ]);
+		}
+	}
 }
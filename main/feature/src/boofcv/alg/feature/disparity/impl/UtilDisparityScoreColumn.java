@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Functions for computing SAD disparity scores one column at a time.  Instead of computing the score
+ * along each row and then summing rows, the sum of absolute differences along each column of the region is
+ * maintained for every disparity and updated as the region slides down the image.  The region's score is then
+ * found by summing adjacent columns.
+ * </p>
+ *
+ * <p>
+ * The inner loops are written so that the JIT can turn them into SIMD instructions.  Each disparity is
+ * stored in a contiguous block of memory, image rows are converted into int arrays once per row instead of
+ * once per disparity, and absolute values are computed without branches or function calls.
+ * </p>
+ *
+ * <p>
+ * Column scores are stored in the following format: index = width*(d - minDisparity) + col, where col is the
+ * column in the right image.  Region scores are stored in the format specified by
+ * {@link boofcv.alg.feature.disparity.DisparityScoreRowFormat}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class UtilDisparityScoreColumn {
+
+	/**
+	 * Copies a row from the image into an int array.
+	 *
+	 * @param image Input image
+	 * @param row The row being copied
+	 * @param output Storage for the row.  Must be at least image.width long.
+	 */
+	public static void rowToInt( ImageUInt8 image , int row , int output[] ) {
+		int index = image.startIndex + row*image.stride;
+		final int width = image.width;
+		final byte data[] = image.data;
+
+		for( int i = 0; i < width; i++ ) {
+			output[i] = data[index+i] & 0xFF;
+		}
+	}
+
+	/**
+	 * Adds the absolute difference between two rows to the column scores for all disparities.
+	 *
+	 * @param left Row from the left image
+	 * @param right Row from the right image
+	 * @param width Width of the image
+	 * @param minDisparity Minimum disparity to consider
+	 * @param maxDisparity Maximum disparity to consider
+	 * @param columnScore Column scores which are modified
+	 */
+	public static void addRow( int left[] , int right[] , int width ,
+							   int minDisparity , int maxDisparity , int columnScore[] ) {
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+			final int indexScore = width*(d-minDisparity);
+			final int colMax = width-d;
+
+			for( int col = 0; col < colMax; col++ ) {
+				int diff = left[col+d] - right[col];
+				int sign = diff >> 31;
+				columnScore[indexScore+col] += (diff ^ sign) - sign;
+			}
+		}
+	}
+
+	/**
+	 * Adds the absolute difference of a new row to the column scores while removing the difference of an
+	 * old row, for all disparities.
+	 *
+	 * @param leftAdd Row from the left image which is being added
+	 * @param rightAdd Row from the right image which is being added
+	 * @param leftRemove Row from the left image which is being removed
+	 * @param rightRemove Row from the right image which is being removed
+	 * @param width Width of the image
+	 * @param minDisparity Minimum disparity to consider
+	 * @param maxDisparity Maximum disparity to consider
+	 * @param columnScore Column scores which are modified
+	 */
+	public static void updateRow( int leftAdd[] , int rightAdd[] , int leftRemove[] , int rightRemove[] ,
+								  int width , int minDisparity , int maxDisparity , int columnScore[] ) {
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+			final int indexScore = width*(d-minDisparity);
+			final int colMax = width-d;
+
+			for( int col = 0; col < colMax; col++ ) {
+				int diffAdd = leftAdd[col+d] - rightAdd[col];
+				int diffRemove = leftRemove[col+d] - rightRemove[col];
+				int signAdd = diffAdd >> 31;
+				int signRemove = diffRemove >> 31;
+
+				columnScore[indexScore+col] += ((diffAdd ^ signAdd) - signAdd) - ((diffRemove ^ signRemove) - signRemove);
+			}
+		}
+	}
+
+	/**
+	 * Computes the score of each region by summing the column scores inside of it.
+	 *
+	 * @param columnScore Column scores
+	 * @param width Width of the image
+	 * @param minDisparity Minimum disparity to consider
+	 * @param maxDisparity Maximum disparity to consider
+	 * @param regionWidth Width of the region
+	 * @param scores Storage for region scores
+	 */
+	public static void regionScores( int columnScore[] , int width ,
+									 int minDisparity , int maxDisparity , int regionWidth ,
+									 int scores[] ) {
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+			final int dispFromMin = d - minDisparity;
+			final int indexColumn = width*dispFromMin;
+			final int indexScore = width*dispFromMin + dispFromMin;
+			// number of regions that a score is computed for
+			final int scoreMax = width-d-regionWidth+1;
+
+			int score = 0;
+			for( int i = 0; i < regionWidth; i++ )
+				score += columnScore[indexColumn+i];
+			scores[indexScore] = score;
+
+			for( int i = 1; i < scoreMax; i++ ) {
+				score += columnScore[indexColumn+i+regionWidth-1] - columnScore[indexColumn+i-1];
+				scores[indexScore+i] = score;
+			}
+		}
+	}
+}
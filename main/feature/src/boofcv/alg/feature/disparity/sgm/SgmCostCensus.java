@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Matching cost which is the Hamming distance between {@link CensusTransform census transformed} pixels.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostCensus implements SgmCostFunction<ImageUInt8> {
+
+	// radius of the census region
+	int radius;
+
+	int minDisparity;
+	int rangeDisparity;
+
+	// census transform of the input images
+	ImageSInt32 left = new ImageSInt32(1,1);
+	ImageSInt32 right = new ImageSInt32(1,1);
+
+	/**
+	 * @param radius Radius of the census region.  1 or 2.
+	 */
+	public SgmCostCensus( int radius ) {
+		if( radius < 1 || radius > CensusTransform.MAX_RADIUS )
+			throw new IllegalArgumentException("Radius must be from 1 to "+CensusTransform.MAX_RADIUS);
+		this.radius = radius;
+	}
+
+	@Override
+	public void configure(int minDisparity, int rangeDisparity) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+	}
+
+	@Override
+	public void setImages(ImageUInt8 left, ImageUInt8 right) {
+		this.left.reshape(left.width,left.height);
+		this.right.reshape(right.width,right.height);
+
+		CensusTransform.region(left,radius,this.left);
+		CensusTransform.region(right,radius,this.right);
+	}
+
+	@Override
+	public void computeRow(int row, short[] cost) {
+		final int width = left.width;
+		final int indexLeft = left.startIndex + row*left.stride;
+		final int indexRight = right.startIndex + row*right.stride;
+
+		for( int x = 0; x < width; x++ ) {
+			final int indexCost = x*rangeDisparity;
+			final int valueLeft = left.data[indexLeft+x];
+
+			// disparities which can be compared inside the image
+			int localRange = Math.max(0,Math.min(rangeDisparity, x - minDisparity + 1));
+
+			for( int d = 0; d < localRange; d++ ) {
+				int valueRight = right.data[indexRight + x - minDisparity - d];
+				cost[indexCost+d] = (short)DescriptorDistance.hamming(valueLeft ^ valueRight);
+			}
+			for( int d = localRange; d < rangeDisparity; d++ ) {
+				cost[indexCost+d] = MAX_COST;
+			}
+		}
+	}
+
+	@Override
+	public Class<ImageUInt8> getInputType() {
+		return ImageUInt8.class;
+	}
+}
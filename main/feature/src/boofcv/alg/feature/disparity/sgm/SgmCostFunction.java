@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.ImageSingleBand;
+
+/**
+ * <p>
+ * Computes the cost of matching pixels in the left image to pixels in the right image for every disparity, one
+ * image row at a time.  The cost for pixel x in the left image at disparity d is stored at index x*range + d,
+ * where range is the number of disparities and d is relative to the minimum disparity.  The pixel it's
+ * being compared to in the right image is x - (minDisparity+d).  If that pixel is outside the image then
+ * the cost is {@link #MAX_COST}.
+ * </p>
+ *
+ * <p>
+ * All costs must be from 0 to {@link #MAX_COST}, inclusive.  This ensures that aggregated costs can be stored in
+ * a short.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SgmCostFunction<T extends ImageSingleBand> {
+
+	/**
+	 * Largest possible cost
+	 */
+	public static final int MAX_COST = 2047;
+
+	/**
+	 * Specifies the range of disparities that will be considered.
+	 *
+	 * @param minDisparity Minimum disparity
+	 * @param rangeDisparity Number of disparities
+	 */
+	public void configure( int minDisparity , int rangeDisparity );
+
+	/**
+	 * Specifies the two images which are being compared.  Any per-image computations are done here.
+	 *
+	 * @param left Left image
+	 * @param right Right image
+	 */
+	public void setImages( T left , T right );
+
+	/**
+	 * Computes the cost for every pixel and disparity in the specified row.  Must be called after
+	 * {@link #setImages} has been called.
+	 *
+	 * @param row Image row
+	 * @param cost Storage for the cost.  Must be at least width*range long.
+	 */
+	public void computeRow( int row , short cost[] );
+
+	/**
+	 * Type of input image
+	 */
+	public Class<T> getInputType();
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Matching cost which is the sum of absolute differences (SAD) inside a square region.  Pixels outside the image
+ * are handled by using the closest pixel inside the image.  The cost is truncated at {@link #MAX_COST}.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostSad implements SgmCostFunction<ImageUInt8> {
+
+	// radius of the square region
+	int radius;
+
+	int minDisparity;
+	int rangeDisparity;
+
+	ImageUInt8 left;
+	ImageUInt8 right;
+
+	// storage for the sum of absolute differences along each column
+	int columnScore[] = new int[0];
+
+	/**
+	 * @param radius Radius of the square region.  0 = single pixel
+	 */
+	public SgmCostSad( int radius ) {
+		if( radius < 0 )
+			throw new IllegalArgumentException("Radius can't be negative");
+		this.radius = radius;
+	}
+
+	@Override
+	public void configure(int minDisparity, int rangeDisparity) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+	}
+
+	@Override
+	public void setImages(ImageUInt8 left, ImageUInt8 right) {
+		this.left = left;
+		this.right = right;
+
+		if( columnScore.length < left.width )
+			columnScore = new int[left.width];
+	}
+
+	@Override
+	public void computeRow(int row, short[] cost) {
+		final int width = left.width;
+		final int columnScore[] = this.columnScore;
+
+		for( int d = 0; d < rangeDisparity; d++ ) {
+			final int disparity = minDisparity + d;
+
+			// invalid pixels along the left border
+			for( int x = 0; x < Math.min(disparity,width); x++ ) {
+				cost[x*rangeDisparity+d] = MAX_COST;
+			}
+			if( disparity >= width )
+				continue;
+
+			// sum the absolute difference along each column
+			for( int x = disparity; x < width; x++ )
+				columnScore[x] = 0;
+			for( int i = -radius; i <= radius; i++ ) {
+				int y = Math.min(left.height-1,Math.max(0,row+i));
+				int indexLeft = left.startIndex + y*left.stride;
+				int indexRight = right.startIndex + y*right.stride - disparity;
+
+				for( int x = disparity; x < width; x++ ) {
+					int diff = (left.data[indexLeft+x] & 0xFF) - (right.data[indexRight+x] & 0xFF);
+					columnScore[x] += diff < 0 ? -diff : diff;
+				}
+			}
+
+			// sum the columns inside the region
+			for( int x = disparity; x < width; x++ ) {
+				int sum = 0;
+				for( int j = -radius; j <= radius; j++ ) {
+					sum += columnScore[Math.min(width-1,Math.max(disparity,x+j))];
+				}
+				cost[x*rangeDisparity+d] = (short)Math.min(MAX_COST,sum);
+			}
+		}
+	}
+
+	@Override
+	public Class<ImageUInt8> getInputType() {
+		return ImageUInt8.class;
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Selects the disparity of each pixel in a row from the aggregated costs using winner takes all.  Optionally
+ * the selected disparity can be validated using a right to left consistency check and a uniqueness test.  If
+ * the output is a {@link ImageFloat32} then the disparity is refined to sub-pixel accuracy by fitting a parabola
+ * to the best cost and its two neighbors.
+ * </p>
+ *
+ * <p>
+ * Aggregated costs are stored in the format described in {@link SgmCostFunction}.  Invalid pixels are assigned
+ * a value of range+1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmDisparitySelector {
+
+	// tolerance for right to left validation. if < 0 then it's disabled
+	int rightToLeftTolerance;
+	// uniqueness tolerance. if <= 0 then it's disabled
+	double uniqueness;
+
+	int minDisparity;
+	int rangeDisparity;
+	int invalidDisparity;
+
+	// best disparity for each pixel in the right image
+	int bestRight[] = new int[1];
+	// best disparity for each pixel in the left image
+	int bestLeft[] = new int[1];
+
+	/**
+	 * @param rightToLeftTolerance Tolerance for how different the left to right and right to left disparities can
+	 *                             be.  Disable with a value < 0
+	 * @param uniqueness How much larger the second best cost needs to be, as a fraction of the best cost.
+	 *                   Disable with a value <= 0.
+	 */
+	public SgmDisparitySelector(int rightToLeftTolerance, double uniqueness) {
+		this.rightToLeftTolerance = rightToLeftTolerance;
+		this.uniqueness = uniqueness;
+	}
+
+	public void configure( int minDisparity , int rangeDisparity ) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+		this.invalidDisparity = rangeDisparity+1;
+	}
+
+	/**
+	 * Selects the disparity for every pixel in the row
+	 *
+	 * @param aggregated Aggregated cost for the row
+	 * @param width Image width
+	 * @param row Which row in the disparity image is being processed
+	 * @param disparity Output disparity image.  {@link ImageUInt8} or {@link ImageFloat32}.
+	 */
+	public void process( short aggregated[] , int width , int row , ImageSingleBand disparity ) {
+		if( bestLeft.length < width ) {
+			bestLeft = new int[width];
+			bestRight = new int[width];
+		}
+
+		selectLeft(aggregated, width);
+		if( rightToLeftTolerance >= 0 )
+			selectRight(aggregated, width);
+
+		if( disparity instanceof ImageUInt8 ) {
+			ImageUInt8 output = (ImageUInt8)disparity;
+			int index = output.startIndex + row*output.stride;
+			for( int x = 0; x < width; x++ ) {
+				output.data[index+x] = (byte)validate(x);
+			}
+		} else if( disparity instanceof ImageFloat32 ) {
+			ImageFloat32 output = (ImageFloat32)disparity;
+			int index = output.startIndex + row*output.stride;
+			for( int x = 0; x < width; x++ ) {
+				int d = validate(x);
+				if( d == invalidDisparity )
+					output.data[index+x] = d;
+				else
+					output.data[index+x] = d + subpixel(aggregated, x*rangeDisparity, d, localRange(x));
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported disparity image type");
+		}
+	}
+
+	/**
+	 * Number of disparities which can be considered at a column in the left image
+	 */
+	private int localRange( int x ) {
+		return Math.max(0,Math.min(rangeDisparity, x - minDisparity + 1));
+	}
+
+	/**
+	 * Finds the disparity with the lowest cost for every pixel in the left image and applies the uniqueness test
+	 */
+	private void selectLeft(short[] aggregated, int width) {
+		for( int x = 0; x < width; x++ ) {
+			int localRange = localRange(x);
+			if( localRange == 0 ) {
+				bestLeft[x] = invalidDisparity;
+				continue;
+			}
+
+			int index = x*rangeDisparity;
+			int best = 0;
+			int bestCost = aggregated[index];
+			for( int d = 1; d < localRange; d++ ) {
+				int cost = aggregated[index+d];
+				if( cost < bestCost ) {
+					bestCost = cost;
+					best = d;
+				}
+			}
+
+			if( uniqueness > 0 ) {
+				// second best, skipping over the neighbors of the best
+				int secondCost = Integer.MAX_VALUE;
+				for( int d = 0; d < localRange; d++ ) {
+					if( d >= best-1 && d <= best+1 )
+						continue;
+					int cost = aggregated[index+d];
+					if( cost < secondCost )
+						secondCost = cost;
+				}
+				if( secondCost != Integer.MAX_VALUE && secondCost - bestCost <= uniqueness*bestCost ) {
+					best = invalidDisparity;
+				}
+			}
+
+			bestLeft[x] = best;
+		}
+	}
+
+	/**
+	 * Finds the disparity with the lowest cost for every pixel in the right image
+	 */
+	private void selectRight(short[] aggregated, int width) {
+		for( int xr = 0; xr < width; xr++ ) {
+			// number of disparities which will be inside the left image
+			int localRange = Math.min(rangeDisparity, width - xr - minDisparity);
+			if( localRange <= 0 ) {
+				bestRight[xr] = invalidDisparity;
+				continue;
+			}
+
+			int index = (xr+minDisparity)*rangeDisparity;
+			int best = 0;
+			int bestCost = aggregated[index];
+			for( int d = 1; d < localRange; d++ ) {
+				// move one pixel to the right in the left image
+				index += rangeDisparity;
+				int cost = aggregated[index+d];
+				if( cost < bestCost ) {
+					bestCost = cost;
+					best = d;
+				}
+			}
+			bestRight[xr] = best;
+		}
+	}
+
+	/**
+	 * Returns the disparity for the pixel after applying the right to left validation
+	 */
+	private int validate( int x ) {
+		int d = bestLeft[x];
+		if( d == invalidDisparity || rightToLeftTolerance < 0 )
+			return d;
+
+		int xr = x - minDisparity - d;
+		if( Math.abs(bestRight[xr]-d) > rightToLeftTolerance )
+			return invalidDisparity;
+		return d;
+	}
+
+	/**
+	 * Sub-pixel offset found by fitting a parabola to the best cost and its two neighbors
+	 */
+	private float subpixel( short aggregated[] , int index , int d , int localRange ) {
+		if( d <= 0 || d >= localRange-1 )
+			return 0;
+
+		int c0 = aggregated[index+d-1];
+		int c1 = aggregated[index+d];
+		int c2 = aggregated[index+d+1];
+
+		int denominator = c0 - 2*c1 + c2;
+		if( denominator <= 0 )
+			return 0;
+		return (float)(c0-c2)/(2*denominator);
+	}
+
+	public int getRightToLeftTolerance() {
+		return rightToLeftTolerance;
+	}
+
+	public double getUniqueness() {
+		return uniqueness;
+	}
+}
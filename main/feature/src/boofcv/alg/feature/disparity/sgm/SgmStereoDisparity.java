@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Semi Global Matching (SGM) [1] dense stereo disparity.  The cost of matching each pixel at each disparity is
+ * computed using a {@link SgmCostFunction}.  Costs are then aggregated along several 1D paths which cross the image
+ * in different directions.  Along each path a small penalty is added when the disparity changes by one between
+ * neighboring pixels and a large penalty when it changes by more.  This approximates a 2D smoothness constraint,
+ * allowing good results in regions with little texture.  The disparity for each pixel is then selected from
+ * the sum of all the paths by {@link SgmDisparitySelector}.
+ * </p>
+ *
+ * <p>
+ * Aggregation along a path at pixel p and disparity d:<br>
+ * L(p,d) = C(p,d) + min( L(p-r,d) , L(p-r,d-1) + P1 , L(p-r,d+1) + P1 , min<sub>k</sub> L(p-r,k) + P2 ) -
+ * min<sub>k</sub> L(p-r,k)
+ * </p>
+ *
+ * <p>
+ * Two modes are supported. By default costs are aggregated along 4 or 8 paths.  Paths which go down the image are
+ * processed in one sweep and paths which go up in a second sweep.  This requires saving the aggregated cost for
+ * the entire image, width*height*disparities shorts.  In row streaming mode only the sweep down the image is done
+ * and the disparity is selected as soon as a row is finished.  Memory is then proportional to
+ * width*disparities and only 3 or 5 paths are used.
+ * </p>
+ *
+ * <p>
+ * Paths are independent of each other, so for each row they are aggregated in parallel using
+ * {@link BoofConcurrency}.  Results do not depend on the number of threads.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on Pattern Analysis and Machine Intelligence 30.2 (2008): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparity<T extends ImageSingleBand> {
+
+	// computes the cost of matching pixels
+	SgmCostFunction<T> costFunction;
+
+	// selects the best disparity from the aggregated cost.  One for each thread
+	WorkerPool<SgmDisparitySelector> selectors;
+
+	int minDisparity;
+	int maxDisparity;
+	int rangeDisparity;
+
+	// penalty for a change in disparity of one
+	int penaltySmall;
+	// penalty for a change in disparity of more than one
+	int penaltyLarge;
+
+	// total number of paths
+	int numPaths;
+	// if true then only a single sweep down the image is done
+	boolean rowStreaming;
+
+	// paths which go down the image and up the image
+	List<Path> pathsDown = new ArrayList<Path>();
+	List<Path> pathsUp = new ArrayList<Path>();
+
+	// cost of the row being processed
+	short cost[] = new short[0];
+	// aggregated cost for every pixel and disparity.  Only used when not in streaming mode
+	short aggregatedImage[][] = new short[0][];
+	// aggregated cost for a single row.  Only used in streaming mode
+	short aggregatedRow[] = new short[0];
+
+	// image shape
+	int width, height;
+
+	// aggregates a single row along each path in parallel
+	PathTask pathTask = new PathTask();
+
+	/**
+	 * Configures SGM
+	 *
+	 * @param costFunction Computes the cost of matching pixels
+	 * @param minDisparity Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Must be > 0
+	 * @param penaltySmall Penalty for a change in disparity of one.
+	 * @param penaltyLarge Penalty for a change in disparity of more than one. penaltySmall <= P2 <= MAX_COST
+	 * @param numPaths Number of paths.  4 or 8.
+	 * @param rowStreaming If true then only paths going down the image are used and memory is bounded by
+	 *                     width*disparities.
+	 * @param rightToLeftTolerance Right to left validation tolerance. Disable with < 0.
+	 * @param uniqueness Uniqueness test tolerance. Disable with <= 0.
+	 */
+	public SgmStereoDisparity( SgmCostFunction<T> costFunction ,
+							   int minDisparity , int maxDisparity ,
+							   int penaltySmall , int penaltyLarge ,
+							   int numPaths , boolean rowStreaming ,
+							   final int rightToLeftTolerance , final double uniqueness ) {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+		if( penaltySmall < 0 || penaltyLarge < penaltySmall || penaltyLarge > SgmCostFunction.MAX_COST )
+			throw new IllegalArgumentException("Penalties must be 0 <= small <= large <= MAX_COST");
+		if( numPaths != 4 && numPaths != 8 )
+			throw new IllegalArgumentException("Number of paths must be 4 or 8");
+
+		this.costFunction = costFunction;
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+		this.rangeDisparity = maxDisparity - minDisparity;
+		this.penaltySmall = penaltySmall;
+		this.penaltyLarge = penaltyLarge;
+		this.numPaths = numPaths;
+		this.rowStreaming = rowStreaming;
+
+		costFunction.configure(minDisparity,rangeDisparity);
+
+		selectors = new WorkerPool<SgmDisparitySelector>(new WorkerFactory<SgmDisparitySelector>() {
+			@Override
+			public SgmDisparitySelector create() {
+				SgmDisparitySelector selector = new SgmDisparitySelector(rightToLeftTolerance,uniqueness);
+				selector.configure(SgmStereoDisparity.this.minDisparity, rangeDisparity);
+				return selector;
+			}
+		});
+
+		// horizontal paths are only processed in the sweep down
+		pathsDown.add(new Path(1, true));
+		pathsDown.add(new Path(-1, true));
+		pathsDown.add(new Path(0, false));
+		if( numPaths == 8 ) {
+			pathsDown.add(new Path(1, false));
+			pathsDown.add(new Path(-1, false));
+		}
+
+		if( !rowStreaming ) {
+			pathsUp.add(new Path(0, false));
+			if( numPaths == 8 ) {
+				pathsUp.add(new Path(1, false));
+				pathsUp.add(new Path(-1, false));
+			}
+		}
+	}
+
+	/**
+	 * Computes the disparity image
+	 *
+	 * @param left Left rectified image.  Input
+	 * @param right Right rectified image.  Input
+	 * @param disparity Disparity image. ImageUInt8 or ImageFloat32.  Output
+	 */
+	public void process( T left , T right , ImageSingleBand disparity ) {
+		InputSanityCheck.checkSameShape(left, right, disparity);
+
+		width = left.width;
+		height = left.height;
+
+		declareMemory();
+
+		costFunction.setImages(left, right);
+
+		if( rowStreaming ) {
+			sweep(pathsDown, true, disparity);
+		} else {
+			sweep(pathsDown, true, null);
+			sweep(pathsUp, false, null);
+			selectImage(disparity);
+		}
+	}
+
+	private void declareMemory() {
+		int lengthRow = width*rangeDisparity;
+
+		if( cost.length < lengthRow ) {
+			cost = new short[lengthRow];
+			if( rowStreaming )
+				aggregatedRow = new short[lengthRow];
+		}
+		for( Path p : pathsDown )
+			p.declareMemory();
+		for( Path p : pathsUp )
+			p.declareMemory();
+
+		if( !rowStreaming ) {
+			if( aggregatedImage.length != height || (height > 0 && aggregatedImage[0].length < lengthRow) ) {
+				aggregatedImage = new short[height][lengthRow];
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the cost along the paths one row at a time.
+	 *
+	 * @param paths Paths being aggregated
+	 * @param down true for a sweep down the image and false for up
+	 * @param disparity If not null then the disparity is selected after each row.
+	 */
+	private void sweep( List<Path> paths , boolean down , ImageSingleBand disparity ) {
+		pathTask.paths = paths;
+
+		for( int i = 0; i < height; i++ ) {
+			int row = down ? i : height-1-i;
+
+			costFunction.computeRow(row, cost);
+
+			pathTask.first = i == 0;
+			BoofConcurrency.loopBlocks(0, paths.size(), pathTask);
+
+			// sum up the paths
+			short aggregated[] = disparity == null ? aggregatedImage[row] : aggregatedRow;
+			sumPaths(paths, aggregated, down || disparity != null);
+
+			if( disparity != null ) {
+				SgmDisparitySelector selector = selectors.acquire();
+				selector.process(aggregated, width, row, disparity);
+				selectors.release(selector);
+			}
+
+			for( Path p : paths ) {
+				p.swap();
+			}
+		}
+	}
+
+	/**
+	 * Adds the aggregated cost from each path together
+	 *
+	 * @param replace If true the previous values are replaced, otherwise they are added to.
+	 */
+	private void sumPaths( List<Path> paths , short[] aggregated , boolean replace ) {
+		final int lengthRow = width*rangeDisparity;
+
+		if( replace ) {
+			short[] first = paths.get(0).current;
+			System.arraycopy(first,0,aggregated,0,lengthRow);
+		}
+		for( int i = replace ? 1 : 0; i < paths.size(); i++ ) {
+			short[] current = paths.get(i).current;
+			for( int j = 0; j < lengthRow; j++ ) {
+				aggregated[j] += current[j];
+			}
+		}
+	}
+
+	/**
+	 * Selects the disparity for every row in the image
+	 */
+	private void selectImage( final ImageSingleBand disparity ) {
+		BoofConcurrency.loopBlocks(0, height, 10, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				SgmDisparitySelector selector = selectors.acquire();
+				try {
+					for( int y = y0; y < y1; y++ ) {
+						selector.process(aggregatedImage[y], width, y, disparity);
+					}
+				} finally {
+					selectors.release(selector);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Aggregation along a path for a single pixel.
+	 *
+	 * @param cost Cost at each disparity of the pixel
+	 * @param indexCost Index of the first disparity in cost
+	 * @param prev Aggregated cost of the previous pixel along the path
+	 * @param indexPrev Index of the first disparity in prev
+	 * @param prevMin Minimum aggregated cost of the previous pixel
+	 * @param output Storage for aggregated cost of the pixel
+	 * @param indexOut Index of the first disparity in output
+	 * @return Minimum aggregated cost of the pixel
+	 */
+	protected int aggregate( short cost[] , int indexCost ,
+							 short prev[] , int indexPrev , int prevMin ,
+							 short output[] , int indexOut ) {
+		final int P1 = penaltySmall;
+		final int penaltyJump = prevMin + penaltyLarge;
+		final int last = rangeDisparity-1;
+
+		int min = Integer.MAX_VALUE;
+		for( int d = 0; d <= last; d++ ) {
+			int best = prev[indexPrev+d];
+			if( d > 0 )
+				best = Math.min(best, prev[indexPrev+d-1] + P1);
+			if( d < last )
+				best = Math.min(best, prev[indexPrev+d+1] + P1);
+			best = Math.min(best, penaltyJump);
+
+			int value = cost[indexCost+d] + best - prevMin;
+			output[indexOut+d] = (short)value;
+			min = Math.min(min,value);
+		}
+		return min;
+	}
+
+	/**
+	 * Copies the cost into the output for the first pixel along a path
+	 *
+	 * @return minimum cost
+	 */
+	private int initialize( short cost[] , int indexCost , short output[] , int indexOut ) {
+		int min = Integer.MAX_VALUE;
+		for( int d = 0; d < rangeDisparity; d++ ) {
+			int value = cost[indexCost+d];
+			output[indexOut+d] = (short)value;
+			min = Math.min(min,value);
+		}
+		return min;
+	}
+
+	/**
+	 * A direction that costs are aggregated along.
+	 */
+	class Path {
+		// change in x between the previous pixel along the path and the current pixel
+		int dx;
+		// true if the path moves along a row.  Otherwise it moves from one row to the next
+		boolean horizontal;
+
+		// aggregated cost for the previous and current rows
+		short previous[] = new short[0];
+		short current[] = new short[0];
+		// minimum aggregated cost for each pixel in the previous and current rows
+		int previousMin[] = new int[0];
+		int currentMin[] = new int[0];
+
+		Path(int dx, boolean horizontal) {
+			this.dx = dx;
+			this.horizontal = horizontal;
+		}
+
+		void declareMemory() {
+			int lengthRow = width*rangeDisparity;
+			if( current.length < lengthRow ) {
+				current = new short[lengthRow];
+				currentMin = new int[width];
+				if( !horizontal ) {
+					previous = new short[lengthRow];
+					previousMin = new int[width];
+				}
+			}
+		}
+
+		/**
+		 * Aggregates the cost for the row
+		 *
+		 * @param first true if this is the first row in the sweep
+		 */
+		void process( boolean first ) {
+			if( horizontal ) {
+				processHorizontal();
+			} else if( first ) {
+				for( int x = 0; x < width; x++ ) {
+					currentMin[x] = initialize(cost,x*rangeDisparity,current,x*rangeDisparity);
+				}
+			} else {
+				for( int x = 0; x < width; x++ ) {
+					int index = x*rangeDisparity;
+					int prevX = x - dx;
+					if( prevX < 0 || prevX >= width ) {
+						currentMin[x] = initialize(cost,index,current,index);
+					} else {
+						currentMin[x] = aggregate(cost,index,previous,prevX*rangeDisparity,previousMin[prevX],
+								current,index);
+					}
+				}
+			}
+		}
+
+		private void processHorizontal() {
+			int x0 = dx > 0 ? 0 : width-1;
+			int prevMin = initialize(cost,x0*rangeDisparity,current,x0*rangeDisparity);
+
+			for( int i = 1; i < width; i++ ) {
+				int x = x0 + i*dx;
+				int index = x*rangeDisparity;
+				prevMin = aggregate(cost,index,current,index - dx*rangeDisparity,prevMin,current,index);
+			}
+		}
+
+		/**
+		 * The current row becomes the previous row
+		 */
+		void swap() {
+			if( horizontal )
+				return;
+			short tmp[] = previous;
+			previous = current;
+			current = tmp;
+
+			int tmpMin[] = previousMin;
+			previousMin = currentMin;
+			currentMin = tmpMin;
+		}
+	}
+
+	/**
+	 * Aggregates the current row along a range of paths
+	 */
+	class PathTask implements IntRangeTask {
+		List<Path> paths;
+		boolean first;
+
+		@Override
+		public void process(int start, int end) {
+			for( int i = start; i < end; i++ ) {
+				paths.get(i).process(first);
+			}
+		}
+	}
+
+	public SgmCostFunction<T> getCostFunction() {
+		return costFunction;
+	}
+
+	public int getMinDisparity() {
+		return minDisparity;
+	}
+
+	public int getMaxDisparity() {
+		return maxDisparity;
+	}
+
+	public int getPenaltySmall() {
+		return penaltySmall;
+	}
+
+	public int getPenaltyLarge() {
+		return penaltyLarge;
+	}
+
+	public int getNumPaths() {
+		return numPaths;
+	}
+
+	public boolean isRowStreaming() {
+		return rowStreaming;
+	}
+}
@@ -19,9 +19,12 @@
 package boofcv.alg.flow;
 
 import boofcv.alg.InputSanityCheck;
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.alg.transform.census.CensusTransform;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.flow.ImageFlow;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt32;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.struct.pyramid.ImagePyramid;
@@ -111,6 +114,8 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageSingleBand> {
 			T prev = pyramidPrev.getLayer(i);
 			T curr = pyramidCurr.getLayer(i);
 
+			setLayers(prev, curr);
+
 			flowCurrLayer.reshape(prev.width, prev.height);
 
 			int N = prev.width*prev.height;
@@ -250,6 +255,12 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageSingleBand> {
 		}
 	}
 
+	/**
+	 * Called before a layer in the pyramid is processed.  Allows implementations to precompute information
+	 * for the entire layer.
+	 */
+	protected void setLayers( T prev , T curr ) {}
+
 	/**
 	 * Extracts a square template from the image 'prev' center at cx and cy
 	 */
@@ -303,6 +314,64 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageSingleBand> {
 		}
 	}
 
+	/**
+	 * Implementation for {@link ImageUInt8} which compares regions using the Hamming distance between census
+	 * transformed pixels instead of SAD.  Far more tolerant of changes in lighting between the two images.
+	 * The maximum per pixel error is specified in number of bits.
+	 *
+	 * @see CensusTransform
+	 */
+	public static class CensusU8 extends DenseOpticalFlowBlockPyramid<ImageUInt8>
+	{
+		// census transform of the current layer in each image
+		ImageSInt32 censusPrev = new ImageSInt32(1,1);
+		ImageSInt32 censusCurr = new ImageSInt32(1,1);
+
+		// census transform of the region in 'prev'
+		int templateCensus[];
+
+		public CensusU8(int searchRadius, int regionRadius, int maxPerPixelError) {
+			super(searchRadius, regionRadius, maxPerPixelError,ImageUInt8.class);
+
+			int w = regionRadius*2+1;
+			templateCensus = new int[w*w];
+		}
+
+		@Override
+		protected void setLayers( ImageUInt8 prev , ImageUInt8 curr ) {
+			censusPrev.reshape(prev.width,prev.height);
+			censusCurr.reshape(curr.width,curr.height);
+
+			CensusTransform.dense5x5(prev,censusPrev);
+			CensusTransform.dense5x5(curr,censusCurr);
+		}
+
+		@Override
+		protected void extractTemplate( int cx , int cy , ImageUInt8 prev ) {
+			int index = 0;
+			for( int i = -regionRadius; i <= regionRadius; i++ ) {
+				int indexPrev = censusPrev.startIndex + censusPrev.stride*(i+cy) + cx-regionRadius;
+				for( int j = -regionRadius; j <= regionRadius; j++ ) {
+					templateCensus[index++] = censusPrev.data[indexPrev++];
+				}
+			}
+		}
+
+		@Override
+		protected float computeError( int cx , int cy , ImageUInt8 curr ) {
+			int index = 0;
+			int error = 0;
+			for( int i = -regionRadius; i <= regionRadius; i++ ) {
+				int indexCurr = censusCurr.startIndex + censusCurr.stride*(i+cy) + cx-regionRadius;
+				for( int j = -regionRadius; j <= regionRadius; j++ ) {
+					error += DescriptorDistance.hamming(templateCensus[index++] ^ censusCurr.data[indexCurr++]);
+				}
+			}
+
+			return error;
+		}
+	}
+
 	/**
 	 * Implementation for {@link ImageFloat32}
 	 */
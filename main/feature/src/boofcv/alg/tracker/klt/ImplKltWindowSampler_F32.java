@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * Implementation of {@link KltWindowSampler} for {@link ImageFloat32} images and derivatives.  Produces the same
+ * results as {@link boofcv.alg.interpolate.impl.BilinearRectangle_F32}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplKltWindowSampler_F32 implements KltWindowSampler<ImageFloat32,ImageFloat32> {
+
+	private ImageFloat32 image;
+	private ImageFloat32 derivX;
+	private ImageFloat32 derivY;
+
+	// residual times the gradient
+	private float Ex, Ey;
+
+	@Override
+	public void setImage(ImageFloat32 image, ImageFloat32 derivX, ImageFloat32 derivY) {
+		this.image = image;
+		this.derivX = derivX;
+		this.derivY = derivY;
+	}
+
+	@Override
+	public boolean sampleDescription(float tl_x, float tl_y, KltFeature feature) {
+		int width = feature.radius*2+1;
+		if( !isInside(tl_x, tl_y, width) )
+			return false;
+
+		int xt = (int) tl_x;
+		int yt = (int) tl_y;
+		float ax = tl_x - xt;
+		float ay = tl_y - yt;
+
+		float bx = 1.0f - ax;
+		float by = 1.0f - ay;
+
+		float a0 = bx * by;
+		float a1 = ax * by;
+		float a2 = ax * ay;
+		float a3 = bx * ay;
+
+		final float dataI[] = image.data;
+		final float dataX[] = derivX.data;
+		final float dataY[] = derivY.data;
+		final int strideI = image.stride;
+		final int strideX = derivX.stride;
+		final int strideY = derivY.stride;
+
+		final float desc[] = feature.desc.data;
+		final float descX[] = feature.derivX.data;
+		final float descY[] = feature.derivY.data;
+
+		float Gxx = 0, Gyy = 0, Gxy = 0;
+
+		int indexDesc = 0;
+		for( int i = 0; i < width; i++ ) {
+			int indexI = image.startIndex + (yt + i)*strideI + xt;
+			int indexX = derivX.startIndex + (yt + i)*strideX + xt;
+			int indexY = derivY.startIndex + (yt + i)*strideY + xt;
+
+			// values in the previous column are saved to reduce the number of times the images are accessed
+			float I_XY = dataI[indexI], I_Xy = dataI[indexI+strideI];
+			float X_XY = dataX[indexX], X_Xy = dataX[indexX+strideX];
+			float Y_XY = dataY[indexY], Y_Xy = dataY[indexY+strideY];
+
+			int indexEnd = indexDesc + width;
+			for( ; indexDesc < indexEnd; indexDesc++ ) {
+				indexI++; indexX++; indexY++;
+
+				float I_xY = dataI[indexI], I_xy = dataI[indexI+strideI];
+				float X_xY = dataX[indexX], X_xy = dataX[indexX+strideX];
+				float Y_xY = dataY[indexY], Y_xy = dataY[indexY+strideY];
+
+				desc[indexDesc] = a0*I_XY + a1*I_xY + a2*I_xy + a3*I_Xy;
+				float dX = a0*X_XY + a1*X_xY + a2*X_xy + a3*X_Xy;
+				float dY = a0*Y_XY + a1*Y_xY + a2*Y_xy + a3*Y_Xy;
+
+				descX[indexDesc] = dX;
+				descY[indexDesc] = dY;
+
+				Gxx += dX * dX;
+				Gyy += dY * dY;
+				Gxy += dX * dY;
+
+				I_XY = I_xY; I_Xy = I_xy;
+				X_XY = X_xY; X_Xy = X_xy;
+				Y_XY = Y_xY; Y_Xy = Y_xy;
+			}
+		}
+
+		feature.Gxx = Gxx;
+		feature.Gyy = Gyy;
+		feature.Gxy = Gxy;
+
+		return true;
+	}
+
+	@Override
+	public boolean sampleResidual(float tl_x, float tl_y, KltFeature feature, ImageFloat32 current) {
+		int width = feature.radius*2+1;
+		if( !isInside(tl_x, tl_y, width) )
+			return false;
+
+		int xt = (int) tl_x;
+		int yt = (int) tl_y;
+		float ax = tl_x - xt;
+		float ay = tl_y - yt;
+
+		float bx = 1.0f - ax;
+		float by = 1.0f - ay;
+
+		float a0 = bx * by;
+		float a1 = ax * by;
+		float a2 = ax * ay;
+		float a3 = bx * ay;
+
+		final float dataI[] = image.data;
+		final int strideI = image.stride;
+
+		final float desc[] = feature.desc.data;
+		final float descX[] = feature.derivX.data;
+		final float descY[] = feature.derivY.data;
+		final float curr[] = current.data;
+
+		int indexCurr = 0;
+		for( int i = 0; i < width; i++ ) {
+			int indexI = image.startIndex + (yt + i)*strideI + xt;
+
+			float XY = dataI[indexI], Xy = dataI[indexI+strideI];
+
+			int indexEnd = indexCurr + width;
+			for( ; indexCurr < indexEnd; indexCurr++ ) {
+				indexI++;
+				float xY = dataI[indexI], xy = dataI[indexI+strideI];
+
+				curr[indexCurr] = a0*XY + a1*xY + a2*xy + a3*Xy;
+
+				XY = xY; Xy = xy;
+			}
+		}
+
+		// the sums are computed in a separate loop since it's faster than doing it while interpolating
+		float Ex = 0, Ey = 0;
+		for( int i = 0; i < indexCurr; i++ ) {
+			// compute the difference between the previous and the current image
+			float d = desc[i] - curr[i];
+
+			Ex += d * descX[i];
+			Ey += d * descY[i];
+		}
+
+		this.Ex = Ex;
+		this.Ey = Ey;
+
+		return true;
+	}
+
+	/**
+	 * Checks to see if the window and the extra pixel needed by interpolation are inside the image
+	 */
+	private boolean isInside( float tl_x , float tl_y , int width ) {
+		return tl_x >= 0 && tl_y >= 0 && (int)tl_x + width < image.width && (int)tl_y + width < image.height;
+	}
+
+	@Override
+	public float getEx() {
+		return Ex;
+	}
+
+	@Override
+	public float getEy() {
+		return Ey;
+	}
+}
@@ -20,6 +20,9 @@ package boofcv.alg.tracker.klt;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.interpolate.impl.BilinearRectangle_F32;
+import boofcv.alg.interpolate.impl.BilinearRectangle_S16;
+import boofcv.alg.interpolate.impl.BilinearRectangle_U8;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSingleBand;
@@ -62,6 +65,8 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 	// Used to interpolate the image and gradient
 	protected InterpolateRectangle<InputImage> interpInput;
 	protected InterpolateRectangle<DerivativeImage> interpDeriv;
+	// Specialized interpolation for windows entirely inside the image.  Can be null.
+	protected KltWindowSampler<InputImage,DerivativeImage> sampler;
 
 	// tracker configuration
 	protected KltConfig config;
@@ -104,6 +109,28 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 		this.interpInput = interpInput;
 		this.interpDeriv = interpDeriv;
 		this.config = config;
+		this.sampler = selectSampler(interpInput, interpDeriv);
+	}
+
+	/**
+	 * If the interpolation is bilinear and there is a specialized {@link KltWindowSampler} for the image type
+	 * then it is returned, otherwise null.
+	 */
+	@SuppressWarnings({"unchecked"})
+	protected static <I extends ImageSingleBand, D extends ImageSingleBand>
+	KltWindowSampler<I,D> selectSampler( InterpolateRectangle<I> interpInput , InterpolateRectangle<D> interpDeriv ) {
+		if( interpInput == null || interpDeriv == null )
+			return null;
+
+		Class typeInput = interpInput.getClass();
+		Class typeDeriv = interpDeriv.getClass();
+
+		if( typeInput == BilinearRectangle_F32.class && typeDeriv == BilinearRectangle_F32.class )
+			return (KltWindowSampler)new ImplKltWindowSampler_F32();
+		else if( typeInput == BilinearRectangle_U8.class && typeDeriv == BilinearRectangle_S16.class )
+			return (KltWindowSampler)new ImplKltWindowSampler_U8();
+
+		return null;
 	}
 
 	/**
@@ -121,6 +148,9 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 
 		this.derivX = derivX;
 		this.derivY = derivY;
+
+		if( sampler != null )
+			sampler.setImage(image, derivX, derivY);
 	}
 
 	/**
@@ -132,6 +162,23 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 
 		this.derivX = derivX;
 		this.derivY = derivY;
+
+		if( sampler != null )
+			sampler.setImage(image, derivX, derivY);
+	}
+
+	/**
+	 * Specifies the specialized interpolation used for windows entirely inside the image.  If null then
+	 * the {@link InterpolateRectangle} passed to the constructor is always used.
+	 */
+	public void setSampler( KltWindowSampler<InputImage,DerivativeImage> sampler ) {
+		this.sampler = sampler;
+		if( sampler != null && image != null )
+			sampler.setImage(image, derivX, derivY);
+	}
+
+	public KltWindowSampler<InputImage, DerivativeImage> getSampler() {
+		return sampler;
 	}
 
 	/**
@@ -155,12 +202,24 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 	}
 
 	protected boolean internalSetDescription(KltFeature feature) {
-		int regionWidth = feature.radius * 2 + 1;
-		int size = regionWidth * regionWidth;
-
 		float tl_x = feature.x - feature.radius;
 		float tl_y = feature.y - feature.radius;
 
+		if( sampler == null || !sampler.sampleDescription(tl_x, tl_y, feature) )
+			interpolateDescription(feature, tl_x, tl_y);
+
+		float det = feature.Gxx * feature.Gyy - feature.Gxy * feature.Gxy;
+
+		return (det >= config.minDeterminant*lengthFeature);
+	}
+
+	/**
+	 * Computes the description using {@link InterpolateRectangle}
+	 */
+	private void interpolateDescription(KltFeature feature, float tl_x, float tl_y) {
+		int regionWidth = feature.radius * 2 + 1;
+		int size = regionWidth * regionWidth;
+
 		interpInput.setImage(image);
 		interpInput.region(tl_x, tl_y, feature.desc);
 		interpDeriv.setImage(derivX);
@@ -181,10 +240,6 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 		feature.Gxx = Gxx;
 		feature.Gyy = Gyy;
 		feature.Gxy = Gxy;
-
-		float det = Gxx * Gyy - Gxy * Gxy;
-
-		return (det >= config.minDeterminant*lengthFeature);
 	}
 
 	/**
@@ -356,6 +411,12 @@ public class KltTracker<InputImage extends ImageSingleBand, DerivativeImage exte
 	}
 
 	protected void computeE(KltFeature feature, float x, float y) {
+		if( sampler != null && sampler.sampleResidual(x - feature.radius, y - feature.radius, feature, currDesc) ) {
+			Ex = sampler.getEx();
+			Ey = sampler.getEy();
+			return;
+		}
+
 		// extract the region in the current image
 		interpInput.region(x - feature.radius, y - feature.radius, currDesc);
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+
+/**
+ * <p>
+ * Samples the square window around a KLT feature using bilinear interpolation and computes the sums needed by
+ * {@link KltTracker} in the same pass.  Implementations are specialized for a single image type and read directly
+ * from the image's array, which avoids interpolating the input image and the two gradient images separately and
+ * then going through the window again.  Results are identical to using
+ * {@link boofcv.alg.interpolate.InterpolateRectangle} for the bilinear rectangle of the same image type.
+ * </p>
+ *
+ * <p>
+ * Only windows which are entirely inside the image, including the extra pixel to the right and bottom needed by
+ * bilinear interpolation, are sampled.  If the window touches the border then false is returned and nothing
+ * is modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface KltWindowSampler<InputImage extends ImageSingleBand, DerivativeImage extends ImageSingleBand> {
+
+	/**
+	 * Specifies the images being sampled.  The derivatives can be null if only
+	 * {@link #sampleResidual} is called.
+	 */
+	public void setImage( InputImage image , DerivativeImage derivX , DerivativeImage derivY );
+
+	/**
+	 * Samples the pixel intensity and gradient inside the window and saves them into the feature's description.
+	 * The feature's Gxx, Gyy, and Gxy are also updated.
+	 *
+	 * @param tl_x x-coordinate of the window's top-left corner
+	 * @param tl_y y-coordinate of the window's top-left corner
+	 * @param feature The feature whose description is written to.  Not modified if false is returned.
+	 * @return true if the window is inside the image and was sampled
+	 */
+	public boolean sampleDescription( float tl_x , float tl_y , KltFeature feature );
+
+	/**
+	 * Samples the pixel intensity inside the window and computes the residual with the feature's description
+	 * multiplied by its gradient.  See {@link #getEx()} and {@link #getEy()}.
+	 *
+	 * @param tl_x x-coordinate of the window's top-left corner
+	 * @param tl_y y-coordinate of the window's top-left corner
+	 * @param feature The feature being tracked
+	 * @param current Storage for the pixel intensity inside the window.  Written to as a contiguous array.
+	 * @return true if the window is inside the image and was sampled
+	 */
+	public boolean sampleResidual( float tl_x , float tl_y , KltFeature feature , ImageFloat32 current );
+
+	/**
+	 * Residual times the x-derivative summed across the window from the last call to {@link #sampleResidual}
+	 */
+	public float getEx();
+
+	/**
+	 * Residual times the y-derivative summed across the window from the last call to {@link #sampleResidual}
+	 */
+	public float getEy();
+}
@@ -32,4 +32,7 @@ public class PkltConfig{
 
 	/** Scale factor for each layer in the pyramid */
 	public int pyramidScaling[] = new int[]{1,2,4};
+
+	/** If true then active tracks are tracked using multiple threads. */
+	public boolean concurrent = false;
 }
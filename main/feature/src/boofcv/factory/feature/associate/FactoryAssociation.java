@@ -20,6 +20,10 @@ package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
+import boofcv.alg.feature.associate.nn.KdForestBbf_F32;
+import boofcv.alg.feature.associate.nn.KdForestBbf_F64;
+import boofcv.alg.feature.associate.nn.MultiIndexHashing_B;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -55,6 +59,54 @@ public class FactoryAssociation {
 		return ret;
 	}
 
+	/**
+	 * Brute force greedy association with optional backwards validation and ratio test.  See {@link AssociateGreedy}
+	 * for details.
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param config Configuration.  If null then the default is used.
+	 * @param <D> Data structure being associated
+	 * @return Greedy association
+	 */
+	public static <D> AssociateDescription<D>
+	greedy( ScoreAssociation<D> score , ConfigAssociateGreedy config )
+	{
+		if( config == null )
+			config = new ConfigAssociateGreedy();
+		config.checkValidity();
+
+		AssociateGreedy<D> alg;
+		if( config.concurrent )
+			alg = new AssociateGreedy_MT<D>(score,config.forwardsBackwards);
+		else
+			alg = new AssociateGreedy<D>(score,config.forwardsBackwards);
+		alg.setMaxFitError(config.maxErrorThreshold);
+		alg.setRatioTest(config.scoreRatioThreshold);
+		return new WrapAssociateGreedy<D>(alg);
+	}
+
+	/**
+	 * Concurrent version of {@link #greedy}.  Produces identical results.  The score must be thread safe,
+	 * which is true for all the scores provided by this factory.
+	 *
+	 * @see AssociateGreedy_MT
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @param <D> Data structure being associated
+	 * @return Concurrent greedy association
+	 */
+	public static <D> AssociateDescription<D>
+	greedy_MT( ScoreAssociation<D> score ,
+			   double maxError ,
+			   boolean backwardsValidation )
+	{
+		AssociateGreedy<D> alg = new AssociateGreedy_MT<D>(score,backwardsValidation);
+		alg.setMaxFitError(maxError);
+		return new WrapAssociateGreedy<D>(alg);
+	}
+
 
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
@@ -99,6 +151,63 @@ public class FactoryAssociation {
 		return new AssociateNearestNeighbor<TupleDesc_F64>(nn,dimension);
 	}
 
+	/**
+	 * Approximate association using a randomized K-D forest which works directly on primitive arrays and
+	 * does not declare memory once it has grown to the problem size.  Faster than {@link #kdRandomForest} for
+	 * the same number of checks.
+	 *
+	 * @see AssociateKdForest_F64
+	 * @see KdForestBbf_F64
+	 *
+	 * @param dimension Number of elements in the feature vector
+	 * @param maxChecks Maximum number of points the distance is computed for.  Controls speed and accuracy.
+	 * @param numTrees Number of trees in the forest.  Try 4 to 10.
+	 * @param numConsiderSplit Number of dimensions with the largest variance considered when splitting.  Try 5
+	 * @param randomSeed Seed used by random number generator
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_F64> kdForest( int dimension, int maxChecks,
+																int numTrees, int numConsiderSplit,
+																long randomSeed ) {
+		KdForestBbf_F64 alg = new KdForestBbf_F64(dimension,maxChecks,numTrees,numConsiderSplit,1,randomSeed);
+		return new AssociateKdForest_F64<TupleDesc_F64>(alg);
+	}
+
+	/**
+	 * Same as {@link #kdForest} but for {@link TupleDesc_F32}.
+	 *
+	 * @see AssociateKdForest_F32
+	 * @see KdForestBbf_F32
+	 */
+	public static AssociateDescription<TupleDesc_F32> kdForest_F32( int dimension, int maxChecks,
+																	int numTrees, int numConsiderSplit,
+																	long randomSeed ) {
+		KdForestBbf_F32 alg = new KdForestBbf_F32(dimension,maxChecks,numTrees,numConsiderSplit,1,randomSeed);
+		return new AssociateKdForest_F32<TupleDesc_F32>(alg);
+	}
+
+	/**
+	 * Sub-linear association of binary descriptors, e.g. BRIEF, using multi-index hashing.  Source descriptors
+	 * can be inserted and removed incrementally through {@link AssociateMultiIndexHashing_B#getDatabase()},
+	 * allowing a persistent database to be queried every frame.  For 512-bit descriptors try 16 tables,
+	 * 16 bit keys, and a probe radius of 1.
+	 *
+	 * @see AssociateMultiIndexHashing_B
+	 * @see MultiIndexHashing_B
+	 *
+	 * @param numBits Number of bits in the descriptor
+	 * @param numTables Number of hash tables.
+	 * @param keyBits Number of bits in each table's key.  Memory used by the tables is numTables*2^keyBits.
+	 * @param probeRadius Buckets with keys this Hamming distance from the query's key are searched.  0, 1, or 2.
+	 * @param randomSeed Seed used to assign bits to tables
+	 * @return Association using multi-index hashing
+	 */
+	public static AssociateMultiIndexHashing_B multiIndexHashing( int numBits, int numTables, int keyBits,
+																  int probeRadius, long randomSeed ) {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(numBits,numTables,keyBits,probeRadius,randomSeed);
+		return new AssociateMultiIndexHashing_B(alg);
+	}
+
 	/**
 	 * Given a feature descriptor type it returns a "reasonable" default {@link ScoreAssociation}.
 	 *
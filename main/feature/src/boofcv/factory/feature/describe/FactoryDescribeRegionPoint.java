@@ -27,6 +27,7 @@ import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
 import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
 import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.struct.feature.NccFeature;
 import boofcv.struct.feature.SurfFeature;
@@ -58,14 +59,21 @@ public class FactoryDescribeRegionPoint {
 	 * @return SURF description extractor
 	 */
 	public static <T extends ImageSingleBand, II extends ImageSingleBand>
-	DescribeRegionPoint<T,SurfFeature> surfFast( ConfigSurfDescribe.Speed config , Class<T> bandType) {
+	DescribeRegionPointBatch<T,SurfFeature> surfFast( final ConfigSurfDescribe.Speed config , Class<T> bandType) {
 
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(bandType);
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(bandType);
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfSpeed( config, integralType);
 
-		return new WrapDescribeSurf( alg , bandType );
+		WorkerFactory<DescribePointSurf<II>> workers = new WorkerFactory<DescribePointSurf<II>>() {
+			@Override
+			public DescribePointSurf<II> create() {
+				return FactoryDescribePointAlgs.surfSpeed( config, integralType);
+			}
+		};
+
+		return new WrapDescribeSurf<T,II>( alg , workers, bandType );
 	}
 
 	/**
@@ -108,13 +116,20 @@ public class FactoryDescribeRegionPoint {
 	 * @return SURF description extractor
 	 */
 	public static <T extends ImageSingleBand, II extends ImageSingleBand>
-	DescribeRegionPoint<T,SurfFeature> surfStable(ConfigSurfDescribe.Stablility config, Class<T> imageType) {
+	DescribeRegionPointBatch<T,SurfFeature> surfStable(final ConfigSurfDescribe.Stablility config, Class<T> imageType) {
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfStability( config, integralType);
 
-		return new WrapDescribeSurf( alg , imageType );
+		WorkerFactory<DescribePointSurf<II>> workers = new WorkerFactory<DescribePointSurf<II>>() {
+			@Override
+			public DescribePointSurf<II> create() {
+				return FactoryDescribePointAlgs.surfStability( config, integralType);
+			}
+		};
+
+		return new WrapDescribeSurf<T,II>( alg , workers, imageType );
 	}
 
 	/**
@@ -157,18 +172,29 @@ public class FactoryDescribeRegionPoint {
 	 * @param configDescribe SIFT descriptor configuration.  Pass in null for default options.
 	 * @return SIFT descriptor
 	 */
-	public static DescribeRegionPoint<ImageFloat32,SurfFeature> sift( ConfigSiftScaleSpace configSS,
-																	  ConfigSiftDescribe configDescribe) {
+	public static DescribeRegionPointBatch<ImageFloat32,SurfFeature> sift( ConfigSiftScaleSpace configSS,
+																		   final ConfigSiftDescribe configDescribe) {
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 		configSS.checkValidity();
 
 		SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
-				configSS.doubleInputImage);
+				configSS.doubleInputImage, configSS.memoryBudget);
 
 		DescribePointSift alg = FactoryDescribePointAlgs.sift(configDescribe);
 
-		return new WrapDescribeSift(alg,ss);
+		// a memory bounded scale-space can't be accessed by multiple threads, so batches are processed in sequence
+		WorkerFactory<DescribePointSift> workers = null;
+		if( !ss.isMemoryBounded() ) {
+			workers = new WorkerFactory<DescribePointSift>() {
+				@Override
+				public DescribePointSift create() {
+					return FactoryDescribePointAlgs.sift(configDescribe);
+				}
+			};
+		}
+
+		return new WrapDescribeSift(alg,workers,ss);
 	}
 
 	/**
@@ -232,7 +258,7 @@ public class FactoryDescribeRegionPoint {
 	 */
 	@SuppressWarnings({"unchecked"})
 	public static <T extends ImageSingleBand>
-	DescribeRegionPoint<T,NccFeature> pixelNCC( int regionWidth , int regionHeight , Class<T> imageType ) {
+	DescribeRegionPointBatch<T,NccFeature> pixelNCC( int regionWidth , int regionHeight , Class<T> imageType ) {
 		return new WrapDescribePixelRegionNCC(
 				FactoryDescribePointAlgs.pixelRegionNCC(regionWidth,regionHeight,imageType),imageType);
 	}
@@ -32,12 +32,15 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfMultiSpectral;
 import boofcv.alg.feature.detdesc.DetectDescribeSift;
+import boofcv.alg.feature.detdesc.DetectDescribeSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfMultiSpectral;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftDetector;
 import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftImageScaleSpace_MT;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
 import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
@@ -56,7 +59,11 @@ import boofcv.struct.image.ImageType;
 public class FactoryDetectDescribe {
 
 	/**
-	 * Creates a new SIFT feature detector and describer.
+	 * Creates a new SIFT feature detector and describer.  If {@link ConfigSiftDetector#concurrent} is true then
+	 * every step, from the scale-space to the descriptor, is computed using concurrent implementations.
+	 *
+	 * @see DetectDescribeSift
+	 * @see DetectDescribeSift_MT
 	 *
 	 * @param configSS Configuration for scale-space.  Pass in null for default options.
 	 * @param configDetector Configuration for detector.  Pass in null for default options.
@@ -67,18 +74,43 @@ public class FactoryDetectDescribe {
 	public static DetectDescribePoint<ImageFloat32,SurfFeature>
 	sift( ConfigSiftScaleSpace configSS,
 		  ConfigSiftDetector configDetector ,
-		  ConfigSiftOrientation configOri ,
-		  ConfigSiftDescribe configDesc) {
+		  final ConfigSiftOrientation configOri ,
+		  final ConfigSiftDescribe configDesc) {
 
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 		configSS.checkValidity();
-
-		SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
-				configSS.doubleInputImage);
+		if( configDetector == null )
+			configDetector = new ConfigSiftDetector();
+		if( configDetector.concurrent && configSS.memoryBudget > 0 )
+			throw new IllegalArgumentException("A memory bounded scale-space can't be used concurrently");
 
 		SiftDetector detector = FactoryInterestPointAlgs.siftDetector(configDetector);
 
+		if( configDetector.concurrent ) {
+			SiftImageScaleSpace ss = new SiftImageScaleSpace_MT(configSS.blurSigma, configSS.numScales,
+					configSS.numOctaves, configSS.doubleInputImage);
+
+			WorkerFactory<OrientationHistogramSift> orientationFactory = new WorkerFactory<OrientationHistogramSift>() {
+				@Override
+				public OrientationHistogramSift create() {
+					return FactoryOrientationAlgs.sift(configOri);
+				}
+			};
+			WorkerFactory<DescribePointSift> describeFactory = new WorkerFactory<DescribePointSift>() {
+				@Override
+				public DescribePointSift create() {
+					return FactoryDescribePointAlgs.sift(configDesc);
+				}
+			};
+
+			return new WrapDetectDescribeSift(
+					new DetectDescribeSift_MT(ss,detector,orientationFactory,describeFactory));
+		}
+
+		SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
+				configSS.doubleInputImage, configSS.memoryBudget);
+
 		OrientationHistogramSift orientation = FactoryOrientationAlgs.sift(configOri);
 		DescribePointSift describe = FactoryDescribePointAlgs.sift(configDesc);
 
@@ -102,7 +134,7 @@ public class FactoryDetectDescribe {
 	 * @see DescribePointSurf
 	 * @see DescribePointSurfMultiSpectral
 	 *
-	 * @param configDetector		Configuration for SURF detector
+	 * @param configDetector		Configuration for SURF detector.  Set concurrent to true to use multiple threads
 	 * @param configDesc			Configuration for SURF descriptor
 	 * @param configOrientation		Configuration for orientation
 	 * @return SURF detector and descriptor
@@ -133,7 +165,7 @@ public class FactoryDetectDescribe {
 	 * @see DescribePointSurf
 	 * @see DescribePointSurfMultiSpectral
 	 *
-	 * @param configDetector		Configuration for SURF detector
+	 * @param configDetector		Configuration for SURF detector.  Set concurrent to true to use multiple threads
 	 * @param configDesc			Configuration for SURF descriptor
 	 * @param configOrientation		Configuration for orientation
 	 * @return SURF detector and descriptor
@@ -179,7 +211,7 @@ public class FactoryDetectDescribe {
 	 * @see FastHessianFeatureDetector
 	 * @see boofcv.alg.feature.describe.DescribePointSurfMod
 	 *
-	 * @param configDetector Configuration for SURF detector.  Null for default.
+	 * @param configDetector Configuration for SURF detector.  Null for default.  Set concurrent to true to use multiple threads
 	 * @param configDescribe Configuration for SURF descriptor.  Null for default.
 	 * @param configOrientation Configuration for region orientation.  Null for default.
 	 * @param imageType Specify type of input image.
@@ -211,7 +243,7 @@ public class FactoryDetectDescribe {
 	 * @see FastHessianFeatureDetector
 	 * @see boofcv.alg.feature.describe.DescribePointSurfMod
 	 *
-	 * @param configDetector Configuration for SURF detector.  Null for default.
+	 * @param configDetector Configuration for SURF detector.  Null for default.  Set concurrent to true to use multiple threads
 	 * @param configDescribe Configuration for SURF descriptor.  Null for default.
 	 * @param configOrientation Configuration for region orientation.  Null for default.
 	 * @param imageType Specify type of color input image.
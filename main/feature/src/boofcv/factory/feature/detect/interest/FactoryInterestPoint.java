@@ -146,11 +146,21 @@ public class FactoryInterestPoint {
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 		configSS.checkValidity();
+		if( configDetector == null )
+			configDetector = new ConfigSiftDetector();
+		if( configDetector.concurrent && configSS.memoryBudget > 0 )
+			throw new IllegalArgumentException("A memory bounded scale-space can't be used concurrently");
 
 		SiftDetector alg = FactoryInterestPointAlgs.siftDetector(configDetector);
 
-		SiftImageScaleSpace ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
-				configSS.doubleInputImage);
+		SiftImageScaleSpace ss;
+		if( configDetector.concurrent ) {
+			ss = new SiftImageScaleSpace_MT(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
+					configSS.doubleInputImage);
+		} else {
+			ss = new SiftImageScaleSpace(configSS.blurSigma, configSS.numScales, configSS.numOctaves,
+					configSS.doubleInputImage, configSS.memoryBudget);
+		}
 
 		return new WrapSiftDetector(alg,ss);
 	}
@@ -31,6 +31,7 @@ import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.*;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.core.image.inst.FactoryImageGenerator;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
@@ -158,7 +159,8 @@ public class FactoryInterestPointAlgs {
 	}
 
 	/**
-	 * Creates a Fast Hessian blob detector used by SURF.
+	 * Creates a Fast Hessian blob detector used by SURF.  If {@link ConfigFastHessian#concurrent} is true then
+	 * {@link FastHessianFeatureDetector_MT} is returned.
 	 *
 	 * @param config Configuration for detector. Pass in null for default options.
 	 * @param <II> Integral Image
@@ -171,8 +173,20 @@ public class FactoryInterestPointAlgs {
 			config = new ConfigFastHessian();
 		config.checkValidity();
 
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
-				new ConfigExtract(config.extractRadius, config.detectThreshold, 5, true));
+		final ConfigExtract configExtract = new ConfigExtract(config.extractRadius, config.detectThreshold, 5, true);
+
+		if( config.concurrent ) {
+			WorkerFactory<NonMaxSuppression> extractorFactory = new WorkerFactory<NonMaxSuppression>() {
+				@Override
+				public NonMaxSuppression create() {
+					return FactoryFeatureExtractor.nonmax(configExtract);
+				}
+			};
+			return new FastHessianFeatureDetector_MT<II>(extractorFactory, config.maxFeaturesPerScale,
+					config.initialSampleSize, config.initialSize, config.numberScalesPerOctave, config.numberOfOctaves);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(configExtract);
 		return new FastHessianFeatureDetector<II>(extractor, config.maxFeaturesPerScale,
 				config.initialSampleSize, config.initialSize, config.numberScalesPerOctave, config.numberOfOctaves);
 	}
@@ -181,6 +195,7 @@ public class FactoryInterestPointAlgs {
 	 * Creates a SIFT feature detector.
 	 *
 	 * @see SiftDetector
+	 * @see SiftDetector_MT
 	 * @see SiftImageScaleSpace
 	 *
 	 * @param config Configuration for detector. Pass in null for default options.
@@ -191,8 +206,20 @@ public class FactoryInterestPointAlgs {
 			config = new ConfigSiftDetector();
 		config.checkValidity();
 
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
-				new ConfigExtract(config.extractRadius, config.detectThreshold, 2, true, true, true));
+		final ConfigExtract configExtract =
+				new ConfigExtract(config.extractRadius, config.detectThreshold, 2, true, true, true);
+
+		if( config.concurrent ) {
+			WorkerFactory<NonMaxSuppression> extractorFactory = new WorkerFactory<NonMaxSuppression>() {
+				@Override
+				public NonMaxSuppression create() {
+					return FactoryFeatureExtractor.nonmax(configExtract);
+				}
+			};
+			return new SiftDetector_MT(extractorFactory,config.maxFeaturesPerScale,config.edgeThreshold);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(configExtract);
 		return new SiftDetector(extractor,config.maxFeaturesPerScale,config.edgeThreshold);
 	}
 
@@ -18,16 +18,28 @@
 
 package boofcv.factory.feature.disparity;
 
+import boofcv.abst.feature.disparity.ConfigDisparitySgm;
 import boofcv.abst.feature.disparity.StereoDisparity;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
+import boofcv.abst.feature.disparity.WrapDisparityCensusRect;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
+import boofcv.abst.feature.disparity.WrapDisparitySgm;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat_MT;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
+import boofcv.alg.feature.disparity.sgm.SgmCostCensus;
+import boofcv.alg.feature.disparity.sgm.SgmCostFunction;
+import boofcv.alg.feature.disparity.sgm.SgmCostSad;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.alg.transform.census.CensusType;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 
@@ -223,6 +235,214 @@ public class FactoryStereoDisparity {
 		return new WrapDisparitySadRect<T,ImageFloat32>(alg);
 	}
 
+	/**
+	 * <p>
+	 * Concurrent version of {@link #regionWta}.  The image is split into bands of rows which are processed in
+	 * parallel.  Produces the same output as the single threaded version.
+	 * </p>
+	 *
+	 * @see DisparityScoreRowFormat_MT
+	 * @see boofcv.concurrency.BoofConcurrency
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageUInt8>
+	regionWta_MT( final DisparityAlgorithms whichAlg ,
+				  final int minDisparity , final int maxDisparity,
+				  final int regionRadiusX, final int regionRadiusY ,
+				  final double maxPerPixelError ,
+				  final int validateRtoL ,
+				  final double texture ,
+				  final Class<T> imageType ) {
+
+		WorkerFactory<DisparityScoreRowFormat<T,ImageUInt8>> factory =
+				new WorkerFactory<DisparityScoreRowFormat<T,ImageUInt8>>() {
+			@Override
+			public DisparityScoreRowFormat<T, ImageUInt8> create() {
+				StereoDisparity<T,ImageUInt8> alg = regionWta(whichAlg, minDisparity, maxDisparity,
+						regionRadiusX, regionRadiusY, maxPerPixelError, validateRtoL, texture, imageType);
+				return ((WrapDisparitySadRect<T,ImageUInt8>)alg).getAlg();
+			}
+		};
+
+		return new WrapDisparitySadRect<T,ImageUInt8>(new DisparityScoreRowFormat_MT<T,ImageUInt8>(factory));
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #regionSubpixelWta}.  The image is split into bands of rows which are processed
+	 * in parallel.  Produces the same output as the single threaded version.
+	 * </p>
+	 *
+	 * @see DisparityScoreRowFormat_MT
+	 * @see boofcv.concurrency.BoofConcurrency
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageFloat32>
+	regionSubpixelWta_MT( final DisparityAlgorithms whichAlg ,
+						  final int minDisparity , final int maxDisparity,
+						  final int regionRadiusX, final int regionRadiusY ,
+						  final double maxPerPixelError ,
+						  final int validateRtoL ,
+						  final double texture ,
+						  final Class<T> imageType ) {
+
+		WorkerFactory<DisparityScoreRowFormat<T,ImageFloat32>> factory =
+				new WorkerFactory<DisparityScoreRowFormat<T,ImageFloat32>>() {
+			@Override
+			public DisparityScoreRowFormat<T, ImageFloat32> create() {
+				StereoDisparity<T,ImageFloat32> alg = regionSubpixelWta(whichAlg, minDisparity, maxDisparity,
+						regionRadiusX, regionRadiusY, maxPerPixelError, validateRtoL, texture, imageType);
+				return ((WrapDisparitySadRect<T,ImageFloat32>)alg).getAlg();
+			}
+		};
+
+		return new WrapDisparitySadRect<T,ImageFloat32>(new DisparityScoreRowFormat_MT<T,ImageFloat32>(factory));
+	}
+
+	/**
+	 * <p>
+	 * Creates a WTA rectangular region disparity algorithm which scores regions using the Hamming distance between
+	 * census transformed pixels.  Much more tolerant of lighting differences between the two cameras than
+	 * SAD at a similar computational cost.  Disparity is computed to pixel precision.
+	 * </p>
+	 *
+	 * @see WrapDisparityCensusRect
+	 * @see boofcv.alg.transform.census.CensusTransform
+	 *
+	 * @param census Shape of the census transform
+	 * @param minDisparity Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Must be > 0
+	 * @param regionRadiusX Radius of the rectangular region along x-axis.
+	 * @param regionRadiusY Radius of the rectangular region along y-axis.
+	 * @param maxPerPixelError Maximum allowed number of differing bits in a region per pixel.  Set to < 0 to disable.
+	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
+	 * @param texture Tolerance for how similar optimal region is to other region.  Closer to zero is more tolerant.
+	 *                Try 0.1
+	 * @return Rectangular region based WTA disparity.algorithm.
+	 */
+	public static StereoDisparity<ImageUInt8,ImageUInt8>
+	regionCensusWta( CensusType census ,
+					 int minDisparity , int maxDisparity,
+					 int regionRadiusX, int regionRadiusY ,
+					 double maxPerPixelError ,
+					 int validateRtoL ,
+					 double texture ) {
+
+		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
+
+		DisparitySelect select = selectDisparity_S32((int) maxError, validateRtoL, texture);
+
+		return createCensusRect(census, minDisparity, maxDisparity, regionRadiusX, regionRadiusY, select);
+	}
+
+	/**
+	 * <p>
+	 * Same as {@link #regionCensusWta} but the disparity is computed to sub-pixel precision.
+	 * </p>
+	 *
+	 * @see WrapDisparityCensusRect
+	 * @see boofcv.alg.transform.census.CensusTransform
+	 *
+	 * @param census Shape of the census transform
+	 * @param minDisparity Minimum disparity that it will check. Must be >= 0 and < maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Must be > 0
+	 * @param regionRadiusX Radius of the rectangular region along x-axis.
+	 * @param regionRadiusY Radius of the rectangular region along y-axis.
+	 * @param maxPerPixelError Maximum allowed number of differing bits in a region per pixel.  Set to < 0 to disable.
+	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
+	 * @param texture Tolerance for how similar optimal region is to other region.  Closer to zero is more tolerant.
+	 *                Try 0.1
+	 * @return Rectangular region based WTA disparity.algorithm.
+	 */
+	public static StereoDisparity<ImageUInt8,ImageFloat32>
+	regionCensusSubpixelWta( CensusType census ,
+							 int minDisparity , int maxDisparity,
+							 int regionRadiusX, int regionRadiusY ,
+							 double maxPerPixelError ,
+							 int validateRtoL ,
+							 double texture ) {
+
+		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
+
+		DisparitySelect select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+
+		return createCensusRect(census, minDisparity, maxDisparity, regionRadiusX, regionRadiusY, select);
+	}
+
+	private static <D extends ImageSingleBand> StereoDisparity<ImageUInt8,D>
+	createCensusRect( CensusType census ,
+					  int minDisparity , int maxDisparity,
+					  int regionRadiusX, int regionRadiusY ,
+					  DisparitySelect<int[],D> select ) {
+		if( census.isLong() ) {
+			return new WrapDisparityCensusRect<ImageSInt64,D>(census,scoreDisparityHammingRect_S64(
+					minDisparity, maxDisparity, regionRadiusX, regionRadiusY, select));
+		} else {
+			return new WrapDisparityCensusRect<ImageSInt32,D>(census,scoreDisparityHammingRect_S32(
+					minDisparity, maxDisparity, regionRadiusX, regionRadiusY, select));
+		}
+	}
+
+	/**
+	 * <p>
+	 * Creates a Semi Global Matching (SGM) dense disparity algorithm.  Disparity is computed to pixel precision.
+	 * Only {@link ImageUInt8} input images are supported.
+	 * </p>
+	 *
+	 * @see SgmStereoDisparity
+	 *
+	 * @param config Configuration for SGM. If null then the default is used.
+	 * @param imageType Type of input image.
+	 * @return SGM disparity algorithm
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageUInt8>
+	sgm( ConfigDisparitySgm config , Class<T> imageType ) {
+		return new WrapDisparitySgm<T,ImageUInt8>(createSgm(config,imageType),ImageUInt8.class);
+	}
+
+	/**
+	 * <p>
+	 * Creates a Semi Global Matching (SGM) dense disparity algorithm.  Disparity is computed to sub-pixel
+	 * precision.  Only {@link ImageUInt8} input images are supported.
+	 * </p>
+	 *
+	 * @see SgmStereoDisparity
+	 *
+	 * @param config Configuration for SGM. If null then the default is used.
+	 * @param imageType Type of input image.
+	 * @return SGM disparity algorithm
+	 */
+	public static <T extends ImageSingleBand> StereoDisparity<T,ImageFloat32>
+	sgmSubpixel( ConfigDisparitySgm config , Class<T> imageType ) {
+		return new WrapDisparitySgm<T,ImageFloat32>(createSgm(config,imageType),ImageFloat32.class);
+	}
+
+	private static <T extends ImageSingleBand> SgmStereoDisparity<T>
+	createSgm( ConfigDisparitySgm config , Class<T> imageType ) {
+		if( config == null )
+			config = new ConfigDisparitySgm();
+		config.checkValidity();
+
+		if( imageType != ImageUInt8.class )
+			throw new IllegalArgumentException("Only ImageUInt8 is supported");
+
+		SgmCostFunction cost;
+		switch( config.cost ) {
+			case CENSUS:
+				cost = new SgmCostCensus(config.costRadius);
+				break;
+
+			case SAD:
+				cost = new SgmCostSad(config.costRadius);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown cost "+config.cost);
+		}
+
+		return new SgmStereoDisparity<T>(cost,config.minDisparity,config.maxDisparity,
+				config.selectPenaltySmall(),config.selectPenaltyLarge(),config.paths,config.rowStreaming,
+				config.validateRtoL,config.uniqueness);
+	}
+
 	/**
 	 * WTA algorithms that computes disparity on a sparse per-pixel basis as requested..
 	 *
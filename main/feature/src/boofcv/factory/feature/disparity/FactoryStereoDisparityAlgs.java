@@ -22,6 +22,8 @@ import boofcv.alg.feature.disparity.*;
 import boofcv.alg.feature.disparity.impl.*;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.ImageUInt8;
 
@@ -91,6 +93,51 @@ public class FactoryStereoDisparityAlgs {
 				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
 	}
 
+	/**
+	 * Alternative to {@link #scoreDisparitySadRect_U8} which computes scores one column at a time using inner
+	 * loops designed to be vectorized by the JIT.  Produces identical results.
+	 *
+	 * @see ImplDisparityScoreSadRectColumn_U8
+	 */
+	public static <T extends ImageSingleBand> DisparityScoreSadRect<ImageUInt8,T>
+	scoreDisparitySadRectColumn_U8( int minDisparity , int maxDisparity,
+									int regionRadiusX, int regionRadiusY,
+									DisparitySelect<int[],T> computeDisparity)
+	{
+		return new ImplDisparityScoreSadRectColumn_U8<T>(minDisparity,
+				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
+	}
+
+	/**
+	 * Scores regions using the Hamming distance between census transformed images encoded in 32-bits.
+	 *
+	 * @see ImplDisparityScoreHammingRect_S32
+	 * @see boofcv.alg.transform.census.CensusTransform
+	 */
+	public static <T extends ImageSingleBand> DisparityScoreRowFormat<ImageSInt32,T>
+	scoreDisparityHammingRect_S32( int minDisparity , int maxDisparity,
+								   int regionRadiusX, int regionRadiusY,
+								   DisparitySelect<int[],T> computeDisparity)
+	{
+		return new ImplDisparityScoreHammingRect_S32<T>(minDisparity,
+				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
+	}
+
+	/**
+	 * Scores regions using the Hamming distance between census transformed images encoded in 64-bits.
+	 *
+	 * @see ImplDisparityScoreHammingRect_S64
+	 * @see boofcv.alg.transform.census.CensusTransform
+	 */
+	public static <T extends ImageSingleBand> DisparityScoreRowFormat<ImageSInt64,T>
+	scoreDisparityHammingRect_S64( int minDisparity , int maxDisparity,
+								   int regionRadiusX, int regionRadiusY,
+								   DisparitySelect<int[],T> computeDisparity)
+	{
+		return new ImplDisparityScoreHammingRect_S64<T>(minDisparity,
+				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
+	}
+
 	public static <T extends ImageSingleBand> DisparityScoreSadRect<ImageSInt16,T>
 	scoreDisparitySadRect_S16( int minDisparity , int maxDisparity,
 							  int regionRadiusX, int regionRadiusY,
@@ -118,6 +165,21 @@ public class FactoryStereoDisparityAlgs {
 				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
 	}
 
+	/**
+	 * Alternative to {@link #scoreDisparitySadRectFive_U8} which computes scores one column at a time and
+	 * selects the best sub-regions without branches.  Produces identical results.
+	 *
+	 * @see ImplDisparityScoreSadRectFiveColumn_U8
+	 */
+	public static <T extends ImageSingleBand> DisparityScoreWindowFive<ImageUInt8,T>
+	scoreDisparitySadRectFiveColumn_U8( int minDisparity , int maxDisparity,
+										int regionRadiusX, int regionRadiusY,
+										DisparitySelect<int[],T> computeDisparity)
+	{
+		return new ImplDisparityScoreSadRectFiveColumn_U8<T>(minDisparity,
+				maxDisparity,regionRadiusX,regionRadiusY,computeDisparity);
+	}
+
 	public static <T extends ImageSingleBand> DisparityScoreWindowFive<ImageSInt16,T>
 	scoreDisparitySadRectFive_S16( int minDisparity , int maxDisparity,
 								  int regionRadiusX, int regionRadiusY,
@@ -36,6 +36,13 @@ public class ConfigOpticalFlowBlockPyramid {
 	 */
 	public int maxPerPixelError = 30;
 
+	/**
+	 * If true then regions are compared using the Hamming distance between census transformed pixels,
+	 * which is tolerant of lighting changes.  maxPerPixelError is then in number of bits.
+	 * Only {@link boofcv.struct.image.ImageUInt8} is supported.
+	 */
+	public boolean census = false;
+
 	/**
 	 * Difference in scale between layers in the pyramid. A value of 1 means a single layer.
 	 */
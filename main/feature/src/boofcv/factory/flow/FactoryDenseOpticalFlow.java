@@ -94,7 +94,12 @@ public class FactoryDenseOpticalFlow {
 			config = new ConfigOpticalFlowBlockPyramid();
 
 		DenseOpticalFlowBlockPyramid<T> alg;
-		if( imageType == ImageUInt8.class )
+		if( config.census ) {
+			if( imageType != ImageUInt8.class )
+				throw new IllegalArgumentException("Census cost only supports ImageUInt8");
+			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.CensusU8(
+					config.searchRadius,config.regionRadius,config.maxPerPixelError);
+		} else if( imageType == ImageUInt8.class )
 			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.U8(
 					config.searchRadius,config.regionRadius,config.maxPerPixelError);
 		else if( imageType == ImageFloat32.class )
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.nn.KdForestBbf_F32;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateKdForest_F32 extends StandardAssociateDescriptionChecks<TupleDesc_F32> {
+
+	public TestAssociateKdForest_F32() {
+		super(TupleDesc_F32.class);
+	}
+
+	@Override
+	public AssociateDescription<TupleDesc_F32> createAlg() {
+		// more checks than points so it will produce perfect results
+		KdForestBbf_F32 alg = new KdForestBbf_F32(1,100,2,1,1,234);
+		return new AssociateKdForest_F32<TupleDesc_F32>(alg);
+	}
+
+	/**
+	 * Same as the standard test but with values which can be exactly represented by a float.  Otherwise
+	 * the edge case is lost to round off error.
+	 */
+	@Test
+	@Override
+	public void checkSetThreshold() {
+		init();
+
+		listSrc.add( c(1) );
+		listDst.add( c(1.5) );
+
+		AssociateDescription<TupleDesc_F32> alg = createAlg();
+		alg.setSource(listSrc);
+		alg.setDestination(listDst);
+
+		alg.setThreshold(0.25);
+		alg.associate();
+		assertEquals(0,alg.getMatches().size);
+
+		alg.setThreshold(0.5);
+		alg.associate();
+		assertEquals(1,alg.getMatches().size);
+
+		alg.setThreshold(0.75);
+		alg.associate();
+		assertEquals(1,alg.getMatches().size);
+
+		alg.setThreshold(Double.MAX_VALUE);
+		alg.associate();
+		assertEquals(1,alg.getMatches().size);
+	}
+
+	@Override
+	protected TupleDesc_F32 c(double value) {
+		TupleDesc_F32 s = new TupleDesc_F32(1);
+		s.value[0] = (float)value;
+		return s;
+	}
+}
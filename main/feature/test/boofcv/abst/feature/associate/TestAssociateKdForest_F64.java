@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.nn.KdForestBbf_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateKdForest_F64 extends StandardAssociateDescriptionChecks<TupleDesc_F64> {
+
+	public TestAssociateKdForest_F64() {
+		super(TupleDesc_F64.class);
+	}
+
+	@Override
+	public AssociateDescription<TupleDesc_F64> createAlg() {
+		// more checks than points so it will produce perfect results
+		KdForestBbf_F64 alg = new KdForestBbf_F64(1,100,2,1,1,234);
+		return new AssociateKdForest_F64<TupleDesc_F64>(alg);
+	}
+
+	@Override
+	protected TupleDesc_F64 c(double value) {
+		TupleDesc_F64 s = new TupleDesc_F64(1);
+		s.value[0] = value;
+		return s;
+	}
+}
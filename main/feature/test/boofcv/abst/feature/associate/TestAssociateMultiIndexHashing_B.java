@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.nn.MultiIndexHashing_B;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateMultiIndexHashing_B {
+
+	Random rand = new Random(234);
+
+	FastQueue<TupleDesc_B> listSrc = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+	FastQueue<TupleDesc_B> listDst = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+
+	/**
+	 * Each destination is a slightly modified copy of a source feature
+	 */
+	@Test
+	public void associate() {
+		createSets(50);
+
+		AssociateMultiIndexHashing_B alg = createAlg();
+		assertTrue(MatchScoreType.NORM_ERROR == alg.getScoreType());
+		alg.setSource(listSrc);
+		alg.setDestination(listDst);
+		alg.associate();
+
+		FastQueue<AssociatedIndex> matches = alg.getMatches();
+		assertEquals(50,matches.size);
+		for( int i = 0; i < matches.size; i++ ) {
+			AssociatedIndex a = matches.get(i);
+			assertEquals(i,a.dst);
+			assertEquals(i,a.src);
+			assertEquals(2,a.fitScore,1e-8);
+		}
+		assertEquals(0,alg.getUnassociatedSource().size);
+		assertEquals(0,alg.getUnassociatedDestination().size);
+
+		// the source list should replace the previous contents.  A threshold is needed to prevent
+		// destination 0 from matching an unrelated feature which happens to share a bucket
+		listSrc.remove(0);
+		alg.setThreshold(10);
+		alg.setSource(listSrc);
+		alg.associate();
+		assertEquals(49,matches.size);
+		assertEquals(1,alg.getUnassociatedDestination().size);
+		assertEquals(0,alg.getUnassociatedDestination().get(0));
+	}
+
+	@Test
+	public void setThreshold() {
+		createSets(10);
+
+		AssociateMultiIndexHashing_B alg = createAlg();
+		alg.setSource(listSrc);
+		alg.setDestination(listDst);
+
+		alg.setThreshold(1);
+		alg.associate();
+		assertEquals(0,alg.getMatches().size);
+
+		// inclusive
+		alg.setThreshold(2);
+		alg.associate();
+		assertEquals(10,alg.getMatches().size);
+
+		alg.setThreshold(Double.MAX_VALUE);
+		alg.associate();
+		assertEquals(10,alg.getMatches().size);
+	}
+
+	/**
+	 * Manipulate the database directly and see if source indexes are IDs and removed features are ignored
+	 */
+	@Test
+	public void persistentDatabase() {
+		createSets(20);
+
+		AssociateMultiIndexHashing_B alg = createAlg();
+		MultiIndexHashing_B database = alg.getDatabase();
+		for( int i = 0; i < listSrc.size; i++ ) {
+			database.insert(listSrc.get(i));
+		}
+		database.remove(4);
+		database.remove(7);
+
+		alg.setDestination(listDst);
+		alg.setThreshold(10);
+		alg.associate();
+
+		assertEquals(18,alg.getMatches().size);
+		for( AssociatedIndex a : alg.getMatches().toList() ) {
+			assertEquals(a.dst,a.src);
+		}
+
+		GrowQueue_I32 unassociated = alg.getUnassociatedDestination();
+		assertEquals(2,unassociated.size);
+		assertEquals(4,unassociated.get(0));
+		assertEquals(7,unassociated.get(1));
+
+		// only dst features 0 to 9 are searched for, removed features are not reported as unassociated source
+		listDst.size = 10;
+		alg.associate();
+		unassociated = alg.getUnassociatedSource();
+		assertEquals(10,unassociated.size);
+		for( int i = 0; i < unassociated.size; i++ ) {
+			assertEquals(10+i,unassociated.get(i));
+		}
+	}
+
+	private AssociateMultiIndexHashing_B createAlg() {
+		return new AssociateMultiIndexHashing_B(new MultiIndexHashing_B(512,16,12,1,234));
+	}
+
+	private void createSets( int N ) {
+		listSrc.reset();
+		listDst.reset();
+		for( int i = 0; i < N; i++ ) {
+			TupleDesc_B a = new TupleDesc_B(512);
+			for( int j = 0; j < a.data.length; j++ ) {
+				a.data[j] = rand.nextInt();
+			}
+			TupleDesc_B b = a.copy();
+			b.data[3] ^= 0x01;
+			b.data[10] ^= 0x100;
+			listSrc.add(a);
+			listDst.add(b);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribeBatchRunner {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * The output should be in the same order as the input, no matter how the points are sorted internally
+	 */
+	@Test
+	public void outputOrder() {
+		List<Point2D_F64> points = createPoints(500);
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_F64 scales = new GrowQueue_F64();
+		for( int i = 0; i < points.size(); i++ ) {
+			orientations.add(rand.nextGaussian());
+			scales.add(rand.nextDouble()*5);
+		}
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			DescribeBatchRunner<TupleDesc_F64> alg = new DescribeBatchRunner<TupleDesc_F64>(new Factory(),concurrent);
+
+			FastQueue<TupleDesc_F64> found = createQueue();
+			GrowQueue_B success = new GrowQueue_B();
+			alg.process(points, orientations, scales, found, success);
+
+			assertEquals(points.size(), found.size);
+			assertEquals(points.size(), success.size);
+			for( int i = 0; i < points.size(); i++ ) {
+				Point2D_F64 p = points.get(i);
+				TupleDesc_F64 d = found.get(i);
+				assertEquals(p.x, d.value[0], 0);
+				assertEquals(p.y, d.value[1], 0);
+				assertEquals(orientations.get(i), d.value[2], 0);
+				assertEquals(scales.get(i), d.value[3], 0);
+				assertEquals(p.x >= 0, success.get(i));
+			}
+		}
+	}
+
+	/**
+	 * If orientation and scale are not provided default values should be used
+	 */
+	@Test
+	public void defaultOrientationScale() {
+		List<Point2D_F64> points = createPoints(20);
+
+		DescribeBatchRunner<TupleDesc_F64> alg = new DescribeBatchRunner<TupleDesc_F64>(new Factory(),true);
+
+		FastQueue<TupleDesc_F64> found = createQueue();
+		GrowQueue_B success = new GrowQueue_B();
+		alg.process(points, null, null, found, success);
+
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(0, found.get(i).value[2], 0);
+			assertEquals(1, found.get(i).value[3], 0);
+		}
+	}
+
+	/**
+	 * Call it multiple times with fewer points.  Old results should be discarded
+	 */
+	@Test
+	public void multipleCalls() {
+		DescribeBatchRunner<TupleDesc_F64> alg = new DescribeBatchRunner<TupleDesc_F64>(new Factory(),true);
+
+		FastQueue<TupleDesc_F64> found = createQueue();
+		GrowQueue_B success = new GrowQueue_B();
+		alg.process(createPoints(200), null, null, found, success);
+
+		List<Point2D_F64> points = createPoints(30);
+		alg.process(points, null, null, found, success);
+
+		assertEquals(30, found.size);
+		assertEquals(30, success.size);
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(points.get(i).x, found.get(i).value[0], 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooFewOrientations() {
+		DescribeBatchRunner<TupleDesc_F64> alg = new DescribeBatchRunner<TupleDesc_F64>(new Factory(),false);
+
+		alg.process(createPoints(10), new GrowQueue_F64(), null, createQueue(), new GrowQueue_B());
+	}
+
+	private List<Point2D_F64> createPoints( int N ) {
+		List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			points.add(new Point2D_F64(rand.nextDouble()*400-20, rand.nextDouble()*300));
+		}
+		return points;
+	}
+
+	private FastQueue<TupleDesc_F64> createQueue() {
+		return new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class,true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(4);
+			}
+		};
+	}
+
+	/**
+	 * Copies the input into the description
+	 */
+	private static class Factory implements WorkerFactory<DescribeBatchRunner.Worker<TupleDesc_F64>> {
+		@Override
+		public DescribeBatchRunner.Worker<TupleDesc_F64> create() {
+			return new DescribeBatchRunner.Worker<TupleDesc_F64>() {
+				@Override
+				public void prepare() {}
+
+				@Override
+				public boolean process(double x, double y, double orientation, double scale, TupleDesc_F64 description) {
+					description.value[0] = x;
+					description.value[1] = y;
+					description.value[2] = orientation;
+					description.value[3] = scale;
+					return x >= 0;
+				}
+			};
+		}
+	}
+}
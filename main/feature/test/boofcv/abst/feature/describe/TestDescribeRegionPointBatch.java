@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.alg.feature.UtilFeature;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks to see if implementations of {@link DescribeRegionPointBatch} produce the same output as describing
+ * each point individually.
+ *
+ * @author Peter Abeles
+ */
+public class TestDescribeRegionPointBatch {
+
+	Random rand = new Random(234);
+
+	int width = 120;
+	int height = 100;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Test
+	public void surfFast() {
+		check(FactoryDescribeRegionPoint.surfFast(null, ImageFloat32.class), ImageFloat32.class);
+		check(FactoryDescribeRegionPoint.surfFast(null, ImageUInt8.class), ImageUInt8.class);
+	}
+
+	@Test
+	public void surfStable() {
+		check(FactoryDescribeRegionPoint.surfStable(null, ImageFloat32.class), ImageFloat32.class);
+	}
+
+	@Test
+	public void sift() {
+		check(FactoryDescribeRegionPoint.sift(null, null), ImageFloat32.class);
+	}
+
+	@Test
+	public void brief() {
+		check((DescribeRegionPointBatch)FactoryDescribeRegionPoint.brief(new ConfigBrief(true), ImageUInt8.class),
+				ImageUInt8.class);
+	}
+
+	@Test
+	public void pixelNCC() {
+		check(FactoryDescribeRegionPoint.pixelNCC(5, 7, ImageFloat32.class), ImageFloat32.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends ImageSingleBand, D extends TupleDesc>
+	void check( DescribeRegionPointBatch<T,D> alg , Class<T> imageType ) {
+		T image = GeneralizedImageOps.createSingleBand(imageType, width, height);
+		GImageMiscOps.fillUniform(image, rand, 0, 100);
+		alg.setImage(image);
+
+		List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_F64 scales = new GrowQueue_F64();
+		for( int i = 0; i < 200; i++ ) {
+			// include points along and outside the border
+			points.add(new Point2D_F64(rand.nextDouble()*(width+10)-5, rand.nextDouble()*(height+10)-5));
+			orientations.add(rand.nextDouble()*Math.PI*2-Math.PI);
+			scales.add(0.8+rand.nextDouble()*3);
+		}
+
+		FastQueue<D> found = UtilFeature.createQueue(alg, 10);
+		GrowQueue_B success = new GrowQueue_B();
+		alg.process(points, orientations, scales, found, success);
+
+		assertEquals(points.size(), found.size);
+		assertEquals(points.size(), success.size);
+
+		D expected = alg.createDescription();
+		for( int i = 0; i < points.size(); i++ ) {
+			Point2D_F64 p = points.get(i);
+			boolean s = alg.process(p.x, p.y, orientations.get(i), scales.get(i), expected);
+			assertEquals(s, success.get(i));
+			if( !s )
+				continue;
+
+			D d = found.get(i);
+			for( int j = 0; j < expected.size(); j++ ) {
+				assertEquals(expected.getDouble(j), d.getDouble(j), 0);
+			}
+		}
+	}
+}
@@ -18,8 +18,17 @@
 
 package boofcv.abst.flow;
 
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.alg.transform.pyramid.PyramidFrame;
+import boofcv.alg.transform.pyramid.PyramidFrameCache;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.flow.FactoryDenseOpticalFlow;
+import boofcv.struct.flow.ImageFlow;
 import boofcv.struct.image.ImageFloat32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author Peter Abeles
@@ -34,4 +43,48 @@ public class TestFlowKlt_to_DenseOpticalFlow extends GeneralDenseOpticalFlowChec
 	public DenseOpticalFlow<ImageFloat32> createAlg(Class<ImageFloat32> imageType) {
 		return (DenseOpticalFlow)FactoryDenseOpticalFlow.flowKlt(null,2,imageType,null);
 	}
+
+	/**
+	 * Pyramids from a {@link PyramidFrameCache} should produce the same results as when the pyramids are
+	 * computed internally
+	 */
+	@Test
+	public void process_frame() {
+		ImageFloat32 src = new ImageFloat32(30,35);
+		ImageFloat32 dst = new ImageFloat32(30,35);
+		ImageMiscOps.fillUniform(src,rand,0,256);
+		ImageMiscOps.copy(1,0,0,0,src.width-1,src.height,src,dst);
+
+		FlowKlt_to_DenseOpticalFlow<ImageFloat32,ImageFloat32> alg =
+				(FlowKlt_to_DenseOpticalFlow)createAlg(ImageFloat32.class);
+
+		PyramidFrameCache<ImageFloat32,ImageFloat32> cache = new PyramidFrameCache<ImageFloat32, ImageFloat32>(
+				new PkltConfig().pyramidScaling,-1,2,
+				FactoryDerivative.sobel(ImageFloat32.class,ImageFloat32.class),ImageFloat32.class);
+
+		ImageFlow expected = new ImageFlow(src.width,src.height);
+		ImageFlow found = new ImageFlow(src.width,src.height);
+
+		alg.process(src,dst,expected);
+
+		PyramidFrame<ImageFloat32,ImageFloat32> frameSrc = cache.acquire(0,src);
+		PyramidFrame<ImageFloat32,ImageFloat32> frameDst = cache.acquire(1,dst);
+		alg.process(frameSrc,frameDst,found);
+
+		// the gradient of the destination isn't needed
+		assertEquals(false,frameDst.isGradientComputed(0));
+
+		for( int y = 0; y < src.height; y++ ) {
+			for( int x = 0; x < src.width; x++ ) {
+				ImageFlow.D e = expected.get(x,y);
+				ImageFlow.D f = found.get(x,y);
+
+				assertEquals(e.isValid(),f.isValid());
+				if( e.isValid() ) {
+					assertEquals(e.x,f.x,0);
+					assertEquals(e.y,f.y,0);
+				}
+			}
+		}
+	}
 }
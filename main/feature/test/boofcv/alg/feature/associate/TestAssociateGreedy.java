@@ -19,11 +19,15 @@
 package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociateNccFeature;
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.NccFeature;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 
@@ -101,6 +105,162 @@ public class TestAssociateGreedy {
 		assertEquals(2,fitScore[3],1e-5);
 	}
 
+	/**
+	 * Compares against a brute force implementation which saves the entire score matrix.  Values are integers
+	 * so that there are lots of ties.  Sizes are selected to not be a multiple of the tile size.
+	 */
+	@Test
+	public void compareToFullMatrix() {
+		Random rand = new Random(234);
+		int sizes[][] = new int[][]{{70,45},{45,70},{1,5},{5,1},{0,3},{3,0}};
+
+		for( int[] size : sizes ) {
+			FastQueue<TupleDesc_F64> a = createRandom(rand, size[0]);
+			FastQueue<TupleDesc_F64> b = createRandom(rand, size[1]);
+
+			for( boolean backwards : new boolean[]{false,true} ) {
+				for( double maxError : new double[]{Double.MAX_VALUE,2.5,2} ) {
+					AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<TupleDesc_F64>(score,backwards);
+					alg.setMaxFitError(maxError);
+					alg.associate(a,b);
+
+					int expectedPairs[] = new int[a.size];
+					double expectedFit[] = new double[a.size];
+					fullMatrix(a,b,maxError,backwards,expectedPairs,expectedFit);
+
+					for( int i = 0; i < a.size; i++ ) {
+						assertEquals(expectedPairs[i],alg.getPairs()[i]);
+						assertEquals(expectedFit[i],alg.getFitQuality()[i],0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void secondBest() {
+		FastQueue<TupleDesc_F64> a = createData(1,2);
+		FastQueue<TupleDesc_F64> b = createData(3,1.5,1,10);
+
+		AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<TupleDesc_F64>(score,false);
+		alg.setMaxFitError(0.1);
+		alg.associate(a,b);
+
+		// second best in each row doesn't depend on the max error
+		assertEquals(0.5,alg.getFitSecond()[0],1e-8);
+		assertEquals(1,alg.getFitSecond()[1],1e-8);
+
+		// check the columns too
+		AssociateGreedy.ColumnScores columns = alg.getColumnScores();
+		assertEquals(1,columns.bestRow.get(0));
+		assertEquals(1,columns.best.get(0),1e-8);
+		assertEquals(2,columns.second.get(0),1e-8);
+		assertEquals(0,columns.bestRow.get(2));
+		assertEquals(0,columns.best.get(2),1e-8);
+		assertEquals(1,columns.second.get(2),1e-8);
+	}
+
+	@Test
+	public void ratioTest() {
+		FastQueue<TupleDesc_F64> a = createData(1,2,5);
+		FastQueue<TupleDesc_F64> b = createData(1.1,2.3,2.5,4.5);
+
+		AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<TupleDesc_F64>(score,false);
+
+		// disabled by default
+		alg.associate(a,b);
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(1,alg.getPairs()[1]);
+		assertEquals(3,alg.getPairs()[2]);
+
+		// ratios are 0.1/1.2, 0.3/0.5, and 0.5/2.5
+		alg.setRatioTest(0.5);
+		alg.associate(a,b);
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(-1,alg.getPairs()[1]);
+		assertEquals(3,alg.getPairs()[2]);
+		assertEquals(Double.MAX_VALUE,alg.getFitQuality()[1],0);
+
+		// edge case, inclusive
+		alg.setRatioTest(0.2);
+		alg.associate(a,b);
+		assertEquals(-1,alg.getPairs()[1]);
+		assertEquals(3,alg.getPairs()[2]);
+
+		alg.setRatioTest(0.19);
+		alg.associate(a,b);
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(-1,alg.getPairs()[2]);
+	}
+
+	/**
+	 * The second best score should be ignored if there is only one possible match
+	 */
+	@Test
+	public void ratioTest_singleDestination() {
+		FastQueue<TupleDesc_F64> a = createData(1,2);
+		FastQueue<TupleDesc_F64> b = createData(1.5);
+
+		AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<TupleDesc_F64>(score,false);
+		alg.setRatioTest(0.1);
+		alg.associate(a,b);
+		assertEquals(0,alg.getPairs()[0]);
+		assertEquals(0,alg.getPairs()[1]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void ratioTest_correlation() {
+		AssociateGreedy<NccFeature> alg = new AssociateGreedy<NccFeature>(new ScoreAssociateNccFeature(),false);
+		alg.setRatioTest(0.8);
+	}
+
+	/**
+	 * Association which saves the full score matrix
+	 */
+	private void fullMatrix( FastQueue<TupleDesc_F64> src , FastQueue<TupleDesc_F64> dst ,
+							 double maxFitError , boolean backwardsValidation ,
+							 int pairs[] , double fitQuality[] ) {
+		double work[] = new double[src.size*dst.size];
+		for( int i = 0; i < src.size; i++ ) {
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+			for( int j = 0; j < dst.size; j++ ) {
+				double fit = score.score(src.get(i),dst.get(j));
+				work[i*dst.size+j] = fit;
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs[i] = bestIndex;
+			fitQuality[i] = bestScore;
+		}
+
+		if( backwardsValidation ) {
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs[i];
+				if( match == -1 )
+					continue;
+				double scoreToBeat = work[i*dst.size+match];
+				for( int j = 0; j < src.size; j++ , match += dst.size ) {
+					if( work[match] <= scoreToBeat && j != i) {
+						pairs[i] = -1;
+						fitQuality[i] = Double.MAX_VALUE;
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createRandom( Random rand , int N ) {
+		double values[] = new double[N];
+		for( int i = 0; i < N; i++ ) {
+			values[i] = rand.nextInt(30);
+		}
+		return createData(values);
+	}
+
 	private FastQueue<TupleDesc_F64> createData( double ...values )
 	{
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedy_MT {
+
+	Random rand = new Random(234);
+
+	ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclideanSq_F64();
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version.  Integer values are used to create
+	 * lots of ties.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int sizes[][] = new int[][]{{200,150},{150,200},{31,33},{1,10},{10,1},{0,10}};
+
+		for( int[] size : sizes ) {
+			for( int dof : new int[]{1,8} ) {
+				FastQueue<TupleDesc_F64> a = createRandom(size[0],dof);
+				FastQueue<TupleDesc_F64> b = createRandom(size[1],dof);
+
+				for( boolean backwards : new boolean[]{false,true} ) {
+					AssociateGreedy<TupleDesc_F64> expected = new AssociateGreedy<TupleDesc_F64>(score,backwards);
+					AssociateGreedy_MT<TupleDesc_F64> found = new AssociateGreedy_MT<TupleDesc_F64>(score,backwards);
+					expected.setMaxFitError(20);
+					found.setMaxFitError(20);
+
+					expected.associate(a,b);
+					// call it twice to make sure it's reset correctly
+					found.associate(b,a);
+					found.associate(a,b);
+
+					for( int i = 0; i < a.size; i++ ) {
+						assertEquals(expected.getPairs()[i],found.getPairs()[i]);
+						assertEquals(expected.getFitQuality()[i],found.getFitQuality()[i],0);
+						assertEquals(expected.getFitSecond()[i],found.getFitSecond()[i],0);
+					}
+
+					AssociateGreedy.ColumnScores colE = expected.getColumnScores();
+					AssociateGreedy.ColumnScores colF = found.getColumnScores();
+					for( int i = 0; i < b.size; i++ ) {
+						assertEquals(colE.bestRow.get(i),colF.bestRow.get(i));
+						assertEquals(colE.best.get(i),colF.best.get(i),0);
+						assertEquals(colE.second.get(i),colF.second.get(i),0);
+					}
+				}
+			}
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createRandom( int N , int dof ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for( int i = 0; i < N; i++ ) {
+			TupleDesc_F64 d = new TupleDesc_F64(dof);
+			for( int j = 0; j < dof; j++ ) {
+				d.value[j] = rand.nextInt(4);
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+}
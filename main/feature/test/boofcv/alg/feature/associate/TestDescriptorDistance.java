@@ -187,6 +187,22 @@ public class TestDescriptorDistance {
 		assertEquals(8,DescriptorDistance.hamming(0xF000000F));
 	}
 
+	@Test
+	public void hamming_long() {
+		assertEquals(0,DescriptorDistance.hamming(0L));
+		assertEquals(1,DescriptorDistance.hamming(0x0800L));
+		assertEquals(2,DescriptorDistance.hamming(0x0000000100000001L));
+		assertEquals(8,DescriptorDistance.hamming(0xF00000000000000FL));
+		assertEquals(64,DescriptorDistance.hamming(-1L));
+
+		for( int i = 0; i < 20; i++ ) {
+			int a = rand.nextInt();
+			int b = rand.nextInt();
+			long val = ((long)a << 32) | (b & 0xFFFFFFFFL);
+			assertEquals(hamming(a,0)+hamming(b,0),DescriptorDistance.hamming(val));
+		}
+	}
+
 	private int hamming( TupleDesc_B a, TupleDesc_B b) {
 		int ret = 0;
 		for( int i = 0; i < a.data.length; i++ ) {
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate.nn;
+
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdForestBbf_F32 {
+
+	Random rand = new Random(234);
+
+	int DOF = 20;
+
+	/**
+	 * If the number of checks is more than the number of points the solution will be exact
+	 */
+	@Test
+	public void exhaustive_matchBruteForce() {
+		for( int leafSize : new int[]{1,4} ) {
+			FastQueue<TupleDesc_F32> points = createPoints(300);
+			KdForestBbf_F32 alg = new KdForestBbf_F32(DOF,1000,4,5,leafSize,234);
+			alg.setPoints(points);
+
+			for( int trial = 0; trial < 100; trial++ ) {
+				TupleDesc_F32 query = createPoint();
+				assertTrue(alg.findNearest(query.value, -1));
+				int expected = bruteForce(points,query);
+				assertEquals(expected,alg.getBestIndex());
+				assertEquals(distance(points.get(expected),query),alg.getBestDistance(),1e-4f);
+			}
+		}
+	}
+
+	/**
+	 * With a limited number of checks most noisy copies of the points should still be found
+	 */
+	@Test
+	public void approximate_recall() {
+		FastQueue<TupleDesc_F32> points = createPoints(1000);
+		KdForestBbf_F32 alg = new KdForestBbf_F32(DOF,100,6,5,1,234);
+		alg.setPoints(points);
+
+		int correct = 0;
+		for( int i = 0; i < points.size; i++ ) {
+			TupleDesc_F32 query = points.get(i).copy();
+			for( int j = 0; j < DOF; j++ ) {
+				query.value[j] += (float)rand.nextGaussian()*0.01f;
+			}
+			assertTrue(alg.findNearest(query.value, -1));
+			if( alg.getBestIndex() == bruteForce(points,query) )
+				correct++;
+		}
+
+		assertTrue(correct >= 0.9*points.size);
+	}
+
+	/**
+	 * The threshold is inclusive and no match should be returned if nothing is within it
+	 */
+	@Test
+	public void threshold() {
+		FastQueue<TupleDesc_F32> points = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class,false);
+		points.add(new TupleDesc_F32(2));
+		points.add(new TupleDesc_F32(2));
+		points.get(0).set(1,0);
+		points.get(1).set(5,0);
+
+		KdForestBbf_F32 alg = new KdForestBbf_F32(2,10,2,2,1,234);
+		alg.setPoints(points);
+
+		float[] query = new float[]{2,0};
+		assertFalse(alg.findNearest(query, 0.5f));
+		assertTrue(alg.findNearest(query, 1));
+		assertEquals(0,alg.getBestIndex());
+		assertEquals(1,alg.getBestDistance(),1e-4f);
+		assertTrue(alg.findNearest(query, -1));
+		assertEquals(0,alg.getBestIndex());
+	}
+
+	/**
+	 * Same seed and same input should produce the same output, even when the points are changed in between
+	 */
+	@Test
+	public void deterministic() {
+		FastQueue<TupleDesc_F32> pointsA = createPoints(500);
+		FastQueue<TupleDesc_F32> pointsB = createPoints(200);
+		FastQueue<TupleDesc_F32> queries = createPoints(100);
+
+		KdForestBbf_F32 alg = new KdForestBbf_F32(DOF,20,4,5,1,234);
+		alg.setPoints(pointsA);
+		int[] expected = new int[queries.size];
+		for( int i = 0; i < queries.size; i++ ) {
+			alg.findNearest(queries.get(i).value,-1);
+			expected[i] = alg.getBestIndex();
+		}
+
+		alg.setPoints(pointsB);
+		alg.setPoints(pointsA);
+		for( int i = 0; i < queries.size; i++ ) {
+			alg.findNearest(queries.get(i).value,-1);
+			assertEquals(expected[i],alg.getBestIndex());
+		}
+	}
+
+	/**
+	 * Identical points can't be split.  Make sure it handles that case
+	 */
+	@Test
+	public void identicalPoints() {
+		FastQueue<TupleDesc_F32> points = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class,false);
+		TupleDesc_F32 p = createPoint();
+		for( int i = 0; i < 50; i++ ) {
+			points.add(p.copy());
+		}
+
+		KdForestBbf_F32 alg = new KdForestBbf_F32(DOF,10,3,5,1,234);
+		alg.setPoints(points);
+		assertTrue(alg.findNearest(p.value, -1));
+		assertEquals(0,alg.getBestDistance(),1e-4f);
+	}
+
+	@Test
+	public void noPoints() {
+		KdForestBbf_F32 alg = new KdForestBbf_F32(DOF,10,3,5,1,234);
+		alg.setPoints(new FastQueue<TupleDesc_F32>(TupleDesc_F32.class,false));
+		assertFalse(alg.findNearest(createPoint().value, -1));
+	}
+
+	private FastQueue<TupleDesc_F32> createPoints( int N ) {
+		FastQueue<TupleDesc_F32> points = new FastQueue<TupleDesc_F32>(TupleDesc_F32.class,false);
+		for( int i = 0; i < N; i++ ) {
+			points.add(createPoint());
+		}
+		return points;
+	}
+
+	private TupleDesc_F32 createPoint() {
+		TupleDesc_F32 p = new TupleDesc_F32(DOF);
+		for( int j = 0; j < DOF; j++ ) {
+			p.value[j] = rand.nextFloat();
+		}
+		return p;
+	}
+
+	private static int bruteForce( FastQueue<TupleDesc_F32> points , TupleDesc_F32 query ) {
+		int best = -1;
+		float bestDistance = Float.MAX_VALUE;
+		for( int i = 0; i < points.size; i++ ) {
+			float d = distance(points.get(i),query);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private static float distance( TupleDesc_F32 a , TupleDesc_F32 b ) {
+		float total = 0;
+		for( int i = 0; i < a.value.length; i++ ) {
+			float d = a.value[i] - b.value[i];
+			total += d*d;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate.nn;
+
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMultiIndexHashing_B {
+
+	Random rand = new Random(234);
+
+	int NUM_BITS = 512;
+
+	/**
+	 * Any descriptor within numTables*(probeRadius+1)-1 of the query must be found, which makes the
+	 * search exact when the best match is inside that radius.
+	 */
+	@Test
+	public void exactInsideGuaranteedRadius() {
+		for( int probeRadius = 0; probeRadius <= 2; probeRadius++ ) {
+			MultiIndexHashing_B alg = new MultiIndexHashing_B(NUM_BITS,16,12,probeRadius,234);
+			List<TupleDesc_B> points = createPoints(500);
+			for( TupleDesc_B p : points ) {
+				alg.insert(p);
+			}
+
+			int maxFlips = 16*(probeRadius+1)-1;
+			for( int trial = 0; trial < 100; trial++ ) {
+				int target = rand.nextInt(points.size());
+				TupleDesc_B query = flipBits(points.get(target),rand.nextInt(maxFlips+1));
+
+				assertTrue(alg.findNearest(query,-1));
+				assertEquals(target,alg.getBestId());
+				assertEquals(DescriptorDistance.hamming(query,points.get(target)),alg.getBestDistance());
+			}
+		}
+	}
+
+	/**
+	 * Far away descriptors which don't share any buckets should not be found
+	 */
+	@Test
+	public void noCandidates() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(64,2,8,0,234);
+		TupleDesc_B a = new TupleDesc_B(64);
+		alg.insert(a);
+
+		TupleDesc_B b = new TupleDesc_B(64);
+		b.data[0] = b.data[1] = 0xFFFFFFFF;
+		assertFalse(alg.findNearest(b,-1));
+		assertTrue(alg.findNearest(a,-1));
+	}
+
+	@Test
+	public void threshold() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(NUM_BITS,16,12,1,234);
+		TupleDesc_B a = createPoint();
+		alg.insert(a);
+		TupleDesc_B query = flipBits(a,5);
+
+		assertFalse(alg.findNearest(query,4));
+		assertTrue(alg.findNearest(query,5));
+		assertEquals(5,alg.getBestDistance());
+		assertTrue(alg.findNearest(query,-1));
+	}
+
+	/**
+	 * Removed descriptors should not be found and their IDs reused
+	 */
+	@Test
+	public void insertRemove() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(NUM_BITS,16,12,1,234);
+		List<TupleDesc_B> points = createPoints(100);
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(i,alg.insert(points.get(i)));
+		}
+		assertEquals(100,alg.size());
+
+		// remove every other descriptor
+		for( int i = 0; i < points.size(); i += 2 ) {
+			alg.remove(i);
+			assertFalse(alg.isActive(i));
+		}
+		assertEquals(50,alg.size());
+
+		for( int i = 0; i < points.size(); i++ ) {
+			boolean found = alg.findNearest(points.get(i),0);
+			assertEquals(i % 2 == 1, found);
+			if( found )
+				assertEquals(i,alg.getBestId());
+		}
+
+		// IDs should be recycled
+		TupleDesc_B p = createPoint();
+		int id = alg.insert(p);
+		assertTrue(id % 2 == 0 && id < 100);
+		assertTrue(alg.findNearest(p,0));
+		assertEquals(id,alg.getBestId());
+
+		TupleDesc_B copy = new TupleDesc_B(NUM_BITS);
+		alg.getDescriptor(id,copy);
+		assertEquals(0,DescriptorDistance.hamming(p,copy));
+
+		// remove everything and make sure the buckets are empty
+		for( int i = 0; i < alg.getNumIds(); i++ ) {
+			if( alg.isActive(i) )
+				alg.remove(i);
+		}
+		assertEquals(0,alg.size());
+		for( TupleDesc_B q : points ) {
+			assertFalse(alg.findNearest(q,-1));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void remove_notActive() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(NUM_BITS,16,12,1,234);
+		alg.insert(createPoint());
+		alg.remove(0);
+		alg.remove(0);
+	}
+
+	@Test
+	public void clear() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(NUM_BITS,16,12,1,234);
+		List<TupleDesc_B> points = createPoints(50);
+		for( TupleDesc_B p : points ) {
+			alg.insert(p);
+		}
+		alg.remove(3);
+		alg.clear();
+		assertEquals(0,alg.size());
+		assertEquals(0,alg.getNumIds());
+		assertFalse(alg.findNearest(points.get(0),-1));
+
+		// IDs start from zero again
+		assertEquals(0,alg.insert(points.get(5)));
+		assertTrue(alg.findNearest(points.get(5),0));
+		assertEquals(0,alg.getBestId());
+	}
+
+	/**
+	 * Descriptor with a number of bits which isn't a multiple of 32
+	 */
+	@Test
+	public void oddNumberOfBits() {
+		MultiIndexHashing_B alg = new MultiIndexHashing_B(40,4,10,1,234);
+		TupleDesc_B a = new TupleDesc_B(40);
+		TupleDesc_B b = new TupleDesc_B(40);
+		a.data[0] = 0x0F0F0F0F; a.data[1] = 0x01;
+		b.data[0] = 0x0F0F0F0F; b.data[1] = 0xF0;
+		alg.insert(a);
+		alg.insert(b);
+
+		TupleDesc_B query = new TupleDesc_B(40);
+		query.data[0] = 0x0F0F0F0F; query.data[1] = 0xE0;
+		assertTrue(alg.findNearest(query,-1));
+		assertEquals(1,alg.getBestId());
+		assertEquals(1,alg.getBestDistance());
+	}
+
+	private List<TupleDesc_B> createPoints( int N ) {
+		List<TupleDesc_B> points = new ArrayList<TupleDesc_B>();
+		for( int i = 0; i < N; i++ ) {
+			points.add(createPoint());
+		}
+		return points;
+	}
+
+	private TupleDesc_B createPoint() {
+		TupleDesc_B p = new TupleDesc_B(NUM_BITS);
+		for( int i = 0; i < p.data.length; i++ ) {
+			p.data[i] = rand.nextInt();
+		}
+		return p;
+	}
+
+	private TupleDesc_B flipBits( TupleDesc_B p , int numFlips ) {
+		TupleDesc_B ret = p.copy();
+		int bits[] = new int[p.numBits];
+		for( int i = 0; i < bits.length; i++ )
+			bits[i] = i;
+		for( int i = 0; i < numFlips; i++ ) {
+			int j = i + rand.nextInt(bits.length-i);
+			int bit = bits[j]; bits[j] = bits[i]; bits[i] = bit;
+			ret.data[bit/32] ^= 1 << (bit%32);
+		}
+		return ret;
+	}
+}
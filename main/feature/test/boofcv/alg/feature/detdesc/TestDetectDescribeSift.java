@@ -18,18 +18,29 @@
 
 package boofcv.alg.feature.detdesc;
 
+import boofcv.abst.feature.describe.ConfigSiftScaleSpace;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detect.interest.SiftDetector;
 import boofcv.alg.feature.detect.interest.SiftImageScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageFloat32;
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
  * High level functionality is tested by {@link boofcv.abst.feature.detdesc.TestWrapDetectDescribeSift}.
- * Only very basic accessor tests are here.
+ * Only very basic accessor tests and a comparison against memory bounded mode are here.
  *
  * @author Peter Abeles
  */
@@ -70,4 +81,39 @@ public class TestDetectDescribeSift {
 	public void getLocation() {
 		assertTrue(alg.location == alg.getLocation());
 	}
+
+	/**
+	 * The same features should be found when the scale-space is memory bounded
+	 */
+	@Test
+	public void memoryBounded() {
+		ImageFloat32 input = new ImageFloat32(150,120);
+		ImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+		input = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		ConfigSiftScaleSpace configSS = new ConfigSiftScaleSpace();
+		ConfigSiftDetector configDetector = new ConfigSiftDetector(2, 0.1f, -1, 5);
+		DetectDescribePoint<ImageFloat32,SurfFeature> expected =
+				FactoryDetectDescribe.sift(configSS, configDetector, null, null);
+		configSS.memoryBudget = Long.MAX_VALUE;
+		DetectDescribePoint<ImageFloat32,SurfFeature> found =
+				FactoryDetectDescribe.sift(configSS, configDetector, null, null);
+
+		expected.detect(input);
+		found.detect(input);
+
+		assertTrue(expected.getNumberOfFeatures() > 10);
+		assertEquals(expected.getNumberOfFeatures(), found.getNumberOfFeatures());
+		for( int i = 0; i < expected.getNumberOfFeatures(); i++ ) {
+			assertEquals(expected.getLocation(i).x, found.getLocation(i).x, 0);
+			assertEquals(expected.getLocation(i).y, found.getLocation(i).y, 0);
+			assertEquals(expected.getOrientation(i), found.getOrientation(i), 0);
+
+			SurfFeature a = expected.getDescription(i);
+			SurfFeature b = found.getDescription(i);
+			for( int j = 0; j < a.size(); j++ ) {
+				assertEquals(a.value[j], b.value[j], 0);
+			}
+		}
+	}
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectDescribeSift_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Should produce the same features in the same order as the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		ImageFloat32 input = new ImageFloat32(150,120);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		input = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		ConfigSiftDetector config = new ConfigSiftDetector(2, 0.1f, -1, 5);
+		DetectDescribePoint<ImageFloat32,SurfFeature> expected = FactoryDetectDescribe.sift(null, config, null, null);
+		config.concurrent = true;
+		DetectDescribePoint<ImageFloat32,SurfFeature> found = FactoryDetectDescribe.sift(null, config, null, null);
+
+		expected.detect(input);
+		// process twice to make sure old results are discarded
+		found.detect(input);
+		found.detect(input);
+
+		assertTrue(expected.getNumberOfFeatures() > 10);
+		assertEquals(expected.getNumberOfFeatures(), found.getNumberOfFeatures());
+		for( int i = 0; i < expected.getNumberOfFeatures(); i++ ) {
+			assertEquals(expected.getLocation(i).x, found.getLocation(i).x, 0);
+			assertEquals(expected.getLocation(i).y, found.getLocation(i).y, 0);
+			assertEquals(expected.getScale(i), found.getScale(i), 0);
+			assertEquals(expected.getOrientation(i), found.getOrientation(i), 0);
+
+			SurfFeature a = expected.getDescription(i);
+			SurfFeature b = found.getDescription(i);
+			assertEquals(a.laplacianPositive, b.laplacianPositive);
+			for( int j = 0; j < a.size(); j++ ) {
+				assertEquals(a.value[j], b.value[j], 0);
+			}
+		}
+	}
+}
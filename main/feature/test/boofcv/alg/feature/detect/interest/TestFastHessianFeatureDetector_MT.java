@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.core.image.ConvertImage;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastHessianFeatureDetector_MT extends GenericFeatureDetector {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	public TestFastHessianFeatureDetector_MT() {
+		this.scaleTolerance = 0.3;
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	protected Object createDetector( int maxFeatures ) {
+		return new FastHessianFeatureDetector_MT(createFactory(),maxFeatures, 1, 9,4,4);
+	}
+
+	@SuppressWarnings({"unchecked"})
+	@Override
+	protected int detectFeature(ImageFloat32 input, Object detector) {
+		FastHessianFeatureDetector<ImageFloat32> alg = (FastHessianFeatureDetector<ImageFloat32>)detector;
+		ImageFloat32 integral = IntegralImageOps.transform(input,null);
+		alg.detect(integral);
+
+		return alg.getFoundPoints().size();
+	}
+
+	/**
+	 * Features and their order must be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSerial() {
+		ImageUInt8 input = new ImageUInt8(200,180);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		for( int i = 0; i < 40; i++ ) {
+			int x = rand.nextInt(190), y = rand.nextInt(170);
+			ImageMiscOps.fillRectangle(input, 150+rand.nextInt(100), x, y, 3+rand.nextInt(10), 3+rand.nextInt(10));
+		}
+
+		ImageSInt32 integralS32 = IntegralImageOps.transform(input,null);
+		ImageFloat32 integralF32 = new ImageFloat32(input.width,input.height);
+		ImageFloat32 inputF32 = new ImageFloat32(input.width,input.height);
+		ConvertImage.convert(input,inputF32);
+		IntegralImageOps.transform(inputF32,integralF32);
+
+		for( int maxFeatures : new int[]{-1,5} ) {
+			for( int skip = 1; skip <= 2; skip++ ) {
+				compareToSerial(integralS32, maxFeatures, skip);
+				compareToSerial(integralF32, maxFeatures, skip);
+			}
+		}
+	}
+
+	private <II extends ImageSingleBand> void compareToSerial( II integral , int maxFeatures , int skip ) {
+		FastHessianFeatureDetector<II> serial = new FastHessianFeatureDetector<II>(
+				createFactory().create(), maxFeatures, skip, 9, 4, 4);
+		FastHessianFeatureDetector_MT<II> concurrent = new FastHessianFeatureDetector_MT<II>(
+				createFactory(), maxFeatures, skip, 9, 4, 4);
+
+		serial.detect(integral);
+
+		// process it twice to make sure the internal state is correctly reset
+		for( int trial = 0; trial < 2; trial++ ) {
+			concurrent.detect(integral);
+
+			List<ScalePoint> expected = serial.getFoundPoints();
+			List<ScalePoint> found = concurrent.getFoundPoints();
+
+			assertTrue(expected.size() > 0);
+			assertEquals(expected.size(), found.size());
+			for( int i = 0; i < expected.size(); i++ ) {
+				ScalePoint e = expected.get(i);
+				ScalePoint f = found.get(i);
+				assertEquals(e.x, f.x, 0);
+				assertEquals(e.y, f.y, 0);
+				assertEquals(e.scale, f.scale, 0);
+			}
+		}
+	}
+
+	private WorkerFactory<NonMaxSuppression> createFactory() {
+		return new WorkerFactory<NonMaxSuppression>() {
+			@Override
+			public NonMaxSuppression create() {
+				return FactoryFeatureExtractor.nonmax(new ConfigExtract(1, 1, 5, true));
+			}
+		};
+	}
+}
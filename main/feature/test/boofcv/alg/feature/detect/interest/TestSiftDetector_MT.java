@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageFloat32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSiftDetector_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Should find the same features in the same order as the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(-1);
+		compareToSingle(20);
+	}
+
+	private void compareToSingle( int maxFeaturesPerScale ) {
+		ImageFloat32 input = new ImageFloat32(150,120);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		input = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		SiftImageScaleSpace ss = new SiftImageScaleSpace(1.6f, 5, 3, false);
+		ss.constructPyramid(input);
+		ss.computeFeatureIntensity();
+
+		ConfigSiftDetector config = new ConfigSiftDetector(2, 0.1f, maxFeaturesPerScale, 5);
+		SiftDetector expected = FactoryInterestPointAlgs.siftDetector(config);
+		config.concurrent = true;
+		SiftDetector found = FactoryInterestPointAlgs.siftDetector(config);
+		assertTrue(found instanceof SiftDetector_MT);
+
+		expected.process(ss);
+		// process twice to make sure old results are discarded
+		found.process(ss);
+		found.process(ss);
+
+		FastQueue<ScalePoint> listA = expected.getFoundPoints();
+		FastQueue<ScalePoint> listB = found.getFoundPoints();
+
+		assertTrue(listA.size > 10);
+		assertEquals(listA.size, listB.size);
+		for( int i = 0; i < listA.size; i++ ) {
+			ScalePoint a = listA.get(i);
+			ScalePoint b = listB.get(i);
+
+			assertEquals(a.x, b.x, 0);
+			assertEquals(a.y, b.y, 0);
+			assertEquals(a.scale, b.scale, 0);
+			assertEquals(a.white, b.white);
+		}
+	}
+}
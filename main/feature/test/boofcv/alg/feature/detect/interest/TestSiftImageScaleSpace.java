@@ -192,4 +192,86 @@ public class TestSiftImageScaleSpace {
 			assertEquals(sum1,sum2,1e-6);
 		}
 	}
+
+	/**
+	 * In memory bounded mode the DOG and derivative images should be identical to the images in the regular mode
+	 */
+	@Test
+	public void memoryBounded_sameImages() {
+		memoryBounded_sameImages(false);
+		memoryBounded_sameImages(true);
+	}
+
+	private void memoryBounded_sameImages( boolean doubleInput ) {
+		ImageFloat32 input = new ImageFloat32(60,70);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SiftImageScaleSpace expected = new SiftImageScaleSpace(1.6f, 5, 4, doubleInput);
+		SiftImageScaleSpace found = new SiftImageScaleSpace(1.6f, 5, 4, doubleInput, Long.MAX_VALUE);
+		assertTrue(found.isMemoryBounded());
+
+		expected.constructPyramid(input);
+		expected.computeFeatureIntensity();
+		expected.computeDerivatives();
+
+		found.constructPyramid(input);
+		found.computeFeatureIntensity();
+		found.computeDerivatives();
+
+		int numDog = expected.actualOctaves*(expected.numScales-1);
+		for( int i = 0; i < numDog; i++ ) {
+			BoofTesting.assertEquals(expected.getDifferenceOfGaussian(i), found.getDifferenceOfGaussian(i), 0);
+		}
+		int numLayers = expected.actualOctaves*expected.numScales;
+		for( int i = 0; i < numLayers; i++ ) {
+			BoofTesting.assertEquals(expected.getPyramidLayer(i), found.getPyramidLayer(i), 0);
+			BoofTesting.assertEquals(expected.getDerivativeX(i), found.getDerivativeX(i), 0);
+			BoofTesting.assertEquals(expected.getDerivativeY(i), found.getDerivativeY(i), 0);
+		}
+	}
+
+	/**
+	 * Derivatives should only be computed when requested and the budget should never be exceeded
+	 */
+	@Test
+	public void memoryBounded_budget() {
+		ImageFloat32 input = new ImageFloat32(60,70);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SiftImageScaleSpace regular = new SiftImageScaleSpace(1.6f, 5, 4, false);
+		regular.constructPyramid(input);
+		regular.computeFeatureIntensity();
+		regular.computeDerivatives();
+
+		long budget = regular.computeMinimumBytes(input.width, input.height);
+		SiftImageScaleSpace alg = new SiftImageScaleSpace(1.6f, 5, 4, false, budget);
+
+		// process twice to make sure old derivatives are handled correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			alg.constructPyramid(input);
+			alg.computeFeatureIntensity();
+			alg.computeDerivatives();
+
+			long beforeDerivatives = alg.getBytesUsed();
+			assertTrue(beforeDerivatives <= budget);
+			assertTrue(beforeDerivatives < regular.getBytesUsed());
+
+			// only enough memory for the derivatives of one layer at a time
+			for( int i = 0; i < alg.actualOctaves*alg.numScales; i++ ) {
+				BoofTesting.assertEquals(regular.getDerivativeX(i), alg.getDerivativeX(i), 0);
+				BoofTesting.assertEquals(regular.getDerivativeY(i), alg.getDerivativeY(i), 0);
+				assertTrue(alg.getBytesUsed() <= budget);
+			}
+			assertTrue(alg.getPeakBytes() <= budget);
+			assertTrue(alg.getPeakBytes() >= beforeDerivatives);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void memoryBounded_tooSmall() {
+		ImageFloat32 input = new ImageFloat32(60,70);
+
+		SiftImageScaleSpace alg = new SiftImageScaleSpace(1.6f, 5, 4, false, 1000);
+		alg.constructPyramid(input);
+	}
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSiftImageScaleSpace_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Every image in the scale-space should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(false, 4);
+		compareToSingle(true, 4);
+		// the last octaves will be too small
+		compareToSingle(false, 6);
+	}
+
+	private void compareToSingle( boolean doubleInput , int numOctaves ) {
+		ImageFloat32 input = new ImageFloat32(80,70);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SiftImageScaleSpace expected = new SiftImageScaleSpace(1.6f, 5, numOctaves, doubleInput);
+		SiftImageScaleSpace_MT found = new SiftImageScaleSpace_MT(1.6f, 5, numOctaves, doubleInput);
+
+		// process twice to make sure it can handle changing images
+		for( int trial = 0; trial < 2; trial++ ) {
+			expected.constructPyramid(input);
+			expected.computeFeatureIntensity();
+			expected.computeDerivatives();
+
+			found.constructPyramid(input);
+			found.computeFeatureIntensity();
+			found.computeDerivatives();
+
+			assertEquals(expected.actualOctaves, found.actualOctaves);
+
+			int numLayers = expected.actualOctaves*expected.numScales;
+			for( int i = 0; i < numLayers; i++ ) {
+				BoofTesting.assertEquals(expected.getPyramidLayer(i), found.getPyramidLayer(i), 0);
+				BoofTesting.assertEquals(expected.getDerivativeX(i), found.getDerivativeX(i), 0);
+				BoofTesting.assertEquals(expected.getDerivativeY(i), found.getDerivativeY(i), 0);
+			}
+			int numDog = expected.actualOctaves*(expected.numScales-1);
+			for( int i = 0; i < numDog; i++ ) {
+				BoofTesting.assertEquals(expected.dog[i], found.dog[i], 0);
+			}
+
+			input = new ImageFloat32(60,90);
+			ImageMiscOps.fillUniform(input, rand, 0, 100);
+		}
+	}
+}
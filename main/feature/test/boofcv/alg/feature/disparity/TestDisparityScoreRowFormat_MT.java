@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDisparityScoreRowFormat_MT {
+
+	Random rand = new Random(234);
+
+	Class imageTypes[] = new Class[]{ImageUInt8.class,ImageSInt16.class,ImageFloat32.class};
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Compare the results against the single threaded version for several image sizes.  Includes images which
+	 * are too small to be split up.
+	 */
+	@Test
+	public void compareToSerial() {
+		for( Class type : imageTypes ) {
+			for( DisparityAlgorithms which : DisparityAlgorithms.values() ) {
+				compareToSerial(which, type, 60, 80, 0, 12, 2, 2);
+				compareToSerial(which, type, 45, 31, 3, 10, 3, 1);
+				compareToSerial(which, type, 40, 9, 0, 10, 2, 2);
+				compareToSerial(which, type, 30, 4, 0, 8, 1, 1);
+			}
+		}
+	}
+
+	private void compareToSerial( DisparityAlgorithms which , Class type , int width , int height ,
+								  int minDisparity , int maxDisparity , int radiusX , int radiusY ) {
+		ImageSingleBand left = createImage(type, width, height);
+		ImageSingleBand right = createImage(type, width, height);
+
+		StereoDisparity serial = FactoryStereoDisparity.regionWta(which, minDisparity, maxDisparity,
+				radiusX, radiusY, 2, 1, 0.1, type);
+		StereoDisparity concurrent = FactoryStereoDisparity.regionWta_MT(which, minDisparity, maxDisparity,
+				radiusX, radiusY, 2, 1, 0.1, type);
+
+		serial.process(left, right);
+		concurrent.process(left, right);
+		BoofTesting.assertEquals(serial.getDisparity(), concurrent.getDisparity(), 0);
+
+		serial = FactoryStereoDisparity.regionSubpixelWta(which, minDisparity, maxDisparity,
+				radiusX, radiusY, 2, 1, 0.1, type);
+		concurrent = FactoryStereoDisparity.regionSubpixelWta_MT(which, minDisparity, maxDisparity,
+				radiusX, radiusY, 2, 1, 0.1, type);
+
+		serial.process(left, right);
+		concurrent.process(left, right);
+		BoofTesting.assertEquals(serial.getDisparity(), concurrent.getDisparity(), 0);
+	}
+
+	/**
+	 * The same instance is used to process images of different sizes
+	 */
+	@Test
+	public void changeImageSize() {
+		StereoDisparity<ImageUInt8,ImageUInt8> serial = FactoryStereoDisparity.regionWta(
+				DisparityAlgorithms.RECT_FIVE, 0, 10, 2, 2, 2, 1, 0.1, ImageUInt8.class);
+		StereoDisparity<ImageUInt8,ImageUInt8> concurrent = FactoryStereoDisparity.regionWta_MT(
+				DisparityAlgorithms.RECT_FIVE, 0, 10, 2, 2, 2, 1, 0.1, ImageUInt8.class);
+
+		int sizes[][] = new int[][]{{60,70},{35,50},{80,90}};
+		for( int[] s : sizes ) {
+			ImageUInt8 left = (ImageUInt8)createImage(ImageUInt8.class, s[0], s[1]);
+			ImageUInt8 right = (ImageUInt8)createImage(ImageUInt8.class, s[0], s[1]);
+
+			serial.process(left, right);
+			concurrent.process(left, right);
+			BoofTesting.assertEquals(serial.getDisparity(), concurrent.getDisparity(), 0);
+		}
+	}
+
+	/**
+	 * Input and output images are sub-images
+	 */
+	@Test
+	public void subimage() {
+		DisparityScoreRowFormat_MT<ImageUInt8,ImageUInt8> alg = (DisparityScoreRowFormat_MT)
+				((boofcv.abst.feature.disparity.WrapDisparitySadRect)FactoryStereoDisparity.regionWta_MT(
+						DisparityAlgorithms.RECT, 0, 10, 2, 2, 2, 1, 0.1, ImageUInt8.class)).getAlg();
+
+		ImageUInt8 left = (ImageUInt8)createImage(ImageUInt8.class, 50, 60);
+		ImageUInt8 right = (ImageUInt8)createImage(ImageUInt8.class, 50, 60);
+		ImageUInt8 disparity = new ImageUInt8(50,60);
+
+		BoofTesting.checkSubImage(this, "checkSubImage", true, alg, left, right, disparity);
+	}
+
+	public void checkSubImage( DisparityScoreRowFormat_MT<ImageUInt8,ImageUInt8> alg ,
+							   ImageUInt8 left , ImageUInt8 right , ImageUInt8 disparity ) {
+		ImageUInt8 expected = disparity.clone();
+		alg.prototype.process(left.clone(), right.clone(), expected);
+
+		alg.process(left, right, disparity);
+		BoofTesting.assertEquals(expected, disparity, 0);
+	}
+
+	private ImageSingleBand createImage( Class type , int width , int height ) {
+		ImageSingleBand image = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(image, rand, 0, 30);
+		return image;
+	}
+}
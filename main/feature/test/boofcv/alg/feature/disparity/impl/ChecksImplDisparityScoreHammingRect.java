@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.alg.transform.census.CensusType;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public abstract class ChecksImplDisparityScoreHammingRect<Census extends ImageSingleBand> {
+
+	Random rand = new Random(234);
+
+	CensusType type;
+	Class<Census> censusType;
+
+	protected ChecksImplDisparityScoreHammingRect(CensusType type, Class<Census> censusType) {
+		this.type = type;
+		this.censusType = censusType;
+	}
+
+	protected abstract DisparityScoreRowFormat<Census,ImageUInt8>
+	createAlg( int minDisparity , int maxDisparity , int radiusX, int radiusY, DisparitySelect<int[],ImageUInt8> select);
+
+	/**
+	 * Compare against a brute force implementation which uses the Hamming distance
+	 */
+	@Test
+	public void compareToNaive() {
+		int w = 20, h = 25;
+		ImageUInt8 left = new ImageUInt8(w,h);
+		ImageUInt8 right = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		Census censusLeft = GeneralizedImageOps.createSingleBand(censusType,w,h);
+		Census censusRight = GeneralizedImageOps.createSingleBand(censusType,w,h);
+		CensusTransform.transform(left, type, censusLeft);
+		CensusTransform.transform(right, type, censusRight);
+
+		compareToNaive(censusLeft, censusRight, 0, 10, 3, 2);
+		compareToNaive(censusLeft, censusRight, 4, 10, 3, 2);
+	}
+
+	private void compareToNaive( Census left , Census right ,
+								 int minDisparity, int maxDisparity,
+								 int radiusX, int radiusY)
+	{
+		int w = left.width;
+		int h = left.height;
+
+		DisparityScoreRowFormat<Census,ImageUInt8> alg =
+				createAlg(minDisparity,maxDisparity,radiusX,radiusY,new ImplSelectRectBasicWta_S32_U8());
+		StereoDisparityWtoNaive<Census> naive =
+				new StereoDisparityWtoNaive<Census>(minDisparity,maxDisparity,radiusX,radiusY) {
+					@Override
+					protected double computeScore(int leftX, int rightX, int centerY) {
+						int ret = 0;
+						for( int y = -radiusY; y <= radiusY; y++ ) {
+							for( int x = -radiusX; x <= radiusX; x++ ) {
+								ret += DescriptorDistance.hamming(
+										value(imageLeft,leftX+x,centerY+y) ^ value(imageRight,rightX+x,centerY+y));
+							}
+						}
+						return ret;
+					}
+				};
+
+		ImageUInt8 found = new ImageUInt8(w,h);
+		ImageFloat32 expected = new ImageFloat32(w,h);
+
+		alg.process(left,right,found);
+		naive.process(left,right,expected);
+
+		BoofTesting.assertEquals(found, expected, 0);
+	}
+
+	private static long value( ImageSingleBand image , int x , int y ) {
+		if( image instanceof ImageSInt64 )
+			return ((ImageSInt64)image).get(x,y);
+		else
+			return ((ImageSInt32)image).get(x,y);
+	}
+
+	/**
+	 * The right image is a shifted copy of the left image with a different gain and bias.  SAD would fail
+	 * but the census transform is invariant to those changes
+	 */
+	@Test
+	public void invariantToGainAndBias() {
+		int w = 40, h = 30;
+		int disparity = 5;
+		ImageUInt8 left = new ImageUInt8(w,h);
+		ImageUInt8 right = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(left, rand, 0, 100);
+
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				int xx = Math.min(w-1,x+disparity);
+				right.set(x,y,left.get(xx,y)*2+30);
+			}
+		}
+
+		Census censusLeft = GeneralizedImageOps.createSingleBand(censusType,w,h);
+		Census censusRight = GeneralizedImageOps.createSingleBand(censusType,w,h);
+		CensusTransform.transform(left, type, censusLeft);
+		CensusTransform.transform(right, type, censusRight);
+
+		DisparityScoreRowFormat<Census,ImageUInt8> alg =
+				createAlg(0,10,2,2,new ImplSelectRectBasicWta_S32_U8());
+		ImageUInt8 found = new ImageUInt8(w,h);
+		alg.process(censusLeft,censusRight,found);
+
+		int border = 2 + Math.max(type.getRadiusX(),type.getRadiusY());
+		for( int y = border; y < h-border; y++ ) {
+			for( int x = border+10; x < w-border-disparity; x++ ) {
+				assertEquals(disparity,found.get(x,y));
+			}
+		}
+	}
+}
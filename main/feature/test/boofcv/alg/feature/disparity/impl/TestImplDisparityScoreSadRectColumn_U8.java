@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplDisparityScoreSadRectColumn_U8 extends ChecksImplDisparityScoreSadRect<ImageUInt8,ImageUInt8> {
+
+	public TestImplDisparityScoreSadRectColumn_U8() {
+		super(ImageUInt8.class, ImageUInt8.class);
+	}
+
+	@Override
+	protected DisparityScoreSadRect<ImageUInt8, ImageUInt8>
+	createAlg(int minDisparity, int maxDisparity, int radiusX, int radiusY, DisparitySelect compDisp) {
+		return new ImplDisparityScoreSadRectColumn_U8<ImageUInt8>(minDisparity,maxDisparity,radiusX,radiusY,compDisp);
+	}
+
+	/**
+	 * Should produce exactly the same results as the row based implementation
+	 */
+	@Test
+	public void compareToRowImplementation() {
+		ImageUInt8 left = new ImageUInt8(70,45);
+		ImageUInt8 right = new ImageUInt8(70,45);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		int configs[][] = new int[][]{{0,10,2,2},{4,20,3,1},{0,30,1,3}};
+
+		for( int[] c : configs ) {
+			ImplSelectRectStandard_S32_U8 selectA = new ImplSelectRectStandard_S32_U8(-1,2,0.1);
+			ImplSelectRectStandard_S32_U8 selectB = new ImplSelectRectStandard_S32_U8(-1,2,0.1);
+			ImplDisparityScoreSadRect_U8<ImageUInt8> expected =
+					new ImplDisparityScoreSadRect_U8<ImageUInt8>(c[0],c[1],c[2],c[3],selectA);
+			ImplDisparityScoreSadRectColumn_U8<ImageUInt8> alg =
+					new ImplDisparityScoreSadRectColumn_U8<ImageUInt8>(c[0],c[1],c[2],c[3],selectB);
+
+			ImageUInt8 foundExpected = new ImageUInt8(left.width,left.height);
+			ImageUInt8 found = new ImageUInt8(left.width,left.height);
+			expected.process(left,right,foundExpected);
+			alg.process(left,right,found);
+			BoofTesting.assertEquals(foundExpected,found,0);
+
+			SelectRectSubpixel.S32_F32 subA = new SelectRectSubpixel.S32_F32(-1,2,0.1);
+			SelectRectSubpixel.S32_F32 subB = new SelectRectSubpixel.S32_F32(-1,2,0.1);
+			ImplDisparityScoreSadRect_U8<ImageFloat32> expectedSub =
+					new ImplDisparityScoreSadRect_U8<ImageFloat32>(c[0],c[1],c[2],c[3],subA);
+			ImplDisparityScoreSadRectColumn_U8<ImageFloat32> algSub =
+					new ImplDisparityScoreSadRectColumn_U8<ImageFloat32>(c[0],c[1],c[2],c[3],subB);
+
+			ImageFloat32 foundExpectedSub = new ImageFloat32(left.width,left.height);
+			ImageFloat32 foundSub = new ImageFloat32(left.width,left.height);
+			expectedSub.process(left,right,foundExpectedSub);
+			algSub.process(left,right,foundSub);
+			BoofTesting.assertEquals(foundExpectedSub,foundSub,0);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostCensus {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void computeRow() {
+		int w = 30, h = 12;
+		ImageUInt8 left = new ImageUInt8(w,h);
+		ImageUInt8 right = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		ImageSInt32 censusLeft = new ImageSInt32(w,h);
+		ImageSInt32 censusRight = new ImageSInt32(w,h);
+		CensusTransform.region(left,2,censusLeft);
+		CensusTransform.region(right,2,censusRight);
+
+		int minDisparity = 3, range = 10;
+		SgmCostCensus alg = new SgmCostCensus(2);
+		alg.configure(minDisparity,range);
+		alg.setImages(left,right);
+
+		short cost[] = new short[w*range];
+		for( int y = 0; y < h; y++ ) {
+			alg.computeRow(y,cost);
+
+			for( int x = 0; x < w; x++ ) {
+				for( int d = 0; d < range; d++ ) {
+					int xr = x - minDisparity - d;
+					int expected;
+					if( xr < 0 )
+						expected = SgmCostFunction.MAX_COST;
+					else
+						expected = Integer.bitCount(censusLeft.get(x,y) ^ censusRight.get(xr,y));
+					assertEquals(expected, cost[x*range+d]);
+				}
+			}
+		}
+	}
+}
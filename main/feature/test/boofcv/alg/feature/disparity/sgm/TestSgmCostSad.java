@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostSad {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void computeRow() {
+		int w = 30, h = 12;
+		ImageUInt8 left = new ImageUInt8(w,h);
+		ImageUInt8 right = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		for( int radius = 0; radius <= 2; radius++ ) {
+			int minDisparity = 2, range = 8;
+			SgmCostSad alg = new SgmCostSad(radius);
+			alg.configure(minDisparity,range);
+			alg.setImages(left,right);
+
+			short cost[] = new short[w*range];
+			for( int y = 0; y < h; y++ ) {
+				alg.computeRow(y,cost);
+
+				for( int x = 0; x < w; x++ ) {
+					for( int d = 0; d < range; d++ ) {
+						int expected = naive(left,right,x,y,minDisparity+d,radius);
+						assertEquals(expected, cost[x*range+d]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Internal storage should grow when a wider image is processed
+	 */
+	@Test
+	public void changeImageWidth() {
+		int minDisparity = 1, range = 5;
+		SgmCostSad alg = new SgmCostSad(1);
+		alg.configure(minDisparity,range);
+
+		for( int w : new int[]{10,25,15} ) {
+			ImageUInt8 left = new ImageUInt8(w,8);
+			ImageUInt8 right = new ImageUInt8(w,8);
+			ImageMiscOps.fillUniform(left, rand, 0, 255);
+			ImageMiscOps.fillUniform(right, rand, 0, 255);
+			alg.setImages(left,right);
+
+			short cost[] = new short[w*range];
+			alg.computeRow(3,cost);
+			for( int x = 0; x < w; x++ ) {
+				for( int d = 0; d < range; d++ ) {
+					assertEquals(naive(left,right,x,3,minDisparity+d,1), cost[x*range+d]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Very large errors should be truncated
+	 */
+	@Test
+	public void truncated() {
+		ImageUInt8 left = new ImageUInt8(20,10);
+		ImageUInt8 right = new ImageUInt8(20,10);
+		ImageMiscOps.fill(left, 255);
+
+		SgmCostSad alg = new SgmCostSad(3);
+		alg.configure(0,5);
+		alg.setImages(left,right);
+
+		short cost[] = new short[20*5];
+		alg.computeRow(5,cost);
+		for( int i = 0; i < cost.length; i++ )
+			assertEquals(SgmCostFunction.MAX_COST,cost[i]);
+	}
+
+	private int naive( ImageUInt8 left , ImageUInt8 right , int x , int y , int disparity , int radius ) {
+		if( x - disparity < 0 )
+			return SgmCostFunction.MAX_COST;
+
+		int sum = 0;
+		for( int i = -radius; i <= radius; i++ ) {
+			int yy = Math.min(left.height-1,Math.max(0,y+i));
+			for( int j = -radius; j <= radius; j++ ) {
+				int xx = Math.min(left.width-1,Math.max(disparity,x+j));
+				sum += Math.abs(left.get(xx,yy) - right.get(xx-disparity,yy));
+			}
+		}
+		return Math.min(SgmCostFunction.MAX_COST,sum);
+	}
+}
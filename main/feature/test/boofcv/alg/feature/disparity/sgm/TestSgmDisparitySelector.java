@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmDisparitySelector {
+
+	int width = 20;
+	int minDisparity = 2;
+	int range = 5;
+
+	/**
+	 * Creates costs where the specified disparity is the best at every pixel
+	 */
+	private short[] createCosts( int best ) {
+		short costs[] = new short[width*range];
+		for( int x = 0; x < width; x++ ) {
+			for( int d = 0; d < range; d++ ) {
+				costs[x*range+d] = (short)(10 + 10*Math.abs(d-best));
+			}
+		}
+		return costs;
+	}
+
+	@Test
+	public void simpleWta() {
+		SgmDisparitySelector alg = new SgmDisparitySelector(-1,0);
+		alg.configure(minDisparity,range);
+
+		ImageUInt8 disparity = new ImageUInt8(width,3);
+		alg.process(createCosts(3),width,1,disparity);
+
+		for( int x = 0; x < width; x++ ) {
+			int localRange = Math.min(range,x-minDisparity+1);
+			if( localRange <= 0 )
+				assertEquals(range+1,disparity.get(x,1));
+			else
+				assertEquals(Math.min(3,localRange-1),disparity.get(x,1));
+			// other rows should not be modified
+			assertEquals(0,disparity.get(x,0));
+			assertEquals(0,disparity.get(x,2));
+		}
+	}
+
+	@Test
+	public void uniqueness() {
+		short costs[] = createCosts(1);
+		// make a disparity which isn't adjacent to the best almost as good
+		costs[10*range+4] = 11;
+
+		SgmDisparitySelector alg = new SgmDisparitySelector(-1,0.2);
+		alg.configure(minDisparity,range);
+		ImageUInt8 disparity = new ImageUInt8(width,1);
+		alg.process(costs,width,0,disparity);
+
+		assertEquals(range+1,disparity.get(10,0));
+		assertEquals(1,disparity.get(11,0));
+
+		// turn off the test
+		alg = new SgmDisparitySelector(-1,0);
+		alg.configure(minDisparity,range);
+		alg.process(costs,width,0,disparity);
+		assertEquals(1,disparity.get(10,0));
+	}
+
+	@Test
+	public void rightToLeft() {
+		short costs[] = createCosts(1);
+
+		// pixel 12 in the left will match pixel 12-2-1 = 9 in the right
+		// make pixel 9 in the right prefer a different pixel in the left
+		Arrays.fill(costs, 14*range, 15*range, (short)50);
+		costs[14*range+3] = 0;
+
+		SgmDisparitySelector alg = new SgmDisparitySelector(1,0);
+		alg.configure(minDisparity,range);
+		ImageUInt8 disparity = new ImageUInt8(width,1);
+		alg.process(costs,width,0,disparity);
+
+		assertEquals(range+1,disparity.get(12,0));
+		assertEquals(1,disparity.get(13,0));
+
+		// a larger tolerance will let it pass
+		alg = new SgmDisparitySelector(2,0);
+		alg.configure(minDisparity,range);
+		alg.process(costs,width,0,disparity);
+		assertEquals(1,disparity.get(12,0));
+	}
+
+	@Test
+	public void subpixel() {
+		short costs[] = createCosts(2);
+		int x = 10;
+		costs[x*range+1] = 20;
+		costs[x*range+2] = 10;
+		costs[x*range+3] = 30;
+
+		SgmDisparitySelector alg = new SgmDisparitySelector(-1,0);
+		alg.configure(minDisparity,range);
+		ImageFloat32 disparity = new ImageFloat32(width,1);
+		alg.process(costs,width,0,disparity);
+
+		// symmetric cost so no offset
+		assertEquals(2,disparity.get(x+1,0),1e-4);
+		// vertex of the parabola
+		assertEquals(2 + (20.0-30.0)/(2*(20-20+30)),disparity.get(x,0),1e-4);
+		// invalid pixels
+		assertEquals(range+1,disparity.get(0,0),1e-4);
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmStereoDisparity {
+
+	Random rand = new Random(234);
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	/**
+	 * Compare against a brute force implementation which aggregates each path independently
+	 */
+	@Test
+	public void compareToNaive() {
+		ImageUInt8 left = new ImageUInt8(25,18);
+		ImageUInt8 right = new ImageUInt8(25,18);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		for( int paths : new int[]{4,8}) {
+			for( boolean streaming : new boolean[]{false,true}) {
+				compareToNaive(left, right, new SgmCostCensus(1), 1, 8, 2, 7, paths, streaming);
+				compareToNaive(left, right, new SgmCostSad(1), 0, 6, 100, 400, paths, streaming);
+			}
+		}
+	}
+
+	private void compareToNaive( ImageUInt8 left , ImageUInt8 right , SgmCostFunction<ImageUInt8> cost ,
+								 int minDisparity , int maxDisparity , int P1 , int P2 ,
+								 int paths , boolean streaming ) {
+		SgmStereoDisparity<ImageUInt8> alg = new SgmStereoDisparity<ImageUInt8>(cost,minDisparity,maxDisparity,
+				P1,P2,paths,streaming,-1,0);
+
+		ImageUInt8 found = new ImageUInt8(left.width,left.height);
+		alg.process(left, right, found);
+
+		ImageUInt8 expected = naive(left,right,cost,minDisparity,maxDisparity,P1,P2,paths,streaming);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Images with no rows should be processed without an error
+	 */
+	@Test
+	public void zeroHeight() {
+		ImageUInt8 left = new ImageUInt8(20,0);
+		ImageUInt8 right = new ImageUInt8(20,0);
+		ImageUInt8 found = new ImageUInt8(20,0);
+
+		for( boolean streaming : new boolean[]{false,true}) {
+			SgmStereoDisparity<ImageUInt8> alg = new SgmStereoDisparity<ImageUInt8>(new SgmCostSad(1),0,6,
+					100,400,8,streaming,-1,0);
+			alg.process(left, right, found);
+		}
+	}
+
+	/**
+	 * Right image is the left image shifted by a known amount
+	 */
+	@Test
+	public void knownDisparity() {
+		int w = 80, h = 60;
+		int minDisparity = 2, maxDisparity = 20, truth = 9;
+
+		ImageUInt8 left = new ImageUInt8(w,h);
+		ImageUInt8 right = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w - truth; x++ ) {
+				right.set(x, y, left.get(x + truth, y));
+			}
+		}
+
+		for( boolean streaming : new boolean[]{false,true}) {
+			for( SgmCostFunction<ImageUInt8> cost : new SgmCostFunction[]{new SgmCostCensus(2),new SgmCostSad(1)}) {
+				int P1 = cost instanceof SgmCostCensus ? 3 : 72;
+				int P2 = cost instanceof SgmCostCensus ? 16 : 288;
+
+				SgmStereoDisparity<ImageUInt8> alg = new SgmStereoDisparity<ImageUInt8>(cost,minDisparity,
+						maxDisparity,P1,P2,8,streaming,1,0.05);
+
+				ImageUInt8 found = new ImageUInt8(w,h);
+				alg.process(left, right, found);
+				checkDisparity(found, maxDisparity, truth - minDisparity);
+
+				ImageFloat32 foundF = new ImageFloat32(w,h);
+				alg.process(left, right, foundF);
+				checkDisparity(foundF, maxDisparity, truth - minDisparity);
+			}
+		}
+	}
+
+	private void checkDisparity( ImageSingleBand found , int maxDisparity , int expected ) {
+		int total = 0, correct = 0;
+		for( int y = 0; y < found.height; y++ ) {
+			for( int x = maxDisparity; x < found.width-maxDisparity; x++ ) {
+				total++;
+				if( Math.abs(GeneralizedImageOps.get(found, x, y) - expected) < 0.5 )
+					correct++;
+			}
+		}
+		assertTrue(correct > total*0.95);
+	}
+
+	/**
+	 * The number of threads should not change the results
+	 */
+	@Test
+	public void numberOfThreads() {
+		ImageUInt8 left = new ImageUInt8(40,30);
+		ImageUInt8 right = new ImageUInt8(40,30);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		for( boolean streaming : new boolean[]{false,true}) {
+			SgmStereoDisparity<ImageUInt8> alg = new SgmStereoDisparity<ImageUInt8>(new SgmCostCensus(2),0,16,
+					3,16,8,streaming,1,0.05);
+
+			ImageFloat32 expected = new ImageFloat32(40,30);
+			BoofConcurrency.setMaxThreads(1);
+			alg.process(left, right, expected);
+
+			ImageFloat32 found = new ImageFloat32(40,30);
+			BoofConcurrency.setMaxThreads(4);
+			alg.process(left, right, found);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Process images of different sizes with the same instance
+	 */
+	@Test
+	public void changeImageSize() {
+		SgmStereoDisparity<ImageUInt8> alg = new SgmStereoDisparity<ImageUInt8>(new SgmCostCensus(1),0,10,
+				1,5,4,false,1,0.05);
+
+		int sizes[][] = new int[][]{{30,20},{20,30},{40,40}};
+		for( int s[] : sizes ) {
+			ImageUInt8 left = new ImageUInt8(s[0],s[1]);
+			ImageUInt8 right = new ImageUInt8(s[0],s[1]);
+			ImageMiscOps.fillUniform(left, rand, 0, 255);
+			ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+			SgmStereoDisparity<ImageUInt8> fresh = new SgmStereoDisparity<ImageUInt8>(new SgmCostCensus(1),0,10,
+					1,5,4,false,1,0.05);
+
+			ImageUInt8 expected = new ImageUInt8(s[0],s[1]);
+			ImageUInt8 found = new ImageUInt8(s[0],s[1]);
+			fresh.process(left,right,expected);
+			alg.process(left,right,found);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Brute force SGM.  Each path is aggregated independently over the entire image.
+	 */
+	private ImageUInt8 naive( ImageUInt8 left , ImageUInt8 right , SgmCostFunction<ImageUInt8> costFunction ,
+							  int minDisparity , int maxDisparity , int P1 , int P2 ,
+							  int paths , boolean streaming ) {
+		int w = left.width, h = left.height;
+		int range = maxDisparity - minDisparity;
+
+		costFunction.configure(minDisparity,range);
+		costFunction.setImages(left,right);
+		int cost[][][] = new int[h][w][range];
+		short row[] = new short[w*range];
+		for( int y = 0; y < h; y++ ) {
+			costFunction.computeRow(y,row);
+			for( int x = 0; x < w; x++ )
+				for( int d = 0; d < range; d++ )
+					cost[y][x][d] = row[x*range+d];
+		}
+
+		// directions as (dx,dy) which point from the previous pixel to the current pixel
+		int directions[][];
+		if( paths == 4 ) {
+			directions = streaming ? new int[][]{{1,0},{-1,0},{0,1}} :
+					new int[][]{{1,0},{-1,0},{0,1},{0,-1}};
+		} else {
+			directions = streaming ? new int[][]{{1,0},{-1,0},{0,1},{1,1},{-1,1}} :
+					new int[][]{{1,0},{-1,0},{0,1},{1,1},{-1,1},{0,-1},{1,-1},{-1,-1}};
+		}
+
+		int sum[][][] = new int[h][w][range];
+		for( int[] dir : directions ) {
+			int L[][][] = new int[h][w][range];
+			int dx = dir[0], dy = dir[1];
+
+			// process pixels in an order where the previous pixel is always done first
+			for( int i = 0; i < h; i++ ) {
+				int y = dy >= 0 ? i : h-1-i;
+				for( int j = 0; j < w; j++ ) {
+					int x = dx >= 0 ? j : w-1-j;
+					int px = x - dx, py = y - dy;
+					if( px < 0 || px >= w || py < 0 || py >= h ) {
+						System.arraycopy(cost[y][x],0,L[y][x],0,range);
+						continue;
+					}
+					int prev[] = L[py][px];
+					int prevMin = Integer.MAX_VALUE;
+					for( int d = 0; d < range; d++ )
+						prevMin = Math.min(prevMin,prev[d]);
+					for( int d = 0; d < range; d++ ) {
+						int best = prev[d];
+						if( d > 0 ) best = Math.min(best,prev[d-1]+P1);
+						if( d < range-1 ) best = Math.min(best,prev[d+1]+P1);
+						best = Math.min(best,prevMin+P2);
+						L[y][x][d] = cost[y][x][d] + best - prevMin;
+					}
+				}
+			}
+
+			for( int y = 0; y < h; y++ )
+				for( int x = 0; x < w; x++ )
+					for( int d = 0; d < range; d++ )
+						sum[y][x][d] += L[y][x][d];
+		}
+
+		ImageUInt8 output = new ImageUInt8(w,h);
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				int localRange = Math.min(range,x-minDisparity+1);
+				if( localRange <= 0 ) {
+					output.set(x,y,range+1);
+					continue;
+				}
+				int best = 0;
+				for( int d = 1; d < localRange; d++ ) {
+					if( sum[y][x][d] < sum[y][x][best] )
+						best = d;
+				}
+				output.set(x,y,best);
+			}
+		}
+		return output;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.feature.associate.DescriptorDistance;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDenseOpticalFlowBlockPyramid_CensusU8 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void processImageDontBlowUp() {
+		DenseOpticalFlowBlockPyramid.CensusU8 alg = new DenseOpticalFlowBlockPyramid.CensusU8(2,3,10);
+
+		ImageUInt8 image = new ImageUInt8(40,50);
+		ImagePyramid<ImageUInt8> pyramid = FactoryPyramid.discreteGaussian(new int[]{1,2,4},0,2,false,ImageUInt8.class);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+		pyramid.process(image);
+
+		alg.process(pyramid,pyramid);
+
+		ImageFlow output = alg.getOpticalFlow();
+
+		for( int y = 0; y < output.height; y++ ) {
+			for (int x = 0; x < output.width; x++) {
+				assertTrue(output.get(x,y).isValid());
+			}
+		}
+	}
+
+	@Test
+	public void extractTemplate_computeError() {
+		int r = 2;
+		DenseOpticalFlowBlockPyramid.CensusU8 alg = new DenseOpticalFlowBlockPyramid.CensusU8(1,r,10);
+
+		ImageUInt8 prev = new ImageUInt8(30,35);
+		ImageUInt8 curr = new ImageUInt8(30,35);
+		ImageMiscOps.fillUniform(prev,rand,0,200);
+		ImageMiscOps.fillUniform(curr,rand,0,200);
+
+		ImageSInt32 censusPrev = new ImageSInt32(30,35);
+		ImageSInt32 censusCurr = new ImageSInt32(30,35);
+		CensusTransform.dense5x5(prev,censusPrev);
+		CensusTransform.dense5x5(curr,censusCurr);
+
+		alg.setLayers(prev,curr);
+		alg.extractTemplate(3,4,prev);
+
+		int index = 0;
+		for( int i = -r; i <= r; i++ ) {
+			for( int j = -r; j <= r; j++ ) {
+				assertEquals(censusPrev.get(j+3,i+4),alg.templateCensus[index++]);
+			}
+		}
+
+		float found = alg.computeError(5,6,curr);
+
+		int expected = 0;
+		for( int i = -r; i <= r; i++ ) {
+			for( int j = -r; j <= r; j++ ) {
+				expected += DescriptorDistance.hamming(censusPrev.get(j+3,i+4) ^ censusCurr.get(j+5,i+6));
+			}
+		}
+
+		assertEquals(expected,found,1e-5);
+	}
+
+	/**
+	 * Translate the image and change its gain and bias.  The flow should still be found
+	 */
+	@Test
+	public void invariantToGainAndBias() {
+		int w = 40, h = 50;
+		ImageUInt8 prev = new ImageUInt8(w,h);
+		ImageUInt8 curr = new ImageUInt8(w,h);
+		ImageMiscOps.fillUniform(prev,rand,0,100);
+
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				int xx = Math.max(0,x-1), yy = Math.max(0,y-2);
+				curr.set(x,y,prev.get(xx,yy)*2+20);
+			}
+		}
+
+		DenseOpticalFlowBlockPyramid.CensusU8 alg = new DenseOpticalFlowBlockPyramid.CensusU8(3,3,10);
+
+		ImagePyramid<ImageUInt8> pyrPrev = FactoryPyramid.discreteGaussian(new int[]{1},0,2,false,ImageUInt8.class);
+		ImagePyramid<ImageUInt8> pyrCurr = FactoryPyramid.discreteGaussian(new int[]{1},0,2,false,ImageUInt8.class);
+		pyrPrev.process(prev);
+		pyrCurr.process(curr);
+
+		alg.process(pyrPrev,pyrCurr);
+
+		ImageFlow output = alg.getOpticalFlow();
+
+		for( int y = 10; y < h-10; y++ ) {
+			for (int x = 10; x < w-10; x++) {
+				ImageFlow.D f = output.get(x,y);
+				assertEquals(1,f.x,1e-8);
+				assertEquals(2,f.y,1e-8);
+			}
+		}
+	}
+}
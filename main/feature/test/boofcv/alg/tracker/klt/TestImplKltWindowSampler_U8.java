@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplKltWindowSampler_U8 {
+
+	Random rand = new Random(234);
+
+	int width = 30;
+	int height = 35;
+
+	ImageUInt8 image = new ImageUInt8(width,height);
+	ImageSInt16 derivX = new ImageSInt16(width,height);
+	ImageSInt16 derivY = new ImageSInt16(width,height);
+
+	public TestImplKltWindowSampler_U8() {
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivX, rand, -100, 100);
+		ImageMiscOps.fillUniform(derivY, rand, -100, 100);
+	}
+
+	/**
+	 * Compare against bilinear interpolation and sums computed from its output
+	 */
+	@Test
+	public void sampleDescription() {
+		checkDescription(image, derivX, derivY);
+		checkDescription(BoofTesting.createSubImageOf(image),
+				BoofTesting.createSubImageOf(derivX), BoofTesting.createSubImageOf(derivY));
+	}
+
+	private void checkDescription( ImageUInt8 image , ImageSInt16 derivX , ImageSInt16 derivY ) {
+		ImplKltWindowSampler_U8 alg = new ImplKltWindowSampler_U8();
+		alg.setImage(image, derivX, derivY);
+
+		KltFeature found = new KltFeature(2);
+		KltFeature expected = new KltFeature(2);
+
+		float tl_x = 3.3f, tl_y = 10.85f;
+		assertTrue(alg.sampleDescription(tl_x, tl_y, found));
+
+		InterpolateRectangle<ImageUInt8> interp = FactoryInterpolation.bilinearRectangle(ImageUInt8.class);
+		interp.setImage(image);
+		interp.region(tl_x, tl_y, expected.desc);
+		InterpolateRectangle<ImageSInt16> interpD = FactoryInterpolation.bilinearRectangle(ImageSInt16.class);
+		interpD.setImage(derivX);
+		interpD.region(tl_x, tl_y, expected.derivX);
+		interpD.setImage(derivY);
+		interpD.region(tl_x, tl_y, expected.derivY);
+
+		float Gxx = 0, Gyy = 0, Gxy = 0;
+		for( int i = 0; i < expected.desc.data.length; i++ ) {
+			assertEquals(expected.desc.data[i], found.desc.data[i], 0);
+			assertEquals(expected.derivX.data[i], found.derivX.data[i], 0);
+			assertEquals(expected.derivY.data[i], found.derivY.data[i], 0);
+
+			float dX = expected.derivX.data[i];
+			float dY = expected.derivY.data[i];
+			Gxx += dX * dX;
+			Gyy += dY * dY;
+			Gxy += dX * dY;
+		}
+
+		assertEquals(Gxx, found.Gxx, 0);
+		assertEquals(Gyy, found.Gyy, 0);
+		assertEquals(Gxy, found.Gxy, 0);
+	}
+
+	/**
+	 * Compare against bilinear interpolation and sums computed from its output
+	 */
+	@Test
+	public void sampleResidual() {
+		checkResidual(image, derivX, derivY);
+		checkResidual(BoofTesting.createSubImageOf(image),
+				BoofTesting.createSubImageOf(derivX), BoofTesting.createSubImageOf(derivY));
+	}
+
+	private void checkResidual( ImageUInt8 image , ImageSInt16 derivX , ImageSInt16 derivY ) {
+		ImplKltWindowSampler_U8 alg = new ImplKltWindowSampler_U8();
+		alg.setImage(image, derivX, derivY);
+
+		KltFeature feature = new KltFeature(2);
+		assertTrue(alg.sampleDescription(5.1f, 6.2f, feature));
+
+		// tracking doesn't need the derivatives
+		alg.setImage(image, null, null);
+
+		float tl_x = 5.6f, tl_y = 6.05f;
+		ImageFloat32 found = new ImageFloat32(5,5);
+		assertTrue(alg.sampleResidual(tl_x, tl_y, feature, found));
+
+		InterpolateRectangle<ImageUInt8> interp = FactoryInterpolation.bilinearRectangle(ImageUInt8.class);
+		interp.setImage(image);
+		ImageFloat32 expected = new ImageFloat32(5,5);
+		interp.region(tl_x, tl_y, expected);
+
+		float Ex = 0, Ey = 0;
+		for( int i = 0; i < expected.data.length; i++ ) {
+			assertEquals(expected.data[i], found.data[i], 0);
+
+			float d = feature.desc.data[i] - expected.data[i];
+			Ex += d * feature.derivX.data[i];
+			Ey += d * feature.derivY.data[i];
+		}
+
+		assertEquals(Ex, alg.getEx(), 0);
+		assertEquals(Ey, alg.getEy(), 0);
+	}
+
+	/**
+	 * Windows which touch the image border or go outside it should be rejected and not modify the feature
+	 */
+	@Test
+	public void outsideImage() {
+		ImplKltWindowSampler_U8 alg = new ImplKltWindowSampler_U8();
+		alg.setImage(image, derivX, derivY);
+
+		KltFeature feature = new KltFeature(2);
+		ImageFloat32 current = new ImageFloat32(5,5);
+
+		float[][] corners = new float[][]{{-0.1f,2},{2,-0.1f},{width-5,2},{2,height-5},{width-6,height-6}};
+		boolean[] inside = new boolean[]{false,false,false,false,true};
+
+		for( int i = 0; i < corners.length; i++ ) {
+			float x = corners[i][0], y = corners[i][1];
+			assertEquals(inside[i], alg.sampleDescription(x, y, feature));
+			assertEquals(inside[i], alg.sampleResidual(x, y, feature, current));
+		}
+
+		KltFeature untouched = new KltFeature(2);
+		ImageMiscOps.fill(untouched.desc, 5);
+		assertFalse(alg.sampleDescription(width - 5, 2, untouched));
+		for( int i = 0; i < untouched.desc.data.length; i++ ) {
+			assertEquals(5, untouched.desc.data[i], 0);
+		}
+	}
+}
@@ -213,6 +213,61 @@ public class TestKltTracker {
 		}
 	}
 
+	/**
+	 * The specialized window sampler should be used for bilinear interpolation and produce identical results
+	 */
+	@Test
+	public void sampler_sameResults() {
+		ImageMiscOps.fillUniform(image,rand,0,100);
+		GradientSobel.process(image, derivX, derivY, new ImageBorder1D_F32(BorderIndex1D_Extend.class));
+
+		KltTracker<ImageFloat32, ImageFloat32> trackerA = createDefaultTracker();
+		KltTracker<ImageFloat32, ImageFloat32> trackerB = createDefaultTracker();
+		assertTrue(trackerA.getSampler() instanceof ImplKltWindowSampler_F32);
+		trackerB.setSampler(null);
+
+		trackerA.setImage(image, derivX, derivY);
+		trackerB.setImage(image, derivX, derivY);
+
+		// shifted image to track features in
+		ImageFloat32 shifted = new ImageFloat32(imageWidth,imageHeight);
+		ImageMiscOps.copy(0,0,1,1,imageWidth-1,imageHeight-1,image,shifted);
+
+		int total = 0;
+		for( int y = 0; y < imageHeight; y += 3) {
+			for( int x = 0; x < imageWidth; x += 3) {
+				KltFeature featureA = new KltFeature(2);
+				KltFeature featureB = new KltFeature(2);
+
+				featureA.setPosition(x+0.3f,y+0.6f);
+				featureB.setPosition(x+0.3f,y+0.6f);
+
+				trackerA.setImage(image, derivX, derivY);
+				trackerB.setImage(image, derivX, derivY);
+				boolean validA = trackerA.setDescription(featureA);
+				assertEquals(validA,trackerB.setDescription(featureB));
+				assertEquals(featureA.Gxx,featureB.Gxx,0);
+				assertEquals(featureA.Gyy,featureB.Gyy,0);
+				assertEquals(featureA.Gxy,featureB.Gxy,0);
+
+				if( !validA )
+					continue;
+
+				trackerA.setImage(shifted, derivX, derivY);
+				trackerB.setImage(shifted, derivX, derivY);
+				KltTrackFault faultA = trackerA.track(featureA);
+				assertTrue(faultA == trackerB.track(featureB));
+				assertEquals(featureA.x,featureB.x,0);
+				assertEquals(featureA.y,featureB.y,0);
+
+				if( faultA == KltTrackFault.SUCCESS )
+					total++;
+			}
+		}
+
+		assertTrue(total > 50);
+	}
+
 	/**
 	 * When placed outside the image pixels should be NaN
 	 */
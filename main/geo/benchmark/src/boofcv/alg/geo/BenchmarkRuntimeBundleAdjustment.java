@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedDense;
+import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedSparse;
+import boofcv.alg.geo.bundle.CalibratedPoseAndPoint;
+import boofcv.alg.geo.bundle.PointIndexObservation;
+import boofcv.alg.geo.bundle.ViewPointObservations;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the time it takes dense and sparse bundle adjustment to refine a scene.  The camera moves along
+ * the x-axis and each point is observed by several consecutive views.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkRuntimeBundleAdjustment {
+
+	static final int MAX_ITER = 50;
+	// how many views see each point
+	static final int VIEWS_PER_POINT = 6;
+
+	Random rand = new Random(234);
+
+	CalibratedPoseAndPoint truth = new CalibratedPoseAndPoint();
+	List<ViewPointObservations> observations;
+
+	public void createScene( int numViews , int numPoints ) {
+		truth.configure(numViews,numPoints);
+
+		for( int i = 0; i < numViews; i++ ) {
+			Se3_F64 view = truth.getWorldToCamera(i);
+			RotationMatrixGenerator.eulerXYZ(rand.nextGaussian()*0.01,rand.nextGaussian()*0.01,
+					rand.nextGaussian()*0.01,view.getR());
+			view.getT().set(-i*0.2,rand.nextGaussian()*0.01,rand.nextGaussian()*0.01);
+		}
+		// fix the first two views to remove the gauge freedom
+		truth.setViewKnown(0,true);
+		truth.setViewKnown(1,true);
+
+		observations = new ArrayList<ViewPointObservations>();
+		for( int i = 0; i < numViews; i++ )
+			observations.add( new ViewPointObservations());
+
+		Point3D_F64 cameraPt = new Point3D_F64();
+		int lastFirst = numViews-VIEWS_PER_POINT;
+		for( int i = 0; i < numPoints; i++ ) {
+			int first = (int)((i/(double)numPoints)*(lastFirst+1));
+
+			Point3D_F64 p = truth.getPoint(i);
+			p.x = (first+VIEWS_PER_POINT/2)*0.2 + rand.nextGaussian()*0.5;
+			p.y = rand.nextGaussian()*0.5;
+			p.z = 3 + rand.nextGaussian()*0.5;
+
+			for( int view = first; view < first+VIEWS_PER_POINT; view++ ) {
+				SePointOps_F64.transform(truth.getWorldToCamera(view),p,cameraPt);
+
+				Point2D_F64 obs = new Point2D_F64();
+				obs.x = cameraPt.x/cameraPt.z + rand.nextGaussian()*0.001;
+				obs.y = cameraPt.y/cameraPt.z + rand.nextGaussian()*0.001;
+
+				PointIndexObservation o = observations.get(view).getPoints().grow();
+				o.set(i,obs);
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of truth with noise added
+	 */
+	public CalibratedPoseAndPoint createInitial() {
+		CalibratedPoseAndPoint model = new CalibratedPoseAndPoint();
+		model.configure(truth.getNumViews(),truth.getNumPoints());
+
+		for( int i = 0; i < truth.getNumViews(); i++ ) {
+			model.setViewKnown(i,truth.isViewKnown(i));
+			model.getWorldToCamera(i).set(truth.getWorldToCamera(i));
+			if( !model.isViewKnown(i) )
+				model.getWorldToCamera(i).getT().x += rand.nextGaussian()*0.01;
+		}
+		for( int i = 0; i < truth.getNumPoints(); i++ ) {
+			Point3D_F64 p = model.getPoint(i);
+			p.set(truth.getPoint(i));
+			p.x += rand.nextGaussian()*0.01;
+			p.y += rand.nextGaussian()*0.01;
+			p.z += rand.nextGaussian()*0.01;
+		}
+		return model;
+	}
+
+	public void evaluate( String name , BundleAdjustmentCalibrated alg ) {
+		CalibratedPoseAndPoint model = createInitial();
+
+		long before = System.currentTimeMillis();
+		alg.process(model,observations);
+		long after = System.currentTimeMillis();
+
+		System.out.printf("  %-8s %8d ms\n",name,(after-before));
+	}
+
+	public void runAll( int numViews , int numPoints , boolean dense ) {
+		createScene(numViews,numPoints);
+		System.out.println("views = "+numViews+" points = "+numPoints);
+
+		if( dense )
+			evaluate("Dense",new BundleAdjustmentCalibratedDense(1e-8,MAX_ITER));
+		evaluate("Sparse",new BundleAdjustmentCalibratedSparse(1e-8,MAX_ITER));
+	}
+
+	public static void main( String args[] ) {
+		BenchmarkRuntimeBundleAdjustment app = new BenchmarkRuntimeBundleAdjustment();
+
+		app.runAll(10,200,true);
+		app.runAll(20,500,true);
+		app.runAll(100,10000,false);
+		app.runAll(300,100000,false);
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo;
+
+import boofcv.abst.geo.fitting.GenerateMotionPnP;
+import boofcv.alg.geo.pose.PnPDistanceReprojectionSq;
+import boofcv.alg.geo.robust.RansacAdaptive;
+import boofcv.factory.geo.EnumPNP;
+import boofcv.factory.geo.FactoryMultiView;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.geo.Point2D3D;
+import georegression.fitting.se.ModelManagerSe3_F64;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+
+/**
+ * Compares the runtime of RANSAC variants when estimating the camera pose, as is done in visual odometry
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkRuntimeRansac extends ArtificialStereoScene {
+	static final long TEST_TIME = 2000;
+	static final int NUM_POINTS = 500;
+	static final int MAX_ITERATIONS = 300;
+	// inlier tolerance in pixels
+	static final double TOL = 1.5;
+
+	public class Matcher extends PerformerBase {
+
+		String name;
+		ModelMatcher<Se3_F64,Point2D3D> alg;
+
+		public Matcher(String name, ModelMatcher<Se3_F64, Point2D3D> alg) {
+			this.name = name;
+			this.alg = alg;
+		}
+
+		@Override
+		public void process() {
+			alg.process(observationPose);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private GenerateMotionPnP createGenerator() {
+		return new GenerateMotionPnP(FactoryMultiView.computePnP_1(EnumPNP.P3P_FINSTERWALDER,-1,2));
+	}
+
+	private PnPDistanceReprojectionSq createDistance() {
+		return new PnPDistanceReprojectionSq(K.get(0,0),K.get(1,1),K.get(0,1));
+	}
+
+	private RansacAdaptive<Se3_F64,Point2D3D> createAdaptive( int pretest , boolean local ) {
+		RansacAdaptive<Se3_F64,Point2D3D> alg = new RansacAdaptive<Se3_F64,Point2D3D>(2323,
+				new ModelManagerSe3_F64(),createGenerator(),createDistance(),MAX_ITERATIONS,TOL*TOL);
+		alg.setPretestSize(pretest);
+		if( local )
+			alg.setLocalOptimization(FactoryMultiView.refinePnP(1e-8,10));
+		return alg;
+	}
+
+	/**
+	 * Replaces a fraction of the observations with random pixels
+	 */
+	private void addOutliers( double fraction ) {
+		for( Point2D3D p : observationPose ) {
+			if( rand.nextDouble() < fraction ) {
+				p.observation.x = (rand.nextDouble()-0.5)*1.2;
+				p.observation.y = (rand.nextDouble()-0.5)*0.9;
+			}
+		}
+	}
+
+	public void runAll( double fractionOutlier ) {
+		System.out.println("=========  Profile numFeatures "+NUM_POINTS+" outliers "+fractionOutlier);
+		System.out.println();
+
+		init(NUM_POINTS, false, false);
+		addPixelNoise(0.5);
+		addOutliers(fractionOutlier);
+
+		Ransac<Se3_F64,Point2D3D> ransac = new Ransac<Se3_F64,Point2D3D>(2323,
+				new ModelManagerSe3_F64(),createGenerator(),createDistance(),MAX_ITERATIONS,TOL*TOL);
+
+		Matcher[] matchers = new Matcher[]{
+				new Matcher("Ransac",ransac),
+				new Matcher("Adaptive",createAdaptive(0,false)),
+				new Matcher("Adaptive T(1,1)",createAdaptive(1,false)),
+				new Matcher("Adaptive T(1,1) LO",createAdaptive(1,true))};
+
+		for( Matcher m : matchers ) {
+			m.process();
+			String iterations = "";
+			if( m.alg instanceof RansacAdaptive )
+				iterations = " iterations "+((RansacAdaptive)m.alg).getIterations();
+			System.out.println(m.name+" inliers "+m.alg.getMatchSet().size()+iterations);
+		}
+		System.out.println();
+
+		for( Matcher m : matchers ) {
+			ProfileOperation.printOpsPerSec(m, TEST_TIME);
+		}
+
+		System.out.println();
+	}
+
+	public static void main( String args[] ) {
+		BenchmarkRuntimeRansac alg = new BenchmarkRuntimeRansac();
+
+		alg.runAll(0.2);
+		alg.runAll(0.5);
+		System.out.println("Done");
+	}
+}
@@ -197,6 +197,7 @@ public class DetectDescribeAssociate<I extends ImageSingleBand, Desc extends Tup
 			PointTrack track = tracksAll.get(indexes.src);
 			Point2D_F64 loc = locDst.data[indexes.dst];
 			track.set(loc.x, loc.y);
+			track.fitScore = indexes.fitScore;
 			tracksActive.add(track);
 
 			// update the description
@@ -245,6 +246,7 @@ public class DetectDescribeAssociate<I extends ImageSingleBand, Desc extends Tup
 	protected PointTrack addNewTrack( double x , double y , Desc desc ) {
 		PointTrack p = getUnused();
 		p.set(x, y);
+		p.fitScore = 0;
 		((Desc)p.getDescription()).setTo(desc);
 		if( checkValidSpawn(p) ) {
 			p.featureId = featureID++;
@@ -117,7 +117,7 @@ public class DetectDescribeAssociateTwoPass<I extends ImageSingleBand, Desc exte
 	}
 
 	/**
-	 * Update each track's location only and not its description.  Update the active list too
+	 * Update each track's location and fit score only and not its description.  Update the active list too
 	 */
 	protected void updateTrackLocation( FastQueue<AssociatedIndex> matches ) {
 		tracksActive.clear();
@@ -126,6 +126,7 @@ public class DetectDescribeAssociateTwoPass<I extends ImageSingleBand, Desc exte
 			PointTrack track = tracksAll.get(indexes.src);
 			Point2D_F64 loc = locDst.data[indexes.dst];
 			track.set(loc.x, loc.y);
+			track.fitScore = indexes.fitScore;
 			tracksActive.add(track);
 		}
 		this.matches = matches;
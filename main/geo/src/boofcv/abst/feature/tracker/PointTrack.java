@@ -34,6 +34,12 @@ public class PointTrack extends Point2D_F64 {
 	/** User specified data */
 	public Object cookie;
 
+	/**
+	 * Fit score from when the track was last associated.  Lower is better.  Zero if the tracker doesn't
+	 * associate features or the track was just spawned.
+	 */
+	public double fitScore;
+
 	/* Description of this feature that is used internally.  Don't mess with this */
 	private Object description;
 
@@ -50,12 +56,14 @@ public class PointTrack extends Point2D_F64 {
 		x = t.x;
 		y = t.y;
 		cookie = t.cookie;
+		fitScore = t.fitScore;
 		description = t.description;
 	}
 	
 	public void reset() {
 		featureId = -1;
 		cookie = null;
+		fitScore = 0;
 		description = null;
 	}
 
@@ -22,6 +22,7 @@ import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.klt.*;
+import boofcv.alg.transform.pyramid.PyramidFrame;
 import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageSingleBand;
@@ -47,12 +48,19 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 	// Updates the image pyramid's gradient.
 	protected ImageGradient<I,D> gradient;
 
-	// storage for image pyramid
+	// image pyramid and gradient for the current image
 	protected PyramidDiscrete<I> basePyramid;
 	protected D[] derivX;
 	protected D[] derivY;
 	protected Class<D> derivType;
 
+	// storage for image pyramid owned by this tracker.  Used when the image is passed in directly
+	private PyramidDiscrete<I> ownPyramid;
+	private D[] ownDerivX;
+	private D[] ownDerivY;
+	// frame which is being referenced.  null if this tracker computed the pyramid
+	protected PyramidFrame<I,D> frame;
+
 	// configuration for the KLT tracker
 	protected KltConfig config;
 	// size of the template/feature description
@@ -92,13 +100,8 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 								  InterpolateRectangle<I> interpInput,
 								  InterpolateRectangle<D> interpDeriv,
 								  Class<D> derivType ) {
-		this(config,templateRadius,pyramid,gradient,interpInput,interpDeriv,derivType);
-
-		if( detector.getRequiresHessian() )
-			throw new IllegalArgumentException("Hessian based feature detectors not yet supported");
-
-		this.detector = detector;
-		this.derivType = derivType;
+		this(config,templateRadius,pyramid,detector,gradient,
+				new KltTracker<I, D>(interpInput, interpDeriv,config),derivType);
 	}
 
 	public PointTrackerKltPyramid(KltConfig config,
@@ -108,13 +111,34 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 								  InterpolateRectangle<I> interpInput,
 								  InterpolateRectangle<D> interpDeriv,
 								  Class<D> derivType ) {
+		this(config,templateRadius,pyramid,null,gradient,
+				new KltTracker<I, D>(interpInput, interpDeriv,config),derivType);
+	}
+
+	/**
+	 * Constructor which takes in an already constructed KLT tracker.
+	 *
+	 * @param detector Feature detector.  Can be null if tracks are only added using {@link #addTrack}.
+	 * @param klt KLT tracker for a single image.
+	 */
+	protected PointTrackerKltPyramid(KltConfig config,
+									 int templateRadius ,
+									 PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 KltTracker<I, D> klt,
+									 Class<D> derivType ) {
+		if( detector != null && detector.getRequiresHessian() )
+			throw new IllegalArgumentException("Hessian based feature detectors not yet supported");
 
 		this.config = config;
 		this.templateRadius = templateRadius;
 		this.gradient = gradient;
 		this.basePyramid = pyramid;
+		this.ownPyramid = pyramid;
+		this.detector = detector;
+		this.derivType = derivType;
 
-		KltTracker<I, D> klt = new KltTracker<I, D>(interpInput, interpDeriv,config);
 		tracker = new PyramidKltTracker<I, D>(klt);
 	}
 
@@ -232,33 +256,68 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 	public void process(I image) {
 		this.input = image;
 
-		spawned.clear();
-		dropped.clear();
+		releaseFrame();
 
 		// update image pyramids
 		basePyramid.process(image);
 		declareOutput();
 		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
 
+		trackActive();
+	}
+
+	/**
+	 * Same as {@link #process(ImageSingleBand)} but the image pyramid and its gradient are provided by a frame,
+	 * which can be shared with other trackers and detectors.  The pyramid should have the same configuration for
+	 * every frame.  A reference to the frame is kept until the next image is processed or {@link #reset()}.
+	 *
+	 * @param frame Pyramid and gradient of the next image
+	 */
+	public void process( PyramidFrame<I,D> frame ) {
+		if( frame.getPyramid().getNumLayers() != ownPyramid.getNumLayers() )
+			throw new IllegalArgumentException("Pyramid has a different number of layers");
+
+		frame.acquire();
+		releaseFrame();
+
+		this.frame = frame;
+		this.input = frame.getInput();
+		basePyramid = frame.getPyramid();
+		derivX = frame.getDerivX();
+		derivY = frame.getDerivY();
+
+		trackActive();
+	}
+
+	/**
+	 * Releases the reference to a shared frame and switches back to the pyramid owned by this tracker
+	 */
+	private void releaseFrame() {
+		if( frame == null )
+			return;
+
+		frame.release();
+		frame = null;
+		basePyramid = ownPyramid;
+		derivX = ownDerivX;
+		derivY = ownDerivY;
+	}
+
+	/**
+	 * Updates the location of all the active tracks using the current image pyramid.  Tracks which fail are dropped.
+	 */
+	protected void trackActive() {
+		spawned.clear();
+		dropped.clear();
+
 		// track features
 		tracker.setImage(basePyramid,derivX,derivY);
 		for( int i = 0; i < active.size(); ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
-			}
 
-			if( !success ) {
+			if( trackFeature(tracker,t) ) {
+				i++;
+			} else {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
@@ -266,6 +325,29 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 		}
 	}
 
+	/**
+	 * Tracks a single feature and updates its description and {@link PointTrack}.  Only the feature
+	 * is modified, which allows different features to be tracked at the same time.
+	 *
+	 * @param tracker Tracker which has already been passed the current image
+	 * @param t The feature being tracked
+	 * @return true if the track is still valid or false if it should be dropped
+	 */
+	protected boolean trackFeature( PyramidKltTracker<I, D> tracker , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret == KltTrackFault.SUCCESS ) {
+			// discard a track if its center drifts outside the image.
+			if( input.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	protected void declareOutput() {
 		if( derivX == null ) {
 			// declare storage for image derivative since the image size is now known
@@ -278,6 +360,8 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 			PyramidOps.reshapeOutput(basePyramid,derivX);
 			PyramidOps.reshapeOutput(basePyramid,derivY);
 		}
+		ownDerivX = derivX;
+		ownDerivY = derivY;
 	}
 
 	@Override
@@ -346,6 +430,7 @@ public class PointTrackerKltPyramid<I extends ImageSingleBand,D extends ImageSin
 	@Override
 	public void reset() {
 		dropAllTracks();
+		releaseFrame();
 		totalFeatures = 0;
 	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.KltTracker;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.GrowQueue_B;
+
+/**
+ * Concurrent implementation of {@link PointTrackerKltPyramid}.  Active tracks are split into contiguous blocks
+ * which are tracked in parallel.  Each thread has its own {@link KltTracker}, which contains the scratch
+ * state and interpolators.  Once all the features have been tracked, failed tracks are dropped in the same
+ * order as the single threaded version, producing identical results.  Spawning is done in a single thread.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageSingleBand,D extends ImageSingleBand>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// smallest number of features processed by a single thread
+	public static final int MIN_BLOCK = 20;
+
+	// tracker used by each thread
+	private WorkerPool<PyramidKltTracker<I,D>> trackers;
+
+	// if a track at the same index in the active list was successfully tracked
+	private GrowQueue_B success = new GrowQueue_B();
+
+	/**
+	 * Configures the tracker.  See {@link PointTrackerKltPyramid} for a description of the parameters.
+	 *
+	 * @param kltFactory Creates a new KLT tracker, with its own interpolators, for each thread.
+	 */
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 int templateRadius ,
+									 PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 final WorkerFactory<KltTracker<I, D>> kltFactory,
+									 Class<D> derivType ) {
+		super(config, templateRadius, pyramid, detector, gradient, kltFactory.create(), derivType);
+
+		trackers = new WorkerPool<PyramidKltTracker<I, D>>(new WorkerFactory<PyramidKltTracker<I, D>>() {
+			@Override
+			public PyramidKltTracker<I, D> create() {
+				return new PyramidKltTracker<I, D>(kltFactory.create());
+			}
+		});
+	}
+
+	@Override
+	protected void trackActive() {
+		spawned.clear();
+		dropped.clear();
+
+		// the single threaded tracker is still used to describe new tracks
+		tracker.setImage(basePyramid,derivX,derivY);
+
+		// track features in parallel.  Only the feature being tracked is modified
+		success.resize(active.size());
+		BoofConcurrency.loopBlocks(0, active.size(), MIN_BLOCK, new IntRangeTask() {
+			@Override
+			public void process(int idx0, int idx1) {
+				PyramidKltTracker<I,D> tracker = trackers.acquire();
+				try {
+					tracker.setImage(basePyramid,derivX,derivY);
+					for( int i = idx0; i < idx1; i++ ) {
+						success.data[i] = trackFeature(tracker, active.get(i));
+					}
+				} finally {
+					trackers.release(tracker);
+				}
+			}
+		});
+
+		// drop failed tracks in the same order as the single threaded version
+		int numActive = 0;
+		for( int i = 0; i < success.size; i++ ) {
+			PyramidKltFeature t = active.get(i);
+
+			if( success.data[i] ) {
+				active.set(numActive++, t);
+			} else {
+				dropped.add( t );
+				unused.add( t );
+			}
+		}
+		while( active.size() > numActive )
+			active.remove(active.size()-1);
+	}
+}
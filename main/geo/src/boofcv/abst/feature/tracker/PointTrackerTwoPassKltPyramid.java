@@ -24,7 +24,6 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.klt.KltConfig;
 import boofcv.alg.tracker.klt.KltTrackFault;
 import boofcv.alg.tracker.klt.PyramidKltFeature;
-import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.pyramid.PyramidDiscrete;
@@ -62,18 +61,11 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageSingleBand,D extends I
 	}
 
 	@Override
-	public void process(I image) {
-		this.input = image;
-
+	protected void trackActive() {
 		finishedTracking = false;
 		spawned.clear();
 		dropped.clear();
 
-		// update image pyramids
-		basePyramid.process(image);
-		declareOutput();
-		PyramidOps.gradient(basePyramid, gradient, derivX, derivY);
-
 		// setup active list
 		originalActive.clear();
 		originalActive.addAll( active );
@@ -43,18 +43,39 @@ public class BundleAdjustmentCalibratedDense
 	// minimization algorithm
 	UnconstrainedLeastSquares minimizer;
 	// computes residuals for least-squares
-	CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
-	CalibPoseAndPointRodriguesJacobian jacobian = new CalibPoseAndPointRodriguesJacobian();
+	CalibPoseAndPointResiduals func;
+	CalibPoseAndPointRodriguesJacobian jacobian;
 
 	int maxIterations;
 	double convergenceTol;
 
+	/**
+	 * Configures bundle adjustment
+	 *
+	 * @param convergenceTol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @param concurrent If true the residuals and Jacobian are computed using multiple threads
+	 */
 	public BundleAdjustmentCalibratedDense(double convergenceTol,
-										   int maxIterations ) {
+										   int maxIterations ,
+										   boolean concurrent ) {
 		this.convergenceTol = convergenceTol;
 		minimizer = FactoryOptimization.leastSquaresTrustRegion(1, RegionStepType.DOG_LEG_F,false);
 		codec = new CalibPoseAndPointRodriguesCodec();
 		this.maxIterations = maxIterations;
+
+		if( concurrent ) {
+			func = new CalibPoseAndPointResiduals_MT();
+			jacobian = new CalibPoseAndPointRodriguesJacobian_MT();
+		} else {
+			func = new CalibPoseAndPointResiduals();
+			jacobian = new CalibPoseAndPointRodriguesJacobian();
+		}
+	}
+
+	public BundleAdjustmentCalibratedDense(double convergenceTol,
+										   int maxIterations ) {
+		this(convergenceTol,maxIterations,false);
 	}
 
 	@Override
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.alg.geo.bundle.*;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * Performs bundle adjustment using a block-sparse Jacobian and the Schur complement.  Memory and computations
+ * scale linearly with the number of points and observations, making it suitable for much larger problems
+ * than {@link BundleAdjustmentCalibratedDense}.
+ *
+ * @see LevenbergMarquardtSchur
+ * @see CalibPoseAndPointSparseJacobian
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentCalibratedSparse
+		implements BundleAdjustmentCalibrated
+{
+	// converts to and from a parameterized version of the model
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+	// storage for model parameters
+	double param[] = new double[0];
+
+	// minimization algorithm
+	LevenbergMarquardtSchur minimizer = new LevenbergMarquardtSchur();
+	// computes residuals for least-squares
+	CalibPoseAndPointResiduals func;
+	CalibPoseAndPointSparseJacobian jacobian;
+
+	// known extrinsic parameters.  null if unknown
+	Se3_F64 extrinsic[] = new Se3_F64[0];
+	// storage for known extrinsic parameters
+	Se3_F64 storageExtrinsic[] = new Se3_F64[0];
+
+	int maxIterations;
+	double convergenceTol;
+
+	/**
+	 * Configures bundle adjustment
+	 *
+	 * @param convergenceTol Relative convergence tolerance for the change in cost and absolute tolerance for
+	 *                       the gradient. Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @param concurrent If true the residuals and Jacobian are computed using multiple threads
+	 */
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ,
+											boolean concurrent ) {
+		this.convergenceTol = convergenceTol;
+		this.maxIterations = maxIterations;
+
+		if( concurrent ) {
+			func = new CalibPoseAndPointResiduals_MT();
+			jacobian = new CalibPoseAndPointSparseJacobian_MT();
+		} else {
+			func = new CalibPoseAndPointResiduals();
+			jacobian = new CalibPoseAndPointSparseJacobian();
+		}
+	}
+
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ) {
+		this(convergenceTol,maxIterations,false);
+	}
+
+	@Override
+	public boolean process(CalibratedPoseAndPoint initialModel,
+						   List<ViewPointObservations> observations)
+	{
+		int numViews = initialModel.getNumViews();
+		int numPoints = initialModel.getNumPoints();
+		int numViewsUnknown = initialModel.getNumUnknownViews();
+
+		codec.configure(numViews,numPoints,numViewsUnknown,initialModel.getKnownArray());
+
+		if( param.length < codec.getParamLength() )
+			param = new double[ codec.getParamLength() ];
+
+		if( extrinsic.length < numViews ) {
+			extrinsic = new Se3_F64[numViews];
+			storageExtrinsic = new Se3_F64[numViews];
+			for( int i = 0; i < numViews; i++ )
+				storageExtrinsic[i] = new Se3_F64();
+		}
+
+		boolean known[] = initialModel.getKnownArray();
+		for( int i = 0; i < numViews; i++ ) {
+			if( known[i]) {
+				extrinsic[i] = storageExtrinsic[i];
+				extrinsic[i].set( initialModel.getWorldToCamera(i));
+			} else {
+				extrinsic[i] = null;
+			}
+		}
+
+		codec.encode(initialModel,param);
+		func.configure(codec,initialModel,observations);
+		jacobian.configure(observations,numPoints,extrinsic);
+
+		minimizer.setFunction(func,jacobian);
+		minimizer.initialize(param, convergenceTol, convergenceTol);
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( minimizer.iterate() )
+				break;
+		}
+
+		codec.decode(minimizer.getParameters(), initialModel);
+
+		double fx = minimizer.getFunctionValue();
+		return !(Double.isNaN(fx) || Double.isInfinite(fx));
+	}
+}
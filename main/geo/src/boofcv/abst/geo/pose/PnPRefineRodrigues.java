@@ -21,6 +21,7 @@ package boofcv.abst.geo.pose;
 import boofcv.abst.geo.RefinePnP;
 import boofcv.abst.geo.optimization.ResidualsCodecToMatrix;
 import boofcv.alg.geo.pose.PnPJacobianRodrigues;
+import boofcv.alg.geo.pose.PnPJacobianRodrigues_MT;
 import boofcv.alg.geo.pose.PnPResidualReprojection;
 import boofcv.alg.geo.pose.PnPRodriguesCodec;
 import boofcv.struct.geo.Point2D3D;
@@ -42,24 +43,38 @@ public class PnPRefineRodrigues implements RefinePnP {
 
 	ModelCodec<Se3_F64> paramModel = new PnPRodriguesCodec();
 	ResidualsCodecToMatrix<Se3_F64,Point2D3D> func;
-	PnPJacobianRodrigues jacobian = new PnPJacobianRodrigues();
+	PnPJacobianRodrigues jacobian;
 
 	double param[];
 	UnconstrainedLeastSquares minimizer;
 	int maxIterations;
 	double convergenceTol;
 
-	public PnPRefineRodrigues(double convergenceTol, int maxIterations )
+	/**
+	 * Configures the refinement
+	 *
+	 * @param convergenceTol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations.  Try 200
+	 * @param concurrent If true the Jacobian is computed using multiple threads.  Only helps with
+	 *                   a large number of observations.
+	 */
+	public PnPRefineRodrigues(double convergenceTol, int maxIterations , boolean concurrent )
 	{
 		this.maxIterations = maxIterations;
 		this.convergenceTol = convergenceTol;
 		this.minimizer = FactoryOptimization.leastSquareLevenberg(1e-3);
 
+		jacobian = concurrent ? new PnPJacobianRodrigues_MT() : new PnPJacobianRodrigues();
+
 		func = new ResidualsCodecToMatrix<Se3_F64,Point2D3D>(paramModel,new PnPResidualReprojection(), new Se3_F64());
 
 		param = new double[paramModel.getParamLength()];
 	}
 
+	public PnPRefineRodrigues(double convergenceTol, int maxIterations ) {
+		this(convergenceTol,maxIterations,false);
+	}
+
 	@Override
 	public boolean fitModel(List<Point2D3D> obs, Se3_F64 worldToCamera, Se3_F64 refinedWorldToCamera) {
 
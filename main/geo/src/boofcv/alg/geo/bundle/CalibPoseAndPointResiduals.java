@@ -95,14 +95,41 @@ public class CalibPoseAndPointResiduals
 	}
 
 	public void process(CalibratedPoseAndPoint model , double[] output) {
-		int outputIndex = 0;
+		process(model,output,0,numObservations/2,cameraPt);
+	}
+
+	/**
+	 * Computes the residuals for a range of observations.  Observations are ordered by view and then
+	 * by the order they appear in the view.
+	 *
+	 * @param model Model being processed
+	 * @param output Residuals for all the observations.  Only elements for observations in the range are modified
+	 * @param obsStart Index of the first observation, inclusive
+	 * @param obsEnd Index of the last observation, exclusive
+	 * @param cameraPt Storage for the point in the camera frame
+	 */
+	protected void process(CalibratedPoseAndPoint model , double[] output ,
+						   int obsStart , int obsEnd , Point3D_F64 cameraPt ) {
+		if( obsStart >= obsEnd )
+			return;
+
+		// find the view which contains the first observation
+		int view = 0;
+		int viewStart = 0;
+		while( viewStart + observations.get(view).getPoints().size <= obsStart ) {
+			viewStart += observations.get(view).getPoints().size;
+			view++;
+		}
+
+		int outputIndex = obsStart*2;
+		int i = obsStart-viewStart;
 
-		for( int view = 0; view < model.getNumViews(); view++) {
+		for( int obsIndex = obsStart; obsIndex < obsEnd; view++ , i = 0 ) {
 			Se3_F64 worldToCamera = model.getWorldToCamera(view);
 
 			FastQueue<PointIndexObservation> observedPts = observations.get(view).getPoints();
 
-			for( int i = 0; i < observedPts.size; i++ ) {
+			for( ; i < observedPts.size && obsIndex < obsEnd; i++ , obsIndex++ ) {
 				PointIndexObservation o = observedPts.data[i];
 
 				Point3D_F64 worldPt = model.getPoint(o.pointIndex);
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import georegression.struct.point.Point3D_F64;
+
+/**
+ * Concurrent implementation of {@link CalibPoseAndPointResiduals}.  Observations are split into blocks and
+ * each thread writes the residuals for its block directly into the output array.  Produces identical results.
+ * Small problems are processed by the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointResiduals_MT extends CalibPoseAndPointResiduals {
+
+	// minimum number of observations processed by a thread
+	int minBlock = 1000;
+
+	// storage for each thread
+	WorkerPool<Point3D_F64> workspace = new WorkerPool<Point3D_F64>(new WorkerFactory<Point3D_F64>() {
+		@Override
+		public Point3D_F64 create() {
+			return new Point3D_F64();
+		}
+	});
+
+	@Override
+	public void process(final CalibratedPoseAndPoint model, final double[] output) {
+		int numObs = numObservations/2;
+
+		if( numObs < minBlock*2 ) {
+			super.process(model, output);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, numObs, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int obsStart, int obsEnd) {
+				Point3D_F64 cameraPt = workspace.acquire();
+				try {
+					CalibPoseAndPointResiduals_MT.this.process(model, output, obsStart, obsEnd, cameraPt);
+				} finally {
+					workspace.release(cameraPt);
+				}
+			}
+		});
+	}
+
+	public int getMinBlock() {
+		return minBlock;
+	}
+
+	/**
+	 * Specifies the minimum number of observations processed by each thread.  If there are fewer than
+	 * twice this number of observations the calling thread processes all of them.
+	 */
+	public void setMinBlock(int minBlock) {
+		this.minBlock = minBlock;
+	}
+}
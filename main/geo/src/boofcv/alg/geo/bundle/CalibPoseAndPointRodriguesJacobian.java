@@ -113,15 +113,45 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 
 	@Override
 	public void process(double[] input, double[] output) {
+		process(input,output,0,numObservations);
+	}
+
+	/**
+	 * Computes the rows in the Jacobian for a range of observations.  Observations are ordered by view and
+	 * then by the order they appear in the view.
+	 *
+	 * @param input Parameters
+	 * @param output Jacobian for all the observations.  Only rows for observations in the range are modified
+	 * @param obsStart Index of the first observation, inclusive
+	 * @param obsEnd Index of the last observation, exclusive
+	 */
+	public void process(double[] input, double[] output, int obsStart , int obsEnd ) {
+		if( obsStart >= obsEnd )
+			return;
+
 		this.output = output;
+
+		Arrays.fill(output,obsStart*2*numParameters,obsEnd*2*numParameters,0);
+
+		// find the view which contains the first observation and the index of its parameters
+		int view = 0;
+		int viewStart = 0;
 		int paramIndex = 0;
-		countPointObs = 0;
-		
-		Arrays.fill(output,0);
-		
-		// first decode the transformation
-		for( int i = 0; i < numViews; i++ ) {
-			if( extrinsic[i] == null ) {
+		while( viewStart + observations.get(view).points.size <= obsStart ) {
+			viewStart += observations.get(view).points.size;
+			if( extrinsic[view] == null )
+				paramIndex += 6;
+			view++;
+		}
+
+		countPointObs = obsStart;
+		int j = obsStart-viewStart;
+
+		for( ; countPointObs < obsEnd; view++ , j = 0 ) {
+			ViewPointObservations obs = observations.get(view);
+			int end = Math.min(obs.points.size, j + obsEnd - countPointObs);
+
+			if( extrinsic[view] == null ) {
 				double rodX = input[paramIndex++];
 				double rodY = input[paramIndex++];
 				double rodZ = input[paramIndex++];
@@ -134,14 +164,12 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 				rodJacobian.process(rodX,rodY,rodZ);
 			
 				RotationMatrixGenerator.rodriguesToMatrix(rodrigues,R);
-				ViewPointObservations obs = observations.get(i);
-				gradientViewMotionAndPoint(input, paramIndex-6, obs);
+				gradientViewMotionAndPoint(input, paramIndex-6, obs, j, end);
 			} else {
-				T.set( extrinsic[i].getT());
-				R.set( extrinsic[i].getR());
+				T.set( extrinsic[view].getT());
+				R.set( extrinsic[view].getR());
 				
-				ViewPointObservations obs = observations.get(i);
-				gradientViewPoint(input, obs);
+				gradientViewPoint(input, obs, j, end);
 			}
 		}
 	}
@@ -151,9 +179,10 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 */
 	private void gradientViewMotionAndPoint(double[] input,
 											int extrinsicParamStart,
-											ViewPointObservations obs) 
+											ViewPointObservations obs ,
+											int start , int end )
 	{
-		for( int j = 0; j < obs.points.size; j++ , countPointObs++ ) {
+		for( int j = start; j < end; j++ , countPointObs++ ) {
 			PointIndexObservation o = obs.points.get(j);
 			int indexParamWorld = indexFirstPoint+o.pointIndex*3;
 			
@@ -191,9 +220,10 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 * Computes the partials for observed points at this view
 	 */
 	private void gradientViewPoint(double[] input,
-								   ViewPointObservations obs) 
+								   ViewPointObservations obs ,
+								   int start , int end )
 	{
-		for( int j = 0; j < obs.points.size; j++, countPointObs++ ) {
+		for( int j = start; j < end; j++, countPointObs++ ) {
 			PointIndexObservation o = obs.points.get(j);
 			int indexParamWorld = indexFirstPoint+o.pointIndex*3;
 
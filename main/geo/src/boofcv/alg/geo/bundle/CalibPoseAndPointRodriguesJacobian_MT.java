@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link CalibPoseAndPointRodriguesJacobian}.  Observations are split into blocks
+ * and each thread writes the rows for its block directly into the output array.  Produces identical results.
+ * Small problems are processed by the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointRodriguesJacobian_MT extends CalibPoseAndPointRodriguesJacobian {
+
+	// minimum number of observations processed by a thread
+	int minBlock = 250;
+
+	// incremented each time the problem is configured.  Workers are only configured when it changes
+	int configureID;
+
+	// each thread has its own copy since the Jacobian has internal state
+	WorkerPool<Worker> workers = new WorkerPool<Worker>(
+			new WorkerFactory<Worker>() {
+				@Override
+				public Worker create() {
+					return new Worker();
+				}
+			});
+
+	@Override
+	public void configure(List<ViewPointObservations> observations, int numPoints, Se3_F64... extrinsic) {
+		super.configure(observations, numPoints, extrinsic);
+		configureID++;
+	}
+
+	@Override
+	public void process(final double[] input, final double[] output) {
+		if( numObservations < minBlock*2 ) {
+			super.process(input, output);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, numObservations, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int obsStart, int obsEnd) {
+				Worker worker = workers.acquire();
+				try {
+					if( worker.configuredID != configureID ) {
+						worker.configure(observations, numPoints, extrinsic);
+						worker.configuredID = configureID;
+					}
+					worker.process(input, output, obsStart, obsEnd);
+				} finally {
+					workers.release(worker);
+				}
+			}
+		});
+	}
+
+	public int getMinBlock() {
+		return minBlock;
+	}
+
+	/**
+	 * Specifies the minimum number of observations processed by each thread.  If there are fewer than
+	 * twice this number of observations the calling thread processes all of them.
+	 */
+	public void setMinBlock(int minBlock) {
+		this.minBlock = minBlock;
+	}
+
+	/**
+	 * Jacobian used by a single thread
+	 */
+	static class Worker extends CalibPoseAndPointRodriguesJacobian {
+		// value of configureID when it was last configured
+		int configuredID = -1;
+	}
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.alg.geo.RodriguesRotationJacobian;
+import georegression.geometry.GeometryMath_F64;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.so.Rodrigues_F64;
+import org.ejml.data.DenseMatrix64F;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the Jacobian for {@link CalibPoseAndPointResiduals} and stores it in a block-sparse format.  Each
+ * observation only depends on the parameters of one view and one point, so only two blocks are saved for
+ * each observation.  A 2x6 block for the view's Rodrigues rotation and translation and a 2x3 block for the point's
+ * location.  All other elements in the Jacobian are zero.  Blocks are stored in row-major format.  See
+ * {@link CalibPoseAndPointRodriguesJacobian} for the dense equivalent.
+ * </p>
+ *
+ * <p>
+ * Observations are ordered the same as the residuals, by view and then by the order they appear in the view.
+ * The observations of each point are also indexed to make it easy to traverse the Jacobian by point.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSparseJacobian {
+
+	// if the extrinsic parameters are known, specify them here
+	Se3_F64 extrinsic[];
+	// observed location of features in each view
+	List<ViewPointObservations> observations;
+
+	// number of camera views
+	int numViews;
+	// number of points in world coordinates
+	int numPoints;
+	// number of views with unknown extrinsic parameters
+	int numViewsUnknown;
+	// number of observations across all views
+	int numObservations;
+	// total number of parameters being optimized
+	int numParameters;
+	// index in parameters of the first point
+	int indexFirstPoint;
+
+	// index of each view in the list of unknown views.  -1 if the view is known
+	int viewIndex[] = new int[0];
+	// the view and point each observation belongs to
+	int obsView[] = new int[0];
+	int obsPoint[] = new int[0];
+	// list of observations for each point.  Observations of point 'i' are in
+	// pointObs[ pointObsStart[i] ] to pointObs[ pointObsStart[i+1]-1 ]
+	int pointObsStart[] = new int[0];
+	int pointObs[] = new int[0];
+	// the largest number of observations of a single point
+	int maxObsPerPoint;
+
+	// 2x6 Jacobian block for each observation with respect to the view's parameters
+	double viewBlocks[] = new double[0];
+	// 2x3 Jacobian block for each observation with respect to the point's location
+	double pointBlocks[] = new double[0];
+
+	// used to compute the Jacobian from Rodrigues coordinates
+	RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+
+	// local variable which stores the predicted location of the feature in the camera frame
+	Rodrigues_F64 rodrigues = new Rodrigues_F64();
+	// rotation matrix
+	DenseMatrix64F R = new DenseMatrix64F(3,3);
+	// translation vector
+	Vector3D_F64 T = new Vector3D_F64();
+	// feature location in world coordinates
+	Point3D_F64 worldPt = new Point3D_F64();
+	// feature location in camera coordinates
+	Point3D_F64 cameraPt = new Point3D_F64();
+
+	/**
+	 * Specifies the problem and computes its sparse structure.  Memory is only declared if the problem is larger
+	 * than any previous problem.
+	 *
+	 * @param observations Observations of points in each view
+	 * @param numPoints Number of points being optimized
+	 * @param extrinsic Known transform from world to camera for each view.  null if the view's pose is unknown.
+	 */
+	public void configure( List<ViewPointObservations> observations , int numPoints , Se3_F64 ...extrinsic) {
+		if( extrinsic.length < observations.size() )
+			throw new RuntimeException("knownExtrinsic length is less than the number of views in 'observations'");
+
+		this.observations = observations;
+		this.extrinsic = extrinsic;
+		this.numViews = observations.size();
+		this.numPoints = numPoints;
+
+		if( viewIndex.length < numViews )
+			viewIndex = new int[numViews];
+
+		numViewsUnknown = 0;
+		numObservations = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			if( extrinsic[i] == null )
+				viewIndex[i] = numViewsUnknown++;
+			else
+				viewIndex[i] = -1;
+			numObservations += observations.get(i).points.size;
+		}
+
+		indexFirstPoint = numViewsUnknown*6;
+		numParameters = numViewsUnknown*6 + numPoints*3;
+
+		if( obsView.length < numObservations ) {
+			obsView = new int[numObservations];
+			obsPoint = new int[numObservations];
+			pointObs = new int[numObservations];
+			viewBlocks = new double[numObservations*12];
+			pointBlocks = new double[numObservations*6];
+		}
+		if( pointObsStart.length < numPoints+1 )
+			pointObsStart = new int[numPoints+1];
+
+		// count the number of observations of each point
+		for( int i = 0; i <= numPoints; i++ )
+			pointObsStart[i] = 0;
+
+		int index = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			ViewPointObservations obs = observations.get(i);
+			for( int j = 0; j < obs.points.size; j++ , index++ ) {
+				int pointIndex = obs.points.data[j].pointIndex;
+				obsView[index] = i;
+				obsPoint[index] = pointIndex;
+				pointObsStart[pointIndex+1]++;
+			}
+		}
+
+		// convert the counts into the start of each point's list
+		maxObsPerPoint = 0;
+		for( int i = 0; i < numPoints; i++ ) {
+			maxObsPerPoint = Math.max(maxObsPerPoint,pointObsStart[i+1]);
+			pointObsStart[i+1] += pointObsStart[i];
+		}
+
+		// fill in the lists.  pointObsStart[i] is used as a counter then shifted back
+		for( int i = 0; i < numObservations; i++ ) {
+			pointObs[ pointObsStart[obsPoint[i]]++ ] = i;
+		}
+		for( int i = numPoints; i > 0; i-- ) {
+			pointObsStart[i] = pointObsStart[i-1];
+		}
+		pointObsStart[0] = 0;
+	}
+
+	/**
+	 * Computes the Jacobian blocks for each observation
+	 *
+	 * @param input Encoded parameters.  See {@link CalibPoseAndPointRodriguesCodec}.
+	 */
+	public void process( double[] input ) {
+		process(input,0,numObservations);
+	}
+
+	/**
+	 * Computes the Jacobian blocks for a range of observations
+	 *
+	 * @param input Encoded parameters.  See {@link CalibPoseAndPointRodriguesCodec}.
+	 * @param obsStart Index of the first observation, inclusive
+	 * @param obsEnd Index of the last observation, exclusive
+	 */
+	public void process( double[] input , int obsStart , int obsEnd ) {
+		if( obsStart >= obsEnd )
+			return;
+
+		// find the view which contains the first observation and the index of its parameters
+		int i = 0;
+		int viewStart = 0;
+		int paramIndex = 0;
+		while( viewStart + observations.get(i).points.size <= obsStart ) {
+			viewStart += observations.get(i).points.size;
+			if( extrinsic[i] == null )
+				paramIndex += 6;
+			i++;
+		}
+
+		int obsIndex = obsStart;
+		int j = obsStart-viewStart;
+
+		for( ; obsIndex < obsEnd; i++ , j = 0 ) {
+			ViewPointObservations obs = observations.get(i);
+
+			if( extrinsic[i] == null ) {
+				double rodX = input[paramIndex++];
+				double rodY = input[paramIndex++];
+				double rodZ = input[paramIndex++];
+
+				T.x = input[paramIndex++];
+				T.y = input[paramIndex++];
+				T.z = input[paramIndex++];
+
+				rodrigues.setParamVector(rodX,rodY,rodZ);
+				rodJacobian.process(rodX,rodY,rodZ);
+
+				RotationMatrixGenerator.rodriguesToMatrix(rodrigues,R);
+			} else {
+				T.set( extrinsic[i].getT());
+				R.set( extrinsic[i].getR());
+			}
+
+			for( ; j < obs.points.size && obsIndex < obsEnd; j++ , obsIndex++ ) {
+				PointIndexObservation o = obs.points.data[j];
+				int indexParamWorld = indexFirstPoint+o.pointIndex*3;
+
+				worldPt.x = input[indexParamWorld];
+				worldPt.y = input[indexParamWorld+1];
+				worldPt.z = input[indexParamWorld+2];
+
+				// location of point in camera view
+				GeometryMath_F64.mult(R, worldPt, cameraPt);
+				cameraPt.x += T.x;
+				cameraPt.y += T.y;
+				cameraPt.z += T.z;
+
+				if( extrinsic[i] == null ) {
+					int indexX = obsIndex*12;
+					addRodriguesJacobian(rodJacobian.Rx,indexX++);
+					addRodriguesJacobian(rodJacobian.Ry,indexX++);
+					addRodriguesJacobian(rodJacobian.Rz,indexX++);
+					addTranslationJacobian(indexX);
+				}
+
+				addWorldPointGradient(obsIndex*6);
+			}
+		}
+	}
+
+	/**
+	 * Derivative for a Rodrigues parameter.
+	 *
+	 * deriv [x,y] = -dot(z)/(z^2)*(R*X+T) + (1/z)*dot(R)*X
+	 */
+	private void addRodriguesJacobian( DenseMatrix64F Rj , int indexX )
+	{
+		// (1/z)*dot(R)*X
+		double Rx = (Rj.data[0]*worldPt.x + Rj.data[1]*worldPt.y + Rj.data[2]*worldPt.z)/cameraPt.z;
+		double Ry = (Rj.data[3]*worldPt.x + Rj.data[4]*worldPt.y + Rj.data[5]*worldPt.z)/cameraPt.z;
+
+		// dot(z)/(z^2)
+		double zDot_div_z2 = (Rj.data[6]*worldPt.x + Rj.data[7]*worldPt.y + Rj.data[8]*worldPt.z)/
+				(cameraPt.z*cameraPt.z);
+
+		viewBlocks[indexX] = -zDot_div_z2*cameraPt.x + Rx;
+		viewBlocks[indexX+6] = -zDot_div_z2*cameraPt.y + Ry;
+	}
+
+	/**
+	 * Derivative for translation
+	 *
+	 * deriv [x,y] = -dot(z)*T/(z^2) + dot(T)/z
+	 */
+	private void addTranslationJacobian( int indexX )
+	{
+		double divZ = 1.0/cameraPt.z;
+		double divZ2 = 1.0/(cameraPt.z*cameraPt.z);
+
+		int indexY = indexX + 6;
+
+		// partial T.x
+		viewBlocks[indexX++] = divZ;
+		viewBlocks[indexY++] = 0;
+		// partial T.y
+		viewBlocks[indexX++] = 0;
+		viewBlocks[indexY++] = divZ;
+		// partial T.z
+		viewBlocks[indexX] = -cameraPt.x*divZ2;
+		viewBlocks[indexY] = -cameraPt.y*divZ2;
+	}
+
+	/**
+	 * Gradient of the feature's 3D location
+	 *
+	 * deriv [x,y] = -dot(z)*(R*X+T)/(z^2) + R*dot(X)/z
+	 */
+	private void addWorldPointGradient( int indexX ) {
+		double divZ2 = 1.0/(cameraPt.z*cameraPt.z);
+		int indexY = indexX + 3;
+
+		// partial P.x
+		pointBlocks[indexX++] = -R.data[6]*divZ2*cameraPt.x + R.data[0]/cameraPt.z;
+		pointBlocks[indexY++] = -R.data[6]*divZ2*cameraPt.y + R.data[3]/cameraPt.z;
+		// partial P.y
+		pointBlocks[indexX++] = -R.data[7]*divZ2*cameraPt.x + R.data[1]/cameraPt.z;
+		pointBlocks[indexY++] = -R.data[7]*divZ2*cameraPt.y + R.data[4]/cameraPt.z;
+		// partial P.z
+		pointBlocks[indexX] = -R.data[8]*divZ2*cameraPt.x + R.data[2]/cameraPt.z;
+		pointBlocks[indexY] = -R.data[8]*divZ2*cameraPt.y + R.data[5]/cameraPt.z;
+	}
+
+	public int getNumOfInputsN() {
+		return numParameters;
+	}
+
+	public int getNumOfOutputsM() {
+		return numObservations*2;
+	}
+
+	public int getNumViewsUnknown() {
+		return numViewsUnknown;
+	}
+
+	public int getNumPoints() {
+		return numPoints;
+	}
+
+	public int getNumObservations() {
+		return numObservations;
+	}
+
+	/**
+	 * Index of the view in the list of views being optimized or -1 if its pose is known
+	 */
+	public int getViewIndex( int view ) {
+		return viewIndex[view];
+	}
+
+	public int[] getObsView() {
+		return obsView;
+	}
+
+	public int[] getObsPoint() {
+		return obsPoint;
+	}
+
+	public int[] getPointObsStart() {
+		return pointObsStart;
+	}
+
+	public int[] getPointObs() {
+		return pointObs;
+	}
+
+	public int getMaxObsPerPoint() {
+		return maxObsPerPoint;
+	}
+
+	public double[] getViewBlocks() {
+		return viewBlocks;
+	}
+
+	public double[] getPointBlocks() {
+		return pointBlocks;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+
+/**
+ * Concurrent implementation of {@link CalibPoseAndPointSparseJacobian}.  Observations are split into blocks
+ * and each thread writes the Jacobian blocks for its observations directly into the shared arrays.  Produces
+ * identical results.  Small problems are processed by the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSparseJacobian_MT extends CalibPoseAndPointSparseJacobian {
+
+	// minimum number of observations processed by a thread
+	int minBlock = 250;
+
+	// each thread has its own copy since the Jacobian has internal state
+	WorkerPool<CalibPoseAndPointSparseJacobian> workers = new WorkerPool<CalibPoseAndPointSparseJacobian>(
+			new WorkerFactory<CalibPoseAndPointSparseJacobian>() {
+				@Override
+				public CalibPoseAndPointSparseJacobian create() {
+					return new CalibPoseAndPointSparseJacobian();
+				}
+			});
+
+	@Override
+	public void process(final double[] input) {
+		if( numObservations < minBlock*2 ) {
+			super.process(input);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, numObservations, minBlock, new IntRangeTask() {
+			@Override
+			public void process(int obsStart, int obsEnd) {
+				CalibPoseAndPointSparseJacobian worker = workers.acquire();
+				try {
+					shareStructure(worker);
+					worker.process(input, obsStart, obsEnd);
+				} finally {
+					workers.release(worker);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Worker uses the same problem and writes into the same block arrays
+	 */
+	private void shareStructure( CalibPoseAndPointSparseJacobian worker ) {
+		worker.observations = observations;
+		worker.extrinsic = extrinsic;
+		worker.numViews = numViews;
+		worker.indexFirstPoint = indexFirstPoint;
+		worker.viewBlocks = viewBlocks;
+		worker.pointBlocks = pointBlocks;
+	}
+
+	public int getMinBlock() {
+		return minBlock;
+	}
+
+	/**
+	 * Specifies the minimum number of observations processed by each thread.  If there are fewer than
+	 * twice this number of observations the calling thread processes all of them.
+	 */
+	public void setMinBlock(int minBlock) {
+		this.minBlock = minBlock;
+	}
+}
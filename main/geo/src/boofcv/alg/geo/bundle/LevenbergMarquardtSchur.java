@@ -0,0 +1,576 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import org.ddogleg.optimization.functions.FunctionNtoM;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolverFactory;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+/**
+ * <p>
+ * Levenberg-Marquardt for bundle adjustment which takes advantage of the problem's sparse structure.  The normal
+ * equations are broken up into blocks for the views (U), points (V), and view-point (W).
+ * </p>
+ * <pre>
+ * [ U   W ][ &delta;a ] = -[ g<sub>a</sub> ]
+ * [ W<sup>T</sup>  V ][ &delta;b ]    [ g<sub>b</sub> ]
+ * </pre>
+ * <p>
+ * V is block diagonal with a 3x3 block for each point and is easily inverted.  The points are eliminated using the
+ * Schur complement, which creates the reduced camera system S = U - W*V<sup>-1</sup>*W<sup>T</sup>.  Only S is
+ * dense and its size only depends on the number of views.  After solving for the view parameters with a Cholesky
+ * decomposition the change in each point is found independently.
+ * </p>
+ *
+ * <p>
+ * The damping parameter is added to the diagonal and is updated using the gain ratio [1].  All memory is declared
+ * in {@link #initialize}, none is created while iterating.
+ * </p>
+ *
+ * <p>
+ * [1] K. Madsen, H. B. Nielsen, O. Tingleff, "Methods for Non-Linear Least Squares Problems" 2nd ed., 2004<br>
+ * [2] B. Triggs, P. McLauchlan, R. Hartley, A. Fitzgibbon, "Bundle Adjustment - A Modern Synthesis", 2000
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LevenbergMarquardtSchur {
+
+	// computes the residuals
+	FunctionNtoM function;
+	// computes the block-sparse Jacobian
+	CalibPoseAndPointSparseJacobian jacobian;
+
+	// scales the initial damping parameter
+	double initialDampParam = 1e-3;
+	// convergence tolerance for the change in cost
+	double ftol;
+	// convergence tolerance for the gradient
+	double gtol;
+
+	// number of views being optimized, points, and observations
+	int numViews;
+	int numPoints;
+	int numObservations;
+	int numParameters;
+
+	// current parameters and candidate parameters
+	double x[] = new double[0];
+	double xcandidate[] = new double[0];
+	// residuals at x and the candidate
+	double residuals[] = new double[0];
+	double residualsCandidate[] = new double[0];
+	// 0.5*||f(x)||^2 at x and the candidate
+	double fx;
+	double fxCandidate;
+
+	// damping parameter and how much it's increased by
+	double dampParam;
+	double dampIncrease;
+
+	// 6x6 diagonal blocks of J^T*J for each view
+	double U[] = new double[0];
+	// 3x3 diagonal blocks of J^T*J for each point
+	double V[] = new double[0];
+	// inverse of the damped V blocks
+	double Vinv[] = new double[0];
+	// gradient J^T*r.  Views then points
+	double gradient[] = new double[0];
+	// change in parameters.  Views then points
+	double step[] = new double[0];
+
+	// reduced camera system
+	DenseMatrix64F S = new DenseMatrix64F(1,1);
+	DenseMatrix64F rhs = new DenseMatrix64F(1,1);
+	DenseMatrix64F stepViews = new DenseMatrix64F(1,1);
+	LinearSolver<DenseMatrix64F> solver;
+
+	// W and W*Vinv for each observation of a single point with an unknown view
+	double tempW[] = new double[0];
+	double tempY[] = new double[0];
+	int tempView[] = new int[0];
+
+	// true when the Jacobian needs to be computed at the current parameters
+	boolean computeJacobian;
+	// has it converged
+	boolean converged;
+	// was the most recent step accepted
+	boolean updated;
+
+	/**
+	 * Specifies the functions being minimized.  They must already be configured.
+	 *
+	 * @param function Residual function
+	 * @param jacobian Jacobian of the residual function
+	 */
+	public void setFunction( FunctionNtoM function , CalibPoseAndPointSparseJacobian jacobian ) {
+		this.function = function;
+		this.jacobian = jacobian;
+	}
+
+	/**
+	 * Initializes the search and declares memory.
+	 *
+	 * @param initial Initial parameters.  Not modified.
+	 * @param ftol Relative convergence tolerance for the change in cost.  0 &le; ftol &lt; 1
+	 * @param gtol Absolute convergence tolerance for the gradient's infinity norm.  0 &le; gtol
+	 */
+	public void initialize( double initial[] , double ftol , double gtol ) {
+		this.ftol = ftol;
+		this.gtol = gtol;
+
+		numViews = jacobian.getNumViewsUnknown();
+		numPoints = jacobian.getNumPoints();
+		numObservations = jacobian.getNumObservations();
+		numParameters = jacobian.getNumOfInputsN();
+
+		if( x.length < numParameters ) {
+			x = new double[numParameters];
+			xcandidate = new double[numParameters];
+			gradient = new double[numParameters];
+			step = new double[numParameters];
+		}
+		if( residuals.length < numObservations*2 ) {
+			residuals = new double[numObservations*2];
+			residualsCandidate = new double[numObservations*2];
+		}
+		if( U.length < numViews*36 )
+			U = new double[numViews*36];
+		if( V.length < numPoints*9 ) {
+			V = new double[numPoints*9];
+			Vinv = new double[numPoints*9];
+		}
+		int maxObs = jacobian.getMaxObsPerPoint();
+		if( tempView.length < maxObs ) {
+			tempW = new double[maxObs*18];
+			tempY = new double[maxObs*18];
+			tempView = new int[maxObs];
+		}
+
+		int N = numViews*6;
+		if( solver == null || S.numRows != N ) {
+			S.reshape(N,N);
+			rhs.reshape(N,1);
+			stepViews.reshape(N,1);
+			solver = LinearSolverFactory.symmPosDef(N);
+		}
+
+		System.arraycopy(initial,0,x,0,numParameters);
+		function.process(x,residuals);
+		fx = cost(residuals);
+
+		dampParam = -1;
+		dampIncrease = 2;
+		computeJacobian = true;
+		converged = false;
+		updated = false;
+	}
+
+	/**
+	 * Performs a single step.  If the step is rejected the damping is increased and the next call
+	 * will try again.
+	 *
+	 * @return true if it has converged or can't make any more progress
+	 */
+	public boolean iterate() {
+		if( converged )
+			return true;
+
+		updated = false;
+
+		if( computeJacobian ) {
+			computeJacobian = false;
+			computeNormalEquations();
+
+			// check for convergence using the gradient
+			double maxG = 0;
+			for( int i = 0; i < numParameters; i++ ) {
+				maxG = Math.max(maxG,Math.abs(gradient[i]));
+			}
+			if( maxG <= gtol ) {
+				converged = true;
+				return true;
+			}
+
+			if( dampParam < 0 )
+				dampParam = initialDampParam*maxDiagonal();
+		}
+
+		if( !computeStep() ) {
+			return increaseDamping();
+		}
+
+		for( int i = 0; i < numParameters; i++ ) {
+			xcandidate[i] = x[i] + step[i];
+		}
+
+		function.process(xcandidate,residualsCandidate);
+		fxCandidate = cost(residualsCandidate);
+
+		// predicted reduction = 0.5*step^T*(dampParam*step - gradient)
+		double predicted = 0;
+		for( int i = 0; i < numParameters; i++ ) {
+			predicted += step[i]*(dampParam*step[i] - gradient[i]);
+		}
+		predicted *= 0.5;
+
+		double actual = fx - fxCandidate;
+
+		if( predicted > 0 && actual > 0 ) {
+			double ratio = actual/predicted;
+			double tmp = 2*ratio - 1;
+			dampParam *= Math.max(1.0/3.0, 1.0 - tmp*tmp*tmp);
+			dampIncrease = 2;
+
+			// accept the step
+			double swap[] = x; x = xcandidate; xcandidate = swap;
+			swap = residuals; residuals = residualsCandidate; residualsCandidate = swap;
+			double fxPrev = fx;
+			fx = fxCandidate;
+			computeJacobian = true;
+			updated = true;
+
+			if( actual <= ftol*fxPrev || fx == 0 ) {
+				converged = true;
+				return true;
+			}
+			return false;
+		} else {
+			return increaseDamping();
+		}
+	}
+
+	/**
+	 * Increases the damping after a rejected step.
+	 *
+	 * @return true if the damping can't be increased any more
+	 */
+	private boolean increaseDamping() {
+		dampParam *= dampIncrease;
+		dampIncrease *= 2;
+
+		if( Double.isInfinite(dampParam) || Double.isNaN(dampParam) ) {
+			converged = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the blocks in J^T*J and the gradient J^T*r
+	 */
+	protected void computeNormalEquations() {
+		jacobian.process(x);
+
+		double viewBlocks[] = jacobian.getViewBlocks();
+		double pointBlocks[] = jacobian.getPointBlocks();
+		int obsView[] = jacobian.getObsView();
+		int obsPoint[] = jacobian.getObsPoint();
+
+		for( int i = 0; i < numViews*36; i++ )
+			U[i] = 0;
+		for( int i = 0; i < numPoints*9; i++ )
+			V[i] = 0;
+		for( int i = 0; i < numParameters; i++ )
+			gradient[i] = 0;
+
+		int indexFirstPoint = numViews*6;
+
+		for( int k = 0; k < numObservations; k++ ) {
+			double rx = residuals[k*2];
+			double ry = residuals[k*2+1];
+
+			int view = jacobian.getViewIndex(obsView[k]);
+			if( view >= 0 ) {
+				int indexA = k*12;
+				int indexU = view*36;
+				int indexG = view*6;
+				for( int i = 0; i < 6; i++ ) {
+					double ax = viewBlocks[indexA+i];
+					double ay = viewBlocks[indexA+6+i];
+					for( int j = 0; j < 6; j++ ) {
+						U[indexU++] += ax*viewBlocks[indexA+j] + ay*viewBlocks[indexA+6+j];
+					}
+					gradient[indexG+i] += ax*rx + ay*ry;
+				}
+			}
+
+			int indexB = k*6;
+			int indexV = obsPoint[k]*9;
+			int indexG = indexFirstPoint + obsPoint[k]*3;
+			for( int i = 0; i < 3; i++ ) {
+				double bx = pointBlocks[indexB+i];
+				double by = pointBlocks[indexB+3+i];
+				for( int j = 0; j < 3; j++ ) {
+					V[indexV++] += bx*pointBlocks[indexB+j] + by*pointBlocks[indexB+3+j];
+				}
+				gradient[indexG+i] += bx*rx + by*ry;
+			}
+		}
+	}
+
+	/**
+	 * Solves for the step given the current damping using the Schur complement
+	 *
+	 * @return true if successful
+	 */
+	protected boolean computeStep() {
+		int N = numViews*6;
+		int indexFirstPoint = N;
+
+		int pointObsStart[] = jacobian.getPointObsStart();
+		int pointObs[] = jacobian.getPointObs();
+		int obsView[] = jacobian.getObsView();
+
+		// S = U + damping
+		S.zero();
+		for( int view = 0; view < numViews; view++ ) {
+			int indexU = view*36;
+			for( int i = 0; i < 6; i++ ) {
+				int indexS = (view*6+i)*N + view*6;
+				for( int j = 0; j < 6; j++ ) {
+					S.data[indexS+j] = U[indexU++];
+				}
+				S.data[indexS+i] += dampParam;
+			}
+		}
+		for( int i = 0; i < N; i++ ) {
+			rhs.data[i] = -gradient[i];
+		}
+
+		// Eliminate each point
+		for( int point = 0; point < numPoints; point++ ) {
+			if( !invertDampedV(point) )
+				return false;
+
+			int indexGb = indexFirstPoint + point*3;
+			double gb0 = gradient[indexGb], gb1 = gradient[indexGb+1], gb2 = gradient[indexGb+2];
+
+			// compute W and Y = W*inv(V) for observations in unknown views
+			int numLocal = 0;
+			for( int idx = pointObsStart[point]; idx < pointObsStart[point+1]; idx++ ) {
+				int k = pointObs[idx];
+				int view = jacobian.getViewIndex(obsView[k]);
+				if( view < 0 )
+					continue;
+
+				computeW(k,tempW,numLocal*18);
+				multW_Vinv(tempW,numLocal*18,point*9,tempY);
+				tempView[numLocal++] = view;
+			}
+
+			for( int a = 0; a < numLocal; a++ ) {
+				int indexYa = a*18;
+				int rowS = tempView[a]*6;
+
+				// rhs += Y*gb
+				for( int i = 0; i < 6; i++ ) {
+					int y = indexYa + i*3;
+					rhs.data[rowS+i] += tempY[y]*gb0 + tempY[y+1]*gb1 + tempY[y+2]*gb2;
+				}
+
+				// S -= Y_a * W_b^T.  S is symmetric so only the upper triangle is computed
+				for( int b = 0; b < numLocal; b++ ) {
+					if( tempView[b] < tempView[a] )
+						continue;
+					int indexWb = b*18;
+					int colS = tempView[b]*6;
+					for( int i = 0; i < 6; i++ ) {
+						int y = indexYa + i*3;
+						double y0 = tempY[y], y1 = tempY[y+1], y2 = tempY[y+2];
+						int indexS = (rowS+i)*N + colS;
+						for( int j = 0; j < 6; j++ ) {
+							int w = indexWb + j*3;
+							S.data[indexS+j] -= y0*tempW[w] + y1*tempW[w+1] + y2*tempW[w+2];
+						}
+					}
+				}
+			}
+		}
+
+		// copy the upper off diagonal blocks into the lower blocks.  Diagonal blocks are already complete
+		for( int i = 0; i < N; i++ ) {
+			for( int j = 0; j < (i/6)*6; j++ ) {
+				S.data[i*N+j] = S.data[j*N+i];
+			}
+		}
+
+		// solve for the change in view parameters
+		if( N > 0 ) {
+			if( !solver.setA(S) )
+				return false;
+			solver.solve(rhs,stepViews);
+			System.arraycopy(stepViews.data,0,step,0,N);
+		}
+
+		// solve for the change in each point. step_b = inv(V)*(-gb - W^T*step_a)
+		for( int point = 0; point < numPoints; point++ ) {
+			int indexGb = indexFirstPoint + point*3;
+			double t0 = -gradient[indexGb], t1 = -gradient[indexGb+1], t2 = -gradient[indexGb+2];
+
+			for( int idx = pointObsStart[point]; idx < pointObsStart[point+1]; idx++ ) {
+				int k = pointObs[idx];
+				int view = jacobian.getViewIndex(obsView[k]);
+				if( view < 0 )
+					continue;
+
+				computeW(k,tempW,0);
+				int indexA = view*6;
+				for( int i = 0; i < 6; i++ ) {
+					double s = step[indexA+i];
+					t0 -= tempW[i*3]*s;
+					t1 -= tempW[i*3+1]*s;
+					t2 -= tempW[i*3+2]*s;
+				}
+			}
+
+			int v = point*9;
+			step[indexGb]   = Vinv[v  ]*t0 + Vinv[v+1]*t1 + Vinv[v+2]*t2;
+			step[indexGb+1] = Vinv[v+3]*t0 + Vinv[v+4]*t1 + Vinv[v+5]*t2;
+			step[indexGb+2] = Vinv[v+6]*t0 + Vinv[v+7]*t1 + Vinv[v+8]*t2;
+		}
+
+		for( int i = 0; i < numParameters; i++ ) {
+			if( Double.isNaN(step[i]) || Double.isInfinite(step[i]))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * W = A^T*B for a single observation.  6x3 row-major
+	 */
+	private void computeW( int k , double W[] , int indexW ) {
+		double viewBlocks[] = jacobian.getViewBlocks();
+		double pointBlocks[] = jacobian.getPointBlocks();
+
+		int indexA = k*12;
+		int indexB = k*6;
+		for( int i = 0; i < 6; i++ ) {
+			double ax = viewBlocks[indexA+i];
+			double ay = viewBlocks[indexA+6+i];
+			for( int j = 0; j < 3; j++ ) {
+				W[indexW++] = ax*pointBlocks[indexB+j] + ay*pointBlocks[indexB+3+j];
+			}
+		}
+	}
+
+	/**
+	 * Y = W*inv(V)
+	 */
+	private void multW_Vinv( double W[] , int indexW , int indexV , double Y[] ) {
+		for( int i = 0; i < 6; i++ ) {
+			int w = indexW + i*3;
+			double w0 = W[w], w1 = W[w+1], w2 = W[w+2];
+			for( int j = 0; j < 3; j++ ) {
+				Y[w+j] = w0*Vinv[indexV+j] + w1*Vinv[indexV+3+j] + w2*Vinv[indexV+6+j];
+			}
+		}
+	}
+
+	/**
+	 * Inverts the 3x3 block V for a point after adding the damping parameter to its diagonal
+	 */
+	private boolean invertDampedV( int point ) {
+		int v = point*9;
+
+		double a11 = V[v  ] + dampParam, a12 = V[v+1], a13 = V[v+2];
+		double a21 = V[v+3], a22 = V[v+4] + dampParam, a23 = V[v+5];
+		double a31 = V[v+6], a32 = V[v+7], a33 = V[v+8] + dampParam;
+
+		double m11 = a22*a33 - a23*a32;
+		double m12 = -(a21*a33 - a23*a31);
+		double m13 = a21*a32 - a22*a31;
+
+		double det = a11*m11 + a12*m12 + a13*m13;
+		if( det == 0 || Double.isNaN(det) || Double.isInfinite(det) )
+			return false;
+
+		Vinv[v  ] = m11/det;
+		Vinv[v+1] = -(a12*a33 - a13*a32)/det;
+		Vinv[v+2] = (a12*a23 - a13*a22)/det;
+		Vinv[v+3] = m12/det;
+		Vinv[v+4] = (a11*a33 - a13*a31)/det;
+		Vinv[v+5] = -(a11*a23 - a13*a21)/det;
+		Vinv[v+6] = m13/det;
+		Vinv[v+7] = -(a11*a32 - a12*a31)/det;
+		Vinv[v+8] = (a11*a22 - a12*a21)/det;
+
+		return true;
+	}
+
+	/**
+	 * Largest element along the diagonal of J^T*J
+	 */
+	private double maxDiagonal() {
+		double max = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			for( int i = 0; i < 6; i++ )
+				max = Math.max(max,U[view*36+i*7]);
+		}
+		for( int point = 0; point < numPoints; point++ ) {
+			for( int i = 0; i < 3; i++ )
+				max = Math.max(max,V[point*9+i*4]);
+		}
+		return max;
+	}
+
+	private double cost( double residuals[] ) {
+		double total = 0;
+		int M = numObservations*2;
+		for( int i = 0; i < M; i++ ) {
+			total += residuals[i]*residuals[i];
+		}
+		return 0.5*total;
+	}
+
+	/**
+	 * Current estimate of the parameters
+	 */
+	public double[] getParameters() {
+		return x;
+	}
+
+	/**
+	 * 0.5*||f(x)||<sup>2</sup> at the current parameters
+	 */
+	public double getFunctionValue() {
+		return fx;
+	}
+
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * True if the most recent call to {@link #iterate()} changed the parameters
+	 */
+	public boolean isUpdated() {
+		return updated;
+	}
+
+	public double getInitialDampParam() {
+		return initialDampParam;
+	}
+
+	public void setInitialDampParam(double initialDampParam) {
+		this.initialDampParam = initialDampParam;
+	}
+}
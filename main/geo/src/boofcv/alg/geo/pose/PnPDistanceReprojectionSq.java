@@ -71,6 +71,13 @@ public class PnPDistanceReprojectionSq implements DistanceModelMonoPixels<Se3_F6
 		pixelError = new NormalizedToPixelError(fx,fy,skew);
 	}
 
+	/**
+	 * Copies the intrinsic parameters from the original.  Used when each thread needs its own instance.
+	 */
+	public void setTo( PnPDistanceReprojectionSq original ) {
+		pixelError.set(original.pixelError);
+	}
+
 	@Override
 	public void setModel(Se3_F64 worldToCamera) {
 		this.worldToCamera = worldToCamera;
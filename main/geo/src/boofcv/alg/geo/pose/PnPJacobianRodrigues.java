@@ -41,7 +41,7 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 
 	// transformation from world to camera frame
 	private Se3_F64 worldToCamera = new Se3_F64();
-	private List<Point2D3D> observations;
+	protected List<Point2D3D> observations;
 
 	// used to compute the Jacobian from Rodrigues coordinates
 	private RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
@@ -74,6 +74,18 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 
 	@Override
 	public void process(double[] input, double[] output) {
+		process(input,output,0,observations.size());
+	}
+
+	/**
+	 * Computes the rows in the Jacobian for a range of observations.
+	 *
+	 * @param input Parameters
+	 * @param output Jacobian for all the observations.  Only rows for observations in the range are modified
+	 * @param start Index of the first observation, inclusive
+	 * @param end Index of the last observation, exclusive
+	 */
+	public void process(double[] input, double[] output, int start , int end ) {
 
 		this.output = output;
 
@@ -88,7 +100,7 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 		RotationMatrixGenerator.rodriguesToMatrix(rodrigues, worldToCamera.getR());
 
 		// compute the gradient for each observation
-		for( int i = 0; i < observations.size(); i++ ) {
+		for( int i = start; i < end; i++ ) {
 			Point2D3D o = observations.get(i);
 
 			SePointOps_F64.transform(worldToCamera,o.location, cameraPt);
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.pose;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+
+/**
+ * Concurrent implementation of {@link PnPJacobianRodrigues}.  Observations are split into blocks and each
+ * thread writes the rows for its block directly into the output array.  Produces identical results.
+ * Small problems are processed by the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class PnPJacobianRodrigues_MT extends PnPJacobianRodrigues {
+
+	// minimum number of observations processed by a thread
+	int minBlock = 500;
+
+	// each thread has its own copy since the Jacobian has internal state
+	WorkerPool<PnPJacobianRodrigues> workers = new WorkerPool<PnPJacobianRodrigues>(
+			new WorkerFactory<PnPJacobianRodrigues>() {
+				@Override
+				public PnPJacobianRodrigues create() {
+					return new PnPJacobianRodrigues();
+				}
+			});
+
+	@Override
+	public void process(final double[] input, final double[] output) {
+		if( observations.size() < minBlock*2 ) {
+			super.process(input, output);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, observations.size(), minBlock, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				PnPJacobianRodrigues worker = workers.acquire();
+				try {
+					worker.setObservations(observations);
+					worker.process(input, output, start, end);
+				} finally {
+					workers.release(worker);
+				}
+			}
+		});
+	}
+
+	public int getMinBlock() {
+		return minBlock;
+	}
+
+	/**
+	 * Specifies the minimum number of observations processed by each thread.  If there are fewer than
+	 * twice this number of observations the calling thread processes all of them.
+	 */
+	public void setMinBlock(int minBlock) {
+		this.minBlock = minBlock;
+	}
+}
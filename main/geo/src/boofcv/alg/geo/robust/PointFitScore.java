@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+/**
+ * Returns the fit score of the association which created a point, e.g. the score from associating
+ * two feature descriptions.  Used by robust estimators which sample the best points first.
+ *
+ * @author Peter Abeles
+ */
+public interface PointFitScore<Point> {
+	/**
+	 * Fit score of the point.  Lower is better.
+	 *
+	 * @param point The point
+	 * @return Fit score
+	 */
+	public double fitScore( Point point );
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.sorting.QuickSort_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * PROSAC [1], progressive sample consensus.  Instead of drawing samples uniformly from all the points they
+ * are drawn from a subset of the points with the best fit scores, e.g. the association score.  The subset
+ * grows as more samples are drawn until it contains all the points, at which point it's the same as RANSAC.
+ * When the fit score is a good predictor of a point being an inlier a good model is found much sooner than
+ * with uniform sampling, which helps the most when the fraction of inliers is small.
+ * </p>
+ *
+ * <p>
+ * It stops once it's confident that an outlier free sample has been drawn from some subset of the best points,
+ * which can be much sooner than when all the points are considered.  A subset is only considered if its
+ * number of inliers is unlikely to be by chance, i.e. the non-randomness test, which is computed using a
+ * normal approximation of the binomial distribution.  Otherwise the same as {@link RansacAdaptive}.  The order
+ * of points in the input list is not modified.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, O. and Matas, J. "Matching with PROSAC - Progressive Sample Consensus" CVPR 2005
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Prosac<Model,Point> extends RansacAdaptive<Model,Point> {
+
+	// returns the fit score of each point
+	protected PointFitScore<Point> scorer;
+
+	// number of samples after which it's the same as RANSAC.  T_N in the paper
+	protected int growthMaxSamples = 200000;
+
+	// size of the subset, of points with the best scores, which samples are drawn from. n in the paper
+	protected int subsetSize;
+	// average number of samples drawn from the subset which contain only points from it.  T_n in the paper
+	protected double averageSamples;
+	// number of samples after which the subset grows.  T'_n in the paper
+	protected int growthSamples;
+
+	// probability that an outlier is consistent with an incorrect model.  beta in the paper
+	protected double probConsistent = 0.05;
+
+	// position of each point when sorted by fit score
+	protected int rank[] = new int[0];
+	// if the point at each position in the sorted order is an inlier of the best model
+	protected boolean inlierByRank[] = new boolean[0];
+
+	// index of the point which was swapped into the sample and needs to be swapped back. -1 if none
+	protected int swapped;
+
+	// used to sort points by their fit score
+	protected QuickSort_F64 sorter = new QuickSort_F64();
+	protected double scores[] = new double[0];
+
+	/**
+	 * Specifies the algorithms used and its main parameters.
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param manager Creates and copies models
+	 * @param generator Creates a model from a sample of points
+	 * @param distance Computes the distance a point is from the model
+	 * @param scorer Returns the fit score of a point, lower is better
+	 * @param maxIterations Maximum number of iterations.
+	 * @param thresholdFit A point is an inlier if its distance is less than this value
+	 */
+	public Prosac(long randSeed,
+				  ModelManager<Model> manager,
+				  ModelGenerator<Model, Point> generator,
+				  DistanceFromModel<Model, Point> distance,
+				  PointFitScore<Point> scorer,
+				  int maxIterations,
+				  double thresholdFit)
+	{
+		super(randSeed, manager, generator, distance, maxIterations, thresholdFit);
+		this.scorer = scorer;
+	}
+
+	/**
+	 * Sorts the points by their fit score, best first, and resets the subset to the smallest size
+	 */
+	@Override
+	protected void initialize( List<Point> dataSet ) {
+		super.initialize(dataSet);
+
+		int N = dataSet.size();
+		if( scores.length < N )
+			scores = new double[N];
+		for( int i = 0; i < N; i++ )
+			scores[i] = scorer.fitScore(dataSet.get(i));
+		sorter.sort(scores, N, shuffled);
+
+		if( rank.length < N ) {
+			rank = new int[N];
+			inlierByRank = new boolean[N];
+		}
+		for( int i = 0; i < N; i++ )
+			rank[shuffled[i]] = i;
+
+		subsetSize = sampleSize;
+		averageSamples = growthMaxSamples;
+		for( int i = 0; i < sampleSize; i++ )
+			averageSamples *= (sampleSize - i)/(double)(N - i);
+		growthSamples = 1;
+		swapped = -1;
+	}
+
+	/**
+	 * Selects the sample from the subset of best points.  The first n-1 elements in {@link #shuffled} are
+	 * always the n-1 best points, but in a random order.  Points in the sample are moved to the front.
+	 */
+	@Override
+	protected void selectSample( List<Point> dataSet ) {
+		int N = dataSet.size();
+
+		// undo the previous swap so that the best points are at the front again
+		if( swapped >= 0 ) {
+			swap(sampleSize-1, swapped);
+			swapped = -1;
+		}
+
+		// grow the subset
+		if( iterations > growthSamples && subsetSize < N ) {
+			double nextAverage = averageSamples*(subsetSize+1)/(subsetSize+1-sampleSize);
+			growthSamples += (int)Math.ceil(nextAverage - averageSamples);
+			averageSamples = nextAverage;
+			subsetSize++;
+		}
+
+		sample.clear();
+		if( growthSamples < iterations ) {
+			// the subset contains all the points, same as RANSAC
+			for( int i = 0; i < sampleSize; i++ ) {
+				swap(i, i + rand.nextInt(subsetSize-i));
+				sample.add(dataSet.get(shuffled[i]));
+			}
+		} else {
+			// the point which was just added to the subset is always in the sample
+			for( int i = 0; i < sampleSize-1; i++ ) {
+				swap(i, i + rand.nextInt(subsetSize-1-i));
+				sample.add(dataSet.get(shuffled[i]));
+			}
+			swapped = subsetSize-1;
+			swap(sampleSize-1, swapped);
+			sample.add(dataSet.get(shuffled[sampleSize-1]));
+		}
+	}
+
+	/**
+	 * Smallest number of iterations needed by any subset of the best points which the sample could have been
+	 * drawn from and passes the non-randomness test.  The subset of all the points is always considered.
+	 */
+	@Override
+	protected int requiredIterations( int inliers , int total ) {
+		int best = super.requiredIterations(inliers, total);
+
+		for( int i = 0; i < total; i++ )
+			inlierByRank[i] = false;
+		for( int i = 0; i < bestCount; i++ )
+			inlierByRank[rank[bestMatchToInput[i]]] = true;
+
+		int count = 0;
+		for( int n = 1; n < total; n++ ) {
+			if( inlierByRank[n-1] )
+				count++;
+			// samples have been drawn from larger subsets, so fewer were drawn from this one than the iterations
+			if( n < subsetSize || count < minimumInliers(n) )
+				continue;
+
+			best = Math.min(best, super.requiredIterations(count, n));
+		}
+		return best;
+	}
+
+	/**
+	 * Minimum number of inliers in a subset of size n for it to be unlikely that an incorrect model has that
+	 * many inliers by chance.  5% significance.  Points in the sample are always inliers, the others are
+	 * binomially distributed.  A continuity correction is included in the normal approximation.
+	 */
+	protected double minimumInliers( int n ) {
+		int trials = n - sampleSize;
+		double variance = trials*probConsistent*(1-probConsistent);
+		return sampleSize + probConsistent*trials + 0.5 + 1.645*Math.sqrt(variance);
+	}
+
+	private void swap( int a , int b ) {
+		int tmp = shuffled[a];
+		shuffled[a] = shuffled[b];
+		shuffled[b] = tmp;
+	}
+
+	public PointFitScore<Point> getScorer() {
+		return scorer;
+	}
+
+	public void setScorer(PointFitScore<Point> scorer) {
+		this.scorer = scorer;
+	}
+
+	public double getProbConsistent() {
+		return probConsistent;
+	}
+
+	/**
+	 * Probability that an outlier happens to be consistent with an incorrect model, used in the
+	 * non-randomness test.  Default is 0.05.
+	 */
+	public void setProbConsistent(double probConsistent) {
+		this.probConsistent = probConsistent;
+	}
+
+	public int getGrowthMaxSamples() {
+		return growthMaxSamples;
+	}
+
+	/**
+	 * Number of samples after which samples are drawn from all the points, like RANSAC.  Smaller values
+	 * cause the subset to grow faster.  Default is 200000.
+	 */
+	public void setGrowthMaxSamples(int growthMaxSamples) {
+		this.growthMaxSamples = growthMaxSamples;
+	}
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Variant of RANSAC [1] which stops once it is confident that a good model has been found and quickly discards
+ * bad hypotheses.  The following improvements over the classic algorithm are used:
+ * </p>
+ * <ul>
+ * <li>Adaptive stopping.  Each time a better model is found the number of iterations needed to draw an outlier
+ * free sample with the specified confidence is recomputed from the inlier ratio.  The maximum number of
+ * iterations is an upper limit.</li>
+ * <li>Optional T(d,d) pre-test [2].  Before being scored against all the points, a hypothesis is checked
+ * against d randomly selected points.  If any of them are not inliers the hypothesis is discarded.  More
+ * hypotheses need to be generated, so it's only faster when generating a hypothesis is cheap relative to
+ * scoring it against all the points.</li>
+ * <li>Early termination of scoring.  Counting inliers stops once a hypothesis can't beat the best model.</li>
+ * <li>Optional local optimization [3].  When a better model is found it is refit to its inlier set, which is
+ * repeated while the number of inliers increases.</li>
+ * </ul>
+ *
+ * <p>
+ * [1] Martin A. Fischler and Robert C. Bolles, "Random Sample Consensus: A Paradigm for Model Fitting with
+ * Applications to Image Analysis and Automated Cartography" Comm. of the ACM 24 (6): 381-395. 1981<br>
+ * [2] Chum, O. and Matas, J. "Randomized RANSAC with T(d,d) test" BMVC 2002<br>
+ * [3] Chum, O., Matas, J. and Kittler, J. "Locally Optimized RANSAC" DAGM 2003
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacAdaptive<Model,Point> implements ModelMatcher<Model,Point> {
+
+	// used to randomly select samples
+	protected Random rand;
+
+	// creates and copies models
+	protected ModelManager<Model> manager;
+	// creates a model from a minimal set of points
+	protected ModelGenerator<Model,Point> generator;
+	// computes the distance a point is from the model
+	protected DistanceFromModel<Model,Point> distance;
+	// refits a model to its inlier set.  If null local optimization is skipped
+	protected ModelFitter<Model,Point> fitter;
+
+	// upper limit on the number of iterations
+	protected int maxIterations;
+	// a point is an inlier if its distance is less than this threshold
+	protected double thresholdFit;
+	// desired probability of having drawn at least one outlier free sample when it stops
+	protected double confidence = 0.999;
+	// number of randomly selected points a hypothesis is pre-tested against
+	protected int pretestSize = 0;
+	// maximum number of times the best model is refit during local optimization
+	protected int maxLocalIterations = 4;
+
+	// number of points used to generate a model
+	protected int sampleSize;
+
+	// random permutation of point indexes. The first sampleSize elements are the current sample
+	protected int shuffled[] = new int[0];
+	// points in the current sample
+	protected List<Point> sample = new ArrayList<Point>();
+
+	// the best model found so far and the input index of its inliers
+	protected Model bestModel;
+	protected int bestMatchToInput[] = new int[0];
+	protected int bestCount;
+	protected List<Point> bestMatchSet = new ArrayList<Point>();
+
+	// storage for the hypothesis being evaluated
+	protected Model candidateModel;
+	protected int candidateMatchToInput[] = new int[0];
+
+	// number of iterations performed in the most recent call to process
+	protected int iterations;
+
+	/**
+	 * Specifies the algorithms used and its main parameters.
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param manager Creates and copies models
+	 * @param generator Creates a model from a sample of points
+	 * @param distance Computes the distance a point is from the model
+	 * @param maxIterations Maximum number of iterations.
+	 * @param thresholdFit A point is an inlier if its distance is less than this value
+	 */
+	public RansacAdaptive(long randSeed,
+						  ModelManager<Model> manager,
+						  ModelGenerator<Model, Point> generator,
+						  DistanceFromModel<Model, Point> distance,
+						  int maxIterations,
+						  double thresholdFit)
+	{
+		this.rand = new Random(randSeed);
+		this.manager = manager;
+		this.generator = generator;
+		this.distance = distance;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+
+		this.sampleSize = generator.getMinimumPoints();
+		this.bestModel = manager.createModelInstance();
+		this.candidateModel = manager.createModelInstance();
+	}
+
+	@Override
+	public boolean process(List<Point> dataSet) {
+		iterations = 0;
+		bestCount = 0;
+		bestMatchSet.clear();
+
+		int N = dataSet.size();
+		if( N < sampleSize )
+			return false;
+
+		initialize(dataSet);
+
+		int limit = maxIterations;
+		while( iterations < limit ) {
+			iterations++;
+
+			selectSample(dataSet);
+			if( !generator.generate(sample,candidateModel) )
+				continue;
+
+			distance.setModel(candidateModel);
+			if( !pretest(dataSet) )
+				continue;
+
+			int count = countInliers(distance, dataSet, bestCount + 1, candidateMatchToInput);
+			if( count <= bestCount )
+				continue;
+
+			swapCandidateWithBest(count);
+			if( fitter != null )
+				localOptimization(dataSet);
+
+			if( bestCount == N )
+				break;
+			limit = requiredIterations(bestCount, N);
+		}
+
+		if( bestCount == 0 )
+			return false;
+
+		updateBestMatchSet(dataSet);
+		return true;
+	}
+
+	/**
+	 * Declares storage and resets the order points are drawn in
+	 */
+	protected void initialize( List<Point> dataSet ) {
+		int N = dataSet.size();
+		if( shuffled.length < N ) {
+			shuffled = new int[N];
+			bestMatchToInput = new int[N];
+			candidateMatchToInput = new int[N];
+		}
+		for( int i = 0; i < N; i++ )
+			shuffled[i] = i;
+	}
+
+	/**
+	 * Randomly selects the sample by partially shuffling the point indexes.  Points in the sample
+	 * are moved to the front of {@link #shuffled}.
+	 */
+	protected void selectSample( List<Point> dataSet ) {
+		int N = dataSet.size();
+
+		sample.clear();
+		for( int i = 0; i < sampleSize; i++ ) {
+			int j = i + rand.nextInt(N-i);
+			int tmp = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = tmp;
+			sample.add(dataSet.get(shuffled[i]));
+		}
+	}
+
+	/**
+	 * T(d,d) test.  The hypothesis passes if randomly selected points, which are not in the sample,
+	 * are all inliers.  The model must already be passed to {@link #distance}.
+	 */
+	protected boolean pretest( List<Point> dataSet ) {
+		int remaining = dataSet.size() - sampleSize;
+		if( remaining <= 0 )
+			return true;
+
+		for( int i = 0; i < pretestSize; i++ ) {
+			int index = shuffled[sampleSize + rand.nextInt(remaining)];
+			if( !(distance.computeDistance(dataSet.get(index)) < thresholdFit) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the number of inliers for the model which has been passed to the distance function.  Stops early
+	 * if it is not possible to have the minimum number of inliers.
+	 *
+	 * @param distance Distance function which has been given the model
+	 * @param dataSet All the points
+	 * @param minimum Minimum number of inliers which is of interest
+	 * @param matchToInput (output) Input index of each inlier
+	 * @return Number of inliers or a value less than minimum if it stopped early
+	 */
+	protected int countInliers( DistanceFromModel<Model,Point> distance , List<Point> dataSet ,
+								int minimum , int matchToInput[] ) {
+		int N = dataSet.size();
+		int count = 0;
+		for( int i = 0; i < N; i++ ) {
+			if( distance.computeDistance(dataSet.get(i)) < thresholdFit ) {
+				matchToInput[count++] = i;
+			} else if( count + N - i - 1 < minimum ) {
+				return count;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Refits the best model to its inlier set until the number of inliers stops increasing.  A refit model
+	 * with the same number of inliers replaces the best model since it was estimated from more points.
+	 */
+	protected void localOptimization( List<Point> dataSet ) {
+		for( int i = 0; i < maxLocalIterations; i++ ) {
+			updateBestMatchSet(dataSet);
+			if( !fitter.fitModel(bestMatchSet, bestModel, candidateModel) )
+				return;
+
+			distance.setModel(candidateModel);
+			int count = countInliers(distance, dataSet, bestCount, candidateMatchToInput);
+			if( count < bestCount )
+				return;
+
+			boolean improved = count > bestCount;
+			swapCandidateWithBest(count);
+			if( !improved )
+				return;
+		}
+	}
+
+	/**
+	 * Number of iterations required to have selected an outlier free sample, which also passes the pre-test,
+	 * with the specified confidence.  Never more than the maximum number of iterations.
+	 *
+	 * @param inliers Number of inliers in the best model
+	 * @param total Total number of points
+	 */
+	protected int requiredIterations( int inliers , int total ) {
+		double probGood = Math.pow(inliers/(double)total, sampleSize + pretestSize);
+		if( probGood <= 0 )
+			return maxIterations;
+		if( probGood >= 1 )
+			return 1;
+
+		double k = Math.log(1.0 - confidence)/Math.log1p(-probGood);
+		if( k >= maxIterations )
+			return maxIterations;
+		return (int)Math.ceil(k);
+	}
+
+	protected void swapCandidateWithBest( int count ) {
+		Model tmpModel = bestModel;
+		bestModel = candidateModel;
+		candidateModel = tmpModel;
+
+		int tmp[] = bestMatchToInput;
+		bestMatchToInput = candidateMatchToInput;
+		candidateMatchToInput = tmp;
+
+		bestCount = count;
+	}
+
+	protected void updateBestMatchSet( List<Point> dataSet ) {
+		bestMatchSet.clear();
+		for( int i = 0; i < bestCount; i++ )
+			bestMatchSet.add(dataSet.get(bestMatchToInput[i]));
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return bestMatchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return bestMatchToInput[matchIndex];
+	}
+
+	/**
+	 * Number of points in the match set
+	 */
+	@Override
+	public double getFitQuality() {
+		return bestMatchSet.size();
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	/**
+	 * Number of iterations performed during the most recent call to {@link #process}
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit(double thresholdFit) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	/**
+	 * Desired probability that an outlier free sample has been drawn when it stops.  Set to 1 to always
+	 * run for the maximum number of iterations.  Try 0.999
+	 */
+	public void setConfidence(double confidence) {
+		this.confidence = confidence;
+	}
+
+	public int getPretestSize() {
+		return pretestSize;
+	}
+
+	/**
+	 * Number of randomly selected points a hypothesis must fit before it's scored against all the points.
+	 * Set to 0 to disable, which is the default.  Try 1 when hypotheses are cheap to generate.
+	 */
+	public void setPretestSize(int pretestSize) {
+		this.pretestSize = pretestSize;
+	}
+
+	public ModelFitter<Model, Point> getLocalOptimization() {
+		return fitter;
+	}
+
+	/**
+	 * Specifies the algorithm used to refit the best model to its inlier set.  If null then local
+	 * optimization is not performed.
+	 */
+	public void setLocalOptimization(ModelFitter<Model, Point> fitter) {
+		this.fitter = fitter;
+	}
+
+	public int getMaxLocalIterations() {
+		return maxLocalIterations;
+	}
+
+	public void setMaxLocalIterations(int maxLocalIterations) {
+		this.maxLocalIterations = maxLocalIterations;
+	}
+}
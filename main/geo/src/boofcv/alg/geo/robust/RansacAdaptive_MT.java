@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.concurrency.WorkerCopyFactory;
+import boofcv.concurrency.WorkerFactory;
+import boofcv.concurrency.WorkerPool;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link RansacAdaptive}.  Hypotheses are generated and scored in parallel batches
+ * with each thread using its own generator and distance function.  After each batch the best hypothesis is
+ * selected, local optimization is applied by the calling thread, and the number of required iterations is
+ * updated.
+ * </p>
+ *
+ * <p>
+ * The sample for each hypothesis is drawn using its own seed, which the calling thread draws from the main random
+ * number generator before each batch.  The best hypothesis in a batch is the one with the most inliers, with ties
+ * going to the first one.  Thus for a given seed and batch size the results don't depend on the number of threads
+ * or the order they run in.  A different sampling scheme is used from {@link RansacAdaptive} so the results
+ * will not be identical to it.
+ * </p>
+ *
+ * <p>
+ * The generator and distance function can have state, e.g. camera calibration, which is configured after
+ * construction.  Before a thread uses its copy in a call to {@link #process}, the state of the instances passed
+ * into the constructor is copied using the {@link WorkerCopyFactory}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacAdaptive_MT<Model,Point> extends RansacAdaptive<Model,Point> {
+
+	// number of hypotheses which are evaluated together
+	protected int batchSize = 16;
+
+	// creates and synchronizes the per thread generators and distance functions
+	protected WorkerCopyFactory<ModelGenerator<Model,Point>> generators;
+	protected WorkerCopyFactory<DistanceFromModel<Model,Point>> distances;
+
+	protected WorkerPool<Worker> workers = new WorkerPool<Worker>(new WorkerFactory<Worker>() {
+		@Override
+		public Worker create() {
+			return new Worker();
+		}
+	});
+
+	// incremented each call to process.  Used to determine if a worker's state is out of date
+	protected int processID;
+
+	// seed used to draw the sample for each hypothesis in the batch
+	protected long seeds[] = new long[0];
+
+	// best hypothesis in the current batch.  Modified by multiple threads, see lock
+	protected final Object lock = new Object();
+	protected Model batchModel;
+	protected int batchMatchToInput[] = new int[0];
+	protected int batchCount;
+	protected int batchIndex;
+
+	/**
+	 * Specifies the algorithms used and its main parameters.
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param manager Creates and copies models
+	 * @param generator Creates a model from a sample of points
+	 * @param distance Computes the distance a point is from the model
+	 * @param generators Creates a generator for each thread and copies the state of generator into them
+	 * @param distances Creates a distance function for each thread and copies the state of distance into them
+	 * @param maxIterations Maximum number of iterations.
+	 * @param thresholdFit A point is an inlier if its distance is less than this value
+	 */
+	public RansacAdaptive_MT(long randSeed,
+							 ModelManager<Model> manager,
+							 ModelGenerator<Model, Point> generator,
+							 DistanceFromModel<Model, Point> distance,
+							 WorkerCopyFactory<ModelGenerator<Model, Point>> generators,
+							 WorkerCopyFactory<DistanceFromModel<Model, Point>> distances,
+							 int maxIterations,
+							 double thresholdFit)
+	{
+		super(randSeed, manager, generator, distance, maxIterations, thresholdFit);
+		this.generators = generators;
+		this.distances = distances;
+		this.batchModel = manager.createModelInstance();
+	}
+
+	@Override
+	public boolean process(final List<Point> dataSet) {
+		iterations = 0;
+		bestCount = 0;
+		bestMatchSet.clear();
+		processID++;
+
+		int N = dataSet.size();
+		if( N < sampleSize )
+			return false;
+
+		initialize(dataSet);
+		if( batchMatchToInput.length < N )
+			batchMatchToInput = new int[N];
+		if( seeds.length < batchSize )
+			seeds = new long[batchSize];
+
+		int limit = maxIterations;
+		while( iterations < limit ) {
+			int total = Math.min(batchSize, limit - iterations);
+			for( int i = 0; i < total; i++ )
+				seeds[i] = rand.nextLong();
+
+			batchCount = bestCount;
+			batchIndex = -1;
+
+			final int minimum = bestCount + 1;
+			BoofConcurrency.loopBlocks(0, total, 1, new IntRangeTask() {
+				@Override
+				public void process(int start, int end) {
+					Worker w = workers.acquire();
+					try {
+						w.process(dataSet, minimum, start, end);
+					} finally {
+						workers.release(w);
+					}
+				}
+			});
+			iterations += total;
+
+			if( batchIndex < 0 )
+				continue;
+
+			manager.copyModel(batchModel, bestModel);
+			System.arraycopy(batchMatchToInput, 0, bestMatchToInput, 0, batchCount);
+			bestCount = batchCount;
+
+			if( fitter != null )
+				localOptimization(dataSet);
+
+			if( bestCount == N )
+				break;
+			limit = requiredIterations(bestCount, N);
+		}
+
+		if( bestCount == 0 )
+			return false;
+
+		updateBestMatchSet(dataSet);
+		return true;
+	}
+
+	/**
+	 * Replaces the batch's best hypothesis if the worker's is better.  Ties go to the hypothesis with the
+	 * lower index so that the results don't depend on how the batch was split up.
+	 */
+	protected void mergeIntoBatch( Worker w ) {
+		synchronized ( lock ) {
+			if( w.bestCount < batchCount )
+				return;
+			if( w.bestCount == batchCount && w.bestIndex > batchIndex )
+				return;
+
+			manager.copyModel(w.bestModel, batchModel);
+			System.arraycopy(w.bestMatchToInput, 0, batchMatchToInput, 0, w.bestCount);
+			batchCount = w.bestCount;
+			batchIndex = w.bestIndex;
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Number of hypotheses which are generated and scored in parallel before the best model and the number of
+	 * required iterations are updated.  Larger batches have less overhead but can result in more
+	 * iterations than needed.  The results depend on the batch size.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Generates and scores hypotheses using its own copies of the generator and distance function.
+	 */
+	protected class Worker {
+		ModelGenerator<Model,Point> generator = generators.create();
+		DistanceFromModel<Model,Point> distance = distances.create();
+		// value of processID when its state was last copied
+		int syncedID = -1;
+
+		Random rand = new Random();
+		int sampleIndexes[] = new int[sampleSize];
+		List<Point> sample = new ArrayList<Point>();
+
+		// the hypothesis being scored
+		Model candidateModel = manager.createModelInstance();
+		int candidateMatchToInput[] = new int[0];
+
+		// best hypothesis in the block of hypotheses it was assigned
+		Model bestModel = manager.createModelInstance();
+		int bestMatchToInput[] = new int[0];
+		int bestCount;
+		int bestIndex;
+
+		/**
+		 * Evaluates hypotheses in the specified range and merges the best one into the batch results.
+		 *
+		 * @param minimum Hypotheses with fewer inliers than this are ignored
+		 */
+		public void process( List<Point> dataSet , int minimum , int start , int end ) {
+			if( syncedID != processID ) {
+				generators.copyState(RansacAdaptive_MT.this.generator, generator);
+				distances.copyState(RansacAdaptive_MT.this.distance, distance);
+				syncedID = processID;
+			}
+
+			int N = dataSet.size();
+			if( candidateMatchToInput.length < N ) {
+				candidateMatchToInput = new int[N];
+				bestMatchToInput = new int[N];
+			}
+
+			bestCount = minimum - 1;
+			bestIndex = -1;
+
+			for( int index = start; index < end; index++ ) {
+				rand.setSeed(seeds[index]);
+
+				selectSample(dataSet);
+				if( !generator.generate(sample,candidateModel) )
+					continue;
+
+				distance.setModel(candidateModel);
+				if( !pretest(dataSet) )
+					continue;
+
+				int count = countInliers(distance, dataSet, bestCount + 1, candidateMatchToInput);
+				if( count <= bestCount )
+					continue;
+
+				Model tmpModel = bestModel;
+				bestModel = candidateModel;
+				candidateModel = tmpModel;
+
+				int tmp[] = bestMatchToInput;
+				bestMatchToInput = candidateMatchToInput;
+				candidateMatchToInput = tmp;
+
+				bestCount = count;
+				bestIndex = index;
+			}
+
+			if( bestIndex >= 0 )
+				mergeIntoBatch(this);
+		}
+
+		/**
+		 * Randomly selects points without replacement
+		 */
+		private void selectSample( List<Point> dataSet ) {
+			int N = dataSet.size();
+
+			sample.clear();
+			for( int i = 0; i < sampleSize; i++ ) {
+				int index;
+				do {
+					index = rand.nextInt(N);
+				} while( contains(index, i) );
+				sampleIndexes[i] = index;
+				sample.add(dataSet.get(index));
+			}
+		}
+
+		/**
+		 * T(d,d) test using randomly selected points which are not in the sample
+		 */
+		private boolean pretest( List<Point> dataSet ) {
+			int N = dataSet.size();
+			if( N <= sampleSize )
+				return true;
+
+			for( int i = 0; i < pretestSize; i++ ) {
+				int index;
+				do {
+					index = rand.nextInt(N);
+				} while( contains(index, sampleSize) );
+
+				if( !(distance.computeDistance(dataSet.get(index)) < thresholdFit) )
+					return false;
+			}
+			return true;
+		}
+
+		private boolean contains( int index , int length ) {
+			for( int i = 0; i < length; i++ ) {
+				if( sampleIndexes[i] == index )
+					return true;
+			}
+			return false;
+		}
+	}
+}
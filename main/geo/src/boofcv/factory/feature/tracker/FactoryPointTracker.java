@@ -46,8 +46,11 @@ import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.combined.CombinedTrackerScalePoint;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.KltTracker;
 import boofcv.alg.tracker.klt.PkltConfig;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.WorkerFactory;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -114,7 +117,7 @@ public class FactoryPointTracker {
 	 */
 	public static <I extends ImageSingleBand, D extends ImageSingleBand>
 	PointTracker<I> klt(PkltConfig config, ConfigGeneralDetector configExtract,
-						Class<I> imageType, Class<D> derivType ) {
+						final Class<I> imageType, Class<D> derivType ) {
 
 		if( derivType == null )
 			derivType = GImageDerivativeOps.getDerivativeType(imageType);
@@ -136,6 +139,20 @@ public class FactoryPointTracker {
 
 		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true,imageType);
 
+		if( config.concurrent ) {
+			final Class<D> _derivType = derivType;
+			final KltConfig kltConfig = config.config;
+			WorkerFactory<KltTracker<I, D>> kltFactory = new WorkerFactory<KltTracker<I, D>>() {
+				@Override
+				public KltTracker<I, D> create() {
+					return new KltTracker<I, D>(FactoryInterpolation.<I>bilinearRectangle(imageType),
+							FactoryInterpolation.<D>bilinearRectangle(_derivType), kltConfig);
+				}
+			};
+			return new PointTrackerKltPyramid_MT<I, D>(config.config,config.templateRadius,pyramid,detector,
+					gradient,kltFactory,derivType);
+		}
+
 		return new PointTrackerKltPyramid<I, D>(config.config,config.templateRadius,pyramid,detector,
 				gradient,interpInput,interpDeriv,derivType);
 	}
@@ -20,6 +20,7 @@ package boofcv.factory.geo;
 
 import boofcv.abst.geo.*;
 import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedDense;
+import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedSparse;
 import boofcv.abst.geo.f.*;
 import boofcv.abst.geo.h.LeastSquaresHomography;
 import boofcv.abst.geo.h.WrapHomographyLinear;
@@ -55,13 +56,42 @@ import org.ddogleg.struct.FastQueue;
 public class FactoryMultiView {
 
 	/**
-	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration
+	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration.  The problem's
+	 * sparse structure is used, allowing it to scale to a large number of views and points.
+	 *
+	 * @see BundleAdjustmentCalibratedSparse
 	 *
 	 * @param tol Convergence tolerance.  Try 1e-8
 	 * @param maxIterations Maximum number of iterations. Try 200 or more
 	 * @return Bundle Adjustment
 	 */
 	public static BundleAdjustmentCalibrated bundleCalibrated(double tol , int maxIterations) {
+		return new BundleAdjustmentCalibratedSparse(tol,maxIterations);
+	}
+
+	/**
+	 * Concurrent version of {@link #bundleCalibrated}.  Residuals and the Jacobian are computed using
+	 * multiple threads and produce the same solution.
+	 *
+	 * @param tol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @return Bundle Adjustment
+	 */
+	public static BundleAdjustmentCalibrated bundleCalibrated_MT(double tol , int maxIterations) {
+		return new BundleAdjustmentCalibratedSparse(tol,maxIterations,true);
+	}
+
+	/**
+	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration which uses
+	 * dense matrices.  Only suitable for small problems.
+	 *
+	 * @see BundleAdjustmentCalibratedDense
+	 *
+	 * @param tol Convergence tolerance.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations. Try 200 or more
+	 * @return Bundle Adjustment
+	 */
+	public static BundleAdjustmentCalibrated bundleCalibratedDense(double tol , int maxIterations) {
 		return new BundleAdjustmentCalibratedDense(tol,maxIterations);
 	}
 
@@ -346,6 +376,16 @@ public class FactoryMultiView {
 		return new PnPRefineRodrigues(tol,maxIterations);
 	}
 
+	/**
+	 * Concurrent version of {@link #refinePnP}.  Only faster when there are thousands of observations.
+	 *
+	 * @param tol Convergence tolerance. Try 1e-8
+	 * @param maxIterations Maximum number of iterations.  Try 200
+	 */
+	public static RefinePnP refinePnP_MT( double tol , int maxIterations ) {
+		return new PnPRefineRodrigues(tol,maxIterations,true);
+	}
+
 	/**
 	 * Estimate the camera motion give two observations and the 3D world coordinate of each points.
 	 *
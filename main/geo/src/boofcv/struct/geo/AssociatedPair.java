@@ -40,6 +40,11 @@ public class AssociatedPair {
 	 * Location of the feature in the second image.
 	 */
 	public Point2D_F64 p2;
+	/**
+	 * Fit score of the association between the two features.  Lower is better.  Optional and only
+	 * used by algorithms that sample the best associations first.
+	 */
+	public double fitScore;
 
 	public AssociatedPair() {
 		p1 = new Point2D_F64();
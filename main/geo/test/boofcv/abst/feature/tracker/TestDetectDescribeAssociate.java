@@ -18,6 +18,7 @@
 
 package boofcv.abst.feature.tracker;
 
+import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.ImageFloat32;
 import georegression.struct.point.Point2D_F64;
@@ -87,6 +88,34 @@ public class TestDetectDescribeAssociate {
 		assertTrue(dat.validCalled);
 	}
 
+	/**
+	 * The association's fit score should be saved in the track
+	 */
+	@Test
+	public void updateTrackState_fitScore() {
+		Helper dat = new Helper();
+
+		dat.tracksAll.add(dat.getUnused());
+		dat.tracksAll.add(dat.getUnused());
+		dat.locDst.add(new Point2D_F64(1,2));
+		dat.locDst.add(new Point2D_F64(3,4));
+
+		FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(2,AssociatedIndex.class,true);
+		matches.grow().setAssociation(0,1,0.5);
+		matches.grow().setAssociation(1,0,2.5);
+
+		dat.isAssociated = new boolean[2];
+		dat.updateTrackState(matches);
+
+		PointTrack a = dat.tracksAll.get(0);
+		PointTrack b = dat.tracksAll.get(1);
+		assertEquals(3,a.x,1e-8);
+		assertEquals(0.5,a.fitScore,1e-8);
+		assertEquals(1,b.x,1e-8);
+		assertEquals(2.5,b.fitScore,1e-8);
+		assertEquals(2,dat.tracksActive.size());
+	}
+
 	private static class Helper extends DetectDescribeAssociate<ImageFloat32,TupleDesc_F64> {
 		boolean validCalled = false;
 
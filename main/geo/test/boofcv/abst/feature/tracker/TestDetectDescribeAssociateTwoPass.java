@@ -28,14 +28,21 @@ import boofcv.alg.feature.describe.DescribePointBrief;
 import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
 import boofcv.alg.feature.detect.interest.EasyGeneralFeatureDetector;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.ImageFloat32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author Peter Abeles
  */
@@ -73,4 +80,33 @@ public class TestDetectDescribeAssociateTwoPass extends StandardPointTrackerTwoP
 				new DetectDescribeAssociateTwoPass<ImageFloat32, TupleDesc_B>(manager,association,association,false);
 		return tracker;
 	}
+
+	/**
+	 * The fit score should be updated by the first pass and not only when tracking is finished
+	 */
+	@Test
+	public void process_fitScore() {
+		DetectDescribeAssociateTwoPass<ImageFloat32,TupleDesc_B> alg =
+				(DetectDescribeAssociateTwoPass<ImageFloat32,TupleDesc_B>)createTracker();
+
+		alg.process(image);
+		alg.finishTracking();
+		alg.spawnTracks();
+
+		// noise ensures that not all of the association scores are zero
+		ImageFloat32 noisy = image.clone();
+		ImageMiscOps.addGaussian(noisy, rand, 10, 0, 100);
+		alg.process(noisy);
+
+		FastQueue<AssociatedIndex> matches = alg.associate.getMatches();
+		assertTrue(matches.size > 0);
+
+		boolean nonZero = false;
+		for( int i = 0; i < matches.size; i++ ) {
+			AssociatedIndex m = matches.get(i);
+			assertEquals(m.fitScore, alg.tracksAll.get(m.src).fitScore, 1e-8);
+			nonZero |= m.fitScore != 0;
+		}
+		assertTrue(nonZero);
+	}
 }
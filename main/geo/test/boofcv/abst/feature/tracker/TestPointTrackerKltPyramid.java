@@ -19,12 +19,19 @@
 package boofcv.abst.feature.tracker;
 
 import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.alg.transform.pyramid.PyramidFrame;
+import boofcv.alg.transform.pyramid.PyramidFrameCache;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.feature.tracker.FactoryPointTracker;
 import boofcv.struct.image.ImageFloat32;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -157,6 +164,66 @@ public class TestPointTrackerKltPyramid extends StandardPointTracker<ImageFloat3
 
 	}
 
+	/**
+	 * Two trackers which share the same pyramid should produce the same results as a tracker which
+	 * computes the pyramid itself
+	 */
+	@Test
+	public void process_sharedFrame() {
+		PointTrackerKltPyramid<ImageFloat32,ImageFloat32> direct =
+				(PointTrackerKltPyramid<ImageFloat32,ImageFloat32>)createTracker();
+		PointTrackerKltPyramid<ImageFloat32,ImageFloat32> sharedA =
+				(PointTrackerKltPyramid<ImageFloat32,ImageFloat32>)createTracker();
+		PointTrackerKltPyramid<ImageFloat32,ImageFloat32> sharedB =
+				(PointTrackerKltPyramid<ImageFloat32,ImageFloat32>)createTracker();
+
+		PyramidFrameCache<ImageFloat32,ImageFloat32> cache = new PyramidFrameCache<ImageFloat32, ImageFloat32>(
+				config.pyramidScaling,-1,2,FactoryDerivative.sobel(ImageFloat32.class,ImageFloat32.class),
+				ImageFloat32.class);
+
+		ImageFloat32 blurred = BlurImageOps.gaussian(image,null,-1,2,null);
+		ImageFloat32 frameImage = new ImageFloat32(image.width,image.height);
+
+		PyramidFrame<ImageFloat32,ImageFloat32> frame = null;
+		for( int frameId = 0; frameId < 3; frameId++ ) {
+			ImageMiscOps.copy(frameId,0,0,0,image.width-frameId,image.height,blurred,frameImage);
+
+			frame = cache.acquire(frameId, frameImage);
+			direct.process(frameImage);
+			sharedA.process(frame);
+			sharedB.process(frame);
+			frame.release();
+
+			// trackers keep a reference to the current frame
+			assertEquals(2, frame.getReferences());
+
+			direct.spawnTracks();
+			sharedA.spawnTracks();
+			sharedB.spawnTracks();
+
+			List<PointTrack> expected = direct.getActiveTracks(null);
+			assertTrue(expected.size() > 0);
+			checkSame(expected, sharedA.getActiveTracks(null));
+			checkSame(expected, sharedB.getActiveTracks(null));
+		}
+
+		// the previous frame is still referenced while the next one is acquired, older ones are recycled
+		assertEquals(2, cache.getNumFrames());
+
+		sharedA.reset();
+		sharedB.reset();
+		assertEquals(0, frame.getReferences());
+	}
+
+	private void checkSame( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			assertEquals(expected.get(i).featureId, found.get(i).featureId);
+			assertEquals(expected.get(i).x, found.get(i).x, 0);
+			assertEquals(expected.get(i).y, found.get(i).y, 0);
+		}
+	}
+
 	/**
 	 * Don't change the track state
 	 */
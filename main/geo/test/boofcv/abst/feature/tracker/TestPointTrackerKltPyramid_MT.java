@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.struct.image.ImageFloat32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointTrackerKltPyramid_MT extends StandardPointTracker<ImageFloat32> {
+
+	int originalThreads;
+
+	public TestPointTrackerKltPyramid_MT() {
+		super(false, true);
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public PointTracker<ImageFloat32> createTracker() {
+		return create(true);
+	}
+
+	private PointTracker<ImageFloat32> create( boolean concurrent ) {
+		PkltConfig config = new PkltConfig();
+		config.concurrent = concurrent;
+		return FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 2, 0, 0, true),
+				ImageFloat32.class, ImageFloat32.class);
+	}
+
+	/**
+	 * Tracks and drops features across several frames.  Should produce the same results in the same order
+	 * as the single threaded version.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		ImageFloat32 large = new ImageFloat32(width+20,height+20);
+		ImageMiscOps.fillUniform(large, rand, 0, 100);
+		ImageFloat32 blurred = BlurImageOps.gaussian(large,null,-1,2,null);
+
+		PointTracker<ImageFloat32> single = create(false);
+		PointTracker<ImageFloat32> multi = create(true);
+
+		assertTrue(multi instanceof PointTrackerKltPyramid_MT);
+
+		ImageFloat32 frame = new ImageFloat32(width,height);
+		int totalDropped = 0;
+		for( int i = 0; i < 5; i++ ) {
+			frame.setTo(blurred.subimage(i * 2, i, i * 2 + width, i + height, null));
+			// remove texture from part of the image so that tracks are dropped
+			if( i == 3 )
+				ImageMiscOps.fillRectangle(frame, 0, 0, 0, width / 2, height);
+
+			single.process(frame);
+			multi.process(frame);
+
+			totalDropped += single.getDroppedTracks(null).size();
+			compare(single.getActiveTracks(null), multi.getActiveTracks(null));
+			compare(single.getDroppedTracks(null), multi.getDroppedTracks(null));
+
+			single.spawnTracks();
+			multi.spawnTracks();
+
+			compare(single.getNewTracks(null), multi.getNewTracks(null));
+		}
+
+		assertTrue(single.getActiveTracks(null).size() > 20);
+		assertTrue(totalDropped > 0);
+	}
+
+	private void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(),found.size());
+
+		for( int i = 0; i < expected.size(); i++ ) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(a.x, b.x, 0);
+			assertEquals(a.y, b.y, 0);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import boofcv.alg.geo.GeoTestingOps;
+import boofcv.alg.geo.bundle.CalibPoseAndPointResiduals;
+import boofcv.alg.geo.bundle.CalibPoseAndPointResiduals_MT;
+import boofcv.alg.geo.bundle.CalibPoseAndPointSparseJacobian_MT;
+import boofcv.alg.geo.bundle.CalibratedPoseAndPoint;
+import boofcv.alg.geo.bundle.ViewPointObservations;
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentCalibratedSparse {
+
+	Random rand = new Random(234);
+	int numViews = 2;
+	int numPoints = 4;
+
+	/**
+	 * Perfect observations and model
+	 */
+	@Test
+	public void perfect() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-8,500);
+
+		assertTrue(alg.process(model, observations));
+
+		assertEquals(0,computeError(model,observations),1e-8);
+	}
+
+	/**
+	 * Perfect observations with a corrupted model.  See if the error decreases
+	 */
+	@Test
+	public void noisy() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-12,500);
+
+		model.getWorldToCamera(0).getT().x += 0.02;
+		model.getWorldToCamera(1).getT().y -= 0.01;
+
+		double errorBefore = computeError(model,observations);
+
+		assertTrue(alg.process(model, observations));
+
+		double errorAfter = computeError(model,observations);
+
+		assertTrue(errorAfter<errorBefore*0.1);
+	}
+
+	/**
+	 * Known views should not be modified and the remaining parameters should converge to the true solution
+	 */
+	@Test
+	public void knownViews() {
+		int numViews = 4;
+		int numPoints = 30;
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		model.setViewKnown(0,true);
+		model.setViewKnown(2,true);
+
+		Se3_F64 expected0 = model.getWorldToCamera(0).copy();
+		Se3_F64 expected1 = model.getWorldToCamera(1).copy();
+		Point3D_F64 expectedP = model.getPoint(5).copy();
+
+		model.getWorldToCamera(1).getT().x += 0.01;
+		model.getWorldToCamera(3).getT().z -= 0.02;
+		for( int i = 0; i < numPoints; i++ ) {
+			model.getPoint(i).x += rand.nextGaussian()*0.005;
+		}
+
+		BundleAdjustmentCalibratedSparse alg = new BundleAdjustmentCalibratedSparse(1e-12,500);
+		assertTrue(alg.process(model, observations));
+
+		assertEquals(0,computeError(model,observations),1e-8);
+		assertEquals(0,expected0.getT().distance(model.getWorldToCamera(0).getT()),0);
+		assertEquals(0,expected1.getT().distance(model.getWorldToCamera(1).getT()),1e-4);
+		assertEquals(0,expectedP.distance(model.getPoint(5)),1e-4);
+	}
+
+	/**
+	 * Should converge to the same solution as the dense implementation
+	 */
+	@Test
+	public void compareToDense() {
+		int numViews = 5;
+		int numPoints = 40;
+		CalibratedPoseAndPoint modelA = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(modelA,numViews,numPoints);
+		// two known views remove the scale ambiguity so that the solution is unique
+		modelA.setViewKnown(0,true);
+		modelA.setViewKnown(1,true);
+
+		// corrupt the observations so that there is a non-zero residual at the solution
+		for( ViewPointObservations v : observations ) {
+			for( int i = 0; i < v.getPoints().size; i++ ) {
+				v.getPoints().get(i).obs.x += rand.nextGaussian()*0.001;
+				v.getPoints().get(i).obs.y += rand.nextGaussian()*0.001;
+			}
+		}
+
+		CalibratedPoseAndPoint modelB = new CalibratedPoseAndPoint();
+		modelB.configure(numViews,numPoints);
+		for( int i = 0; i < numViews; i++ ) {
+			modelB.setViewKnown(i,modelA.isViewKnown(i));
+			modelB.getWorldToCamera(i).set(modelA.getWorldToCamera(i));
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			modelB.getPoint(i).set(modelA.getPoint(i));
+		}
+
+		new BundleAdjustmentCalibratedDense(1e-12,500).process(modelA,observations);
+		new BundleAdjustmentCalibratedSparse(1e-12,500).process(modelB,observations);
+
+		double errorA = computeError(modelA,observations);
+		double errorB = computeError(modelB,observations);
+
+		assertEquals(errorA,errorB,errorA*1e-4);
+		for( int i = 0; i < numPoints; i++ ) {
+			assertEquals(0,modelA.getPoint(i).distance(modelB.getPoint(i)),1e-4);
+		}
+	}
+
+	/**
+	 * The concurrent implementation should produce exactly the same solution
+	 */
+	@Test
+	public void compareToConcurrent() {
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			int numViews = 4;
+			int numPoints = 30;
+			CalibratedPoseAndPoint modelA = createModel(numViews,numPoints,rand);
+			List<ViewPointObservations> observations = createObservations(modelA,numViews,numPoints);
+			modelA.setViewKnown(0,true);
+			modelA.getWorldToCamera(2).getT().x += 0.01;
+			for( int i = 0; i < numPoints; i++ ) {
+				modelA.getPoint(i).y += rand.nextGaussian()*0.005;
+			}
+
+			CalibratedPoseAndPoint modelB = new CalibratedPoseAndPoint();
+			modelB.configure(numViews,numPoints);
+			for( int i = 0; i < numViews; i++ ) {
+				modelB.setViewKnown(i,modelA.isViewKnown(i));
+				modelB.getWorldToCamera(i).set(modelA.getWorldToCamera(i));
+			}
+			for( int i = 0; i < numPoints; i++ ) {
+				modelB.getPoint(i).set(modelA.getPoint(i));
+			}
+
+			BundleAdjustmentCalibratedSparse multi = new BundleAdjustmentCalibratedSparse(1e-12,500,true);
+			// force the work to be split up between threads
+			((CalibPoseAndPointResiduals_MT)multi.func).setMinBlock(5);
+			((CalibPoseAndPointSparseJacobian_MT)multi.jacobian).setMinBlock(5);
+
+			assertTrue(new BundleAdjustmentCalibratedSparse(1e-12,500).process(modelA,observations));
+			assertTrue(multi.process(modelB,observations));
+
+			for( int i = 0; i < numViews; i++ ) {
+				assertEquals(0,modelA.getWorldToCamera(i).getT().distance(modelB.getWorldToCamera(i).getT()),0);
+			}
+			for( int i = 0; i < numPoints; i++ ) {
+				assertEquals(0,modelA.getPoint(i).distance(modelB.getPoint(i)),0);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(originalThreads);
+		}
+	}
+
+	private double computeError( CalibratedPoseAndPoint model ,
+								 List<ViewPointObservations> observations )
+	{
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(null,model,observations);
+		double residuals[] = new double[ func.getNumOfOutputsM() ];
+
+		func.process(model,residuals);
+
+		return GeoTestingOps.residualError(residuals);
+	}
+}
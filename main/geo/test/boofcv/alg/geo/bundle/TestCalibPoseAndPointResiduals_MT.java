@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointResiduals_MT {
+
+	Random rand = new Random(234);
+	int numViews = 4;
+	int numPoints = 15;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Blocks which start and end in the middle of views should produce the same residuals as a single thread
+	 */
+	@Test
+	public void compareToSingleThread() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		// views have a different number of observations
+		observations.get(1).getPoints().removeTail();
+		observations.get(2).getPoints().remove(3);
+		observations.get(2).getPoints().remove(0);
+		model.setViewKnown(1,true);
+
+		boolean known[] = new boolean[numViews];
+		known[1] = true;
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double param[] = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		CalibPoseAndPointResiduals single = new CalibPoseAndPointResiduals();
+		single.configure(codec,model,observations);
+		CalibPoseAndPointResiduals_MT multi = new CalibPoseAndPointResiduals_MT();
+		multi.configure(codec,model,observations);
+
+		for( int minBlock : new int[]{1,3,7,1000} ) {
+			multi.setMinBlock(minBlock);
+
+			double expected[] = new double[ single.getNumOfOutputsM() ];
+			double found[] = new double[ multi.getNumOfOutputsM() ];
+			single.process(param,expected);
+			multi.process(param,found);
+
+			for( int i = 0; i < expected.length; i++ )
+				assertEquals(expected[i],found[i],0);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointRodriguesJacobian_MT {
+
+	Random rand = new Random(234);
+	int numViews = 4;
+	int numPoints = 12;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Blocks which start and end in the middle of views should produce the same Jacobian as a single thread.
+	 * The output is filled with garbage first to make sure every element is written to.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		CalibPoseAndPointRodriguesJacobian_MT multi = new CalibPoseAndPointRodriguesJacobian_MT();
+
+		for( int minBlock : new int[]{1,3,7,1000} ) {
+			multi.setMinBlock(minBlock);
+			compareToSingleThread(multi, new boolean[]{false,false,true,false});
+		}
+	}
+
+	/**
+	 * Workers are only configured when the problem changes.  Make sure a new problem is picked up
+	 */
+	@Test
+	public void configureNewProblem() {
+		CalibPoseAndPointRodriguesJacobian_MT multi = new CalibPoseAndPointRodriguesJacobian_MT();
+		multi.setMinBlock(3);
+
+		compareToSingleThread(multi, new boolean[]{false,false,true,false});
+		compareToSingleThread(multi, new boolean[]{true,false,false,false});
+		compareToSingleThread(multi, new boolean[]{false,false,false,false});
+	}
+
+	private void compareToSingleThread( CalibPoseAndPointRodriguesJacobian_MT multi , boolean known[] ) {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		observations.get(0).getPoints().remove(5);
+		observations.get(3).getPoints().removeTail();
+
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		for( int i = 0; i < numViews; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] )
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+		}
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double param[] = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		CalibPoseAndPointRodriguesJacobian single = new CalibPoseAndPointRodriguesJacobian();
+		single.configure(observations,numPoints,extrinsic);
+		multi.configure(observations,numPoints,extrinsic);
+
+		int N = single.getNumOfInputsN();
+		int M = single.getNumOfOutputsM();
+
+		double expected[] = new double[ M*N ];
+		double found[] = new double[ M*N ];
+		Arrays.fill(found,Double.NaN);
+		single.process(param,expected);
+		multi.process(param,found);
+
+		for( int i = 0; i < expected.length; i++ )
+			assertEquals(expected[i],found[i],0);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import georegression.struct.se.Se3_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSparseJacobian {
+
+	Random rand = new Random(48854);
+	int numViews = 3;
+	int numPoints = 4;
+
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+
+	@Test
+	public void allUnknown() {
+		compareToDense(false, false, false);
+	}
+
+	@Test
+	public void someKnown() {
+		compareToDense(false, true, false);
+	}
+
+	/**
+	 * The blocks should be identical to the non-zero elements in the dense Jacobian
+	 */
+	private void compareToDense( boolean ...known ) {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		// not every point is seen in every view
+		observations.get(1).getPoints().removeTail();
+		observations.get(2).getPoints().remove(0);
+
+		Se3_F64 extrinsic[] = new Se3_F64[known.length];
+		for( int i = 0; i < known.length; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] ) {
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+			}
+		}
+
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		CalibPoseAndPointRodriguesJacobian dense = new CalibPoseAndPointRodriguesJacobian();
+		dense.configure(observations,numPoints,extrinsic);
+		int N = dense.getNumOfInputsN();
+		double expected[] = new double[ dense.getNumOfOutputsM()*N ];
+		dense.process(param,expected);
+
+		CalibPoseAndPointSparseJacobian alg = new CalibPoseAndPointSparseJacobian();
+		alg.configure(observations,numPoints,extrinsic);
+		alg.process(param);
+
+		assertEquals(N,alg.getNumOfInputsN());
+		assertEquals(dense.getNumOfOutputsM(),alg.getNumOfOutputsM());
+
+		// expand the sparse Jacobian
+		double found[] = new double[ expected.length ];
+		int indexFirstPoint = alg.getNumViewsUnknown()*6;
+		for( int k = 0; k < alg.getNumObservations(); k++ ) {
+			int view = alg.getViewIndex(alg.getObsView()[k]);
+			int point = alg.getObsPoint()[k];
+
+			for( int row = 0; row < 2; row++ ) {
+				int indexRow = (k*2+row)*N;
+				if( view >= 0 ) {
+					for( int i = 0; i < 6; i++ )
+						found[indexRow + view*6 + i] = alg.getViewBlocks()[k*12+row*6+i];
+				}
+				for( int i = 0; i < 3; i++ )
+					found[indexRow + indexFirstPoint + point*3 + i] = alg.getPointBlocks()[k*6+row*3+i];
+			}
+		}
+
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals(expected[i],found[i],1e-12);
+		}
+	}
+
+	/**
+	 * Checks the lists of observations for each point
+	 */
+	@Test
+	public void configure_pointObservations() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		observations.get(1).getPoints().removeTail();
+		observations.get(2).getPoints().remove(0);
+
+		CalibPoseAndPointSparseJacobian alg = new CalibPoseAndPointSparseJacobian();
+		alg.configure(observations,numPoints,new Se3_F64[numViews]);
+
+		assertEquals(numViews*numPoints-2,alg.getNumObservations());
+		assertEquals(numViews,alg.getMaxObsPerPoint());
+
+		int start[] = alg.getPointObsStart();
+		int list[] = alg.getPointObs();
+		int total = 0;
+		for( int point = 0; point < numPoints; point++ ) {
+			int expected = point == 0 || point == numPoints-1 ? numViews-1 : numViews;
+			assertEquals(expected,start[point+1]-start[point]);
+			for( int i = start[point]; i < start[point+1]; i++ ) {
+				assertEquals(point,alg.getObsPoint()[list[i]]);
+				// observations should be in order
+				if( i > start[point] )
+					assertEquals(true,list[i] > list[i-1]);
+			}
+			total += start[point+1]-start[point];
+		}
+		assertEquals(alg.getNumObservations(),total);
+	}
+}
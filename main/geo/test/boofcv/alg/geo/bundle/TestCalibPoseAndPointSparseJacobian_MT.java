@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSparseJacobian_MT {
+
+	Random rand = new Random(234);
+	int numViews = 4;
+	int numPoints = 12;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * The blocks computed by several threads should be identical to the single threaded blocks
+	 */
+	@Test
+	public void compareToSingleThread() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		observations.get(1).getPoints().remove(2);
+		observations.get(2).getPoints().removeTail();
+
+		boolean known[] = new boolean[]{true,false,false,false};
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		for( int i = 0; i < numViews; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] )
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+		}
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double param[] = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		CalibPoseAndPointSparseJacobian single = new CalibPoseAndPointSparseJacobian();
+		single.configure(observations,numPoints,extrinsic);
+		single.process(param);
+
+		CalibPoseAndPointSparseJacobian_MT multi = new CalibPoseAndPointSparseJacobian_MT();
+		multi.configure(observations,numPoints,extrinsic);
+
+		for( int minBlock : new int[]{1,3,7,1000} ) {
+			multi.setMinBlock(minBlock);
+			multi.process(param);
+
+			int total = single.getNumObservations();
+			for( int i = 0; i < total*12; i++ )
+				assertEquals(single.getViewBlocks()[i],multi.getViewBlocks()[i],0);
+			for( int i = 0; i < total*6; i++ )
+				assertEquals(single.getPointBlocks()[i],multi.getPointBlocks()[i],0);
+		}
+	}
+}
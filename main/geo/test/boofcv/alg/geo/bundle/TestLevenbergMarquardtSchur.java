@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLevenbergMarquardtSchur {
+
+	Random rand = new Random(234);
+	int numViews = 4;
+	int numPoints = 10;
+
+	/**
+	 * The step found using the Schur complement should be the same as solving the damped normal equations directly
+	 */
+	@Test
+	public void computeStep_compareToDense() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		observations.get(2).getPoints().remove(3);
+
+		boolean known[] = new boolean[]{true,false,false,false};
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		model.setViewKnown(0,true);
+		extrinsic[0] = model.getWorldToCamera(0).copy();
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+		// move away from the solution
+		for( int i = 0; i < param.length; i++ )
+			param[i] += rand.nextGaussian()*0.01;
+
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(codec,model,observations);
+		CalibPoseAndPointSparseJacobian sparse = new CalibPoseAndPointSparseJacobian();
+		sparse.configure(observations,numPoints,extrinsic);
+
+		LevenbergMarquardtSchur alg = new LevenbergMarquardtSchur();
+		alg.setFunction(func,sparse);
+		alg.initialize(param,0,0);
+		alg.computeNormalEquations();
+		alg.dampParam = 0.05;
+		assertTrue(alg.computeStep());
+
+		// solve it using dense matrices
+		CalibPoseAndPointRodriguesJacobian dense = new CalibPoseAndPointRodriguesJacobian();
+		dense.configure(observations,numPoints,extrinsic);
+		int N = dense.getNumOfInputsN();
+		int M = dense.getNumOfOutputsM();
+
+		DenseMatrix64F J = new DenseMatrix64F(M,N);
+		dense.process(param,J.data);
+		DenseMatrix64F r = new DenseMatrix64F(M,1);
+		func.process(param,r.data);
+
+		DenseMatrix64F A = new DenseMatrix64F(N,N);
+		CommonOps.multTransA(J,J,A);
+		for( int i = 0; i < N; i++ )
+			A.data[i*N+i] += 0.05;
+		DenseMatrix64F g = new DenseMatrix64F(N,1);
+		CommonOps.multTransA(J,r,g);
+		CommonOps.scale(-1,g);
+
+		DenseMatrix64F expected = new DenseMatrix64F(N,1);
+		assertTrue(CommonOps.solve(A,g,expected));
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(-g.data[i],alg.gradient[i],1e-8);
+			assertEquals(expected.data[i],alg.step[i],1e-8);
+		}
+	}
+
+	/**
+	 * Each iteration should not increase the cost
+	 */
+	@Test
+	public void iterate_costDecreases() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		boolean known[] = new boolean[numViews];
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,numViews,known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+		for( int i = 0; i < param.length; i++ )
+			param[i] += rand.nextGaussian()*0.01;
+
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(codec,model,observations);
+		CalibPoseAndPointSparseJacobian sparse = new CalibPoseAndPointSparseJacobian();
+		sparse.configure(observations,numPoints,new Se3_F64[numViews]);
+
+		LevenbergMarquardtSchur alg = new LevenbergMarquardtSchur();
+		alg.setFunction(func,sparse);
+		alg.initialize(param,1e-12,1e-12);
+
+		double initial = alg.getFunctionValue();
+		double previous = initial;
+		for( int i = 0; i < 200 && !alg.iterate(); i++ ) {
+			assertTrue(alg.getFunctionValue() <= previous);
+			previous = alg.getFunctionValue();
+		}
+
+		assertTrue(alg.isConverged());
+		assertTrue(alg.getFunctionValue() < initial*1e-6);
+	}
+}
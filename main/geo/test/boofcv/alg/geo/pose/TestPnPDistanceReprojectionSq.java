@@ -141,4 +141,29 @@ public class TestPnPDistanceReprojectionSq {
 		}
 	}
 
+	/**
+	 * The copy should compute the same distance as the original
+	 */
+	@Test
+	public void setTo() {
+		DenseMatrix64F K = new DenseMatrix64F(3,3,true,100,0.01,200,0,150,200,0,0,1);
+
+		Se3_F64 worldToCamera = new Se3_F64();
+		worldToCamera.getT().set(0.1,-0.1,0.2);
+
+		Point3D_F64 X = new Point3D_F64(0.1,-0.04,2.3);
+		Point2D_F64 observed = PerspectiveOps.renderPixel(worldToCamera, K, X);
+		observed.x += 0.1;
+		PerspectiveOps.convertPixelToNorm(K,observed,observed);
+		Point2D3D p = new Point2D3D(observed,X);
+
+		PnPDistanceReprojectionSq original = new PnPDistanceReprojectionSq(K.get(0,0),K.get(1,1),K.get(0,1));
+		original.setModel(worldToCamera);
+
+		PnPDistanceReprojectionSq alg = new PnPDistanceReprojectionSq();
+		alg.setTo(original);
+		alg.setModel(worldToCamera);
+
+		assertEquals(original.computeDistance(p),alg.computeDistance(p),1e-12);
+	}
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.pose;
+
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.Point2D3D;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPnPJacobianRodrigues_MT {
+
+	Random rand = new Random(48854);
+	int numPoints = 37;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * The Jacobian computed by several threads should be identical to the single threaded Jacobian.
+	 * The output is filled with garbage first to make sure every element is written to.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		Se3_F64 worldToCamera = new Se3_F64();
+		RotationMatrixGenerator.eulerXYZ(0.1, 1, -0.2, worldToCamera.getR());
+		worldToCamera.getT().set(-0.3,0.4,1);
+
+		List<Point2D3D> observations = new ArrayList<Point2D3D>();
+		for( int i = 0; i < numPoints; i++ ) {
+			Point2D3D p = new Point2D3D();
+			p.location.set( rand.nextGaussian()*0.1, rand.nextGaussian()*0.2 , 3 + rand.nextGaussian() );
+			p.observation = PerspectiveOps.renderPixel(worldToCamera, null, p.location);
+			observations.add(p);
+		}
+
+		PnPRodriguesCodec codec = new PnPRodriguesCodec();
+		double param[] = new double[ codec.getParamLength() ];
+		codec.encode(worldToCamera,param);
+
+		PnPJacobianRodrigues single = new PnPJacobianRodrigues();
+		single.setObservations(observations);
+		PnPJacobianRodrigues_MT multi = new PnPJacobianRodrigues_MT();
+		multi.setObservations(observations);
+
+		int N = single.getNumOfInputsN();
+		int M = single.getNumOfOutputsM();
+
+		for( int minBlock : new int[]{1,5,7,1000} ) {
+			multi.setMinBlock(minBlock);
+
+			double expected[] = new double[ M*N ];
+			double found[] = new double[ M*N ];
+			Arrays.fill(found,Double.NaN);
+			single.process(param,expected);
+			multi.process(param,found);
+
+			for( int i = 0; i < expected.length; i++ )
+				assertEquals(expected[i],found[i],0);
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Standard tests for {@link ModelMatcher} using a line model, y = slope*x + offset.
+ *
+ * @author Peter Abeles
+ */
+public abstract class CommonModelMatcherChecks {
+
+	protected Random rand = new Random(234);
+
+	// model used to generate the inliers
+	protected double slope = 0.5;
+	protected double offset = 2;
+
+	// indexes of points which are inliers
+	protected Set<Integer> inliers = new HashSet<Integer>();
+
+	/**
+	 * Creates the matcher being tested
+	 *
+	 * @param maxIterations Maximum number of iterations
+	 * @param threshold Inlier threshold
+	 */
+	public abstract ModelMatcher<Line,Point2D_F64> createMatcher( int maxIterations , double threshold );
+
+	/**
+	 * Finds the correct model and inlier set when there are outliers
+	 */
+	@Test
+	public void perfectInliers() {
+		List<Point2D_F64> points = createData(200,0.4,0);
+
+		ModelMatcher<Line,Point2D_F64> alg = createMatcher(500,0.1);
+
+		assertTrue(alg.process(points));
+
+		Line found = alg.getModelParameters();
+		assertEquals(slope,found.slope,1e-8);
+		assertEquals(offset,found.offset,1e-8);
+
+		List<Point2D_F64> matches = alg.getMatchSet();
+		assertEquals(inliers.size(),matches.size());
+		assertEquals(inliers.size(),alg.getFitQuality(),1e-8);
+		for( int i = 0; i < matches.size(); i++ ) {
+			int index = alg.getInputIndex(i);
+			assertTrue(inliers.contains(index));
+			assertTrue(points.get(index) == matches.get(i));
+		}
+	}
+
+	/**
+	 * Process several data sets in a row.  Results from the previous one should not carry over
+	 */
+	@Test
+	public void multipleCalls() {
+		ModelMatcher<Line,Point2D_F64> alg = createMatcher(500,0.1);
+
+		for( int trial = 0; trial < 3; trial++ ) {
+			slope = rand.nextGaussian();
+			offset = rand.nextGaussian()*5;
+			List<Point2D_F64> points = createData(100 + trial*50,0.3,0);
+
+			assertTrue(alg.process(points));
+			assertEquals(slope,alg.getModelParameters().slope,1e-8);
+			assertEquals(offset,alg.getModelParameters().offset,1e-8);
+			assertEquals(inliers.size(),alg.getMatchSet().size());
+		}
+	}
+
+	/**
+	 * Not enough points to generate a model
+	 */
+	@Test
+	public void tooFewPoints() {
+		ModelMatcher<Line,Point2D_F64> alg = createMatcher(500,0.1);
+
+		List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+		points.add( new Point2D_F64(1,2));
+
+		assertFalse(alg.process(points));
+		assertEquals(2,alg.getMinimumSize());
+	}
+
+	/**
+	 * Creates a data set
+	 *
+	 * @param N Total number of points
+	 * @param fractionOutlier Fraction of points which are outliers
+	 * @param noise Standard deviation of noise added to inliers
+	 */
+	protected List<Point2D_F64> createData( int N , double fractionOutlier , double noise ) {
+		inliers.clear();
+		List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			double x = rand.nextDouble()*20 - 10;
+			double y;
+			if( rand.nextDouble() < fractionOutlier ) {
+				y = rand.nextDouble()*40 - 20;
+			} else {
+				y = slope*x + offset + rand.nextGaussian()*noise;
+				inliers.add(i);
+			}
+			points.add( new Point2D_F64(x,y));
+		}
+		// don't let an outlier accidentally be an inlier
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = points.get(i);
+			if( !inliers.contains(i) && Math.abs(slope*p.x + offset - p.y) < 1 )
+				p.y += 5;
+		}
+		return points;
+	}
+
+	public static class Line {
+		public double slope, offset;
+	}
+
+	public static class LineManager implements ModelManager<Line> {
+		@Override
+		public Line createModelInstance() {
+			return new Line();
+		}
+
+		@Override
+		public void copyModel(Line src, Line dst) {
+			dst.slope = src.slope;
+			dst.offset = src.offset;
+		}
+	}
+
+	public static class LineGenerator implements ModelGenerator<Line,Point2D_F64> {
+		@Override
+		public boolean generate(List<Point2D_F64> dataSet, Line output) {
+			Point2D_F64 a = dataSet.get(0);
+			Point2D_F64 b = dataSet.get(1);
+			if( a.x == b.x )
+				return false;
+			output.slope = (b.y - a.y)/(b.x - a.x);
+			output.offset = a.y - output.slope*a.x;
+			return true;
+		}
+
+		@Override
+		public int getMinimumPoints() {
+			return 2;
+		}
+	}
+
+	public static class LineDistance implements DistanceFromModel<Line,Point2D_F64> {
+		Line model;
+
+		// number of times a distance has been computed
+		public int calls;
+
+		@Override
+		public void setModel(Line model) {
+			this.model = model;
+		}
+
+		@Override
+		public double computeDistance(Point2D_F64 pt) {
+			calls++;
+			return Math.abs(model.slope*pt.x + model.offset - pt.y);
+		}
+
+		@Override
+		public void computeDistance(List<Point2D_F64> points, double[] distance) {
+			for( int i = 0; i < points.size(); i++ )
+				distance[i] = computeDistance(points.get(i));
+		}
+	}
+
+	/**
+	 * Least-squares fit of a line to all the points
+	 */
+	public static class LineFitter implements ModelFitter<Line,Point2D_F64> {
+
+		// number of times a model has been fit
+		public int calls;
+
+		@Override
+		public boolean fitModel(List<Point2D_F64> dataSet, Line initial, Line found) {
+			calls++;
+			double N = dataSet.size();
+			double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+			for( Point2D_F64 p : dataSet ) {
+				sumX += p.x; sumY += p.y;
+				sumXX += p.x*p.x; sumXY += p.x*p.y;
+			}
+			double denominator = N*sumXX - sumX*sumX;
+			if( denominator == 0 )
+				return false;
+			found.slope = (N*sumXY - sumX*sumY)/denominator;
+			found.offset = (sumY - found.slope*sumX)/N;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestProsac extends CommonModelMatcherChecks {
+
+	// fit score of each point
+	Map<Point2D_F64,Double> scores = new IdentityHashMap<Point2D_F64,Double>();
+
+	PointFitScore<Point2D_F64> scorer = new PointFitScore<Point2D_F64>() {
+		@Override
+		public double fitScore(Point2D_F64 point) {
+			Double score = scores.get(point);
+			return score == null ? 0 : score;
+		}
+	};
+
+	@Override
+	public ModelMatcher<Line, Point2D_F64> createMatcher(int maxIterations, double threshold) {
+		return create(maxIterations, threshold);
+	}
+
+	private Prosac<Line,Point2D_F64> create( int maxIterations, double threshold ) {
+		return new Prosac<Line,Point2D_F64>(234,new LineManager(),new LineGenerator(),
+				new LineDistance(),scorer,maxIterations,threshold);
+	}
+
+	/**
+	 * Scores are a noisy predictor of being an inlier.  Should need far fewer iterations than uniform sampling
+	 */
+	@Test
+	public void fewerIterations() {
+		List<Point2D_F64> points = createData(500,0.9,0);
+		for( int i = 0; i < points.size(); i++ ) {
+			double score = rand.nextDouble();
+			if( inliers.contains(i) )
+				score -= 0.5;
+			scores.put(points.get(i),score);
+		}
+
+		Prosac<Line,Point2D_F64> prosac = create(10000,0.1);
+		RansacAdaptive<Line,Point2D_F64> ransac = new RansacAdaptive<Line,Point2D_F64>(234,new LineManager(),
+				new LineGenerator(),new LineDistance(),10000,0.1);
+
+		assertTrue(prosac.process(points));
+		assertTrue(ransac.process(points));
+
+		assertEquals(inliers.size(),prosac.getMatchSet().size());
+		assertEquals(slope,prosac.getModelParameters().slope,1e-8);
+
+		// the stopping criteria is the same, so the difference is how soon the first good model is found
+		assertTrue(prosac.getIterations() < ransac.getIterations());
+		for( int i = 0; i < prosac.getMatchSet().size(); i++ ) {
+			assertTrue(inliers.contains(prosac.getInputIndex(i)));
+		}
+	}
+
+	/**
+	 * Check the sample and the subset it's drawn from
+	 */
+	@Test
+	public void selectSample() {
+		List<Point2D_F64> points = createData(50,0.5,0);
+		for( int i = 0; i < points.size(); i++ ) {
+			// best points are at the end of the list
+			scores.put(points.get(i),(double)(points.size()-i));
+		}
+
+		Prosac<Line,Point2D_F64> alg = create(10000,0.1);
+		alg.setGrowthMaxSamples(1000);
+		alg.initialize(points);
+
+		int previousSize = 0;
+		for( alg.iterations = 1; alg.iterations <= 1100; alg.iterations++ ) {
+			alg.selectSample(points);
+			assertEquals(2,alg.sample.size());
+
+			// the subset should only grow
+			assertTrue(alg.subsetSize >= previousSize);
+			previousSize = alg.subsetSize;
+
+			// the sample must come from the best points in the subset
+			int lowest = points.size() - alg.subsetSize;
+			for( int i = 0; i < 2; i++ ) {
+				int index = alg.shuffled[i];
+				assertTrue(index >= lowest);
+				assertTrue(points.get(index) == alg.sample.get(i));
+			}
+			assertTrue(alg.shuffled[0] != alg.shuffled[1]);
+
+			// shuffled should still be a permutation
+			boolean found[] = new boolean[points.size()];
+			for( int i = 0; i < points.size(); i++ ) {
+				found[alg.shuffled[i]] = true;
+			}
+			for( int i = 0; i < points.size(); i++ ) {
+				assertTrue(found[i]);
+			}
+		}
+		// should have grown to include all the points
+		assertEquals(points.size(),previousSize);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacAdaptive extends CommonModelMatcherChecks {
+
+	@Override
+	public ModelMatcher<Line, Point2D_F64> createMatcher(int maxIterations, double threshold) {
+		return create(new LineDistance(), maxIterations, threshold);
+	}
+
+	private RansacAdaptive<Line,Point2D_F64> create( LineDistance distance , int maxIterations, double threshold ) {
+		return new RansacAdaptive<Line,Point2D_F64>(234,new LineManager(),new LineGenerator(),
+				distance,maxIterations,threshold);
+	}
+
+	/**
+	 * With few outliers it should stop well before the maximum number of iterations
+	 */
+	@Test
+	public void adaptiveStopping() {
+		List<Point2D_F64> points = createData(200,0.1,0);
+
+		RansacAdaptive<Line,Point2D_F64> alg = create(new LineDistance(),10000,0.1);
+		assertTrue(alg.process(points));
+		assertTrue(alg.getIterations() < 50);
+		assertEquals(inliers.size(),alg.getMatchSet().size());
+
+		// disable adaptive stopping
+		alg.setMaxIterations(200);
+		alg.setConfidence(1);
+		assertTrue(alg.process(points));
+		assertEquals(200,alg.getIterations());
+		assertEquals(inliers.size(),alg.getMatchSet().size());
+	}
+
+	@Test
+	public void requiredIterations() {
+		RansacAdaptive<Line,Point2D_F64> alg = create(new LineDistance(),10000,0.1);
+		alg.setConfidence(0.99);
+		alg.setPretestSize(1);
+
+		// log(1-0.99)/log(1-0.5^3) = 34.5
+		assertEquals(35,alg.requiredIterations(50,100));
+		// can't be more than the maximum
+		assertEquals(10000,alg.requiredIterations(1,100));
+		alg.setPretestSize(0);
+		// log(1-0.99)/log(1-0.5^2) = 16.0
+		assertEquals(17,alg.requiredIterations(50,100));
+	}
+
+	/**
+	 * The T(d,d) test should reduce the number of distance computations without changing the solution
+	 */
+	@Test
+	public void pretest() {
+		List<Point2D_F64> points = createData(300,0.6,0);
+
+		LineDistance distanceA = new LineDistance();
+		RansacAdaptive<Line,Point2D_F64> algA = create(distanceA,300,0.1);
+		algA.setConfidence(1);
+		algA.setPretestSize(0);
+
+		LineDistance distanceB = new LineDistance();
+		RansacAdaptive<Line,Point2D_F64> algB = create(distanceB,300,0.1);
+		algB.setConfidence(1);
+		algB.setPretestSize(1);
+
+		assertTrue(algA.process(points));
+		assertTrue(algB.process(points));
+
+		assertEquals(inliers.size(),algA.getMatchSet().size());
+		assertEquals(inliers.size(),algB.getMatchSet().size());
+		assertEquals(algA.getModelParameters().slope,algB.getModelParameters().slope,1e-8);
+
+		assertTrue(distanceB.calls < distanceA.calls*0.6);
+	}
+
+	/**
+	 * Local optimization should never make the solution worse when the same hypotheses are considered.
+	 * With noisy inliers it should find more inliers.
+	 */
+	@Test
+	public void localOptimization() {
+		List<Point2D_F64> points = createData(300,0.5,0.05);
+
+		RansacAdaptive<Line,Point2D_F64> algA = create(new LineDistance(),50,0.1);
+		algA.setConfidence(1);
+
+		LineFitter fitter = new LineFitter();
+		RansacAdaptive<Line,Point2D_F64> algB = create(new LineDistance(),50,0.1);
+		algB.setConfidence(1);
+		algB.setLocalOptimization(fitter);
+
+		assertTrue(algA.process(points));
+		assertTrue(algB.process(points));
+
+		assertTrue(fitter.calls > 0);
+		assertTrue(algB.getMatchSet().size() > algA.getMatchSet().size());
+		// match set and input index should be consistent
+		for( int i = 0; i < algB.getMatchSet().size(); i++ ) {
+			assertTrue(points.get(algB.getInputIndex(i)) == algB.getMatchSet().get(i));
+		}
+	}
+}
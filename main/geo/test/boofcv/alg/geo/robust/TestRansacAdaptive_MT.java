@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.WorkerCopyFactory;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacAdaptive_MT extends CommonModelMatcherChecks {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public ModelMatcher<Line, Point2D_F64> createMatcher(int maxIterations, double threshold) {
+		return create(new ScaledDistance(), new DistanceCopier(), maxIterations, threshold);
+	}
+
+	private RansacAdaptive_MT<Line,Point2D_F64> create( ScaledDistance distance , DistanceCopier distances ,
+														int maxIterations, double threshold ) {
+		return new RansacAdaptive_MT<Line,Point2D_F64>(234,new LineManager(),new LineGenerator(),
+				distance,new GeneratorCopier(),(WorkerCopyFactory)distances,maxIterations,threshold);
+	}
+
+	private RansacAdaptive_MT<Line,Point2D_F64> create( int batchSize ) {
+		RansacAdaptive_MT<Line,Point2D_F64> alg = create(new ScaledDistance(),new DistanceCopier(),500,0.1);
+		alg.setLocalOptimization(new LineFitter());
+		alg.setPretestSize(1);
+		alg.setBatchSize(batchSize);
+		return alg;
+	}
+
+	/**
+	 * The solution should only depend on the seed and not the number of threads
+	 */
+	@Test
+	public void independentOfThreads() {
+		List<Point2D_F64> points = createData(300,0.6,0.05);
+
+		for( int batchSize : new int[]{1,5,16} ) {
+			BoofConcurrency.setMaxThreads(1);
+			RansacAdaptive_MT<Line,Point2D_F64> single = create(batchSize);
+			assertTrue(single.process(points));
+
+			BoofConcurrency.setMaxThreads(4);
+			RansacAdaptive_MT<Line,Point2D_F64> alg = create(batchSize);
+			assertTrue(alg.process(points));
+
+			assertEquals(single.getIterations(),alg.getIterations());
+			assertEquals(single.getModelParameters().slope,alg.getModelParameters().slope,0);
+			assertEquals(single.getModelParameters().offset,alg.getModelParameters().offset,0);
+			assertEquals(single.getMatchSet().size(),alg.getMatchSet().size());
+			for( int i = 0; i < alg.getMatchSet().size(); i++ ) {
+				assertEquals(single.getInputIndex(i),alg.getInputIndex(i));
+			}
+		}
+	}
+
+	/**
+	 * Workers should have the state of the original distance function and only be updated once per call
+	 */
+	@Test
+	public void copyState() {
+		List<Point2D_F64> points = createData(200,0.4,0);
+
+		ScaledDistance distance = new ScaledDistance();
+		DistanceCopier distances = new DistanceCopier();
+		RansacAdaptive_MT<Line,Point2D_F64> alg = create(distance,distances,500,0.1);
+		alg.setConfidence(1);
+
+		assertTrue(alg.process(points));
+		assertEquals(inliers.size(),alg.getMatchSet().size());
+		assertTrue(distances.copies > 0);
+		assertTrue(distances.copies <= distances.created);
+
+		// change the state so that every point is an inlier
+		distance.scale = 0;
+		distances.copies = 0;
+		assertTrue(alg.process(points));
+		assertEquals(points.size(),alg.getMatchSet().size());
+		assertTrue(distances.copies > 0);
+		assertTrue(distances.copies <= distances.created);
+	}
+
+	/**
+	 * Distance function which has state that's configured after construction
+	 */
+	public static class ScaledDistance extends LineDistance {
+		double scale = 1;
+
+		@Override
+		public double computeDistance(Point2D_F64 pt) {
+			calls++;
+			return scale*Math.abs(model.slope*pt.x + model.offset - pt.y);
+		}
+	}
+
+	public static class DistanceCopier implements WorkerCopyFactory<ScaledDistance> {
+		int created, copies;
+
+		@Override
+		public synchronized ScaledDistance create() {
+			created++;
+			ScaledDistance d = new ScaledDistance();
+			// if not copied no inliers will be found
+			d.scale = 1e8;
+			return d;
+		}
+
+		@Override
+		public synchronized void copyState(ScaledDistance original, ScaledDistance worker) {
+			copies++;
+			worker.scale = original.scale;
+		}
+	}
+
+	public static class GeneratorCopier implements WorkerCopyFactory<ModelGenerator<Line,Point2D_F64>> {
+		@Override
+		public ModelGenerator<Line, Point2D_F64> create() {
+			return new LineGenerator();
+		}
+
+		@Override
+		public void copyState(ModelGenerator<Line, Point2D_F64> original, ModelGenerator<Line, Point2D_F64> worker) {}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImplMedianHistogramInner}.  The inner portion of the image is split into
+ * bands of rows and each band is processed with its own histogram.  Results are identical to
+ * {@link ImplMedianHistogramInner}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianHistogramInner_MT {
+
+	/**
+	 * Applies a median image filter.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public static void process(final ImageUInt8 input, final ImageUInt8 output , final int radius ) {
+
+		BoofConcurrency.loopBlocks(radius, input.height-radius, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				int w = 2*radius+1;
+				int offset[] = new int[ w*w ];
+				int histogram[] = new int[ 256 ];
+
+				ImplMedianHistogramInner.process(input.subimage(0, y0-radius, input.width, y1+radius, null),
+						output.subimage(0, y0-radius, output.width, y1+radius, null), radius, offset, histogram);
+			}
+		});
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat32;
+import org.ddogleg.sorting.QuickSelectArray;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImplMedianSortNaive}.  The image is split into bands of rows and each band
+ * is processed with its own storage array.  Results are identical to {@link ImplMedianSortNaive}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianSortNaive_MT {
+
+	/**
+	 * Performs a median filter.
+	 *
+	 * @param input Raw input image.
+	 * @param output Filtered image.
+	 * @param radius Size of the filter's region.
+	 */
+	public static void process(final ImageFloat32 input, final ImageFloat32 output, final int radius ) {
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				int w = 2*radius+1;
+				float storage[] = new float[ w*w ];
+
+				processRows(input, output, radius, y0, y1, storage);
+			}
+		});
+	}
+
+	/**
+	 * Applies the median filter to rows y0 (inclusive) to y1 (exclusive).
+	 */
+	private static void processRows(ImageFloat32 input, ImageFloat32 output, int radius,
+									int y0 , int y1 , float[] storage ) {
+		for( int y = y0; y < y1; y++ ) {
+			int minI = y - radius;
+			int maxI = y + radius+1;
+
+			// bound the y-axius inside the image
+			if( minI < 0 ) minI = 0;
+			if( maxI > input.height ) maxI = input.height;
+
+			for( int x = 0; x < input.width; x++ ) {
+				int minJ = x - radius;
+				int maxJ = x + radius+1;
+
+				// bound the x-axis to be inside the image
+				if( minJ < 0 ) minJ = 0;
+				if( maxJ > input.width ) maxJ = input.width;
+
+				int index = 0;
+
+				for( int i = minI; i < maxI; i++ ) {
+					for( int j = minJ; j < maxJ; j++ ) {
+						storage[index++] = input.get(j,i);
+					}
+				}
+
+				// use quick select to avoid sorting the whole list
+				float median = QuickSelectArray.select(storage,index/2,index);
+				output.set(x,y, median );
+			}
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.convolve.noborder.ImplConvolveMean;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalized_JustBorder;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.image.*;
+
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ConvolveImageMean}.  The inner portion of the image is split into bands of
+ * rows which are processed by {@link BoofConcurrency}'s threads and the border is processed by the calling thread.
+ * </p>
+ *
+ * <p>
+ * Integer images produce identical results to {@link ConvolveImageMean}.  The vertical pass for
+ * {@link ImageFloat32} updates a running sum which is restarted at the top of each band, so results can differ
+ * by floating point round off error.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageMean_MT {
+	/**
+	 * Performs a horizontal 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void horizontal(final ImageFloat32 input, final ImageFloat32 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_F32 kernel = FactoryKernel.table1D_F32(radius,true);
+		ConvolveNormalized_JustBorder.horizontal(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.horizontal(input.subimage(0, y0, input.width, y1, null),
+						output.subimage(0, y0, output.width, y1, null), radius);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void vertical(final ImageFloat32 input, final ImageFloat32 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_F32 kernel = FactoryKernel.table1D_F32(radius,true);
+		ConvolveNormalized_JustBorder.vertical(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(radius, input.height-radius, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.vertical(input.subimage(0, y0-radius, input.width, y1+radius, null),
+						output.subimage(0, y0-radius, output.width, y1+radius, null), radius);
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void horizontal(final ImageUInt8 input, final ImageInt8 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_I32 kernel = FactoryKernel.table1D_I32(radius);
+		ConvolveNormalized_JustBorder.horizontal(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.horizontal(input.subimage(0, y0, input.width, y1, null),
+						(ImageInt8)output.subimage(0, y0, output.width, y1, null), radius);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void vertical(final ImageUInt8 input, final ImageInt8 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_I32 kernel = FactoryKernel.table1D_I32(radius);
+		ConvolveNormalized_JustBorder.vertical(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(radius, input.height-radius, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.vertical(input.subimage(0, y0-radius, input.width, y1+radius, null),
+						(ImageInt8)output.subimage(0, y0-radius, output.width, y1+radius, null), radius);
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void horizontal(final ImageSInt16 input, final ImageInt16 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_I32 kernel = FactoryKernel.table1D_I32(radius);
+		ConvolveNormalized_JustBorder.horizontal(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.horizontal(input.subimage(0, y0, input.width, y1, null),
+						(ImageInt16)output.subimage(0, y0, output.width, y1, null), radius);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution which computes the mean value of elements
+	 * inside the kernel.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param radius Kernel size.
+	 */
+	public static void vertical(final ImageSInt16 input, final ImageInt16 output, final int radius) {
+		InputSanityCheck.checkSameShape(input , output);
+
+		Kernel1D_I32 kernel = FactoryKernel.table1D_I32(radius);
+		ConvolveNormalized_JustBorder.vertical(kernel, input, output);
+
+		BoofConcurrency.loopBlocks(radius, input.height-radius, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplConvolveMean.vertical(input.subimage(0, y0-radius, input.width, y1+radius, null),
+						(ImageInt16)output.subimage(0, y0-radius, output.width, y1+radius, null), radius);
+			}
+		});
+	}
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.*;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ConvolveImageNoBorder}.  The output image is split into bands of rows
+ * which are processed by {@link BoofConcurrency}'s threads.  Each band is processed with the single threaded
+ * code on a sub-image which includes the rows above and below the band needed by the kernel, so the output
+ * is identical to {@link ConvolveImageNoBorder}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageNoBorder_MT {
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_F32, ImageFloat32, ImageFloat32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void horizontal(final Kernel1D_F32 kernel,
+								  final ImageFloat32 input, final ImageFloat32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null),
+						output.subimage(0, y0, output.width, y1, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageUInt8, ImageInt8, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt8 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null), (ImageInt8)output.subimage(0, y0, output.width, y1, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageUInt8, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null), (ImageInt16)output.subimage(0, y0, output.width, y1, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageUInt8, ImageSInt32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageSInt32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null),
+						output.subimage(0, y0, output.width, y1, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageSInt16, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null), (ImageInt16)output.subimage(0, y0, output.width, y1, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageSInt16, ImageInt16, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null), (ImageInt16)output.subimage(0, y0, output.width, y1, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#horizontal(Kernel1D_I32, ImageSInt32, ImageSInt32, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel,
+								  final ImageSInt32 input, final ImageSInt32 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0, input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.horizontal(kernel, input.subimage(0, y0, input.width, y1, null),
+						output.subimage(0, y0, output.width, y1, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_F32, ImageFloat32, ImageFloat32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void vertical(final Kernel1D_F32 kernel,
+								  final ImageFloat32 input, final ImageFloat32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null),
+						output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageUInt8, ImageInt8, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt8 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt8)output.subimage(0, y0-above, output.width, y1+below, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageUInt8, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageUInt8, ImageSInt32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageUInt8 input, final ImageSInt32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null),
+						output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageSInt16, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageSInt16, ImageInt16, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D convolution across the image.  The vertical border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#vertical(Kernel1D_I32, ImageSInt32, ImageSInt32, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel,
+								  final ImageSInt32 input, final ImageSInt32 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getOffset();
+		final int below = kernel.getWidth()-kernel.getOffset()-1;
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.vertical(kernel, input.subimage(0, y0-above, input.width, y1+below, null),
+						output.subimage(0, y0-above, output.width, y1+below, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_F32, ImageFloat32, ImageFloat32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void convolve(final Kernel2D_F32 kernel,
+								  final ImageFloat32 input, final ImageFloat32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null),
+						output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_I32, ImageUInt8, ImageInt8, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void convolve(final Kernel2D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt8 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt8)output.subimage(0, y0-above, output.width, y1+below, null), divisor);
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_I32, ImageUInt8, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void convolve(final Kernel2D_I32 kernel,
+								  final ImageUInt8 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_I32, ImageUInt8, ImageSInt32)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void convolve(final Kernel2D_I32 kernel,
+								  final ImageUInt8 input, final ImageSInt32 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null),
+						output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_I32, ImageSInt16, ImageInt16)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static void convolve(final Kernel2D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null));
+			}
+		});
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image border is not processed.
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolve(Kernel2D_I32, ImageSInt16, ImageInt16, int)}.
+	 *
+	 * @param input	 The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param divisor The value that the convolved image is divided by.
+	 */
+	public static void convolve(final Kernel2D_I32 kernel,
+								  final ImageSInt16 input, final ImageInt16 output, final int divisor) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int above = kernel.getRadius();
+		final int below = kernel.getRadius();
+
+		BoofConcurrency.loopBlocks(above, input.height-below, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveImageNoBorder.convolve(kernel, input.subimage(0, y0-above, input.width, y1+below, null), (ImageInt16)output.subimage(0, y0-above, output.width, y1+below, null), divisor);
+			}
+		});
+	}
+}
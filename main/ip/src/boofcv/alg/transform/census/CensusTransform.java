@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * The Census Transform [1] encodes the local structure around each pixel as a bit string.  Each pixel in a square
+ * region around the center pixel is compared against the center pixel.  If it has a smaller value then its bit
+ * is set to one, otherwise zero.  Pixels are encoded in row-major order, starting from the top left corner and
+ * skipping over the center pixel, with the first pixel being the least significant bit.  Two transformed pixels
+ * are compared by computing the Hamming distance between them.  Since only the relative order of pixels is
+ * encoded, the transform is invariant to changes in gain and bias.
+ * </p>
+ *
+ * <p>
+ * Pixels outside the image are handled by using the closest pixel inside the image.
+ * </p>
+ *
+ * <p>
+ * [1] Zabih, Ramin, and John Woodfill. "Non-parametric local transforms for computing visual correspondence."
+ * ECCV 1994.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CensusTransform {
+
+	/**
+	 * Largest supported radius for square regions encoded in 32-bits.
+	 */
+	public static final int MAX_RADIUS = 2;
+
+	/**
+	 * Number of bits used to encode a region with the specified radius
+	 *
+	 * @param radius Radius of the square region
+	 * @return Number of bits in the descriptor
+	 */
+	public static int numberOfBits( int radius ) {
+		return numberOfBits(radius,radius);
+	}
+
+	/**
+	 * Number of bits used to encode a rectangular region
+	 *
+	 * @param radiusX Radius of the region along the x-axis
+	 * @param radiusY Radius of the region along the y-axis
+	 * @return Number of bits in the descriptor
+	 */
+	public static int numberOfBits( int radiusX , int radiusY ) {
+		return (radiusX*2+1)*(radiusY*2+1)-1;
+	}
+
+	/**
+	 * Computes the census transform using one of the standard region shapes.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param type Shape of the region.
+	 * @param output Census transformed image.  {@link ImageSInt64} if {@link CensusType#isLong()} otherwise
+	 *               {@link ImageSInt32}.  Modified.
+	 */
+	public static void transform( ImageUInt8 input , CensusType type , ImageSingleBand output ) {
+		if( type.isLong() )
+			region(input,type.getRadiusX(),type.getRadiusY(),(ImageSInt64)output);
+		else if( type.getRadiusX() == type.getRadiusY() )
+			region(input,type.getRadiusX(),(ImageSInt32)output);
+		else
+			throw new IllegalArgumentException("Unsupported type "+type);
+	}
+
+	/**
+	 * Census transform with a 5x5 region packed into 24-bits
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Census transformed image.  Modified.
+	 */
+	public static void dense5x5( ImageUInt8 input , ImageSInt32 output ) {
+		region(input,2,output);
+	}
+
+	/**
+	 * Census transform with a region which is 9 pixels wide and 7 pixels tall packed into 62-bits
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Census transformed image.  Modified.
+	 */
+	public static void dense7x9( ImageUInt8 input , ImageSInt64 output ) {
+		region(input,4,3,output);
+	}
+
+	/**
+	 * Computes the census transform for every pixel inside a square region.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param radius Radius of the square region.  1 = 3x3 and 8-bits, 2 = 5x5 and 24-bits.
+	 * @param output Census transformed image.  Modified.
+	 */
+	public static void region( ImageUInt8 input , int radius , ImageSInt32 output ) {
+		InputSanityCheck.checkSameShape(input, output);
+		if( radius < 1 || radius > MAX_RADIUS )
+			throw new IllegalArgumentException("Radius must be from 1 to "+MAX_RADIUS);
+
+		final int width = input.width;
+		final int height = input.height;
+
+		// inner portion of the image where the region is always inside
+		int x0 = Math.min(radius,width), x1 = Math.max(x0,width-radius);
+		int y0 = Math.min(radius,height), y1 = Math.max(y0,height-radius);
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = input.startIndex + y*input.stride + x0;
+			int indexOut = output.startIndex + y*output.stride + x0;
+
+			for( int x = x0; x < x1; x++ , indexIn++ , indexOut++ ) {
+				int center = input.data[indexIn] & 0xFF;
+
+				int bits = 0;
+				int bit = 1;
+				for( int i = -radius; i <= radius; i++ ) {
+					int indexRow = indexIn + i*input.stride;
+					for( int j = -radius; j <= radius; j++ ) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( (input.data[indexRow+j] & 0xFF) < center )
+							bits |= bit;
+						bit <<= 1;
+					}
+				}
+				output.data[indexOut] = bits;
+			}
+		}
+
+		// image border
+		for( int y = 0; y < height; y++ ) {
+			if( y >= y0 && y < y1 ) {
+				for( int x = 0; x < x0; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radius,x,y);
+				for( int x = x1; x < width; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radius,x,y);
+			} else {
+				for( int x = 0; x < width; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radius,x,y);
+			}
+		}
+	}
+
+	/**
+	 * Computes the census transform for every pixel inside a rectangular region.  Up to 64 bits can be encoded.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param radiusX Radius of the region along the x-axis
+	 * @param radiusY Radius of the region along the y-axis
+	 * @param output Census transformed image.  Modified.
+	 */
+	public static void region( ImageUInt8 input , int radiusX , int radiusY , ImageSInt64 output ) {
+		InputSanityCheck.checkSameShape(input, output);
+		if( radiusX < 0 || radiusY < 0 || radiusX+radiusY == 0 )
+			throw new IllegalArgumentException("Radius must be positive");
+		if( numberOfBits(radiusX,radiusY) > 64 )
+			throw new IllegalArgumentException("Region is too large to be encoded in 64-bits");
+
+		final int width = input.width;
+		final int height = input.height;
+
+		// inner portion of the image where the region is always inside
+		int x0 = Math.min(radiusX,width), x1 = Math.max(x0,width-radiusX);
+		int y0 = Math.min(radiusY,height), y1 = Math.max(y0,height-radiusY);
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = input.startIndex + y*input.stride + x0;
+			int indexOut = output.startIndex + y*output.stride + x0;
+
+			for( int x = x0; x < x1; x++ , indexIn++ , indexOut++ ) {
+				int center = input.data[indexIn] & 0xFF;
+
+				long bits = 0;
+				long bit = 1;
+				for( int i = -radiusY; i <= radiusY; i++ ) {
+					int indexRow = indexIn + i*input.stride;
+					for( int j = -radiusX; j <= radiusX; j++ ) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( (input.data[indexRow+j] & 0xFF) < center )
+							bits |= bit;
+						bit <<= 1;
+					}
+				}
+				output.data[indexOut] = bits;
+			}
+		}
+
+		// image border
+		for( int y = 0; y < height; y++ ) {
+			if( y >= y0 && y < y1 ) {
+				for( int x = 0; x < x0; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radiusX,radiusY,x,y);
+				for( int x = x1; x < width; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radiusX,radiusY,x,y);
+			} else {
+				for( int x = 0; x < width; x++ )
+					output.data[output.startIndex + y*output.stride + x] = border(input,radiusX,radiusY,x,y);
+			}
+		}
+	}
+
+	/**
+	 * Census transform for a pixel near the image border, where the region can go outside the image
+	 */
+	private static int border( ImageUInt8 input , int radius , int x , int y ) {
+		int center = input.unsafe_get(x,y);
+
+		int bits = 0;
+		int bit = 1;
+		for( int i = -radius; i <= radius; i++ ) {
+			int yy = Math.min(input.height-1,Math.max(0,y+i));
+			for( int j = -radius; j <= radius; j++ ) {
+				if( i == 0 && j == 0 )
+					continue;
+				int xx = Math.min(input.width-1,Math.max(0,x+j));
+				if( input.unsafe_get(xx,yy) < center )
+					bits |= bit;
+				bit <<= 1;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Census transform for a pixel near the image border, where the region can go outside the image
+	 */
+	private static long border( ImageUInt8 input , int radiusX , int radiusY , int x , int y ) {
+		int center = input.unsafe_get(x,y);
+
+		long bits = 0;
+		long bit = 1;
+		for( int i = -radiusY; i <= radiusY; i++ ) {
+			int yy = Math.min(input.height-1,Math.max(0,y+i));
+			for( int j = -radiusX; j <= radiusX; j++ ) {
+				if( i == 0 && j == 0 )
+					continue;
+				int xx = Math.min(input.width-1,Math.max(0,x+j));
+				if( input.unsafe_get(xx,yy) < center )
+					bits |= bit;
+				bit <<= 1;
+			}
+		}
+		return bits;
+	}
+}
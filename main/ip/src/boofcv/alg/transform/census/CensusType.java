@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census;
+
+/**
+ * Standard region shapes for the {@link CensusTransform}.  Shapes which can be encoded with 32-bits are stored
+ * inside of an {@link boofcv.struct.image.ImageSInt32} and larger shapes inside of an
+ * {@link boofcv.struct.image.ImageSInt64}.
+ *
+ * @author Peter Abeles
+ */
+public enum CensusType {
+	/**
+	 * 3x3 square region. 8-bits
+	 */
+	BLOCK_3_3(1,1),
+	/**
+	 * 5x5 square region. 24-bits
+	 */
+	BLOCK_5_5(2,2),
+	/**
+	 * Region which is 9 pixels wide and 7 pixels tall. 62-bits
+	 */
+	BLOCK_7_9(4,3);
+
+	int radiusX;
+	int radiusY;
+
+	CensusType(int radiusX, int radiusY) {
+		this.radiusX = radiusX;
+		this.radiusY = radiusY;
+	}
+
+	public int getRadiusX() {
+		return radiusX;
+	}
+
+	public int getRadiusY() {
+		return radiusY;
+	}
+
+	/**
+	 * Number of bits in the encoded descriptor
+	 */
+	public int getBits() {
+		return CensusTransform.numberOfBits(radiusX,radiusY);
+	}
+
+	/**
+	 * If true then the descriptor requires more than 32-bits and is stored in a long
+	 */
+	public boolean isLong() {
+		return getBits() > 32;
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.filter.convolve.ConvolveDownNormalized;
+import boofcv.alg.filter.convolve.down.UtilDownConvolve;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidDiscreteSampleBlur}.  Each layer is split into bands of rows which
+ * are processed by {@link BoofConcurrency}'s threads.  Blurring and down sampling are fused into a single pass.
+ * Each thread horizontally convolves only the input rows needed by its band and stores them in a circular
+ * buffer which is one kernel width tall.  The vertical convolution is then computed directly from that buffer.
+ * The horizontally blurred image is never written in its entirety, which reduces memory traffic.
+ * </p>
+ *
+ * <p>
+ * Output is identical to {@link PyramidDiscreteSampleBlur}.  Only {@link ImageFloat32} and {@link ImageUInt8}
+ * images are supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class PyramidDiscreteSampleBlur_MT<T extends ImageSingleBand> extends PyramidDiscreteSampleBlur<T> {
+
+	// the blur kernel
+	Kernel1D kernel;
+
+	// work space for each thread.  Saved to avoid declaring new memory each time
+	private final List<Worker> available = new ArrayList<Worker>();
+
+	/**
+	 *
+	 * @param kernel A symmetric blur kernel with an odd width
+	 * @param sigma The effective amount of Gaussian blur the kernel applies
+	 * @param imageType Type of image processed.  ImageFloat32 or ImageUInt8
+	 * @param saveOriginalReference If a reference to the full resolution image should be saved instead of copied.
+	 *                              Set to false if you don't know what you are doing.
+	 * @param scaleFactors Scale factor for each layer in the pyramid relative to the input layer
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, Class<T> imageType,
+										boolean saveOriginalReference, int... scaleFactors)
+	{
+		super(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+
+		if( imageType != ImageFloat32.class && imageType != ImageUInt8.class )
+			throw new IllegalArgumentException("Unsupported image type: "+imageType.getSimpleName());
+		if( kernel.offset != kernel.width/2 || kernel.width%2 != 1)
+			throw new IllegalArgumentException("Non symmetric odd kernels not supported");
+
+		this.kernel = kernel;
+	}
+
+	@Override
+	public void process(T input) {
+		super.initialize(input.width,input.height);
+
+		if (scale[0] == 1) {
+			if (isSaveOriginalReference()) {
+				setFirstLayer(input);
+			} else {
+				getLayer(0).setTo(input);
+			}
+		} else {
+			blurDown(input, getLayer(0), scale[0]);
+		}
+
+		for (int index = 1; index < getNumLayers(); index++) {
+			int skip = scale[index]/scale[index-1];
+			blurDown(getLayer(index-1), getLayer(index), skip);
+		}
+	}
+
+	/**
+	 * Blurs and down samples the input image into the output image.  The output rows are split between threads.
+	 */
+	private void blurDown( final T input , final T output , final int skip ) {
+		int numRows = input.height/skip;
+
+		BoofConcurrency.loopBlocks(0, numRows, new IntRangeTask() {
+			@Override
+			public void process(int row0, int row1) {
+				Worker w = acquire();
+				try {
+					w.process(input, output, skip, row0, row1);
+				} finally {
+					release(w);
+				}
+			}
+		});
+	}
+
+	private Worker acquire() {
+		synchronized ( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void release( Worker w ) {
+		synchronized ( available ) {
+			available.add(w);
+		}
+	}
+
+	/**
+	 * Work space for a single thread
+	 */
+	private class Worker {
+		// circular buffer containing horizontally convolved rows.  Row y is stored at y % kernel.width
+		T buffer = (T)getLayer(0)._createNew(1,1);
+		// used to reference a single row in the input and buffer
+		T inputRow = (T)buffer._createNew(-1,-1);
+		T bufferRow = (T)buffer._createNew(-1,-1);
+
+		/**
+		 * Computes output rows row0 (inclusive) to row1 (exclusive)
+		 */
+		public void process( T input , T output , int skip , int row0 , int row1 ) {
+			final int radius = kernel.getRadius();
+			final int size = kernel.getWidth();
+			final int width = input.width/skip;
+
+			buffer.reshape(width,size);
+
+			// last input row which was horizontally convolved
+			int lastRow = -1;
+			for( int row = row0; row < row1; row++ ) {
+				int y = row*skip;
+
+				int y0 = Math.max(lastRow+1, y-radius);
+				int y1 = Math.min(input.height-1, y+radius);
+
+				for( int i = y0; i <= y1; i++ ) {
+					int slot = i % size;
+					input.subimage(0, i, input.width, i + 1, inputRow);
+					buffer.subimage(0, slot, width, slot + 1, bufferRow);
+
+					if( input instanceof ImageFloat32 ) {
+						ConvolveDownNormalized.horizontal((Kernel1D_F32)kernel,
+								(ImageFloat32)inputRow,(ImageFloat32)bufferRow,skip);
+					} else {
+						ConvolveDownNormalized.horizontal((Kernel1D_I32)kernel,
+								(ImageUInt8)inputRow,(ImageUInt8)bufferRow,skip);
+					}
+				}
+				lastRow = Math.max(lastRow,y1);
+
+				if( input instanceof ImageFloat32 ) {
+					verticalRow((Kernel1D_F32)kernel,(ImageFloat32)buffer,input.height,skip,y,(ImageFloat32)output);
+				} else {
+					verticalRow((Kernel1D_I32)kernel,(ImageUInt8)buffer,input.height,skip,y,(ImageUInt8)output);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes a single row in the output image from the circular buffer.  The kernel is only re-normalized
+	 * for the same rows that {@link ConvolveDownNormalized#vertical} re-normalizes.
+	 *
+	 * @param buffer Circular buffer with horizontally convolved rows
+	 * @param height Height of the horizontally convolved image
+	 * @param y Row in the horizontally convolved image which is being sampled
+	 */
+	protected static void verticalRow( Kernel1D_F32 kernel , ImageFloat32 buffer , int height , int skip , int y ,
+									   ImageFloat32 output ) {
+		final float[] dataKer = kernel.data;
+		final int radius = kernel.getRadius();
+		final int size = kernel.getWidth();
+		final int width = buffer.width;
+
+		int k0 = -radius, k1 = radius;
+		if( y-radius < 0 ) k0 = -y;
+		if( y+radius >= height ) k1 = height-y-1;
+
+		int indexDst = output.startIndex + (y/skip)*output.stride;
+
+		if( isNormalized(kernel,width,height,skip,y) ) {
+			for( int x = 0; x < width; x++ ) {
+				float total = 0;
+				float weight = 0;
+
+				for( int k = k0; k <= k1; k++ ) {
+					float w = dataKer[k+radius];
+					weight += w;
+					total += buffer.data[buffer.startIndex + ((y+k)%size)*buffer.stride + x] * w;
+				}
+				output.data[indexDst++] = total/weight;
+			}
+		} else {
+			for( int x = 0; x < width; x++ ) {
+				float total = 0;
+				for( int k = -radius; k <= radius; k++ ) {
+					total += buffer.data[buffer.startIndex + ((y+k)%size)*buffer.stride + x] * dataKer[k+radius];
+				}
+				output.data[indexDst++] = total;
+			}
+		}
+	}
+
+	/**
+	 * Computes a single row in the output image from the circular buffer.  The kernel is only re-normalized
+	 * for the same rows that {@link ConvolveDownNormalized#vertical} re-normalizes.
+	 *
+	 * @param buffer Circular buffer with horizontally convolved rows
+	 * @param height Height of the horizontally convolved image
+	 * @param y Row in the horizontally convolved image which is being sampled
+	 */
+	protected static void verticalRow( Kernel1D_I32 kernel , ImageUInt8 buffer , int height , int skip , int y ,
+									   ImageUInt8 output ) {
+		final int[] dataKer = kernel.data;
+		final int radius = kernel.getRadius();
+		final int size = kernel.getWidth();
+		final int width = buffer.width;
+
+		int k0 = -radius, k1 = radius;
+		if( y-radius < 0 ) k0 = -y;
+		if( y+radius >= height ) k1 = height-y-1;
+
+		int indexDst = output.startIndex + (y/skip)*output.stride;
+
+		if( isNormalized(kernel,width,height,skip,y) ) {
+			for( int x = 0; x < width; x++ ) {
+				int total = 0;
+				int weight = 0;
+
+				for( int k = k0; k <= k1; k++ ) {
+					int w = dataKer[k+radius];
+					weight += w;
+					total += (buffer.data[buffer.startIndex + ((y+k)%size)*buffer.stride + x] & 0xFF) * w;
+				}
+				output.data[indexDst++] = (byte)((total+weight/2)/weight);
+			}
+		} else {
+			final int divisor = kernel.computeSum();
+			final int halfDivisor = divisor/2;
+
+			for( int x = 0; x < width; x++ ) {
+				int total = 0;
+				for( int k = -radius; k <= radius; k++ ) {
+					total += (buffer.data[buffer.startIndex + ((y+k)%size)*buffer.stride + x] & 0xFF) * dataKer[k+radius];
+				}
+				output.data[indexDst++] = (byte)((total+halfDivisor)/divisor);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if {@link ConvolveDownNormalized#vertical} would re-normalize the kernel when computing
+	 * this row.  That happens along the image border or for every row when the kernel is wider than the image.
+	 */
+	private static boolean isNormalized( Kernel1D kernel , int width , int height , int skip , int y ) {
+		if( kernel.width >= width )
+			return true;
+
+		int radius = kernel.getRadius();
+		int offset = UtilDownConvolve.computeOffset(skip,radius);
+		int heightEnd = UtilDownConvolve.computeMaxSide(height,skip,radius);
+
+		return y < offset || y > heightEnd;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.filter.blur.GBlurImageOps_MT;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidFloatGaussianScale}.  The Gaussian blur is computed using
+ * {@link GBlurImageOps_MT} and the blurred image is re-sampled with the rows of each layer split between threads.
+ * Each thread has its own interpolation and transform, since neither is thread safe.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link PyramidDiscreteSampleBlur_MT} blur and re-sampling are not fused.  Since the scale factor
+ * can be arbitrary, interpolated samples depend on a varying neighborhood of blurred pixels.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class PyramidFloatGaussianScale_MT< T extends ImageSingleBand> extends PyramidFloatGaussianScale<T> {
+
+	// type of interpolation used by each thread
+	private TypeInterpolate interpType;
+
+	// storage used by the blur
+	private T blurStorage;
+
+	// work space for each thread.  Saved to avoid declaring new memory each time
+	private final List<Worker> available = new ArrayList<Worker>();
+
+	/**
+	 * Configures the pyramid
+	 *
+	 * @param interpType Type of interpolation used to sub-sample.
+	 * @param scales Scales of each layer in the pyramid relative to the input image
+	 * @param sigmaLayers Amount of blur applied to the previous layer while constructing the pyramid.
+	 * @param imageType Type of image it's processing
+	 */
+	public PyramidFloatGaussianScale_MT(TypeInterpolate interpType, double scales[], double sigmaLayers[],
+										Class<T> imageType) {
+		super(FactoryInterpolation.createPixelS(0, 255, interpType, imageType), scales, sigmaLayers, imageType);
+		this.interpType = interpType;
+	}
+
+	@Override
+	public void process(T input) {
+		super.initialize(input.width,input.height);
+
+		if( isSaveOriginalReference() )
+			throw new IllegalArgumentException("The original reference cannot be saved");
+
+		if( tempImage == null ) {
+			tempImage = (T)input._createNew(input.width,input.height);
+			blurStorage = (T)input._createNew(input.width,input.height);
+		}
+
+		for( int i = 0; i < scale.length; i++ ) {
+			T prev = i == 0 ? input : getLayer(i-1);
+			final T layer = getLayer(i);
+
+			// Apply the requested blur to the previous layer
+			tempImage.reshape(prev.width,prev.height);
+			blurStorage.reshape(prev.width,prev.height);
+			GBlurImageOps_MT.gaussian(prev,tempImage,sigmaLayers[i],-1,blurStorage);
+
+			// Resample the blurred image
+			if( scale[i] == 1 ) {
+				layer.setTo(tempImage);
+			} else {
+				BoofConcurrency.loopBlocks(0,layer.height,new IntRangeTask() {
+					@Override
+					public void process(int y0, int y1) {
+						Worker w = acquire();
+						try {
+							w.distort.setModel(DistortSupport.transformScale(layer, tempImage));
+							w.distort.apply(tempImage,layer,0,y0,layer.width,y1);
+						} finally {
+							release(w);
+						}
+					}
+				});
+			}
+		}
+	}
+
+	private Worker acquire() {
+		synchronized ( available ) {
+			if( available.isEmpty() )
+				return new Worker();
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void release( Worker w ) {
+		synchronized ( available ) {
+			available.add(w);
+		}
+	}
+
+	/**
+	 * Work space for a single thread
+	 */
+	private class Worker {
+		ImageDistort<T> distort;
+
+		private Worker() {
+			Class<T> type = getImageType();
+			InterpolatePixelS<T> interp = FactoryInterpolation.createPixelS(0, 255, interpType, type);
+			distort = FactoryDistort.distort(interp, null, type);
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+
+/**
+ * <p>
+ * Image pyramid and its gradient for a single frame in an image sequence.  Used to share the pyramid between
+ * several trackers and detectors that process the same frame, so that it's only computed once.  The gradient of
+ * each layer is computed the first time it's requested.  Frames are created and recycled by
+ * {@link PyramidFrameCache}.
+ * </p>
+ *
+ * <p>
+ * Reference counting is used to determine when a frame can be recycled.  Anything which needs the frame after it
+ * has returned from a function call should call {@link #acquire()} and then {@link #release()} once it's done
+ * with it.  The frame's images must not be modified.  All functions are thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidFrame<I extends ImageSingleBand, D extends ImageSingleBand> {
+
+	// the cache which owns this frame.  Also used to synchronize
+	private PyramidFrameCache<I,D> owner;
+
+	// ID of the frame whose pyramid is stored
+	private long frameId = -1;
+	// image which was used to compute the pyramid
+	private I input;
+
+	private PyramidDiscrete<I> pyramid;
+	private D[] derivX;
+	private D[] derivY;
+	// if the gradient has been computed for a layer
+	private boolean[] gradientValid;
+
+	// number of users of this frame
+	private int references;
+
+	protected PyramidFrame(PyramidFrameCache<I,D> owner, PyramidDiscrete<I> pyramid) {
+		this.owner = owner;
+		this.pyramid = pyramid;
+		gradientValid = new boolean[pyramid.getNumLayers()];
+	}
+
+	/**
+	 * Computes the pyramid for a new frame.  The gradient is marked as not computed.
+	 */
+	protected void process( long frameId , I image , Class<D> derivType ) {
+		this.frameId = frameId;
+		this.input = image;
+
+		pyramid.process(image);
+
+		if( derivX == null ) {
+			derivX = PyramidOps.declareOutput(pyramid, derivType);
+			derivY = PyramidOps.declareOutput(pyramid, derivType);
+		} else if( derivX[0].width != pyramid.getLayer(0).width ||
+				derivX[0].height != pyramid.getLayer(0).height ) {
+			PyramidOps.reshapeOutput(pyramid, derivX);
+			PyramidOps.reshapeOutput(pyramid, derivY);
+		}
+
+		for( int i = 0; i < gradientValid.length; i++ ) {
+			gradientValid[i] = false;
+		}
+	}
+
+	/**
+	 * Adds a reference to this frame, preventing it from being recycled.
+	 */
+	public void acquire() {
+		synchronized ( owner ) {
+			if( references <= 0 )
+				throw new IllegalStateException("Frame has already been released");
+			references++;
+		}
+	}
+
+	/**
+	 * Removes a reference to this frame.  Once there are no references it can be recycled.
+	 */
+	public void release() {
+		synchronized ( owner ) {
+			if( references <= 0 )
+				throw new IllegalStateException("Frame has been released more times than acquired");
+			references--;
+		}
+	}
+
+	/**
+	 * Returns the image gradient along the x-axis for the specified layer.  Computed if needed.
+	 */
+	public D getDerivX( int layer ) {
+		checkGradient(layer);
+		return derivX[layer];
+	}
+
+	/**
+	 * Returns the image gradient along the y-axis for the specified layer.  Computed if needed.
+	 */
+	public D getDerivY( int layer ) {
+		checkGradient(layer);
+		return derivY[layer];
+	}
+
+	/**
+	 * Returns the image gradient along the x-axis for all layers.  Computed if needed.
+	 */
+	public D[] getDerivX() {
+		checkGradient();
+		return derivX;
+	}
+
+	/**
+	 * Returns the image gradient along the y-axis for all layers.  Computed if needed.
+	 */
+	public D[] getDerivY() {
+		checkGradient();
+		return derivY;
+	}
+
+	/**
+	 * Returns true if the gradient has already been computed for the layer
+	 */
+	public boolean isGradientComputed( int layer ) {
+		synchronized ( owner ) {
+			return gradientValid[layer];
+		}
+	}
+
+	private void checkGradient() {
+		for( int i = 0; i < gradientValid.length; i++ ) {
+			checkGradient(i);
+		}
+	}
+
+	private void checkGradient( int layer ) {
+		synchronized ( owner ) {
+			if( references <= 0 )
+				throw new IllegalStateException("Frame has been released");
+			if( !gradientValid[layer] ) {
+				owner.getGradient().process(pyramid.getLayer(layer), derivX[layer], derivY[layer]);
+				gradientValid[layer] = true;
+			}
+		}
+	}
+
+	public PyramidDiscrete<I> getPyramid() {
+		return pyramid;
+	}
+
+	/**
+	 * The image which was passed in for this frame.  This is the caller's image and not a copy, so only its
+	 * shape should be used since the caller might have modified it since.  The pyramid's layers are copies
+	 * and remain valid.
+	 */
+	public I getInput() {
+		return input;
+	}
+
+	public long getFrameId() {
+		return frameId;
+	}
+
+	public int getReferences() {
+		synchronized ( owner ) {
+			return references;
+		}
+	}
+
+	protected void setReferences( int references ) {
+		this.references = references;
+	}
+
+	public PyramidFrameCache<I, D> getOwner() {
+		return owner;
+	}
+}
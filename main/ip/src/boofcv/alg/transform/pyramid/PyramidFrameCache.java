@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Provides the {@link PyramidFrame image pyramid} for each frame in an image sequence, so that several trackers
+ * and detectors which process the same sequence only need to compute it once.  Frames are identified by a
+ * frame ID provided by the user, which must be unique for each image in the sequence.  If a frame with the same
+ * ID is still in the cache then it's returned, otherwise the pyramid is computed in a frame which is no longer
+ * referenced, or a new frame if all of them are being referenced.
+ * </p>
+ *
+ * <p>
+ * Each pyramid saves a copy of the input image, so frames remain valid even if the input image is modified.
+ * All functions are thread safe.
+ * </p>
+ *
+ * <pre>
+ * PyramidFrame&lt;I,D&gt; frame = cache.acquire(frameId,image);
+ * trackerA.process(frame);
+ * trackerB.process(frame);
+ * frame.release();
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidFrameCache<I extends ImageSingleBand, D extends ImageSingleBand> {
+
+	// configuration of the pyramid
+	private int scaleFactors[];
+	private double sigma;
+	private int radius;
+	private Class<I> imageType;
+
+	// computes the gradient of each layer
+	private ImageGradient<I,D> gradient;
+	private Class<D> derivType;
+
+	// all the frames which have been created
+	private List<PyramidFrame<I,D>> frames = new ArrayList<PyramidFrame<I,D>>();
+
+	/**
+	 * Configures the cache.  See {@link FactoryPyramid#discreteGaussian} for a description of the pyramid
+	 * parameters.
+	 *
+	 * @param scaleFactors Scale of each layer relative to the input image
+	 * @param sigma Gaussian sigma.  If < 0 then a sigma is selected using the radius.
+	 * @param radius Radius of the Gaussian kernel.  If < 0 then the radius is selected using sigma.
+	 * @param gradient Computes the gradient for each layer
+	 * @param imageType Type of input image
+	 */
+	public PyramidFrameCache(int[] scaleFactors, double sigma, int radius,
+							 ImageGradient<I, D> gradient, Class<I> imageType ) {
+		this.scaleFactors = scaleFactors.clone();
+		this.sigma = sigma;
+		this.radius = radius;
+		this.gradient = gradient;
+		this.imageType = imageType;
+		this.derivType = gradient.getDerivType().getImageClass();
+	}
+
+	/**
+	 * Returns the frame for the specified ID and adds a reference to it.  If the frame isn't in the cache
+	 * then its pyramid is computed from the image.  Call {@link PyramidFrame#release()} when finished with it.
+	 *
+	 * @param frameId Unique ID of the image in the sequence.  Must be &ge; 0.
+	 * @param image The image
+	 * @return Frame with one more reference
+	 */
+	public synchronized PyramidFrame<I,D> acquire( long frameId , I image ) {
+		if( frameId < 0 )
+			throw new IllegalArgumentException("Frame ID must be >= 0");
+
+		PyramidFrame<I,D> unused = null;
+
+		for( int i = 0; i < frames.size(); i++ ) {
+			PyramidFrame<I,D> f = frames.get(i);
+			if( f.getFrameId() == frameId ) {
+				f.setReferences(f.getReferences()+1);
+				return f;
+			} else if( unused == null && f.getReferences() == 0 ) {
+				unused = f;
+			}
+		}
+
+		if( unused == null ) {
+			// the first layer must be a copy since the caller can reuse its image for the next frame
+			PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(scaleFactors, sigma, radius, false, imageType);
+			unused = new PyramidFrame<I,D>(this,pyramid);
+			frames.add(unused);
+		}
+
+		unused.process(frameId, image, derivType);
+		unused.setReferences(1);
+
+		return unused;
+	}
+
+	/**
+	 * Number of frames which have been created
+	 */
+	public synchronized int getNumFrames() {
+		return frames.size();
+	}
+
+	/**
+	 * Discards all frames which are not being referenced
+	 */
+	public synchronized void clearUnused() {
+		for( int i = frames.size()-1; i >= 0; i-- ) {
+			if( frames.get(i).getReferences() == 0 )
+				frames.remove(i);
+		}
+	}
+
+	public int getNumLayers() {
+		return scaleFactors.length;
+	}
+
+	public ImageGradient<I, D> getGradient() {
+		return gradient;
+	}
+
+	public Class<I> getImageType() {
+		return imageType;
+	}
+
+	public Class<D> getDerivType() {
+		return derivType;
+	}
+}
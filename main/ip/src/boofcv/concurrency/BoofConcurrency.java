@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * Shared thread pool and work splitting used by the concurrent (_MT) implementations of algorithms.  A range
+ * of indexes, typically image rows, is split into contiguous blocks and the blocks are processed by the
+ * pool's threads and the calling thread.  The block boundaries only depend on the range and number of threads,
+ * so the same input is always split the same way.
+ * </p>
+ *
+ * <p>
+ * The calling thread takes part in processing the blocks and only waits on blocks which are already being
+ * processed by another thread.  This allows concurrent operations to be safely nested inside of each other,
+ * e.g. processing each band of a multi-spectral image in parallel where each band is convolved in parallel.
+ * </p>
+ *
+ * <p>
+ * The maximum number of threads can be changed globally with {@link #setMaxThreads(int)} or for operations
+ * invoked from the current thread only with {@link #setCallerThreads(int)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+
+	// maximum number of threads used by concurrent operations
+	private static int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// number of threads requested by the calling thread.  0 = use maxThreads
+	private static final ThreadLocal<Integer> callerThreads = new ThreadLocal<Integer>();
+
+	// pool which the blocks are processed on.  Lazily created
+	private static ExecutorService pool;
+
+	/**
+	 * Changes the maximum number of threads used by concurrent operations.  The shared thread pool is
+	 * recreated with the new size.  Blocks already submitted to the old pool are still processed.
+	 *
+	 * @param threads Maximum number of threads.  Must be one or more.
+	 */
+	public static synchronized void setMaxThreads( int threads ) {
+		if( threads < 1 )
+			throw new IllegalArgumentException("Number of threads must be one or more");
+		if( threads == maxThreads )
+			return;
+
+		maxThreads = threads;
+		if( pool != null ) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of threads used by concurrent operations.
+	 */
+	public static synchronized int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Overrides the number of threads for concurrent operations invoked from the current thread.  Useful when
+	 * the number of threads needs to be specified for a single call.  The number of threads is still limited
+	 * by {@link #getMaxThreads()}.
+	 *
+	 * @param threads Number of threads.  If 0 then the override is removed.
+	 */
+	public static void setCallerThreads( int threads ) {
+		if( threads < 0 )
+			throw new IllegalArgumentException("Number of threads can't be negative");
+		if( threads == 0 )
+			callerThreads.remove();
+		else
+			callerThreads.set(threads);
+	}
+
+	/**
+	 * Number of threads which will be used by concurrent operations invoked from the current thread.
+	 */
+	public static int getCallerThreads() {
+		int threads = getMaxThreads();
+		Integer requested = callerThreads.get();
+		if( requested != null )
+			threads = Math.min(threads,requested);
+		return threads;
+	}
+
+	/**
+	 * Splits the range into one block for each thread and processes them concurrently.  Returns after all
+	 * blocks have been processed.
+	 *
+	 * @param start First index in the range, inclusive.
+	 * @param end Last index in the range, exclusive.
+	 * @param task Processes each block.
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		loopBlocks(start, end, 1, task);
+	}
+
+	/**
+	 * Splits the range into one block for each thread and processes them concurrently.  Returns after all
+	 * blocks have been processed.
+	 *
+	 * @param start First index in the range, inclusive.
+	 * @param end Last index in the range, exclusive.
+	 * @param minBlock Minimum number of indexes in a block.  Avoids the overhead of splitting small ranges.
+	 * @param task Processes each block.
+	 */
+	public static void loopBlocks( int start , int end , int minBlock , final IntRangeTask task ) {
+		final int length = end-start;
+		if( length <= 0 )
+			return;
+
+		final int numBlocks = Math.min(getCallerThreads(), Math.max(1, length / Math.max(1, minBlock)));
+
+		if( numBlocks == 1 ) {
+			task.process(start,end);
+			return;
+		}
+
+		final int offset = start;
+		final AtomicInteger nextBlock = new AtomicInteger(0);
+		final CountDownLatch finished = new CountDownLatch(numBlocks);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		Runnable worker = new Runnable() {
+			@Override
+			public void run() {
+				int block;
+				while( (block = nextBlock.getAndIncrement()) < numBlocks ) {
+					try {
+						int blockStart = offset + (int)((long)length*block/numBlocks);
+						int blockEnd = offset + (int)((long)length*(block+1)/numBlocks);
+						task.process(blockStart,blockEnd);
+					} catch( Throwable t ) {
+						failure.compareAndSet(null,t);
+					} finally {
+						finished.countDown();
+					}
+				}
+			}
+		};
+
+		ExecutorService pool = getPool();
+		for( int i = 1; i < numBlocks; i++ ) {
+			try {
+				pool.execute(worker);
+			} catch( RejectedExecutionException e ) {
+				// the pool was replaced by setMaxThreads().  The calling thread processes the remaining blocks
+				break;
+			}
+		}
+		// the calling thread processes blocks too.  It will then only wait on blocks which are being processed
+		worker.run();
+
+		try {
+			finished.await();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+
+		Throwable t = failure.get();
+		if( t != null ) {
+			if( t instanceof RuntimeException )
+				throw (RuntimeException)t;
+			if( t instanceof Error )
+				throw (Error)t;
+			throw new RuntimeException(t);
+		}
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if( pool == null ) {
+			pool = Executors.newFixedThreadPool(maxThreads, new ThreadFactory() {
+				final AtomicInteger count = new AtomicInteger(0);
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r,"BoofCV-"+count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Creates workers for an algorithm which has state that's configured after construction, e.g. camera calibration.
+ * Before a worker is used its state is made to match the original instance's, which is the one the user
+ * configured.
+ *
+ * @author Peter Abeles
+ */
+public interface WorkerCopyFactory<T> extends WorkerFactory<T> {
+	/**
+	 * Copies the configuration of the original into the worker.  Work space and the results from
+	 * previous calls don't need to be copied.
+	 *
+	 * @param original (Input) Instance which has been configured by the user. Not modified.
+	 * @param worker (Output) Instance created by {@link #create()}
+	 */
+	public void copyState( T original , T worker );
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Creates new instances of a worker.  Used when each thread needs its own copy of an algorithm or work space
+ * because the original is not thread safe.
+ *
+ * @see WorkerPool
+ *
+ * @author Peter Abeles
+ */
+public interface WorkerFactory<T> {
+	/**
+	 * Creates a new instance which shares no state with any previously created instances.
+	 *
+	 * @return New worker
+	 */
+	public T create();
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of workers which are reused between calls to avoid declaring new memory.  A thread acquires a worker,
+ * uses it exclusively, and then releases it back into the pool.  New workers are created with the
+ * {@link WorkerFactory} when the pool is empty.  Thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class WorkerPool<T> {
+
+	WorkerFactory<T> factory;
+
+	// workers which are not in use
+	final List<T> available = new ArrayList<T>();
+
+	public WorkerPool(WorkerFactory<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Returns a worker which is not in use by any other thread.  Call {@link #release} when finished.
+	 */
+	public T acquire() {
+		synchronized ( available ) {
+			if( !available.isEmpty() )
+				return available.remove(available.size()-1);
+		}
+		return factory.create();
+	}
+
+	/**
+	 * Returns a worker back into the pool
+	 */
+	public void release( T worker ) {
+		synchronized ( available ) {
+			available.add(worker);
+		}
+	}
+
+	/**
+	 * Number of workers which are not in use
+	 */
+	public int sizeAvailable() {
+		synchronized ( available ) {
+			return available.size();
+		}
+	}
+
+	public WorkerFactory<T> getFactory() {
+		return factory;
+	}
+}
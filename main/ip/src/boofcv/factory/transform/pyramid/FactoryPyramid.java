@@ -19,8 +19,11 @@
 package boofcv.factory.transform.pyramid;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
+import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur_MT;
 import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
+import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale_MT;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -57,6 +60,28 @@ public class FactoryPyramid {
 		return new PyramidDiscreteSampleBlur<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
 	}
 
+	/**
+	 * Concurrent version of {@link #discreteGaussian}.  Only {@link boofcv.struct.image.ImageFloat32} and
+	 * {@link boofcv.struct.image.ImageUInt8} are supported.  Output is identical to the single threaded version.
+	 *
+	 * @see PyramidDiscreteSampleBlur_MT
+	 *
+	 * @param imageType Type of input image.
+	 * @param sigma Gaussian sigma.  If < 0 then a sigma is selected using the radius.  Try -1.
+	 * @param radius Radius of the Gaussian kernel.  If < 0 then the radius is selected using sigma. Try 2.
+	 * @return PyramidDiscrete
+	 */
+	public static <T extends ImageSingleBand>
+	PyramidDiscrete<T> discreteGaussian_MT( int[] scaleFactors , double sigma , int radius ,
+											boolean saveOriginalReference, Class<T> imageType )
+	{
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType,1);
+
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
+
+		return new PyramidDiscreteSampleBlur_MT<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
+	}
+
 	/**
 	 * Creates a float pyramid where each layer is blurred using a Gaussian with the specified
 	 * sigma.  Bilinear interpolation is used when sub-sampling.
@@ -75,6 +100,22 @@ public class FactoryPyramid {
 		return new PyramidFloatGaussianScale<T>(interp,scaleFactors,sigmas,imageType);
 	}
 
+	/**
+	 * Concurrent version of {@link #floatGaussian}.  Output is identical to the single threaded version.
+	 *
+	 * @see PyramidFloatGaussianScale_MT
+	 *
+	 * @param scaleFactors The scale factor of each layer relative to the previous layer.
+	 *                     Layer 0 is relative to the input image.
+	 * @param sigmas Gaussian blur magnitude for each layer.
+	 * @param imageType Type of image in the pyramid.
+	 * @return PyramidFloat
+	 */
+	public static <T extends ImageSingleBand>
+	PyramidFloat<T> floatGaussian_MT( double scaleFactors[], double []sigmas , Class<T> imageType ) {
+		return new PyramidFloatGaussianScale_MT<T>(TypeInterpolate.BILINEAR,scaleFactors,sigmas,imageType);
+	}
+
 	/**
 	 * Constructs an image pyramid which is designed to mimic a {@link boofcv.struct.gss.GaussianScaleSpace}.  Each layer in the pyramid
 	 * should have the equivalent amount of blur that a space-space constructed with the same parameters would have.
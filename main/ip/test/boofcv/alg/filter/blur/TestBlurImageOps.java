@@ -28,6 +28,7 @@ import boofcv.struct.convolve.Kernel1D_I32;
 import boofcv.struct.convolve.Kernel2D_F32;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.MultiSpectral;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
 
@@ -96,6 +97,22 @@ public class TestBlurImageOps {
 		}
 	}
 
+	/**
+	 * Each band should be processed using the single band mean filter
+	 */
+	@Test
+	public void mean_MultiSpectral() {
+		MultiSpectral<ImageUInt8> input = new MultiSpectral<ImageUInt8>(ImageUInt8.class,width,height,2);
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		MultiSpectral<ImageUInt8> found = BlurImageOps.mean(input,null,2,null);
+
+		for( int band = 0; band < input.getNumBands(); band++ ) {
+			ImageUInt8 expected = BlurImageOps.mean(input.getBand(band),null,2,null);
+			BoofTesting.assertEquals(expected,found.getBand(band),0);
+		}
+	}
+
 	@Test
 	public void median_U8() {
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the results of {@link BlurImageOps_MT} against {@link BlurImageOps}
+ *
+ * @author Peter Abeles
+ */
+public class TestBlurImageOps_MT {
+
+	Random rand = new Random(234);
+
+	int width = 25;
+	int height = 47;
+
+	int before;
+
+	ImageType types[] = new ImageType[]{
+			ImageType.single(ImageUInt8.class),
+			ImageType.single(ImageFloat32.class),
+			ImageType.ms(3, ImageUInt8.class),
+			ImageType.ms(3, ImageFloat32.class)};
+
+	@Before
+	public void before() {
+		before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(before);
+	}
+
+	@Test
+	public void mean() {
+		for( ImageType type : types ) {
+			ImageBase input = type.createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+			for( int radius = 1; radius <= 4; radius++ ) {
+				ImageBase expected = GBlurImageOps.mean(input, null, radius, null);
+				ImageBase found = GBlurImageOps_MT.mean(input, null, radius, null);
+
+				// F32 uses a running sum which is restarted in each band
+				BoofTesting.assertEquals(expected, found, 1e-4);
+			}
+		}
+	}
+
+	@Test
+	public void median() {
+		for( ImageType type : types ) {
+			ImageBase input = type.createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+			for( int radius = 1; radius <= 4; radius++ ) {
+				ImageBase expected = GBlurImageOps.median(input, null, radius);
+				ImageBase found = GBlurImageOps_MT.median(input, null, radius);
+
+				BoofTesting.assertEquals(expected, found, 0);
+			}
+		}
+	}
+
+	@Test
+	public void gaussian() {
+		for( ImageType type : types ) {
+			ImageBase input = type.createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+			for( int radius = 1; radius <= 4; radius++ ) {
+				ImageBase expected = GBlurImageOps.gaussian(input, null, -1, radius, null);
+				ImageBase found = GBlurImageOps_MT.gaussian(input, null, -1, radius, null);
+
+				BoofTesting.assertEquals(expected, found, 0);
+			}
+		}
+	}
+
+	/**
+	 * Provided storage should be used and the output written into the provided image
+	 */
+	@Test
+	public void providedStorage() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 output = new ImageFloat32(width,height);
+		ImageFloat32 storage = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		ImageFloat32 expected = BlurImageOps.gaussian(input, null, -1, 2, null);
+		ImageFloat32 found = BlurImageOps_MT.gaussian(input, output, -1, 2, storage);
+
+		BoofTesting.assertEquals(expected, found, 0);
+		BoofTesting.assertEquals(expected, output, 0);
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.CompareIdenticalFunctions;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+/**
+ * Compares the concurrent implementation of a convolution class against its single threaded counter part.
+ * The results must be identical.
+ *
+ * @author Peter Abeles
+ */
+public class CompareToSerialConvolution extends CompareIdenticalFunctions
+{
+	protected Random rand = new Random(234);
+
+	// tall enough for there to be several bands of rows
+	protected int width = 25;
+	protected int height = 57;
+	protected int kernelRadius = 1;
+
+	public CompareToSerialConvolution( Class<?> concurrentClass , Class<?> serialClass ) {
+		super(concurrentClass, serialClass);
+	}
+
+	public void setKernelRadius(int kernelRadius) {
+		this.kernelRadius = kernelRadius;
+	}
+
+	public void setImageDimension( int width , int height ) {
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public void performTests(int numMethods) {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			super.performTests(numMethods);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		Class<?> paramTypes[] = candidate.getParameterTypes();
+
+		Object kernel;
+		if (Kernel1D_F32.class == paramTypes[0]) {
+			kernel = FactoryKernel.random1D_F32(kernelRadius, 1, 5, rand);
+		} else if (Kernel1D_I32.class == paramTypes[0]) {
+			kernel = FactoryKernel.random1D_I32(kernelRadius, 1, 5, rand);
+		} else if (Kernel2D_I32.class == paramTypes[0]) {
+			kernel = FactoryKernel.random2D_I32(kernelRadius, 1, 5, rand);
+		} else if (Kernel2D_F32.class == paramTypes[0]) {
+			kernel = FactoryKernel.random2D_F32(kernelRadius, 1, 5, rand);
+		} else {
+			throw new RuntimeException("Unknown kernel type");
+		}
+
+		ImageSingleBand src = ConvolutionTestHelper.createImage(paramTypes[1], width, height);
+		GImageMiscOps.fillUniform(src, rand, 0, 130);
+		ImageSingleBand dst = ConvolutionTestHelper.createImage(paramTypes[2], width, height);
+
+		Object[][] ret = new Object[1][paramTypes.length];
+		ret[0][0] = kernel;
+		ret[0][1] = src;
+		ret[0][2] = dst;
+
+		if( paramTypes.length == 4 ) {
+			if( ImageBorder.class.isAssignableFrom(paramTypes[3]) ) {
+				ret[0][3] = FactoryImageBorder.general(src.getClass(), BorderType.EXTENDED);
+			} else {
+				ret[0][3] = 11;
+			}
+		}
+
+		return ret;
+	}
+
+	@Override
+	protected void compareResults(Object targetResult, Object[] targetParam, Object validationResult, Object[] validationParam) {
+		for( int i = 0; i < targetParam.length; i++ ) {
+			if( !(targetParam[i] instanceof ImageSingleBand) )
+				continue;
+
+			BoofTesting.assertEquals((ImageSingleBand)validationParam[i], (ImageSingleBand)targetParam[i], 0);
+		}
+	}
+}
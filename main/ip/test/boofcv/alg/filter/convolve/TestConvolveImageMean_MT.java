@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.testing.CompareIdenticalFunctions;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageMean_MT extends CompareIdenticalFunctions {
+
+	Random rand = new Random(0xFF);
+
+	int width = 20;
+	int height = 53;
+	int kernelRadius = 2;
+
+	public TestConvolveImageMean_MT() {
+		super(ConvolveImageMean_MT.class, ConvolveImageMean.class);
+	}
+
+	@Test
+	public void compareToSerial() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			for( kernelRadius = 1; kernelRadius <= 4; kernelRadius++ ) {
+				performTests(6);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		Class<?> paramTypes[] = candidate.getParameterTypes();
+
+		ImageSingleBand src = ConvolutionTestHelper.createImage(paramTypes[0], width, height);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
+		ImageSingleBand dst = ConvolutionTestHelper.createImage(paramTypes[1], width, height);
+
+		Object[][] ret = new Object[1][];
+		ret[0] = new Object[]{src,dst,kernelRadius};
+
+		return ret;
+	}
+}
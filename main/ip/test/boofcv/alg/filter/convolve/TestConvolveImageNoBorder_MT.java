@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageNoBorder_MT {
+
+	int numFunctions = 20;
+
+	@Test
+	public void compareToSerial() {
+		CompareToSerialConvolution test = new CompareToSerialConvolution(ConvolveImageNoBorder_MT.class,ConvolveImageNoBorder.class);
+
+		for( int radius = 1; radius <= 4; radius++ ) {
+			test.setKernelRadius(radius);
+			test.performTests(numFunctions);
+		}
+	}
+
+	/**
+	 * The image is smaller than the kernel so there are no inner rows to split up
+	 */
+	@Test
+	public void smallImage() {
+		CompareToSerialConvolution test = new CompareToSerialConvolution(ConvolveImageNoBorder_MT.class,ConvolveImageNoBorder.class);
+
+		test.setImageDimension(5,6);
+		test.setKernelRadius(4);
+		test.performTests(numFunctions);
+	}
+}
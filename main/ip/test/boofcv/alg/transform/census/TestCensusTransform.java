@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCensusTransform {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void region() {
+		ImageUInt8 input = new ImageUInt8(20,15);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		for( int radius = 1; radius <= CensusTransform.MAX_RADIUS; radius++ ) {
+			BoofTesting.checkSubImage(this, "region", true, input, radius, new ImageSInt32(20,15));
+		}
+	}
+
+	public void region( ImageUInt8 input , Integer radius , ImageSInt32 output ) {
+		CensusTransform.region(input, radius, output);
+
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				assertEquals(naive(input,radius,radius,x,y),output.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void region_long() {
+		ImageUInt8 input = new ImageUInt8(20,15);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		BoofTesting.checkSubImage(this, "region_long", true, input, 4, 3, new ImageSInt64(20,15));
+		BoofTesting.checkSubImage(this, "region_long", true, input, 1, 2, new ImageSInt64(20,15));
+	}
+
+	public void region_long( ImageUInt8 input , Integer radiusX , Integer radiusY , ImageSInt64 output ) {
+		CensusTransform.region(input, radiusX, radiusY, output);
+
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				assertEquals(naive(input,radiusX,radiusY,x,y),output.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void dense7x9() {
+		ImageUInt8 input = new ImageUInt8(20,15);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		ImageSInt64 found = new ImageSInt64(20,15);
+		ImageSInt64 expected = new ImageSInt64(20,15);
+
+		CensusTransform.dense7x9(input, found);
+		CensusTransform.region(input, 4, 3, expected);
+
+		BoofTesting.assertEquals(expected, found, 0);
+		assertEquals(62,CensusType.BLOCK_7_9.getBits());
+		assertEquals(true,CensusType.BLOCK_7_9.isLong());
+		assertEquals(false,CensusType.BLOCK_5_5.isLong());
+	}
+
+	@Test
+	public void transform() {
+		ImageUInt8 input = new ImageUInt8(20,15);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		ImageSInt32 found32 = new ImageSInt32(20,15);
+		ImageSInt32 expected32 = new ImageSInt32(20,15);
+		CensusTransform.transform(input, CensusType.BLOCK_5_5, found32);
+		CensusTransform.dense5x5(input, expected32);
+		BoofTesting.assertEquals(expected32, found32, 0);
+
+		ImageSInt64 found64 = new ImageSInt64(20,15);
+		ImageSInt64 expected64 = new ImageSInt64(20,15);
+		CensusTransform.transform(input, CensusType.BLOCK_7_9, found64);
+		CensusTransform.dense7x9(input, expected64);
+		BoofTesting.assertEquals(expected64, found64, 0);
+	}
+
+	/**
+	 * Image which is smaller than the region
+	 */
+	@Test
+	public void region_small() {
+		ImageUInt8 input = new ImageUInt8(3,2);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		ImageSInt32 output = new ImageSInt32(3,2);
+
+		CensusTransform.region(input, 2, output);
+
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				assertEquals(naive(input,2,2,x,y),output.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void region_badRadius() {
+		try {
+			CensusTransform.region(new ImageUInt8(10,10), 3, new ImageSInt32(10,10));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			CensusTransform.region(new ImageUInt8(10,10), 4, 4, new ImageSInt64(10,10));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void numberOfBits() {
+		assertEquals(8,CensusTransform.numberOfBits(1));
+		assertEquals(24,CensusTransform.numberOfBits(2));
+		assertEquals(62,CensusTransform.numberOfBits(4,3));
+	}
+
+	private long naive( ImageUInt8 input , int radiusX , int radiusY , int x , int y ) {
+		int center = input.get(x,y);
+		long bits = 0;
+		int count = 0;
+		for( int i = -radiusY; i <= radiusY; i++ ) {
+			for( int j = -radiusX; j <= radiusX; j++ ) {
+				if( i == 0 && j == 0 )
+					continue;
+				int xx = Math.min(input.width-1,Math.max(0,x+j));
+				int yy = Math.min(input.height-1,Math.max(0,y+i));
+				if( input.get(xx,yy) < center )
+					bits |= 1L << count;
+				count++;
+			}
+		}
+		return bits;
+	}
+}
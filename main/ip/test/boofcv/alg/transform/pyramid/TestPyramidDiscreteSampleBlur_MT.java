@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the results of {@link PyramidDiscreteSampleBlur_MT} against {@link PyramidDiscreteSampleBlur}
+ *
+ * @author Peter Abeles
+ */
+public class TestPyramidDiscreteSampleBlur_MT {
+
+	Random rand = new Random(234);
+
+	int before;
+
+	int scales[][] = new int[][]{{1,2,4},{2,4,8},{1,3,9},{3,6}};
+
+	@Before
+	public void before() {
+		before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(before);
+	}
+
+	@Test
+	public void compareToSerial() {
+		compareToSerial(ImageFloat32.class);
+		compareToSerial(ImageUInt8.class);
+	}
+
+	private <T extends ImageSingleBand> void compareToSerial( Class<T> type ) {
+		for( int radius = 1; radius <= 3; radius++ ) {
+			for( int[] s : scales ) {
+				compareToSerial(type, radius, s, 61, 47);
+				compareToSerial(type, radius, s, 40, 33);
+			}
+		}
+	}
+
+	private <T extends ImageSingleBand> void compareToSerial( Class<T> type , int radius , int[] scales ,
+															   int width , int height ) {
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(type,1);
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,-1,radius);
+
+		PyramidDiscreteSampleBlur<T> expected =
+				new PyramidDiscreteSampleBlur<T>(kernel,-1,type,false,scales);
+		PyramidDiscreteSampleBlur_MT<T> found =
+				new PyramidDiscreteSampleBlur_MT<T>(kernel,-1,type,false,scales);
+
+		T input = GeneralizedImageOps.createSingleBand(type,width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this, "checkIdentical", true, input, expected, found);
+	}
+
+	public <T extends ImageSingleBand> void checkIdentical( T input ,
+															 PyramidDiscreteSampleBlur<T> expected ,
+															 PyramidDiscreteSampleBlur<T> found ) {
+		expected.process(input);
+		found.process(input);
+
+		for( int i = 0; i < expected.getNumLayers(); i++ ) {
+			BoofTesting.assertEquals(expected.getLayer(i), found.getLayer(i), 0);
+		}
+	}
+
+	/**
+	 * Process images of different sizes with the same instance
+	 */
+	@Test
+	public void changeImageSize() {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,2);
+		int[] scales = new int[]{1,2,4};
+
+		PyramidDiscreteSampleBlur<ImageFloat32> expected =
+				new PyramidDiscreteSampleBlur<ImageFloat32>(kernel,-1,ImageFloat32.class,false,scales);
+		PyramidDiscreteSampleBlur_MT<ImageFloat32> found =
+				new PyramidDiscreteSampleBlur_MT<ImageFloat32>(kernel,-1,ImageFloat32.class,false,scales);
+
+		for( int size = 60; size >= 20; size -= 13 ) {
+			ImageFloat32 input = new ImageFloat32(size,size+5);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			checkIdentical(input,expected,found);
+		}
+	}
+
+	/**
+	 * Kernel is wider than the down sampled image
+	 */
+	@Test
+	public void smallImage() {
+		for( int size = 3; size <= 8; size++ ) {
+			compareToSerial(ImageFloat32.class, 3, new int[]{1,2}, size, size+2);
+			compareToSerial(ImageUInt8.class, 3, new int[]{1,2}, size, size+2);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void unsupportedType() {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,2);
+		new PyramidDiscreteSampleBlur_MT(kernel,-1,ImageFloat64.class,false,1,2);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the results of {@link PyramidFloatGaussianScale_MT} against {@link PyramidFloatGaussianScale}
+ *
+ * @author Peter Abeles
+ */
+public class TestPyramidFloatGaussianScale_MT {
+
+	Random rand = new Random(234);
+
+	int width = 61;
+	int height = 47;
+
+	int before;
+
+	@Before
+	public void before() {
+		before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(before);
+	}
+
+	@Test
+	public void compareToSerial() {
+		compareToSerial(ImageFloat32.class, new double[]{1,2,4}, new double[]{1,1.5,2});
+		compareToSerial(ImageFloat32.class, new double[]{1.5,2.5,3.7}, new double[]{1,1.5,2});
+		compareToSerial(ImageUInt8.class, new double[]{1,2,4}, new double[]{1,1.5,2});
+		compareToSerial(ImageUInt8.class, new double[]{1.5,2.5,3.7}, new double[]{1,1.5,2});
+	}
+
+	private <T extends ImageSingleBand> void compareToSerial( Class<T> type , double scales[] , double sigmas[] ) {
+		PyramidFloatGaussianScale<T> expected = new PyramidFloatGaussianScale<T>(
+				FactoryInterpolation.bilinearPixelS(type),scales,sigmas,type);
+		PyramidFloatGaussianScale<T> found = new PyramidFloatGaussianScale_MT<T>(
+				TypeInterpolate.BILINEAR,scales,sigmas,type);
+
+		T input = GeneralizedImageOps.createSingleBand(type,width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this, "checkIdentical", true, input, expected, found);
+	}
+
+	public <T extends ImageSingleBand> void checkIdentical( T input ,
+															 PyramidFloatGaussianScale<T> expected ,
+															 PyramidFloatGaussianScale<T> found ) {
+		expected.process(input);
+		found.process(input);
+
+		for( int i = 0; i < expected.getNumLayers(); i++ ) {
+			BoofTesting.assertEquals(expected.getLayer(i), found.getLayer(i), 0);
+		}
+	}
+}
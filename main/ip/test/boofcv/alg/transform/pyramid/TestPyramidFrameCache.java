@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidFrameCache {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 50;
+	int scales[] = new int[]{1,2,4};
+
+	ImageGradient<ImageFloat32,ImageFloat32> gradient =
+			FactoryDerivative.sobel(ImageFloat32.class, ImageFloat32.class);
+
+	private PyramidFrameCache<ImageFloat32,ImageFloat32> createCache() {
+		return new PyramidFrameCache<ImageFloat32, ImageFloat32>(scales,-1,2,gradient,ImageFloat32.class);
+	}
+
+	private ImageFloat32 createImage() {
+		ImageFloat32 image = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+		return image;
+	}
+
+	/**
+	 * Pyramid and gradient should be the same as computing them directly
+	 */
+	@Test
+	public void compareToDirect() {
+		ImageFloat32 image = createImage();
+
+		PyramidDiscrete<ImageFloat32> expected =
+				FactoryPyramid.discreteGaussian(scales,-1,2,true,ImageFloat32.class);
+		expected.process(image);
+		ImageFloat32[] derivX = PyramidOps.declareOutput(expected, ImageFloat32.class);
+		ImageFloat32[] derivY = PyramidOps.declareOutput(expected, ImageFloat32.class);
+		PyramidOps.gradient(expected, gradient, derivX, derivY);
+
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+		PyramidFrame<ImageFloat32,ImageFloat32> frame = alg.acquire(3, image);
+
+		assertEquals(3, frame.getFrameId());
+		assertTrue(image == frame.getInput());
+		for( int i = 0; i < scales.length; i++ ) {
+			BoofTesting.assertEquals(expected.getLayer(i), frame.getPyramid().getLayer(i), 0);
+			BoofTesting.assertEquals(derivX[i], frame.getDerivX(i), 0);
+			BoofTesting.assertEquals(derivY[i], frame.getDerivY(i), 0);
+		}
+	}
+
+	/**
+	 * The caller reuses the same image for the next frame.  The previous frame should not be modified
+	 */
+	@Test
+	public void acquire_reuseInput() {
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+
+		ImageFloat32 image = createImage();
+		PyramidFrame<ImageFloat32,ImageFloat32> frameA = alg.acquire(0, image);
+		ImageFloat32[] expected = new ImageFloat32[scales.length];
+		for( int i = 0; i < scales.length; i++ )
+			expected[i] = frameA.getPyramid().getLayer(i).clone();
+
+		// write the next frame into the same image while the previous frame is still referenced
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+		PyramidFrame<ImageFloat32,ImageFloat32> frameB = alg.acquire(1, image);
+		assertTrue(frameA != frameB);
+
+		for( int i = 0; i < scales.length; i++ ) {
+			BoofTesting.assertEquals(expected[i], frameA.getPyramid().getLayer(i), 0);
+		}
+	}
+
+	/**
+	 * The gradient should only be computed for layers which are requested
+	 */
+	@Test
+	public void gradientIsLazy() {
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+		PyramidFrame<ImageFloat32,ImageFloat32> frame = alg.acquire(0, createImage());
+
+		for( int i = 0; i < scales.length; i++ )
+			assertFalse(frame.isGradientComputed(i));
+
+		frame.getDerivY(1);
+		assertFalse(frame.isGradientComputed(0));
+		assertTrue(frame.isGradientComputed(1));
+		assertFalse(frame.isGradientComputed(2));
+
+		frame.getDerivX();
+		for( int i = 0; i < scales.length; i++ )
+			assertTrue(frame.isGradientComputed(i));
+
+		// a new image should invalidate the gradient
+		frame.release();
+		frame = alg.acquire(1, createImage());
+		assertEquals(1, alg.getNumFrames());
+		for( int i = 0; i < scales.length; i++ )
+			assertFalse(frame.isGradientComputed(i));
+	}
+
+	/**
+	 * Requesting the same frame ID should return the same frame without recomputing it
+	 */
+	@Test
+	public void acquire_sameFrame() {
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+
+		ImageFloat32 image = createImage();
+		PyramidFrame<ImageFloat32,ImageFloat32> frameA = alg.acquire(5, image);
+		frameA.getDerivX();
+
+		// a different image would be detected if the pyramid was recomputed
+		PyramidFrame<ImageFloat32,ImageFloat32> frameB = alg.acquire(5, createImage());
+
+		assertTrue(frameA == frameB);
+		assertTrue(image == frameB.getInput());
+		assertEquals(2, frameA.getReferences());
+		assertTrue(frameB.isGradientComputed(0));
+
+		// still in the cache after it has been released
+		frameA.release();
+		frameB.release();
+		assertTrue(frameA == alg.acquire(5, image));
+		assertEquals(1, alg.getNumFrames());
+	}
+
+	/**
+	 * New frames are only created when all the other frames are referenced
+	 */
+	@Test
+	public void acquire_recycle() {
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+
+		PyramidFrame<ImageFloat32,ImageFloat32> frame0 = alg.acquire(0, createImage());
+		PyramidFrame<ImageFloat32,ImageFloat32> frame1 = alg.acquire(1, createImage());
+		assertTrue(frame0 != frame1);
+		assertEquals(2, alg.getNumFrames());
+
+		// one which is being used by something else
+		frame0.acquire();
+		frame0.release();
+		assertEquals(1, frame0.getReferences());
+
+		frame1.release();
+		PyramidFrame<ImageFloat32,ImageFloat32> frame2 = alg.acquire(2, createImage());
+		assertTrue(frame1 == frame2);
+		assertEquals(2, frame2.getFrameId());
+		assertEquals(2, alg.getNumFrames());
+
+		PyramidFrame<ImageFloat32,ImageFloat32> frame3 = alg.acquire(3, createImage());
+		assertEquals(3, alg.getNumFrames());
+		assertTrue(frame3 != frame0 && frame3 != frame2);
+
+		frame3.release();
+		alg.clearUnused();
+		assertEquals(2, alg.getNumFrames());
+	}
+
+	@Test
+	public void release_tooManyTimes() {
+		PyramidFrameCache<ImageFloat32,ImageFloat32> alg = createCache();
+		PyramidFrame<ImageFloat32,ImageFloat32> frame = alg.acquire(0, createImage());
+		frame.release();
+
+		try {
+			frame.release();
+			fail("Exception expected");
+		} catch( IllegalStateException ignore ) {}
+
+		try {
+			frame.getDerivX(0);
+			fail("Exception expected");
+		} catch( IllegalStateException ignore ) {}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2014, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int before;
+
+	@Before
+	public void before() {
+		before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(before);
+		BoofConcurrency.setCallerThreads(0);
+	}
+
+	/**
+	 * Every index should be processed exactly once
+	 */
+	@Test
+	public void loopBlocks_coverage() {
+		final int counts[] = new int[103];
+
+		BoofConcurrency.loopBlocks(3, 103, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				for( int i = start; i < end; i++ )
+					counts[i]++;
+			}
+		});
+
+		for( int i = 0; i < counts.length; i++ ) {
+			assertEquals(i < 3 ? 0 : 1, counts[i]);
+		}
+	}
+
+	@Test
+	public void loopBlocks_minBlock() {
+		final AtomicInteger numBlocks = new AtomicInteger(0);
+
+		BoofConcurrency.loopBlocks(0, 20, 10, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				assertTrue(end - start >= 10);
+				numBlocks.incrementAndGet();
+			}
+		});
+
+		assertEquals(2, numBlocks.get());
+	}
+
+	@Test
+	public void loopBlocks_empty() {
+		BoofConcurrency.loopBlocks(5, 5, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				fail("Should not be called");
+			}
+		});
+	}
+
+	/**
+	 * Concurrent loops inside of concurrent loops should not dead lock
+	 */
+	@Test
+	public void loopBlocks_nested() {
+		final AtomicInteger total = new AtomicInteger(0);
+
+		BoofConcurrency.loopBlocks(0, 8, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				for( int i = start; i < end; i++ ) {
+					BoofConcurrency.loopBlocks(0, 100, new IntRangeTask() {
+						@Override
+						public void process(int start, int end) {
+							total.addAndGet(end - start);
+						}
+					});
+				}
+			}
+		});
+
+		assertEquals(800, total.get());
+	}
+
+	@Test
+	public void loopBlocks_exception() {
+		try {
+			BoofConcurrency.loopBlocks(0, 100, new IntRangeTask() {
+				@Override
+				public void process(int start, int end) {
+					if( start > 0 )
+						throw new IllegalArgumentException("Test");
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Changing the number of threads while another thread is inside of loopBlocks should not cause blocks to be
+	 * rejected or skipped
+	 */
+	@Test
+	public void setMaxThreads_whileLooping() throws InterruptedException {
+		final AtomicBoolean done = new AtomicBoolean(false);
+		Thread changer = new Thread() {
+			@Override
+			public void run() {
+				int threads = 2;
+				while( !done.get() ) {
+					BoofConcurrency.setMaxThreads(threads);
+					threads = threads == 2 ? 3 : 2;
+				}
+			}
+		};
+		changer.start();
+
+		try {
+			for( int trial = 0; trial < 2000; trial++ ) {
+				final AtomicInteger total = new AtomicInteger(0);
+				BoofConcurrency.loopBlocks(0, 100, new IntRangeTask() {
+					@Override
+					public void process(int start, int end) {
+						total.addAndGet(end - start);
+					}
+				});
+				assertEquals(100, total.get());
+			}
+		} finally {
+			done.set(true);
+			changer.join();
+		}
+	}
+
+	@Test
+	public void setCallerThreads() {
+		assertEquals(4, BoofConcurrency.getCallerThreads());
+		BoofConcurrency.setCallerThreads(2);
+		assertEquals(2, BoofConcurrency.getCallerThreads());
+		BoofConcurrency.setCallerThreads(10);
+		assertEquals(4, BoofConcurrency.getCallerThreads());
+
+		final AtomicInteger numBlocks = new AtomicInteger(0);
+		BoofConcurrency.setCallerThreads(1);
+		BoofConcurrency.loopBlocks(0, 100, new IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				numBlocks.incrementAndGet();
+			}
+		});
+		assertEquals(1, numBlocks.get());
+
+		BoofConcurrency.setCallerThreads(0);
+		assertEquals(4, BoofConcurrency.getCallerThreads());
+	}
+}
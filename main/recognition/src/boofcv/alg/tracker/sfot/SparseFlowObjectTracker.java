@@ -26,6 +26,7 @@ import boofcv.alg.tracker.klt.KltTrackFault;
 import boofcv.alg.tracker.klt.PyramidKltFeature;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
 import boofcv.alg.tracker.tld.TldTracker;
+import boofcv.alg.transform.pyramid.PyramidFrame;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.tracker.FactoryTrackerAlg;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
@@ -61,6 +62,9 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 	private Derivative[] previousDerivX;
 	private Derivative[] previousDerivY;
 
+	// previous image when the pyramid is shared.  null if the pyramid is computed internally
+	private PyramidFrame<Image,Derivative> previousFrame;
+
 	// tracks features from frame-to-frame
 	private PyramidKltTracker<Image, Derivative> klt;
 	private PyramidKltFeature track;
@@ -108,6 +112,8 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 	}
 
 	public void init( Image input , RectangleRotate_F64 region ) {
+		releaseFrame();
+
 		if( currentImage == null ||
 				currentImage.getInputWidth() != input.width || currentImage.getInputHeight() != input.height) {
 			declarePyramid(input.width,input.height);
@@ -125,6 +131,28 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 
 	}
 
+	/**
+	 * Same as {@link #init(ImageSingleBand, RectangleRotate_F64)} but the image pyramid is shared with other
+	 * algorithms.  A reference to the frame is kept until it's no longer the previous image.  After this function
+	 * has been called, {@link #update(PyramidFrame, RectangleRotate_F64)} must be used.
+	 *
+	 * @param frame Pyramid of the first image.  The pyramid should have the same configuration for every frame
+	 * @param region Initial location of the target
+	 */
+	public void init( PyramidFrame<Image,Derivative> frame , RectangleRotate_F64 region ) {
+		frame.acquire();
+		releaseFrame();
+		previousFrame = frame;
+
+		int numLayers = frame.getPyramid().getNumLayers();
+		if( track == null || track.desc.length != numLayers )
+			track = new PyramidKltFeature(numLayers,config.trackerFeatureRadius);
+
+		trackLost = false;
+
+		this.region.set(region);
+	}
+
 	/**
 	 * Given the input image compute the new location of the target region and store the results in output.
 	 *
@@ -133,11 +161,74 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 	 * @return true if tracking is successful
 	 */
 	public boolean update( Image input , RectangleRotate_F64 output ) {
+		if( previousFrame != null )
+			throw new IllegalArgumentException("init() was called with a PyramidFrame");
 
 		if( trackLost )
 			return false;
 
-		trackFeatures(input, region);
+		currentImage.process(input);
+		for( int i = 0; i < currentImage.getNumLayers(); i++ ) {
+			Image layer = currentImage.getLayer(i);
+			gradient.process(layer,currentDerivX[i],currentDerivY[i]);
+		}
+
+		trackFeatures(previousImage, previousDerivX, previousDerivY, currentImage, currentDerivX, currentDerivY);
+
+		if( !updateRegion(output) )
+			return false;
+
+		// make the current image into the previous image
+		swapImages();
+
+		return true;
+	}
+
+	/**
+	 * Same as {@link #update(ImageSingleBand, RectangleRotate_F64)} but the image pyramid is shared with other
+	 * algorithms.  Only use if {@link #init(PyramidFrame, RectangleRotate_F64)} was called.
+	 *
+	 * @param frame Pyramid of the next image.
+	 * @param output Storage for the output.
+	 * @return true if tracking is successful
+	 */
+	public boolean update( PyramidFrame<Image,Derivative> frame , RectangleRotate_F64 output ) {
+		if( previousFrame == null )
+			throw new IllegalArgumentException("init() wasn't called with a PyramidFrame");
+
+		if( trackLost )
+			return false;
+
+		trackFeatures(previousFrame.getPyramid(), previousFrame.getDerivX(), previousFrame.getDerivY(),
+				frame.getPyramid(), frame.getDerivX(), frame.getDerivY());
+
+		if( !updateRegion(output) )
+			return false;
+
+		// make the current image into the previous image
+		frame.acquire();
+		previousFrame.release();
+		previousFrame = frame;
+
+		return true;
+	}
+
+	/**
+	 * Releases the reference to the previous frame
+	 */
+	private void releaseFrame() {
+		if( previousFrame != null ) {
+			previousFrame.release();
+			previousFrame = null;
+		}
+	}
+
+	/**
+	 * Estimates the target's motion from the tracked features and updates its location.
+	 *
+	 * @return true if successful or false if the track has been lost
+	 */
+	private boolean updateRegion( RectangleRotate_F64 output ) {
 
 		// See if there are enough points remaining.  use of config.numberOfSamples is some what arbitrary
 		if( pairs.size() < config.numberOfSamples ) {
@@ -178,9 +269,6 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 
 		output.set(region);
 
-		// make the current image into the previous image
-		swapImages();
-
 		return true;
 	}
 
@@ -188,15 +276,12 @@ public class SparseFlowObjectTracker<Image extends ImageSingleBand, Derivative e
 	 * Tracks features from the previous image into the current image. Tracks are created inside the specified
 	 * region in a grid pattern.
 	 */
-	private void trackFeatures(Image input, RectangleRotate_F64 region) {
+	private void trackFeatures( ImagePyramid<Image> previousImage ,
+								Derivative[] previousDerivX , Derivative[] previousDerivY ,
+								ImagePyramid<Image> currentImage ,
+								Derivative[] currentDerivX , Derivative[] currentDerivY ) {
 		pairs.reset();
 
-		currentImage.process(input);
-		for( int i = 0; i < currentImage.getNumLayers(); i++ ) {
-			Image layer = currentImage.getLayer(i);
-			gradient.process(layer,currentDerivX[i],currentDerivY[i]);
-		}
-
 		// convert to float to avoid excessive conversions from double to float
 		float cx = (float)region.cx;
 		float cy = (float)region.cy;
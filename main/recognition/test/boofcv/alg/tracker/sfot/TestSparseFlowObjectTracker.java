@@ -4,6 +4,9 @@ import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.distort.DistortImageOps;
 import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.tld.TldTracker;
+import boofcv.alg.transform.pyramid.PyramidFrame;
+import boofcv.alg.transform.pyramid.PyramidFrameCache;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.RectangleRotate_F64;
 import boofcv.struct.image.ImageSInt16;
@@ -78,4 +81,54 @@ public class TestSparseFlowObjectTracker {
 		assertEquals(expectedYaw, region1.theta, 0.01);
 	}
 
+	/**
+	 * Using a shared pyramid with the same configuration should produce the same results
+	 */
+	@Test
+	public void sharedFrame() {
+		ImageUInt8 frame0 = new ImageUInt8(320,240);
+		ImageUInt8 frame1 = new ImageUInt8(320,240);
+		ImageMiscOps.fillUniform(frame0,rand,0,256);
+		DistortImageOps.affine(frame0,frame1, TypeInterpolate.BILINEAR,1,0,0,1,4,-2);
+
+		SfotConfig config = new SfotConfig();
+		ImageGradient<ImageUInt8,ImageSInt16> gradient = FactoryDerivative.sobel(ImageUInt8.class,ImageSInt16.class);
+
+		SparseFlowObjectTracker<ImageUInt8,ImageSInt16> direct = new SparseFlowObjectTracker<ImageUInt8, ImageSInt16>(
+				config,ImageUInt8.class,ImageSInt16.class,gradient);
+		SparseFlowObjectTracker<ImageUInt8,ImageSInt16> shared = new SparseFlowObjectTracker<ImageUInt8, ImageSInt16>(
+				config,ImageUInt8.class,ImageSInt16.class,gradient);
+
+		// same pyramid as the one selected internally
+		int minSize = (config.trackerFeatureRadius*2+1)*5;
+		int scales[] = TldTracker.selectPyramidScale(frame0.width, frame0.height, minSize);
+		PyramidFrameCache<ImageUInt8,ImageSInt16> cache =
+				new PyramidFrameCache<ImageUInt8, ImageSInt16>(scales,-1,1,gradient,ImageUInt8.class);
+
+		RectangleRotate_F64 region0 = new RectangleRotate_F64(120,140,30,40,0.1);
+		RectangleRotate_F64 expected = new RectangleRotate_F64();
+		RectangleRotate_F64 found = new RectangleRotate_F64();
+
+		PyramidFrame<ImageUInt8,ImageSInt16> pyr0 = cache.acquire(0,frame0);
+		PyramidFrame<ImageUInt8,ImageSInt16> pyr1 = cache.acquire(1,frame1);
+
+		direct.init(frame0,region0);
+		shared.init(pyr0,region0);
+		pyr0.release();
+
+		assertTrue(direct.update(frame1,expected));
+		assertTrue(shared.update(pyr1,found));
+		pyr1.release();
+
+		assertEquals(expected.cx, found.cx, 0);
+		assertEquals(expected.cy, found.cy, 0);
+		assertEquals(expected.width, found.width, 0);
+		assertEquals(expected.height, found.height, 0);
+		assertEquals(expected.theta, found.theta, 0);
+
+		// only the most recent frame should still be referenced
+		assertEquals(0, pyr0.getReferences());
+		assertEquals(1, pyr1.getReferences());
+	}
+
 }
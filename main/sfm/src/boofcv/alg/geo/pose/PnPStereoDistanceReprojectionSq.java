@@ -67,6 +67,25 @@ public class PnPStereoDistanceReprojectionSq implements DistanceFromModel<Se3_F6
 		rightPixelError = new NormalizedToPixelError(right.fx,right.fy,right.skew);
 	}
 
+	/**
+	 * Copies the stereo parameters from the original.  Used when each thread needs its own instance.
+	 */
+	public void setTo( PnPStereoDistanceReprojectionSq original ) {
+		if( original.leftToRight == null )
+			return;
+
+		// only declared the first time
+		if( leftToRight == null ) {
+			leftToRight = new Se3_F64();
+			leftPixelError = new NormalizedToPixelError();
+			rightPixelError = new NormalizedToPixelError();
+		}
+
+		leftToRight.set(original.leftToRight);
+		leftPixelError.set(original.leftPixelError);
+		rightPixelError.set(original.rightPixelError);
+	}
+
 	@Override
 	public void setModel(Se3_F64 worldToLeft) {
 		this.worldToLeft = worldToLeft;
@@ -75,6 +75,14 @@ public class PnPStereoEstimator implements GeoModelEstimator1<Se3_F64,Stereo2D3D
 		this.leftToRight = leftToRight;
 	}
 
+	public Se3_F64 getLeftToRight() {
+		return leftToRight;
+	}
+
+	public DistanceFromModel<Se3_F64, Point2D3D> getDistance() {
+		return distance;
+	}
+
 	@Override
 	public boolean process(List<Stereo2D3D> points, Se3_F64 estimatedModel) {
 		int N = alg.getMinimumPoints();
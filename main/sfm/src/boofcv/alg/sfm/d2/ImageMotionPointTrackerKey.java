@@ -122,7 +122,9 @@ public class ImageMotionPointTrackerKey<I extends ImageBase, IT extends Invertib
 
 		List<AssociatedPair> pairs = new ArrayList<AssociatedPair>();
 		for( PointTrack t : tracks ) {
-			pairs.add((AssociatedPair)t.getCookie());
+			AssociatedPair p = t.getCookie();
+			p.fitScore = t.fitScore;
+			pairs.add(p);
 		}
 
 		// fit the motion model to the feature tracks
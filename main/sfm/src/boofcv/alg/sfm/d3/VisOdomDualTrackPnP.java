@@ -261,6 +261,8 @@ public class VisOdomDualTrackPnP<T extends ImageBase,Desc extends TupleDesc> {
 			// compute normalized image coordinate for track in left and right image
 			leftImageToNorm.compute(l.x,l.y,info.location.leftObs);
 			rightImageToNorm.compute(r.x,r.y,info.location.rightObs);
+			// used by matchers which sample the best tracks first
+			stereo.fitScore = l.fitScore + r.fitScore;
 
 			data.add(stereo);
 		}
@@ -45,4 +45,8 @@ public class EstimatorToGenerator<Model,Point> implements ModelGenerator<Model,P
 	public int getMinimumPoints() {
 		return alg.getMinimumPoints();
 	}
+
+	public GeoModelEstimator1<Model, Point> getEstimator() {
+		return alg;
+	}
 }
@@ -22,6 +22,7 @@ import boofcv.struct.geo.AssociatedPair;
 import georegression.fitting.MotionTransformPoint;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se2_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 
 import java.util.ArrayList;
@@ -33,7 +34,8 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class GenerateSe2_AssociatedPair implements
-		ModelGenerator<Se2_F64,AssociatedPair>
+		ModelGenerator<Se2_F64,AssociatedPair>,
+		ModelFitter<Se2_F64,AssociatedPair>
 {
 	MotionTransformPoint<Se2_F64, Point2D_F64> estimate;
 
@@ -44,6 +46,11 @@ public class GenerateSe2_AssociatedPair implements
 		this.estimate = estimate;
 	}
 
+	@Override
+	public boolean fitModel(List<AssociatedPair> dataSet, Se2_F64 initial, Se2_F64 found) {
+		return generate(dataSet,found);
+	}
+
 	@Override
 	public boolean generate(List<AssociatedPair> dataSet, Se2_F64 output) {
 		from.clear();
@@ -22,10 +22,15 @@ import boofcv.abst.feature.tracker.PointTracker;
 import boofcv.abst.sfm.d2.ImageMotion2D;
 import boofcv.abst.sfm.d2.WrapImageMotionPtkSmartRespawn;
 import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.geo.robust.PointFitScore;
+import boofcv.alg.geo.robust.Prosac;
+import boofcv.alg.geo.robust.RansacAdaptive;
+import boofcv.alg.geo.robust.RansacAdaptive_MT;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.alg.sfm.d2.*;
 import boofcv.alg.sfm.robust.*;
+import boofcv.concurrency.WorkerCopyFactory;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.geo.AssociatedPair;
@@ -43,7 +48,6 @@ import georegression.struct.homo.Homography2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se2_F64;
 import org.ddogleg.fitting.modelset.*;
-import org.ddogleg.fitting.modelset.ransac.Ransac;
 
 /**
  * Factory for creating algorithms related to 2D image motion.  Typically used for image stabilization, mosaic, and
@@ -56,7 +60,7 @@ public class FactoryMotion2D {
 	/**
 	 * Estimates the 2D motion of an image using different models.
 	 *
-	 * @param ransacIterations Number of RANSAC iterations
+	 * @param ransacIterations Maximum number of RANSAC iterations
 	 * @param inlierThreshold Threshold which defines an inlier.
 	 * @param outlierPrune If a feature is an outlier for this many turns in a row it is dropped. Try 2
 	 * @param absoluteMinimumTracks New features will be respawned if the number of inliers drop below this number.
@@ -76,39 +80,105 @@ public class FactoryMotion2D {
 										double respawnCoverageFraction,
 										boolean refineEstimate ,
 										PointTracker<I> tracker , IT motionModel ) {
+		return createMotion2D(ransacIterations,inlierThreshold,outlierPrune,absoluteMinimumTracks,
+				respawnTrackFraction,respawnCoverageFraction,refineEstimate,tracker,motionModel,false);
+	}
+
+	/**
+	 * Same as {@link #createMotion2D(int, double, int, int, double, double, boolean, PointTracker, InvertibleTransform)}
+	 * but can evaluate RANSAC hypotheses using multiple threads.
+	 *
+	 * @param concurrent If true then RANSAC hypotheses are evaluated using multiple threads.
+	 */
+	public static <I extends ImageBase, IT extends InvertibleTransform>
+	ImageMotion2D<I,IT> createMotion2D( int ransacIterations , double inlierThreshold,int outlierPrune,
+										int absoluteMinimumTracks, double respawnTrackFraction,
+										double respawnCoverageFraction,
+										boolean refineEstimate ,
+										PointTracker<I> tracker , IT motionModel ,
+										boolean concurrent ) {
+		return createMotion2D(ransacIterations,inlierThreshold,outlierPrune,absoluteMinimumTracks,
+				respawnTrackFraction,respawnCoverageFraction,refineEstimate,tracker,motionModel,concurrent,false);
+	}
+
+	/**
+	 * Same as {@link #createMotion2D(int, double, int, int, double, double, boolean, PointTracker, InvertibleTransform, boolean)}
+	 * but can draw RANSAC samples from the tracks with the best association scores first, see {@link Prosac}.
+	 * Only helps if the tracker associates features, e.g. {@link boofcv.abst.feature.tracker.DetectDescribeAssociate}.
+	 *
+	 * @param guidedSampling If true then samples are drawn from the best tracks first.  Can't be used with concurrent.
+	 */
+	public static <I extends ImageBase, IT extends InvertibleTransform>
+	ImageMotion2D<I,IT> createMotion2D( int ransacIterations , double inlierThreshold,int outlierPrune,
+										int absoluteMinimumTracks, double respawnTrackFraction,
+										double respawnCoverageFraction,
+										boolean refineEstimate ,
+										PointTracker<I> tracker , final IT motionModel ,
+										boolean concurrent , boolean guidedSampling ) {
+		if( concurrent && guidedSampling )
+			throw new IllegalArgumentException("Guided sampling isn't supported by the concurrent matcher");
 
 		ModelManager<IT> manager;
-		ModelGenerator<IT,AssociatedPair> fitter;
-		DistanceFromModel<IT,AssociatedPair> distance;
+		ModelGenerator<IT,AssociatedPair> fitter = createGenerator(motionModel);
+		DistanceFromModel<IT,AssociatedPair> distance = createDistance(motionModel);
 		ModelFitter<IT,AssociatedPair> modelRefiner = null;
+		// refits the best hypothesis to its inliers inside of RANSAC
+		ModelFitter<IT,AssociatedPair> localFitter = (ModelFitter)fitter;
 
 		if( motionModel instanceof Homography2D_F64) {
-			GenerateHomographyLinear mf = new GenerateHomographyLinear(true);
 			manager = (ModelManager)new ModelManagerHomography2D_F64();
-			fitter = (ModelGenerator)mf;
 			if( refineEstimate )
-				modelRefiner = (ModelFitter)mf;
-			distance = (DistanceFromModel)new DistanceHomographySq();
+				modelRefiner = localFitter;
 		} else if( motionModel instanceof Affine2D_F64) {
 			manager = (ModelManager)new ModelManagerAffine2D_F64();
-			GenerateAffine2D mf = new GenerateAffine2D();
-			fitter = (ModelGenerator)mf;
 			if( refineEstimate )
-				modelRefiner = (ModelFitter)mf;
-			distance =  (DistanceFromModel)new DistanceAffine2DSq();
-		} else if( motionModel instanceof Se2_F64) {
+				modelRefiner = localFitter;
+		} else {
 			manager = (ModelManager)new ModelManagerSe2_F64();
-			MotionTransformPoint<Se2_F64, Point2D_F64> alg = new MotionSe2PointSVD_F64();
-			GenerateSe2_AssociatedPair mf = new GenerateSe2_AssociatedPair(alg);
-			fitter = (ModelGenerator)mf;
-			distance =  (DistanceFromModel)new DistanceSe2Sq();
 			// no refine, already optimal
-		} else {
-			throw new RuntimeException("Unknown model type: "+motionModel.getClass().getSimpleName());
 		}
 
-		ModelMatcher<IT,AssociatedPair>  modelMatcher =
-				new Ransac(123123,manager,fitter,distance,ransacIterations,inlierThreshold);
+		RansacAdaptive<IT,AssociatedPair> modelMatcher;
+		if( concurrent ) {
+			// none of the generators or distance functions have state which is configured after construction
+			WorkerCopyFactory<ModelGenerator<IT,AssociatedPair>> generators =
+					new WorkerCopyFactory<ModelGenerator<IT,AssociatedPair>>() {
+				@Override
+				public ModelGenerator<IT, AssociatedPair> create() {
+					return createGenerator(motionModel);
+				}
+
+				@Override
+				public void copyState(ModelGenerator<IT, AssociatedPair> original,
+									  ModelGenerator<IT, AssociatedPair> worker) {}
+			};
+			WorkerCopyFactory<DistanceFromModel<IT,AssociatedPair>> distances =
+					new WorkerCopyFactory<DistanceFromModel<IT,AssociatedPair>>() {
+				@Override
+				public DistanceFromModel<IT, AssociatedPair> create() {
+					return createDistance(motionModel);
+				}
+
+				@Override
+				public void copyState(DistanceFromModel<IT, AssociatedPair> original,
+									  DistanceFromModel<IT, AssociatedPair> worker) {}
+			};
+			modelMatcher = new RansacAdaptive_MT<IT,AssociatedPair>(123123,manager,fitter,distance,
+					generators,distances,ransacIterations,inlierThreshold);
+		} else if( guidedSampling ) {
+			PointFitScore<AssociatedPair> scorer = new PointFitScore<AssociatedPair>() {
+				@Override
+				public double fitScore(AssociatedPair pair) {
+					return pair.fitScore;
+				}
+			};
+			modelMatcher = new Prosac<IT,AssociatedPair>(123123,manager,fitter,distance,scorer,
+					ransacIterations,inlierThreshold);
+		} else {
+			modelMatcher = new RansacAdaptive<IT,AssociatedPair>(123123,manager,fitter,distance,
+					ransacIterations,inlierThreshold);
+		}
+		modelMatcher.setLocalOptimization(localFitter);
 
 		ImageMotionPointTrackerKey<I,IT> lowlevel =
 				new ImageMotionPointTrackerKey<I, IT>(tracker,modelMatcher,modelRefiner,motionModel,outlierPrune);
@@ -120,6 +190,34 @@ public class FactoryMotion2D {
 		return new WrapImageMotionPtkSmartRespawn<I, IT>(smartRespawn);
 	}
 
+	/**
+	 * Creates the algorithm which estimates the motion model from associated pairs.  It can also refit the model.
+	 */
+	private static ModelGenerator createGenerator( InvertibleTransform motionModel ) {
+		if( motionModel instanceof Homography2D_F64) {
+			return new GenerateHomographyLinear(true);
+		} else if( motionModel instanceof Affine2D_F64) {
+			return new GenerateAffine2D();
+		} else if( motionModel instanceof Se2_F64) {
+			MotionTransformPoint<Se2_F64, Point2D_F64> alg = new MotionSe2PointSVD_F64();
+			return new GenerateSe2_AssociatedPair(alg);
+		} else {
+			throw new RuntimeException("Unknown model type: "+motionModel.getClass().getSimpleName());
+		}
+	}
+
+	private static DistanceFromModel createDistance( InvertibleTransform motionModel ) {
+		if( motionModel instanceof Homography2D_F64) {
+			return new DistanceHomographySq();
+		} else if( motionModel instanceof Affine2D_F64) {
+			return new DistanceAffine2DSq();
+		} else if( motionModel instanceof Se2_F64) {
+			return new DistanceSe2Sq();
+		} else {
+			throw new RuntimeException("Unknown model type: "+motionModel.getClass().getSimpleName());
+		}
+	}
+
 	/**
 	 * Estimates the image motion then combines images together.  Typically used for mosaics and stabilization.
 	 *
@@ -39,12 +39,17 @@ import boofcv.alg.feature.associate.AssociateMaxDistanceNaive;
 import boofcv.alg.feature.associate.AssociateStereo2D;
 import boofcv.alg.geo.DistanceModelMonoPixels;
 import boofcv.alg.geo.pose.*;
+import boofcv.alg.geo.robust.PointFitScore;
+import boofcv.alg.geo.robust.Prosac;
+import boofcv.alg.geo.robust.RansacAdaptive;
+import boofcv.alg.geo.robust.RansacAdaptive_MT;
 import boofcv.alg.sfm.DepthSparse3D;
 import boofcv.alg.sfm.StereoSparse3D;
 import boofcv.alg.sfm.d3.*;
 import boofcv.alg.sfm.robust.DistancePlane2DToPixelSq;
 import boofcv.alg.sfm.robust.EstimatorToGenerator;
 import boofcv.alg.sfm.robust.GenerateSe2_PlanePtPixel;
+import boofcv.concurrency.WorkerCopyFactory;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.geo.EnumPNP;
 import boofcv.factory.geo.FactoryMultiView;
@@ -60,8 +65,9 @@ import georegression.fitting.se.ModelManagerSe2_F64;
 import georegression.fitting.se.ModelManagerSe3_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelMatcher;
-import org.ddogleg.fitting.modelset.ransac.Ransac;
 
 /**
  * Factory for creating visual odometry algorithms.
@@ -81,7 +87,7 @@ public class FactoryVisualOdometry {
 	 * @param thresholdRetire Tracks are dropped when they are not contained in the inlier set for this many frames
 	 *                        in a row.  Try 2
 	 * @param inlierPixelTol Threshold used to determine inliers in pixels.  Try 1.5
-	 * @param ransacIterations Number of RANSAC iterations.  Try 200
+	 * @param ransacIterations Maximum number of RANSAC iterations.  Try 200
 	 * @param tracker Image feature tracker
 	 * @param imageType Type of input image it processes
 	 * @param <T>
@@ -105,7 +111,7 @@ public class FactoryVisualOdometry {
 		GenerateSe2_PlanePtPixel generator = new GenerateSe2_PlanePtPixel();
 
 		ModelMatcher<Se2_F64, PlanePtPixel> motion =
-				new Ransac<Se2_F64, PlanePtPixel>(2323, manager, generator, distance, ransacIterations, ransacTOL);
+				new RansacAdaptive<Se2_F64, PlanePtPixel>(2323, manager, generator, distance, ransacIterations, ransacTOL);
 
 		VisOdomMonoPlaneInfinity<T> alg =
 				new VisOdomMonoPlaneInfinity<T>(thresholdAdd,thresholdRetire,inlierPixelTol,motion,tracker);
@@ -188,22 +194,37 @@ public class FactoryVisualOdometry {
 										StereoDisparitySparse<T> sparseDisparity,
 										PointTrackerTwoPass<T> tracker ,
 										Class<T> imageType) {
+		return stereoDepth(inlierPixelTol,thresholdAdd,thresholdRetire,ransacIterations,refineIterations,doublePass,
+				sparseDisparity,tracker,imageType,false);
+	}
+
+	/**
+	 * Same as {@link #stereoDepth(double, int, int, int, int, boolean, StereoDisparitySparse, PointTrackerTwoPass, Class)}
+	 * but can evaluate RANSAC hypotheses using multiple threads.
+	 *
+	 * @param concurrent If true then RANSAC hypotheses are evaluated using multiple threads.
+	 */
+	public static <T extends ImageSingleBand>
+	StereoVisualOdometry<T> stereoDepth(double inlierPixelTol,
+										int thresholdAdd,
+										int thresholdRetire ,
+										int ransacIterations ,
+										int refineIterations ,
+										boolean doublePass ,
+										StereoDisparitySparse<T> sparseDisparity,
+										PointTrackerTwoPass<T> tracker ,
+										Class<T> imageType ,
+										boolean concurrent ) {
 
 		// Range from sparse disparity
 		StereoSparse3D<T> pixelTo3D = new StereoSparse3D<T>(sparseDisparity,imageType);
 
-		Estimate1ofPnP estimator = FactoryMultiView.computePnP_1(EnumPNP.P3P_FINSTERWALDER,-1,2);
-		final DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
-
-		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
-				new EstimatorToGenerator<Se3_F64,Point2D3D>(estimator);
+		final PnPDistanceReprojectionSq distance = new PnPDistanceReprojectionSq();
 
 		// 1/2 a pixel tolerance for RANSAC inliers
 		double ransacTOL = inlierPixelTol * inlierPixelTol;
 
-		ModelMatcher<Se3_F64, Point2D3D> motion =
-				new Ransac<Se3_F64, Point2D3D>(2323, manager, generator, distance, ransacIterations, ransacTOL);
+		ModelMatcher<Se3_F64, Point2D3D> motion = robustPnP(distance, ransacIterations, ransacTOL, concurrent);
 
 		RefinePnP refine = null;
 
@@ -241,21 +262,37 @@ public class FactoryVisualOdometry {
 												 DepthSparse3D<Depth> sparseDepth,
 												 PointTrackerTwoPass<Vis> tracker ,
 												 Class<Vis> visualType , Class<Depth> depthType ) {
+		return depthDepthPnP(inlierPixelTol,thresholdAdd,thresholdRetire,ransacIterations,refineIterations,doublePass,
+				sparseDepth,tracker,visualType,depthType,false);
+	}
+
+	/**
+	 * Same as {@link #depthDepthPnP(double, int, int, int, int, boolean, DepthSparse3D, PointTrackerTwoPass, Class, Class)}
+	 * but can evaluate RANSAC hypotheses using multiple threads.
+	 *
+	 * @param concurrent If true then RANSAC hypotheses are evaluated using multiple threads.
+	 */
+	public static <Vis extends ImageSingleBand, Depth extends ImageSingleBand>
+	DepthVisualOdometry<Vis,Depth> depthDepthPnP(double inlierPixelTol,
+												 int thresholdAdd,
+												 int thresholdRetire ,
+												 int ransacIterations ,
+												 int refineIterations ,
+												 boolean doublePass ,
+												 DepthSparse3D<Depth> sparseDepth,
+												 PointTrackerTwoPass<Vis> tracker ,
+												 Class<Vis> visualType , Class<Depth> depthType ,
+												 boolean concurrent ) {
 
 		// Range from sparse disparity
 		ImagePixelTo3D pixelTo3D = new DepthSparse3D_to_PixelTo3D<Depth>(sparseDepth);
 
-		Estimate1ofPnP estimator = FactoryMultiView.computePnP_1(EnumPNP.P3P_FINSTERWALDER,-1,2);
-		final DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
-
-		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator = new EstimatorToGenerator<Se3_F64,Point2D3D>(estimator);
+		final PnPDistanceReprojectionSq distance = new PnPDistanceReprojectionSq();
 
 		// 1/2 a pixel tolerance for RANSAC inliers
 		double ransacTOL = inlierPixelTol * inlierPixelTol;
 
-		ModelMatcher<Se3_F64, Point2D3D> motion =
-				new Ransac<Se3_F64, Point2D3D>(2323, manager, generator, distance, ransacIterations, ransacTOL);
+		ModelMatcher<Se3_F64, Point2D3D> motion = robustPnP(distance, ransacIterations, ransacTOL, concurrent);
 
 		RefinePnP refine = null;
 
@@ -279,7 +316,7 @@ public class FactoryVisualOdometry {
 	 * @param thresholdRetire When a feature has not been in the inlier list for this many ticks it is dropped
 	 * @param inlierPixelTol Tolerance in pixels for defining an inlier during robust model matching.  Typically 1.5
 	 * @param epipolarPixelTol Tolerance in pixels for enforcing the epipolar constraint
-	 * @param ransacIterations Number of iterations performed by RANSAC.  Try 300 or more.
+	 * @param ransacIterations Maximum number of iterations performed by RANSAC.  Try 300 or more.
 	 * @param refineIterations Number of iterations done during non-linear optimization.  Try 50 or more.
 	 * @param trackerLeft Tracker used for left camera
 	 * @param trackerRight Tracker used for right camera
@@ -296,19 +333,74 @@ public class FactoryVisualOdometry {
 												 DescribeRegionPoint<T,Desc> descriptor,
 												 Class<T> imageType)
 	{
-		EstimateNofPnP pnp = FactoryMultiView.computePnP_N(EnumPNP.P3P_FINSTERWALDER, -1);
+		return stereoDualTrackerPnP(thresholdAdd,thresholdRetire,inlierPixelTol,epipolarPixelTol,ransacIterations,
+				refineIterations,trackerLeft,trackerRight,descriptor,imageType,false);
+	}
+
+	/**
+	 * Same as {@link #stereoDualTrackerPnP(int, int, double, double, int, int, PointTracker, PointTracker, DescribeRegionPoint, Class)}
+	 * but can evaluate RANSAC hypotheses using multiple threads.
+	 *
+	 * @param concurrent If true then RANSAC hypotheses are evaluated using multiple threads.
+	 */
+	public static <T extends ImageSingleBand, Desc extends TupleDesc>
+	StereoVisualOdometry<T> stereoDualTrackerPnP(int thresholdAdd, int thresholdRetire,
+												 double inlierPixelTol,
+												 double epipolarPixelTol,
+												 int ransacIterations,
+												 int refineIterations,
+												 PointTracker<T> trackerLeft, PointTracker<T> trackerRight,
+												 DescribeRegionPoint<T,Desc> descriptor,
+												 Class<T> imageType,
+												 boolean concurrent )
+	{
+		return stereoDualTrackerPnP(thresholdAdd,thresholdRetire,inlierPixelTol,epipolarPixelTol,ransacIterations,
+				refineIterations,trackerLeft,trackerRight,descriptor,imageType,concurrent,false);
+	}
+
+	/**
+	 * Same as {@link #stereoDualTrackerPnP(int, int, double, double, int, int, PointTracker, PointTracker, DescribeRegionPoint, Class, boolean)}
+	 * but can draw RANSAC samples from the tracks with the best association scores first, see {@link Prosac}.
+	 * The score of a stereo observation is the sum of its left and right track scores.  Only helps if the trackers
+	 * associate features, e.g. {@link boofcv.abst.feature.tracker.DetectDescribeAssociate}.
+	 *
+	 * @param guidedSampling If true then samples are drawn from the best tracks first.  Can't be used with concurrent.
+	 */
+	public static <T extends ImageSingleBand, Desc extends TupleDesc>
+	StereoVisualOdometry<T> stereoDualTrackerPnP(int thresholdAdd, int thresholdRetire,
+												 double inlierPixelTol,
+												 double epipolarPixelTol,
+												 int ransacIterations,
+												 int refineIterations,
+												 PointTracker<T> trackerLeft, PointTracker<T> trackerRight,
+												 DescribeRegionPoint<T,Desc> descriptor,
+												 Class<T> imageType,
+												 boolean concurrent , boolean guidedSampling )
+	{
+		if( concurrent && guidedSampling )
+			throw new IllegalArgumentException("Guided sampling isn't supported by the concurrent matcher");
+
 		DistanceModelMonoPixels<Se3_F64,Point2D3D> distanceMono = new PnPDistanceReprojectionSq();
 		PnPStereoDistanceReprojectionSq distanceStereo = new PnPStereoDistanceReprojectionSq();
-		PnPStereoEstimator pnpStereo = new PnPStereoEstimator(pnp,distanceMono,0);
-
-		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Stereo2D3D> generator = new EstimatorToGenerator<Se3_F64,Stereo2D3D>(pnpStereo);
+		PnPStereoEstimator pnpStereo = createPnPStereo(distanceMono);
 
 		// Pixel tolerance for RANSAC inliers - euclidean error squared from left + right images
 		double ransacTOL = 2*inlierPixelTol * inlierPixelTol;
 
-		ModelMatcher<Se3_F64, Stereo2D3D> motion =
-				new Ransac<Se3_F64, Stereo2D3D>(2323, manager, generator, distanceStereo, ransacIterations, ransacTOL);
+		ModelMatcher<Se3_F64, Stereo2D3D> motion;
+		if( guidedSampling ) {
+			PointFitScore<Stereo2D3D> trackScore = new PointFitScore<Stereo2D3D>() {
+				@Override
+				public double fitScore(Stereo2D3D point) {
+					return point.fitScore;
+				}
+			};
+			motion = new Prosac<Se3_F64, Stereo2D3D>(2323, new ModelManagerSe3_F64(),
+					new EstimatorToGenerator<Se3_F64,Stereo2D3D>(pnpStereo), distanceStereo, trackScore,
+					ransacIterations, ransacTOL);
+		} else {
+			motion = robustStereoPnP(pnpStereo, distanceStereo, ransacIterations, ransacTOL, concurrent);
+		}
 
 		RefinePnPStereo refinePnP = null;
 
@@ -350,19 +442,36 @@ public class FactoryVisualOdometry {
 										   DetectDescribeMulti<T,Desc> detector,
 										   Class<T> imageType )
 	{
-		EstimateNofPnP pnp = FactoryMultiView.computePnP_N(EnumPNP.P3P_FINSTERWALDER, -1);
+		return stereoQuadPnP(inlierPixelTol,epipolarPixelTol,maxDistanceF2F,maxAssociationError,ransacIterations,
+				refineIterations,detector,imageType,false);
+	}
+
+	/**
+	 * Same as {@link #stereoQuadPnP(double, double, double, double, int, int, DetectDescribeMulti, Class)}
+	 * but can evaluate RANSAC hypotheses using multiple threads.
+	 *
+	 * @param concurrent If true then RANSAC hypotheses are evaluated using multiple threads.
+	 */
+	public static <T extends ImageSingleBand,Desc extends TupleDesc>
+	StereoVisualOdometry<T> stereoQuadPnP( double inlierPixelTol ,
+										   double epipolarPixelTol ,
+										   double maxDistanceF2F,
+										   double maxAssociationError,
+										   int ransacIterations ,
+										   int refineIterations ,
+										   DetectDescribeMulti<T,Desc> detector,
+										   Class<T> imageType ,
+										   boolean concurrent )
+	{
 		DistanceModelMonoPixels<Se3_F64,Point2D3D> distanceMono = new PnPDistanceReprojectionSq();
 		PnPStereoDistanceReprojectionSq distanceStereo = new PnPStereoDistanceReprojectionSq();
-		PnPStereoEstimator pnpStereo = new PnPStereoEstimator(pnp,distanceMono,0);
-
-		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Stereo2D3D> generator = new EstimatorToGenerator<Se3_F64,Stereo2D3D>(pnpStereo);
+		PnPStereoEstimator pnpStereo = createPnPStereo(distanceMono);
 
 		// Pixel tolerance for RANSAC inliers - euclidean error squared from left + right images
 		double ransacTOL = 2*inlierPixelTol * inlierPixelTol;
 
 		ModelMatcher<Se3_F64, Stereo2D3D> motion =
-				new Ransac<Se3_F64, Stereo2D3D>(2323, manager, generator, distanceStereo, ransacIterations, ransacTOL);
+				robustStereoPnP(pnpStereo, distanceStereo, ransacIterations, ransacTOL, concurrent);
 
 		RefinePnPStereo refinePnP = null;
 
@@ -390,6 +499,112 @@ public class FactoryVisualOdometry {
 		return new WrapVisOdomQuadPnP<T,Desc>(alg,refinePnP,associateStereo,distanceStereo,distanceMono,imageType);
 	}
 
+	/**
+	 * Creates the robust estimator for motion from monocular observations of points with known 3D locations.
+	 * When concurrent each thread has its own estimator and distance function.
+	 */
+	private static ModelMatcher<Se3_F64, Point2D3D> robustPnP( PnPDistanceReprojectionSq distance ,
+															   int ransacIterations , double ransacTOL ,
+															   boolean concurrent ) {
+		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
+		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
+				new EstimatorToGenerator<Se3_F64,Point2D3D>(createPnP());
+
+		if( !concurrent )
+			return new RansacAdaptive<Se3_F64, Point2D3D>(2323, manager, generator, distance, ransacIterations, ransacTOL);
+
+		WorkerCopyFactory<ModelGenerator<Se3_F64,Point2D3D>> generators =
+				new WorkerCopyFactory<ModelGenerator<Se3_F64,Point2D3D>>() {
+			@Override
+			public ModelGenerator<Se3_F64, Point2D3D> create() {
+				return new EstimatorToGenerator<Se3_F64,Point2D3D>(createPnP());
+			}
+
+			@Override
+			public void copyState(ModelGenerator<Se3_F64, Point2D3D> original,
+								  ModelGenerator<Se3_F64, Point2D3D> worker) {
+				// the estimator has no state which is configured after construction
+			}
+		};
+
+		WorkerCopyFactory<DistanceFromModel<Se3_F64,Point2D3D>> distances =
+				new WorkerCopyFactory<DistanceFromModel<Se3_F64,Point2D3D>>() {
+			@Override
+			public DistanceFromModel<Se3_F64, Point2D3D> create() {
+				return new PnPDistanceReprojectionSq();
+			}
+
+			@Override
+			public void copyState(DistanceFromModel<Se3_F64, Point2D3D> original,
+								  DistanceFromModel<Se3_F64, Point2D3D> worker) {
+				((PnPDistanceReprojectionSq)worker).setTo((PnPDistanceReprojectionSq)original);
+			}
+		};
+
+		return new RansacAdaptive_MT<Se3_F64, Point2D3D>(2323, manager, generator, distance,
+				generators, distances, ransacIterations, ransacTOL);
+	}
+
+	/**
+	 * Creates the robust estimator for motion from stereo observations of points with known 3D locations.
+	 * When concurrent each thread has its own estimator and distance function.
+	 */
+	private static ModelMatcher<Se3_F64, Stereo2D3D> robustStereoPnP( PnPStereoEstimator pnpStereo ,
+																	  PnPStereoDistanceReprojectionSq distance ,
+																	  int ransacIterations , double ransacTOL ,
+																	  boolean concurrent ) {
+		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
+		EstimatorToGenerator<Se3_F64,Stereo2D3D> generator = new EstimatorToGenerator<Se3_F64,Stereo2D3D>(pnpStereo);
+
+		if( !concurrent )
+			return new RansacAdaptive<Se3_F64, Stereo2D3D>(2323, manager, generator, distance, ransacIterations, ransacTOL);
+
+		WorkerCopyFactory<ModelGenerator<Se3_F64,Stereo2D3D>> generators =
+				new WorkerCopyFactory<ModelGenerator<Se3_F64,Stereo2D3D>>() {
+			@Override
+			public ModelGenerator<Se3_F64, Stereo2D3D> create() {
+				PnPStereoEstimator alg = createPnPStereo(new PnPDistanceReprojectionSq());
+				return new EstimatorToGenerator<Se3_F64,Stereo2D3D>(alg);
+			}
+
+			@Override
+			public void copyState(ModelGenerator<Se3_F64, Stereo2D3D> original,
+								  ModelGenerator<Se3_F64, Stereo2D3D> worker) {
+				PnPStereoEstimator a = (PnPStereoEstimator)((EstimatorToGenerator)original).getEstimator();
+				PnPStereoEstimator b = (PnPStereoEstimator)((EstimatorToGenerator)worker).getEstimator();
+
+				b.getLeftToRight().set(a.getLeftToRight());
+				((PnPDistanceReprojectionSq)b.getDistance()).setTo((PnPDistanceReprojectionSq)a.getDistance());
+			}
+		};
+
+		WorkerCopyFactory<DistanceFromModel<Se3_F64,Stereo2D3D>> distances =
+				new WorkerCopyFactory<DistanceFromModel<Se3_F64,Stereo2D3D>>() {
+			@Override
+			public DistanceFromModel<Se3_F64, Stereo2D3D> create() {
+				return new PnPStereoDistanceReprojectionSq();
+			}
+
+			@Override
+			public void copyState(DistanceFromModel<Se3_F64, Stereo2D3D> original,
+								  DistanceFromModel<Se3_F64, Stereo2D3D> worker) {
+				((PnPStereoDistanceReprojectionSq)worker).setTo((PnPStereoDistanceReprojectionSq)original);
+			}
+		};
+
+		return new RansacAdaptive_MT<Se3_F64, Stereo2D3D>(2323, manager, generator, distance,
+				generators, distances, ransacIterations, ransacTOL);
+	}
+
+	private static Estimate1ofPnP createPnP() {
+		return FactoryMultiView.computePnP_1(EnumPNP.P3P_FINSTERWALDER,-1,2);
+	}
+
+	private static PnPStereoEstimator createPnPStereo( DistanceFromModel<Se3_F64,Point2D3D> distanceMono ) {
+		EstimateNofPnP pnp = FactoryMultiView.computePnP_N(EnumPNP.P3P_FINSTERWALDER, -1);
+		return new PnPStereoEstimator(pnp,distanceMono,0);
+	}
+
 	/**
 	 * Wraps around a {@link StereoVisualOdometry} instance and will rescale the input images and adjust the cameras
 	 * intrinsic parameters automatically.  Rescaling input images is often an easy way to improve runtime performance
@@ -34,6 +34,9 @@ public class Stereo2D3D {
 	// 3D coordinate of the point
 	public Point3D_F64 location = new Point3D_F64();
 
+	// fit score of the feature associations, lower is better.  Optional.
+	public double fitScore;
+
 	public Stereo2D3D(Point2D_F64 leftObs, Point2D_F64 rightObs, Point3D_F64 location) {
 		this.leftObs = leftObs;
 		this.rightObs = rightObs;
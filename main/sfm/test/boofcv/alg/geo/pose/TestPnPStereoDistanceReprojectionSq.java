@@ -160,4 +160,33 @@ public class TestPnPStereoDistanceReprojectionSq extends CommonStereoMotionNPoin
 		for( int i = 0; i < N; i++ )
 			assertEquals(expected[i],found[i],1e-8);
 	}
+
+	/**
+	 * The copy should compute the same distance as the original
+	 */
+	@Test
+	public void setTo() {
+		Point3D_F64 X = new Point3D_F64(0.1,-0.04,2.3);
+
+		DenseMatrix64F K_left = PerspectiveOps.calibrationMatrix(param.left,null);
+		DenseMatrix64F K_right = PerspectiveOps.calibrationMatrix(param.right,null);
+
+		Point2D_F64 obsLeft = PerspectiveOps.renderPixel(worldToLeft, K_left, X);
+		obsLeft.x += 0.1;
+		Point2D_F64 obsRight = PerspectiveOps.renderPixel(worldToRight, K_right, X);
+		obsRight.y += 0.2;
+		PerspectiveOps.convertPixelToNorm(K_left,obsLeft,obsLeft);
+		PerspectiveOps.convertPixelToNorm(K_right,obsRight,obsRight);
+		Stereo2D3D p = new Stereo2D3D(obsLeft,obsRight,X);
+
+		PnPStereoDistanceReprojectionSq original = new PnPStereoDistanceReprojectionSq();
+		original.setStereoParameters(param);
+		original.setModel(worldToLeft);
+
+		PnPStereoDistanceReprojectionSq alg = new PnPStereoDistanceReprojectionSq();
+		alg.setTo(original);
+		alg.setModel(worldToLeft);
+
+		assertEquals(original.computeDistance(p),alg.computeDistance(p),1e-12);
+	}
 }
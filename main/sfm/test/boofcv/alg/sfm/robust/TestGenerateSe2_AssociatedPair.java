@@ -24,6 +24,7 @@ import georegression.fitting.se.MotionSe2PointSVD_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.junit.Test;
 
@@ -37,6 +38,20 @@ public class TestGenerateSe2_AssociatedPair implements ModelTestingInterface<Se2
 {
 	Random rand = new Random(234);
 
+	@Test
+	public void fitModel() {
+		StandardModelFitterTests<Se2_F64,AssociatedPair> alg =
+				new StandardModelFitterTests<Se2_F64,AssociatedPair>(this,3) {
+					@Override
+					public ModelFitter<Se2_F64,AssociatedPair> createAlg() {
+						MotionTransformPoint<Se2_F64, Point2D_F64> alg = new MotionSe2PointSVD_F64();
+						return new GenerateSe2_AssociatedPair(alg);
+					}
+				};
+
+		alg.simpleTest();
+	}
+
 	@Test
 	public void modelGenerator() {
 		StandardModelGeneratorTests<Se2_F64,AssociatedPair> alg =